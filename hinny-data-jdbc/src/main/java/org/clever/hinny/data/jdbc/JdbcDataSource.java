@@ -5,6 +5,8 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.core.metadata.OrderItem;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.toolkit.JdbcUtils;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import com.zaxxer.hikari.HikariPoolMXBean;
@@ -14,12 +16,20 @@ import org.clever.common.model.request.QueryByPage;
 import org.clever.common.model.request.QueryBySort;
 import org.clever.common.utils.tuples.TupleTow;
 import org.clever.hinny.data.common.AbstractDataSource;
+import org.clever.hinny.data.jdbc.dialects.IDialect;
 import org.clever.hinny.data.jdbc.support.*;
-import org.springframework.jdbc.core.ColumnMapRowMapper;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.jdbc.core.PreparedStatementCreatorFactory;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.SqlParameter;
 import org.springframework.jdbc.core.namedparam.EmptySqlParameterSource;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+import org.springframework.jdbc.core.namedparam.ParsedSql;
 import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
@@ -27,15 +37,27 @@ import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.support.DefaultTransactionDefinition;
 import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.Assert;
 
 import javax.sql.DataSource;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Jdbc 数据库操作封装
@@ -65,11 +87,39 @@ public class JdbcDataSource extends AbstractDataSource {
      * 设置游标读取数据时，单批次的数据读取量(值不能太大也不能太小)
      */
     private static final int Fetch_Size = 500;
+    /**
+     * 批量插入数据时，单条insert语句默认最多插入的数据行数
+     */
+    private static final int Default_Insert_Batch_Size = 500;
+    /**
+     * 分页查询时count查询默认不并行执行
+     */
+    private static final boolean Default_Parallel_Count = false;
+    /**
+     * 并行分页查询线程池默认最大线程数(非Hikari连接池时使用)
+     */
+    private static final int Default_Page_Query_Threads = 4;
+    /**
+     * 并行分页查询线程池任务队列大小(相对于线程数的倍数)
+     */
+    private static final int Page_Query_Queue_Multiple = 4;
+    /**
+     * 分页查询数据总量缓存最大数量
+     */
+    private static final int Count_Total_Cache_Size = 4096;
+    /**
+     * 解析PostgreSQL执行计划中的估算行数
+     */
+    private static final Pattern Explain_Rows_Pattern = Pattern.compile("rows=(\\d+)");
     /**
      * 事务名称前缀
      */
     private static final String Transaction_Name_Prefix = "TX";
 
+    /**
+     * 数据库连接地址
+     */
+    private final String jdbcUrl;
     /**
      * 数据库类型
      */
@@ -90,6 +140,30 @@ public class JdbcDataSource extends AbstractDataSource {
      * 数据源管理器
      */
     private final DataSourceTransactionManager transactionManager;
+    /**
+     * SQL执行计划缓存(解析后的SQL、排序SQL、分页SQL、count SQL)
+     */
+    private final SqlPlanCache sqlPlanCache;
+    /**
+     * 分页查询数据总量缓存(key: count SQL + 参数)
+     */
+    private final Cache<String, CachedTotal> countTotalCache;
+    /**
+     * 并行分页查询线程池(懒加载)
+     */
+    private volatile ExecutorService pageQueryExecutor;
+    /**
+     * 创建当前对象的原始数据源(使用 {@link #withOptions(QueryOptions)} 创建时才有值)
+     */
+    private final JdbcDataSource parent;
+    /**
+     * SQL执行配置(使用 {@link #withOptions(QueryOptions)} 创建时才有值)
+     */
+    private final QueryOptions queryOptions;
+    /**
+     * 查询结果缓存(为null表示不使用缓存)
+     */
+    private volatile ResultCache resultCache;
 
     /**
      * 使用Hikari连接池配置初始化数据源，创建对象
@@ -99,13 +173,41 @@ public class JdbcDataSource extends AbstractDataSource {
     public JdbcDataSource(HikariConfig hikariConfig) {
         Assert.notNull(hikariConfig, "HikariConfig不能为空");
         this.dataSource = new HikariDataSource(hikariConfig);
-        this.jdbcTemplate = new NamedParameterJdbcTemplate(this.dataSource);
+        this.parent = null;
+        this.queryOptions = null;
+        this.sqlPlanCache = new SqlPlanCache();
+        this.countTotalCache = newCountTotalCache();
+        this.jdbcTemplate = new PlanCachedNamedParameterJdbcTemplate(this.dataSource, this.sqlPlanCache);
         this.jdbcTemplate.getJdbcTemplate().setFetchSize(Fetch_Size);
+        this.jdbcUrl = getJdbcUrl();
         this.dbType = getDbType();
         this.transactionManager = new DataSourceTransactionManager(this.dataSource);
         initCheck();
     }
 
+    /**
+     * 使用读写分离模式创建对象(一个主库，多个从库)<br/>
+     * 只读事务和事务外的查询使用从库，写事务和更新操作使用主库
+     *
+     * @param primaryConfig  主库连接池配置
+     * @param replicaConfigs 从库连接池配置
+     * @param routingConfig  读写分离路由配置(可选)
+     */
+    public JdbcDataSource(HikariConfig primaryConfig, List<HikariConfig> replicaConfigs, RoutingConfig routingConfig) {
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(primaryConfig, replicaConfigs, routingConfig);
+        this.dataSource = routingDataSource;
+        this.parent = null;
+        this.queryOptions = null;
+        this.sqlPlanCache = new SqlPlanCache();
+        this.countTotalCache = newCountTotalCache();
+        this.jdbcTemplate = new PlanCachedNamedParameterJdbcTemplate(new ReadRoutingJdbcTemplate(this.dataSource), this.sqlPlanCache);
+        this.jdbcTemplate.getJdbcTemplate().setFetchSize(Fetch_Size);
+        this.jdbcUrl = routingDataSource.getPrimary().getJdbcUrl();
+        this.dbType = getDbType();
+        this.transactionManager = new RoutingTransactionManager(routingDataSource);
+        initCheck();
+    }
+
     /**
      * 使用DataSource创建对象
      *
@@ -114,8 +216,13 @@ public class JdbcDataSource extends AbstractDataSource {
     public JdbcDataSource(DataSource dataSource) {
         Assert.notNull(dataSource, "DataSource不能为空");
         this.dataSource = dataSource;
-        this.jdbcTemplate = new NamedParameterJdbcTemplate(this.dataSource);
+        this.parent = null;
+        this.queryOptions = null;
+        this.sqlPlanCache = new SqlPlanCache();
+        this.countTotalCache = newCountTotalCache();
+        this.jdbcTemplate = new PlanCachedNamedParameterJdbcTemplate(this.dataSource, this.sqlPlanCache);
         this.jdbcTemplate.getJdbcTemplate().setFetchSize(Fetch_Size);
+        this.jdbcUrl = getJdbcUrl();
         this.dbType = getDbType();
         this.transactionManager = new DataSourceTransactionManager(this.dataSource);
         initCheck();
@@ -128,8 +235,13 @@ public class JdbcDataSource extends AbstractDataSource {
         Assert.notNull(jdbcTemplate, "JdbcTemplate不能为空");
         this.dataSource = jdbcTemplate.getDataSource();
         Assert.notNull(this.dataSource, "DataSource不能为空");
-        this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.parent = null;
+        this.queryOptions = null;
+        this.sqlPlanCache = new SqlPlanCache();
+        this.countTotalCache = newCountTotalCache();
+        this.jdbcTemplate = new PlanCachedNamedParameterJdbcTemplate(jdbcTemplate, this.sqlPlanCache);
         this.jdbcTemplate.getJdbcTemplate().setFetchSize(Fetch_Size);
+        this.jdbcUrl = getJdbcUrl();
         this.dbType = getDbType();
         this.transactionManager = new DataSourceTransactionManager(this.dataSource);
         initCheck();
@@ -142,26 +254,60 @@ public class JdbcDataSource extends AbstractDataSource {
         Assert.notNull(namedParameterJdbcTemplate, "NamedParameterJdbcTemplate不能为空");
         this.dataSource = namedParameterJdbcTemplate.getJdbcTemplate().getDataSource();
         Assert.notNull(this.dataSource, "DataSource不能为空");
-        this.jdbcTemplate = namedParameterJdbcTemplate;
+        this.parent = null;
+        this.queryOptions = null;
+        this.sqlPlanCache = new SqlPlanCache();
+        this.countTotalCache = newCountTotalCache();
+        this.jdbcTemplate = new PlanCachedNamedParameterJdbcTemplate(namedParameterJdbcTemplate.getJdbcOperations(), this.sqlPlanCache);
         this.jdbcTemplate.getJdbcTemplate().setFetchSize(Fetch_Size);
+        this.jdbcUrl = getJdbcUrl();
         this.dbType = getDbType();
         this.transactionManager = new DataSourceTransactionManager(this.dataSource);
         initCheck();
     }
 
     /**
-     * 获取数据库类型
+     * 基于原始数据源创建使用指定SQL执行配置的数据源(共享连接池、事务管理器和缓存，关闭操作无效)
      */
-    public DbType getDbType() {
-        if (this.dbType != null) {
-            return this.dbType;
+    private JdbcDataSource(JdbcDataSource parent, QueryOptions queryOptions) {
+        this.parent = parent;
+        this.queryOptions = queryOptions;
+        this.dataSource = parent.dataSource;
+        this.jdbcUrl = parent.jdbcUrl;
+        this.dbType = parent.dbType;
+        this.transactionManager = parent.transactionManager;
+        this.sqlPlanCache = parent.sqlPlanCache;
+        this.countTotalCache = parent.countTotalCache;
+        // 复制原始数据源JdbcTemplate的配置(包括用户传入的JdbcTemplate配置)
+        OptionsJdbcTemplate optionsJdbcTemplate = new OptionsJdbcTemplate(parent.jdbcTemplate.getJdbcTemplate(), queryOptions);
+        this.jdbcTemplate = new PlanCachedNamedParameterJdbcTemplate(optionsJdbcTemplate, this.sqlPlanCache);
+    }
+
+    /**
+     * 创建使用指定SQL执行配置(超时时间、最大行数、fetchSize、取消句柄)的数据源<br/>
+     * 返回的数据源与当前数据源共享连接池、事务管理器和缓存，调用其close方法不会关闭连接池
+     *
+     * @param queryOptions SQL执行配置
+     */
+    public JdbcDataSource withOptions(QueryOptions queryOptions) {
+        Assert.notNull(queryOptions, "SQL执行配置不能为空");
+        JdbcDataSource root = parent == null ? this : parent;
+        return new JdbcDataSource(root, queryOptions);
+    }
+
+    /**
+     * 获取数据库连接地址
+     */
+    public String getJdbcUrl() {
+        if (this.jdbcUrl != null) {
+            return this.jdbcUrl;
         }
         Connection connection = null;
         try {
             connection = dataSource.getConnection();
-            return JdbcUtils.getDbType(connection.getMetaData().getURL());
+            return connection.getMetaData().getURL();
         } catch (Throwable e) {
-            throw new RuntimeException("读取数据库类型失败", e);
+            throw new RuntimeException("读取数据库连接地址失败", e);
         } finally {
             if (connection != null) {
                 org.springframework.jdbc.support.JdbcUtils.closeConnection(connection);
@@ -169,6 +315,20 @@ public class JdbcDataSource extends AbstractDataSource {
         }
     }
 
+    /**
+     * 获取数据库类型
+     */
+    public DbType getDbType() {
+        if (this.dbType != null) {
+            return this.dbType;
+        }
+        try {
+            return JdbcUtils.getDbType(getJdbcUrl());
+        } catch (Throwable e) {
+            throw new RuntimeException("读取数据库类型失败", e);
+        }
+    }
+
     /**
      * 校验数据源是否可用
      */
@@ -179,6 +339,12 @@ public class JdbcDataSource extends AbstractDataSource {
 
     @Override
     public boolean isClosed() {
+        if (parent != null) {
+            return parent.isClosed();
+        }
+        if (dataSource instanceof ReadWriteRoutingDataSource) {
+            return ((ReadWriteRoutingDataSource) dataSource).isClosed();
+        }
         if (dataSource instanceof HikariDataSource) {
             HikariDataSource hikariDataSource = (HikariDataSource) dataSource;
             return hikariDataSource.isClosed();
@@ -188,10 +354,20 @@ public class JdbcDataSource extends AbstractDataSource {
 
     @Override
     public void close() throws Exception {
-        if (closed) {
+        // 使用 withOptions 创建的数据源不能关闭共享的连接池
+        if (closed || parent != null) {
             return;
         }
-        if (dataSource instanceof HikariDataSource) {
+        if (pageQueryExecutor != null) {
+            pageQueryExecutor.shutdownNow();
+        }
+        if (dataSource instanceof ReadWriteRoutingDataSource) {
+            ReadWriteRoutingDataSource routingDataSource = (ReadWriteRoutingDataSource) dataSource;
+            if (!routingDataSource.isClosed()) {
+                super.close();
+                routingDataSource.close();
+            }
+        } else if (dataSource instanceof HikariDataSource) {
             HikariDataSource hikariDataSource = (HikariDataSource) dataSource;
             if (!hikariDataSource.isClosed()) {
                 super.close();
@@ -216,13 +392,12 @@ public class JdbcDataSource extends AbstractDataSource {
     public Map<String, Object> queryMap(String sql, Map<String, Object> paramMap, boolean underlineToCamel) {
         Assert.hasText(sql, "sql不能为空");
         sql = StringUtils.trim(sql);
-        SqlLoggerUtils.printfSql(sql, paramMap);
-        Map<String, Object> res = jdbcTemplate.queryForObject(sql, paramMap, new ColumnMapRowMapper());
-        SqlLoggerUtils.printfTotal(res);
-        if (underlineToCamel) {
-            res = UnderlineToCamelUtils.underlineToCamel(res);
+        final ResultCache cache = getUsableResultCache();
+        if (cache != null) {
+            final String cacheSql = sql;
+            return cache.get(cacheSql, paramMap, underlineToCamel, () -> doQueryMap(cacheSql, paramMap, underlineToCamel));
         }
-        return res;
+        return doQueryMap(sql, paramMap, underlineToCamel);
     }
 
     /**
@@ -264,13 +439,12 @@ public class JdbcDataSource extends AbstractDataSource {
     public List<Map<String, Object>> queryList(String sql, Map<String, Object> paramMap, boolean underlineToCamel) {
         Assert.hasText(sql, "sql不能为空");
         sql = StringUtils.trim(sql);
-        SqlLoggerUtils.printfSql(sql, paramMap);
-        List<Map<String, Object>> resList = jdbcTemplate.queryForList(sql, paramMap);
-        SqlLoggerUtils.printfTotal(resList);
-        if (underlineToCamel) {
-            resList = UnderlineToCamelUtils.underlineToCamel(resList);
+        final ResultCache cache = getUsableResultCache();
+        if (cache != null) {
+            final String cacheSql = sql;
+            return cache.get(cacheSql, paramMap, underlineToCamel, () -> doQueryList(cacheSql, paramMap, underlineToCamel));
         }
-        return resList;
+        return doQueryList(sql, paramMap, underlineToCamel);
     }
 
     /**
@@ -302,6 +476,35 @@ public class JdbcDataSource extends AbstractDataSource {
         return queryList(sql, Collections.emptyMap(), Default_UnderlineToCamel);
     }
 
+    /**
+     * 查询多条数据，返回JavaBean数组(列名忽略大小写和下划线匹配属性名，数据直接读取到JavaBean)
+     *
+     * @param sql      sql脚本，参数格式[:param]
+     * @param paramMap 参数(可选)，参数格式[:param]
+     * @param clazz    数据类型(需要无参构造函数和setter)
+     */
+    public <T> List<T> queryList(String sql, Map<String, Object> paramMap, Class<T> clazz) {
+        Assert.hasText(sql, "sql不能为空");
+        Assert.notNull(clazz, "数据类型不能为空");
+        sql = StringUtils.trim(sql);
+        try (SqlStatistics.Frame ignored = SqlStatistics.begin(sql, paramMap)) {
+            SqlLoggerUtils.printfSql(sql, paramMap);
+            List<T> resList = jdbcTemplate.query(sql, paramMap, new BeanRowMapper<>(clazz));
+            SqlLoggerUtils.printfTotal(resList);
+            return resList;
+        }
+    }
+
+    /**
+     * 查询多条数据，返回JavaBean数组(列名忽略大小写和下划线匹配属性名，数据直接读取到JavaBean)
+     *
+     * @param sql   sql脚本，参数格式[:param]
+     * @param clazz 数据类型(需要无参构造函数和setter)
+     */
+    public <T> List<T> queryList(String sql, Class<T> clazz) {
+        return queryList(sql, Collections.emptyMap(), clazz);
+    }
+
     /**
      * 查询返回一个 String
      *
@@ -311,10 +514,12 @@ public class JdbcDataSource extends AbstractDataSource {
     public String queryString(String sql, Map<String, Object> paramMap) {
         Assert.hasText(sql, "sql不能为空");
         sql = StringUtils.trim(sql);
-        SqlLoggerUtils.printfSql(sql, paramMap);
-        String res = jdbcTemplate.queryForObject(sql, paramMap, String.class);
-        SqlLoggerUtils.printfTotal(res);
-        return res;
+        try (SqlStatistics.Frame ignored = SqlStatistics.begin(sql, paramMap)) {
+            SqlLoggerUtils.printfSql(sql, paramMap);
+            String res = jdbcTemplate.queryForObject(sql, paramMap, String.class);
+            SqlLoggerUtils.printfTotal(res);
+            return res;
+        }
     }
 
     /**
@@ -335,10 +540,12 @@ public class JdbcDataSource extends AbstractDataSource {
     public Long queryLong(String sql, Map<String, Object> paramMap) {
         Assert.hasText(sql, "sql不能为空");
         sql = StringUtils.trim(sql);
-        SqlLoggerUtils.printfSql(sql, paramMap);
-        Long res = jdbcTemplate.queryForObject(sql, paramMap, Long.class);
-        SqlLoggerUtils.printfTotal(res);
-        return res;
+        try (SqlStatistics.Frame ignored = SqlStatistics.begin(sql, paramMap)) {
+            SqlLoggerUtils.printfSql(sql, paramMap);
+            Long res = jdbcTemplate.queryForObject(sql, paramMap, Long.class);
+            SqlLoggerUtils.printfTotal(res);
+            return res;
+        }
     }
 
     /**
@@ -359,10 +566,12 @@ public class JdbcDataSource extends AbstractDataSource {
     public Double queryDouble(String sql, Map<String, Object> paramMap) {
         Assert.hasText(sql, "sql不能为空");
         sql = StringUtils.trim(sql);
-        SqlLoggerUtils.printfSql(sql, paramMap);
-        Double res = jdbcTemplate.queryForObject(sql, paramMap, Double.class);
-        SqlLoggerUtils.printfTotal(res);
-        return res;
+        try (SqlStatistics.Frame ignored = SqlStatistics.begin(sql, paramMap)) {
+            SqlLoggerUtils.printfSql(sql, paramMap);
+            Double res = jdbcTemplate.queryForObject(sql, paramMap, Double.class);
+            SqlLoggerUtils.printfTotal(res);
+            return res;
+        }
     }
 
 
@@ -384,10 +593,12 @@ public class JdbcDataSource extends AbstractDataSource {
     public BigDecimal queryBigDecimal(String sql, Map<String, Object> paramMap) {
         Assert.hasText(sql, "sql不能为空");
         sql = StringUtils.trim(sql);
-        SqlLoggerUtils.printfSql(sql, paramMap);
-        BigDecimal res = jdbcTemplate.queryForObject(sql, paramMap, BigDecimal.class);
-        SqlLoggerUtils.printfTotal(res);
-        return res;
+        try (SqlStatistics.Frame ignored = SqlStatistics.begin(sql, paramMap)) {
+            SqlLoggerUtils.printfSql(sql, paramMap);
+            BigDecimal res = jdbcTemplate.queryForObject(sql, paramMap, BigDecimal.class);
+            SqlLoggerUtils.printfTotal(res);
+            return res;
+        }
     }
 
     /**
@@ -408,10 +619,12 @@ public class JdbcDataSource extends AbstractDataSource {
     public Boolean queryBoolean(String sql, Map<String, Object> paramMap) {
         Assert.hasText(sql, "sql不能为空");
         sql = StringUtils.trim(sql);
-        SqlLoggerUtils.printfSql(sql, paramMap);
-        Boolean res = jdbcTemplate.queryForObject(sql, paramMap, Boolean.class);
-        SqlLoggerUtils.printfTotal(res);
-        return res;
+        try (SqlStatistics.Frame ignored = SqlStatistics.begin(sql, paramMap)) {
+            SqlLoggerUtils.printfSql(sql, paramMap);
+            Boolean res = jdbcTemplate.queryForObject(sql, paramMap, Boolean.class);
+            SqlLoggerUtils.printfTotal(res);
+            return res;
+        }
     }
 
     /**
@@ -432,10 +645,12 @@ public class JdbcDataSource extends AbstractDataSource {
     public Date queryDate(String sql, Map<String, Object> paramMap) {
         Assert.hasText(sql, "sql不能为空");
         sql = StringUtils.trim(sql);
-        SqlLoggerUtils.printfSql(sql, paramMap);
-        Date res = jdbcTemplate.queryForObject(sql, paramMap, Date.class);
-        SqlLoggerUtils.printfTotal(res);
-        return res;
+        try (SqlStatistics.Frame ignored = SqlStatistics.begin(sql, paramMap)) {
+            SqlLoggerUtils.printfSql(sql, paramMap);
+            Date res = jdbcTemplate.queryForObject(sql, paramMap, Date.class);
+            SqlLoggerUtils.printfTotal(res);
+            return res;
+        }
     }
 
     /**
@@ -457,13 +672,15 @@ public class JdbcDataSource extends AbstractDataSource {
         Assert.hasText(sql, "sql不能为空");
         String countSql = SqlUtils.getCountSql(sql);
         countSql = StringUtils.trim(countSql);
-        SqlLoggerUtils.printfSql(countSql, paramMap);
-        Long total = jdbcTemplate.queryForObject(countSql, paramMap, Long.class);
-        if (total == null) {
-            total = 0L;
+        try (SqlStatistics.Frame ignored = SqlStatistics.begin(countSql, paramMap)) {
+            SqlLoggerUtils.printfSql(countSql, paramMap);
+            Long total = jdbcTemplate.queryForObject(countSql, paramMap, Long.class);
+            if (total == null) {
+                total = 0L;
+            }
+            SqlLoggerUtils.printfTotal(total);
+            return total;
         }
-        SqlLoggerUtils.printfTotal(total);
-        return total;
     }
 
     /**
@@ -488,15 +705,13 @@ public class JdbcDataSource extends AbstractDataSource {
         Assert.hasText(sql, "sql不能为空");
         Assert.notNull(consumer, "数据消费者不能为空");
         sql = StringUtils.trim(sql);
-        SqlLoggerUtils.printfSql(sql, paramMap);
-        final BatchDataReaderCallback batchDataReaderCallback = new BatchDataReaderCallback(batchSize, consumer, underlineToCamel);
-        if (paramMap == null) {
-            jdbcTemplate.query(sql, batchDataReaderCallback);
-        } else {
-            jdbcTemplate.query(sql, paramMap, batchDataReaderCallback);
+        try (SqlStatistics.Frame ignored = SqlStatistics.begin(sql, paramMap)) {
+            SqlLoggerUtils.printfSql(sql, paramMap);
+            final BatchDataReaderCallback batchDataReaderCallback = new BatchDataReaderCallback(batchSize, consumer, underlineToCamel);
+            cursorQuery(sql, paramMap, batchSize, batchDataReaderCallback);
+            batchDataReaderCallback.processEnd();
+            SqlLoggerUtils.printfTotal(batchDataReaderCallback.getRowCount());
         }
-        batchDataReaderCallback.processEnd();
-        SqlLoggerUtils.printfTotal(batchDataReaderCallback.getRowCount());
     }
 
     /**
@@ -534,6 +749,138 @@ public class JdbcDataSource extends AbstractDataSource {
         query(sql, null, batchSize, consumer, Default_UnderlineToCamel);
     }
 
+    /**
+     * 查询多条数据(大量数据)，使用游标读取，数据直接读取到JavaBean
+     *
+     * @param sql       sql脚本，参数格式[:param]
+     * @param paramMap  参数(可选)，参数格式[:param]
+     * @param batchSize 一个批次的数据量
+     * @param clazz     数据类型(需要无参构造函数和setter)
+     * @param consumer  游标批次读取数据消费者
+     */
+    public <T> void query(String sql, Map<String, Object> paramMap, int batchSize, Class<T> clazz, Consumer<List<T>> consumer) {
+        Assert.hasText(sql, "sql不能为空");
+        Assert.notNull(clazz, "数据类型不能为空");
+        Assert.notNull(consumer, "数据消费者不能为空");
+        sql = StringUtils.trim(sql);
+        try (SqlStatistics.Frame ignored = SqlStatistics.begin(sql, paramMap)) {
+            SqlLoggerUtils.printfSql(sql, paramMap);
+            final BeanBatchReaderCallback<T> beanBatchReaderCallback = new BeanBatchReaderCallback<>(batchSize, clazz, consumer);
+            cursorQuery(sql, paramMap, batchSize, beanBatchReaderCallback);
+            beanBatchReaderCallback.processEnd();
+            SqlLoggerUtils.printfTotal(beanBatchReaderCallback.getRowCount());
+        }
+    }
+
+    /**
+     * 查询多条数据(大量数据)，使用游标读取，数据直接读取到JavaBean
+     *
+     * @param sql       sql脚本，参数格式[:param]
+     * @param batchSize 一个批次的数据量
+     * @param clazz     数据类型(需要无参构造函数和setter)
+     * @param consumer  游标批次读取数据消费者
+     */
+    public <T> void query(String sql, int batchSize, Class<T> clazz, Consumer<List<T>> consumer) {
+        query(sql, null, batchSize, clazz, consumer);
+    }
+
+    /**
+     * 查询多条数据(大量数据)，使用游标读取，流水线模式：读取的批次数据放入有界队列，由工作线程处理，游标继续读取数据<br/>
+     * 总是使用数据库流式读取(参考 {@link QueryOptions#isStreaming()})，数据处理失败时会取消正在执行的SQL，并抛出处理数据的异常
+     *
+     * @param sql      sql脚本，参数格式[:param]
+     * @param paramMap 参数(可选)，参数格式[:param]
+     * @param config   流水线配置
+     * @param consumer 批次数据消费者(在工作线程中执行)
+     * @return 读取的数据总量
+     */
+    public int queryPipelined(String sql, Map<String, Object> paramMap, PipelineConfig config, Consumer<BatchData> consumer) {
+        Assert.hasText(sql, "sql不能为空");
+        Assert.notNull(config, "流水线配置不能为空");
+        Assert.notNull(consumer, "数据消费者不能为空");
+        sql = StringUtils.trim(sql);
+        final int workers = config.isOrdered() ? 1 : Math.max(config.getWorkers(), 1);
+        final BlockingQueue<ScanItem> queue = new ArrayBlockingQueue<>(Math.max(config.getQueueCapacity(), 1));
+        final ScanItem endItem = new ScanItem(0, null);
+        final AtomicBoolean cancelled = new AtomicBoolean(false);
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        // 工作线程处理失败时只取消当前查询，不影响 QueryOptions 中的取消句柄；QueryOptions 中的取消句柄可以取消当前查询
+        final QueryCanceller canceller = new QueryCanceller(queryOptions == null ? null : queryOptions.getCanceller());
+        final AtomicInteger threadIndex = new AtomicInteger(0);
+        final ExecutorService executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "pipeline-query-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        final CountDownLatch finished = new CountDownLatch(workers);
+        for (int i = 0; i < workers; i++) {
+            executor.execute(() -> {
+                try {
+                    while (!cancelled.get()) {
+                        ScanItem item = queue.poll(100, TimeUnit.MILLISECONDS);
+                        if (item == null) {
+                            continue;
+                        }
+                        if (item.batchData == null) {
+                            // 通知其他工作线程结束
+                            queue.offer(endItem);
+                            break;
+                        }
+                        consumer.accept(item.batchData);
+                    }
+                } catch (Throwable e) {
+                    error.compareAndSet(null, e);
+                    cancelled.set(true);
+                    canceller.cancel();
+                } finally {
+                    finished.countDown();
+                }
+            });
+        }
+        try (SqlStatistics.Frame ignored = SqlStatistics.begin(sql, paramMap)) {
+            SqlLoggerUtils.printfSql(sql, paramMap);
+            final BatchDataReaderCallback batchDataReaderCallback = new BatchDataReaderCallback(
+                    config.getBatchSize(),
+                    batchData -> putScanItem(queue, new ScanItem(0, batchData), cancelled),
+                    config.isUnderlineToCamel()
+            );
+            try {
+                cursorQuery(sql, paramMap, config.getBatchSize(), batchDataReaderCallback, canceller, true);
+                batchDataReaderCallback.processEnd();
+                putScanItem(queue, endItem, cancelled);
+                finished.await();
+            } catch (InterruptedException e) {
+                cancelled.set(true);
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("流水线读取数据被中断", e);
+            } catch (RuntimeException e) {
+                cancelled.set(true);
+                if (error.get() == null) {
+                    throw e;
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            if (error.get() != null) {
+                throw new RuntimeException("流水线处理数据失败", error.get());
+            }
+            SqlLoggerUtils.printfTotal(batchDataReaderCallback.getRowCount());
+            return batchDataReaderCallback.getRowCount();
+        }
+    }
+
+    /**
+     * 查询多条数据(大量数据)，使用游标读取，流水线模式：读取的批次数据放入有界队列，由工作线程处理，游标继续读取数据
+     *
+     * @param sql      sql脚本，参数格式[:param]
+     * @param config   流水线配置
+     * @param consumer 批次数据消费者(在工作线程中执行)
+     * @return 读取的数据总量
+     */
+    public int queryPipelined(String sql, PipelineConfig config, Consumer<BatchData> consumer) {
+        return queryPipelined(sql, Collections.emptyMap(), config, consumer);
+    }
+
     /**
      * 查询多条数据(大量数据)，使用游标读取
      *
@@ -546,14 +893,12 @@ public class JdbcDataSource extends AbstractDataSource {
         Assert.hasText(sql, "sql不能为空");
         Assert.notNull(consumer, "数据消费者不能为空");
         sql = StringUtils.trim(sql);
-        SqlLoggerUtils.printfSql(sql, paramMap);
-        final RowDataReaderCallback rowDataReaderCallback = new RowDataReaderCallback(consumer, underlineToCamel);
-        if (paramMap == null) {
-            jdbcTemplate.query(sql, rowDataReaderCallback);
-        } else {
-            jdbcTemplate.query(sql, paramMap, rowDataReaderCallback);
+        try (SqlStatistics.Frame ignored = SqlStatistics.begin(sql, paramMap)) {
+            SqlLoggerUtils.printfSql(sql, paramMap);
+            final RowDataReaderCallback rowDataReaderCallback = new RowDataReaderCallback(consumer, underlineToCamel);
+            cursorQuery(sql, paramMap, Fetch_Size, rowDataReaderCallback);
+            SqlLoggerUtils.printfTotal(rowDataReaderCallback.getRowCount());
         }
-        SqlLoggerUtils.printfTotal(rowDataReaderCallback.getRowCount());
     }
 
     /**
@@ -588,6 +933,197 @@ public class JdbcDataSource extends AbstractDataSource {
         query(sql, null, consumer, Default_UnderlineToCamel);
     }
 
+    /**
+     * 查询多条数据(大量数据)，使用游标读取，所有行共享一个行数据视图(不会为每一行数据创建Map)
+     *
+     * @param sql              sql脚本，参数格式[:param]
+     * @param paramMap         参数(可选)，参数格式[:param]
+     * @param consumer         游标读取数据消费者(需要保留行数据时调用 {@link RowView#copy()})
+     * @param underlineToCamel 下划线转驼峰
+     */
+    public void queryRowView(String sql, Map<String, Object> paramMap, Consumer<RowView> consumer, boolean underlineToCamel) {
+        Assert.hasText(sql, "sql不能为空");
+        Assert.notNull(consumer, "数据消费者不能为空");
+        sql = StringUtils.trim(sql);
+        try (SqlStatistics.Frame ignored = SqlStatistics.begin(sql, paramMap)) {
+            SqlLoggerUtils.printfSql(sql, paramMap);
+            final RowViewReaderCallback rowViewReaderCallback = new RowViewReaderCallback(consumer, underlineToCamel);
+            cursorQuery(sql, paramMap, Fetch_Size, rowViewReaderCallback);
+            SqlLoggerUtils.printfTotal(rowViewReaderCallback.getRowCount());
+        }
+    }
+
+    /**
+     * 查询多条数据(大量数据)，使用游标读取，所有行共享一个行数据视图(不会为每一行数据创建Map)
+     *
+     * @param sql      sql脚本，参数格式[:param]
+     * @param paramMap 参数(可选)，参数格式[:param]
+     * @param consumer 游标读取数据消费者(需要保留行数据时调用 {@link RowView#copy()})
+     */
+    public void queryRowView(String sql, Map<String, Object> paramMap, Consumer<RowView> consumer) {
+        queryRowView(sql, paramMap, consumer, Default_UnderlineToCamel);
+    }
+
+    /**
+     * 查询多条数据(大量数据)，使用游标读取，所有行共享一个行数据视图(不会为每一行数据创建Map)
+     *
+     * @param sql              sql脚本，参数格式[:param]
+     * @param consumer         游标读取数据消费者(需要保留行数据时调用 {@link RowView#copy()})
+     * @param underlineToCamel 下划线转驼峰
+     */
+    public void queryRowView(String sql, Consumer<RowView> consumer, boolean underlineToCamel) {
+        queryRowView(sql, null, consumer, underlineToCamel);
+    }
+
+    /**
+     * 查询多条数据(大量数据)，使用游标读取，所有行共享一个行数据视图(不会为每一行数据创建Map)
+     *
+     * @param sql      sql脚本，参数格式[:param]
+     * @param consumer 游标读取数据消费者(需要保留行数据时调用 {@link RowView#copy()})
+     */
+    public void queryRowView(String sql, Consumer<RowView> consumer) {
+        queryRowView(sql, null, consumer, Default_UnderlineToCamel);
+    }
+
+    /**
+     * 并行分区扫描表数据(大量数据)，使用多个数据库连接同时读取一张表
+     * <p>
+     * 根据分区字段的最小值、最大值(或者分位数)把表数据切分成多个区间，使用多个线程并发执行区间查询，
+     * 所有数据都在当前线程中交给consumer处理，分区字段为null的数据会作为最后一个分区读取
+     *
+     * @param tableName   表名称
+     * @param splitColumn 分区字段(建议使用有索引的字段)
+     * @param partitions  分区数量
+     * @param config      并行扫描配置
+     * @param consumer    游标批次读取数据消费者
+     * @return 每个分区的读取进度
+     */
+    public List<PartitionProgress> parallelScan(String tableName, String splitColumn, int partitions, ParallelScanConfig config, Consumer<BatchData> consumer) {
+        Assert.hasText(tableName, "表名称不能为空");
+        Assert.hasText(splitColumn, "分区字段不能为空");
+        Assert.isTrue(partitions > 0, "分区数量必须大于0");
+        Assert.notNull(consumer, "数据消费者不能为空");
+        if (config == null) {
+            config = new ParallelScanConfig();
+        }
+        tableName = StringUtils.trim(tableName);
+        splitColumn = StringUtils.trim(splitColumn);
+        final List<PartitionProgress> progressList = getScanPartitions(tableName, splitColumn, partitions, config.isQuantileSplit());
+        int threads = config.getMaxThreads() <= 0 ? progressList.size() : Math.min(config.getMaxThreads(), progressList.size());
+        final HikariDataSource hikariDataSource = getHikariDataSource();
+        if (hikariDataSource != null) {
+            threads = Math.min(threads, hikariDataSource.getMaximumPoolSize());
+        }
+        threads = Math.max(threads, 1);
+        final int queueCapacity = Math.max(config.getQueueCapacity(), 1);
+        final List<BlockingQueue<ScanItem>> queues = new ArrayList<>(progressList.size());
+        if (config.isOrdered()) {
+            for (int i = 0; i < progressList.size(); i++) {
+                queues.add(new ArrayBlockingQueue<>(queueCapacity));
+            }
+        } else {
+            BlockingQueue<ScanItem> queue = new ArrayBlockingQueue<>(queueCapacity * threads);
+            for (int i = 0; i < progressList.size(); i++) {
+                queues.add(queue);
+            }
+        }
+        final AtomicBoolean cancelled = new AtomicBoolean(false);
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final AtomicInteger threadIndex = new AtomicInteger(0);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "parallel-scan-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        final boolean underlineToCamel = config.isUnderlineToCamel();
+        final int batchSize = config.getBatchSize();
+        try {
+            for (PartitionProgress progress : progressList) {
+                final BlockingQueue<ScanItem> queue = queues.get(progress.getPartition());
+                final Map<String, Object> paramMap = new HashMap<>(2);
+                paramMap.put("lowerValue", progress.getLowerValue());
+                paramMap.put("upperValue", progress.getUpperValue());
+                executor.execute(() -> {
+                    try {
+                        if (cancelled.get()) {
+                            return;
+                        }
+                        progress.setStartTime(System.currentTimeMillis());
+                        // 工作线程只读取数据(不在当前连接上执行其它SQL)，可以使用流式读取
+                        try (SqlStatistics.Frame ignored = SqlStatistics.begin(progress.getSql(), paramMap)) {
+                            SqlLoggerUtils.printfSql(progress.getSql(), paramMap);
+                            final BatchDataReaderCallback batchDataReaderCallback = new BatchDataReaderCallback(
+                                    batchSize,
+                                    batchData -> putScanItem(queue, new ScanItem(progress.getPartition(), batchData), cancelled),
+                                    underlineToCamel
+                            );
+                            cursorQuery(progress.getSql(), paramMap, batchSize, batchDataReaderCallback, queryOptions == null ? null : queryOptions.getCanceller(), true);
+                            batchDataReaderCallback.processEnd();
+                            SqlLoggerUtils.printfTotal(batchDataReaderCallback.getRowCount());
+                        }
+                    } catch (Throwable e) {
+                        if (!cancelled.get()) {
+                            error.compareAndSet(null, e);
+                            cancelled.set(true);
+                        }
+                    } finally {
+                        putScanItem(queue, new ScanItem(progress.getPartition(), null), cancelled);
+                    }
+                });
+            }
+            // 在当前线程中消费数据
+            int finishedCount = 0;
+            int currentPartition = 0;
+            while (finishedCount < progressList.size()) {
+                BlockingQueue<ScanItem> queue = queues.get(config.isOrdered() ? currentPartition : 0);
+                ScanItem scanItem = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (error.get() != null) {
+                    break;
+                }
+                if (scanItem == null) {
+                    continue;
+                }
+                PartitionProgress progress = progressList.get(scanItem.partition);
+                if (scanItem.batchData == null) {
+                    progress.setFinished(true);
+                    progress.setEndTime(System.currentTimeMillis());
+                    finishedCount++;
+                    currentPartition++;
+                } else {
+                    consumer.accept(scanItem.batchData);
+                    progress.setRowCount(progress.getRowCount() + scanItem.batchData.getBatchCount());
+                    progress.setBatchCount(progress.getBatchCount() + 1);
+                }
+                if (config.getProgressConsumer() != null) {
+                    config.getProgressConsumer().accept(progress);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("并行扫描表数据被中断", e);
+        } finally {
+            cancelled.set(true);
+            executor.shutdownNow();
+        }
+        if (error.get() != null) {
+            throw new RuntimeException("并行扫描表数据失败", error.get());
+        }
+        return progressList;
+    }
+
+    /**
+     * 并行分区扫描表数据(大量数据)，使用多个数据库连接同时读取一张表
+     *
+     * @param tableName   表名称
+     * @param splitColumn 分区字段(建议使用有索引的字段)
+     * @param partitions  分区数量
+     * @param consumer    游标批次读取数据消费者
+     * @return 每个分区的读取进度
+     */
+    public List<PartitionProgress> parallelScan(String tableName, String splitColumn, int partitions, Consumer<BatchData> consumer) {
+        return parallelScan(tableName, splitColumn, partitions, new ParallelScanConfig(), consumer);
+    }
+
     /**
      * 排序查询
      *
@@ -601,14 +1137,13 @@ public class JdbcDataSource extends AbstractDataSource {
         Assert.hasText(sql, "sql不能为空");
         sql = StringUtils.trim(sql);
         // 构造排序以及分页sql
-        String sortSql = SqlUtils.concatOrderBy(sql, sort);
-        SqlLoggerUtils.printfSql(sortSql, paramMap);
-        List<Map<String, Object>> res = jdbcTemplate.queryForList(sortSql, paramMap);
-        SqlLoggerUtils.printfTotal(res);
-        if (underlineToCamel) {
-            res = UnderlineToCamelUtils.underlineToCamel(res);
+        String sortSql = sqlPlanCache.getSortSql(sql, sort);
+        try (SqlStatistics.Frame ignored = SqlStatistics.begin(sortSql, paramMap)) {
+            SqlLoggerUtils.printfSql(sortSql, paramMap);
+            List<Map<String, Object>> res = jdbcTemplate.query(sortSql, paramMap, new CamelColumnMapRowMapper(underlineToCamel));
+            SqlLoggerUtils.printfTotal(res);
+            return res;
         }
-        return res;
     }
 
     /**
@@ -651,10 +1186,14 @@ public class JdbcDataSource extends AbstractDataSource {
      * @param paramMap         参数，参数格式[:param]
      * @param countQuery       是否要执行count查询(可选)
      * @param underlineToCamel 下划线转驼峰
+     * @param parallelCount    count查询与分页查询是否使用两个数据库连接并行执行(当前线程存在事务时会退化成串行执行)
      */
-    public IPage<Map<String, Object>> queryByPage(String sql, QueryByPage pagination, Map<String, Object> paramMap, boolean countQuery, boolean underlineToCamel) {
+    public IPage<Map<String, Object>> queryByPage(String sql, QueryByPage pagination, Map<String, Object> paramMap, boolean countQuery, boolean underlineToCamel, boolean parallelCount) {
         Assert.hasText(sql, "sql不能为空");
         Assert.notNull(pagination, "分页配置不能为空");
+        if (countQuery && parallelCount && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return parallelQueryByPage(sql, pagination, paramMap, underlineToCamel);
+        }
         sql = StringUtils.trim(sql);
         Page<Map<String, Object>> page = new Page<>(pagination.getPageNo(), Math.min(pagination.getPageSize(), Max_Page_Size));
         // 执行 count 查询
@@ -671,31 +1210,67 @@ public class JdbcDataSource extends AbstractDataSource {
             page.setTotal(-1);
         }
         // 构造排序以及分页sql
-        String sortSql = SqlUtils.concatOrderBy(sql, pagination);
-        String pageSql = DialectFactory.buildPaginationSql(page, sortSql, paramMap, dbType, null);
-        // 执行 pageSql
-        SqlLoggerUtils.printfSql(pageSql, paramMap);
-        List<Map<String, Object>> listData = jdbcTemplate.queryForList(pageSql, paramMap);
-        SqlLoggerUtils.printfTotal(listData);
-        // 设置返回数据
-        if (underlineToCamel) {
-            listData = UnderlineToCamelUtils.underlineToCamel(listData);
-        }
-        page.setRecords(listData);
-        // 排序信息
-        List<String> orderFieldsTmp = pagination.getOrderFields();
-        List<String> sortsTmp = pagination.getSorts();
-        for (int i = 0; i < orderFieldsTmp.size(); i++) {
-            String fieldSql = orderFieldsTmp.get(i);
-            String sort = sortsTmp.get(i);
-            OrderItem orderItem = new OrderItem();
-            orderItem.setColumn(fieldSql);
-            orderItem.setAsc(SqlUtils.ASC.equalsIgnoreCase(StringUtils.trim(sort)));
-            page.addOrder(orderItem);
+        String sortSql = sqlPlanCache.getSortSql(sql, pagination);
+        page.setRecords(queryPageRecords(sortSql, page, paramMap, underlineToCamel));
+        addPageOrders(page, pagination);
+        return page;
+    }
+
+    /**
+     * 分页查询(支持排序)，使用指定的策略计算数据总量，返回分页对象
+     *
+     * @param sql              sql脚本，参数格式[:param]
+     * @param pagination       分页配置(支持排序)
+     * @param paramMap         参数，参数格式[:param]
+     * @param countOptions     数据总量的计算配置
+     * @param underlineToCamel 下划线转驼峰
+     */
+    public CountPage<Map<String, Object>> queryByPage(String sql, QueryByPage pagination, Map<String, Object> paramMap, CountOptions countOptions, boolean underlineToCamel) {
+        Assert.hasText(sql, "sql不能为空");
+        Assert.notNull(pagination, "分页配置不能为空");
+        Assert.notNull(countOptions, "count配置不能为空");
+        sql = StringUtils.trim(sql);
+        if (paramMap == null) {
+            paramMap = new HashMap<>(2);
+        }
+        CountPage<Map<String, Object>> page = new CountPage<>(pagination.getPageNo(), Math.min(pagination.getPageSize(), Max_Page_Size));
+        countTotal(sql, paramMap, countOptions, page);
+        // 溢出总页数，设置最后一页
+        long pages = page.getPages();
+        if (page.getCurrent() > pages) {
+            page.setCurrent(pages);
         }
+        String sortSql = sqlPlanCache.getSortSql(sql, pagination);
+        page.setRecords(queryPageRecords(sortSql, page, new HashMap<>(paramMap), underlineToCamel));
+        addPageOrders(page, pagination);
         return page;
     }
 
+    /**
+     * 分页查询(支持排序)，使用指定的策略计算数据总量，返回分页对象
+     *
+     * @param sql          sql脚本，参数格式[:param]
+     * @param pagination   分页配置(支持排序)
+     * @param paramMap     参数，参数格式[:param]
+     * @param countOptions 数据总量的计算配置
+     */
+    public CountPage<Map<String, Object>> queryByPage(String sql, QueryByPage pagination, Map<String, Object> paramMap, CountOptions countOptions) {
+        return queryByPage(sql, pagination, paramMap, countOptions, Default_UnderlineToCamel);
+    }
+
+    /**
+     * 分页查询(支持排序)，返回分页对象
+     *
+     * @param sql              sql脚本，参数格式[:param]
+     * @param pagination       分页配置(支持排序)
+     * @param paramMap         参数，参数格式[:param]
+     * @param countQuery       是否要执行count查询(可选)
+     * @param underlineToCamel 下划线转驼峰
+     */
+    public IPage<Map<String, Object>> queryByPage(String sql, QueryByPage pagination, Map<String, Object> paramMap, boolean countQuery, boolean underlineToCamel) {
+        return queryByPage(sql, pagination, paramMap, countQuery, underlineToCamel, Default_Parallel_Count);
+    }
+
     /**
      * 分页查询(支持排序)，返回分页对象
      *
@@ -741,23 +1316,130 @@ public class JdbcDataSource extends AbstractDataSource {
     }
 
     /**
-     * 查询数据库表数据
+     * Keyset(Seek)分页查询，使用上一页最后一行的排序字段值定位下一页，查询任意页的代价相同<br/>
+     * 排序字段必须出现在查询结果列中，且排序字段组合需要唯一(建议最后一个排序字段使用主键)<br/>
+     * 排序字段值可以为null，null值总是排在最前面(升序、降序相同，参考 {@link IDialect#getNullsFirstOrderBy(String, boolean)})
      *
-     * @param tableName         表名称
-     * @param whereMap          更新条件字段(只支持=，and条件)
-     * @param camelToUnderscore whereMap字段驼峰转下划线(可选)
-     * @param underlineToCamel  返回数据下划线转驼峰
+     * @param sql              sql脚本，参数格式[:param]
+     * @param sort             排序配置(不能为空)
+     * @param paramMap         参数，参数格式[:param]
+     * @param cursor           上一页返回的游标(查询第一页时为null)
+     * @param pageSize         页大小
+     * @param underlineToCamel 下划线转驼峰
      */
-    public List<Map<String, Object>> queryTableList(String tableName, Map<String, Object> whereMap, boolean camelToUnderscore, boolean underlineToCamel) {
-        Assert.hasText(tableName, "查询表名称不能为空");
-        Assert.notEmpty(whereMap, "查询条件不能为空");
-        TupleTow<String, Map<String, Object>> tupleTow = SqlUtils.selectSql(tableName, whereMap, camelToUnderscore);
-        String sql = StringUtils.trim(tupleTow.getValue1());
-        List<Map<String, Object>> listData = queryList(sql, tupleTow.getValue2());
-        if (underlineToCamel) {
-            listData = UnderlineToCamelUtils.underlineToCamel(listData);
-        }
-        return listData;
+    public SeekPage<Map<String, Object>> queryBySeek(String sql, QueryBySort sort, Map<String, Object> paramMap, String cursor, int pageSize, boolean underlineToCamel) {
+        Assert.hasText(sql, "sql不能为空");
+        Assert.notNull(sort, "排序配置不能为空");
+        Assert.notEmpty(sort.getOrderFields(), "排序字段不能为空");
+        Assert.isTrue(pageSize >= 1, "pageSize必须大于0");
+        sql = StringUtils.trim(sql);
+        pageSize = Math.min(pageSize, Max_Page_Size);
+        final List<String> orderFields = sort.getOrderFieldsSql();
+        final List<String> sorts = sort.getSortsSql();
+        final List<String> columns = new ArrayList<>(orderFields.size());
+        final List<Boolean> ascList = new ArrayList<>(orderFields.size());
+        for (int i = 0; i < orderFields.size(); i++) {
+            String orderField = StringUtils.trim(orderFields.get(i));
+            if (StringUtils.isBlank(orderField)) {
+                continue;
+            }
+            columns.add(getSeekColumnName(orderField));
+            String direction = sorts.size() > i ? StringUtils.trim(sorts.get(i)) : SqlUtils.ASC;
+            ascList.add(!SqlUtils.DESC.equalsIgnoreCase(direction));
+        }
+        Assert.notEmpty(columns, "排序字段不能为空");
+        final String sortKey = StringUtils.join(columns, SqlUtils.COMMA) + "|" + StringUtils.join(ascList, SqlUtils.COMMA);
+        final Map<String, Object> seekParamMap = paramMap == null ? new HashMap<>(columns.size() + 2) : new HashMap<>(paramMap);
+        final IDialect dialect = DialectFactory.getDialect(dbType);
+        StringBuilder seekSql = new StringBuilder(sql.length() + 128);
+        seekSql.append("select * from ( ").append(sql).append(" ) seek_t");
+        if (StringUtils.isNotBlank(cursor)) {
+            List<Object> lastValues = SeekCursor.decode(sortKey, cursor);
+            Assert.isTrue(lastValues.size() == columns.size(), "分页游标与当前排序不匹配");
+            List<String> paramNames = new ArrayList<>(columns.size());
+            for (int i = 0; i < columns.size(); i++) {
+                String paramName = "seek_key_" + i;
+                Assert.isTrue(!seekParamMap.containsKey(paramName), "参数名称与Seek分页参数冲突: " + paramName);
+                if (lastValues.get(i) != null) {
+                    seekParamMap.put(paramName, lastValues.get(i));
+                }
+                paramNames.add(paramName);
+            }
+            seekSql.append(" where ").append(getSeekPredicate(dialect, columns, ascList, paramNames, lastValues));
+        }
+        seekSql.append(" order by ");
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                seekSql.append(", ");
+            }
+            seekSql.append(dialect.getNullsFirstOrderBy(columns.get(i), ascList.get(i)));
+        }
+        // 多查询一条数据用于判断是否还有下一页
+        String pageSql = dialect.buildPaginationSql(seekSql.toString(), 0, pageSize + 1, seekParamMap);
+        CamelColumnMapRowMapper rowMapper = new CamelColumnMapRowMapper(underlineToCamel);
+        List<Map<String, Object>> listData;
+        try (SqlStatistics.Frame ignored = SqlStatistics.begin(pageSql, seekParamMap)) {
+            SqlLoggerUtils.printfSql(pageSql, seekParamMap);
+            listData = jdbcTemplate.query(pageSql, seekParamMap, rowMapper);
+            SqlLoggerUtils.printfTotal(listData);
+        }
+        SeekPage<Map<String, Object>> seekPage = new SeekPage<>();
+        seekPage.setPageSize(pageSize);
+        seekPage.setHasMore(listData.size() > pageSize);
+        if (seekPage.isHasMore()) {
+            listData = new ArrayList<>(listData.subList(0, pageSize));
+            Map<String, Object> lastRow = listData.get(listData.size() - 1);
+            List<Object> lastValues = new ArrayList<>(columns.size());
+            for (String column : columns) {
+                int index = rowMapper.getColumns().indexOf(column);
+                Assert.isTrue(index >= 0, "排序字段不在查询结果列中: " + column);
+                lastValues.add(lastRow.get(rowMapper.getColumns().getKeys().get(index)));
+            }
+            seekPage.setNextCursor(SeekCursor.encode(sortKey, lastValues));
+        }
+        seekPage.setRecords(listData);
+        return seekPage;
+    }
+
+    /**
+     * Keyset(Seek)分页查询，使用上一页最后一行的排序字段值定位下一页，查询任意页的代价相同
+     *
+     * @param sql      sql脚本，参数格式[:param]
+     * @param sort     排序配置(不能为空)
+     * @param paramMap 参数，参数格式[:param]
+     * @param cursor   上一页返回的游标(查询第一页时为null)
+     * @param pageSize 页大小
+     */
+    public SeekPage<Map<String, Object>> queryBySeek(String sql, QueryBySort sort, Map<String, Object> paramMap, String cursor, int pageSize) {
+        return queryBySeek(sql, sort, paramMap, cursor, pageSize, Default_UnderlineToCamel);
+    }
+
+    /**
+     * Keyset(Seek)分页查询，使用上一页最后一行的排序字段值定位下一页，查询任意页的代价相同
+     *
+     * @param sql      sql脚本，参数格式[:param]
+     * @param sort     排序配置(不能为空)
+     * @param cursor   上一页返回的游标(查询第一页时为null)
+     * @param pageSize 页大小
+     */
+    public SeekPage<Map<String, Object>> queryBySeek(String sql, QueryBySort sort, String cursor, int pageSize) {
+        return queryBySeek(sql, sort, null, cursor, pageSize, Default_UnderlineToCamel);
+    }
+
+    /**
+     * 查询数据库表数据
+     *
+     * @param tableName         表名称
+     * @param whereMap          更新条件字段(只支持=，and条件)
+     * @param camelToUnderscore whereMap字段驼峰转下划线(可选)
+     * @param underlineToCamel  返回数据下划线转驼峰
+     */
+    public List<Map<String, Object>> queryTableList(String tableName, Map<String, Object> whereMap, boolean camelToUnderscore, boolean underlineToCamel) {
+        Assert.hasText(tableName, "查询表名称不能为空");
+        Assert.notEmpty(whereMap, "查询条件不能为空");
+        TupleTow<String, Map<String, Object>> tupleTow = SqlUtils.selectSql(tableName, whereMap, camelToUnderscore);
+        String sql = StringUtils.trim(tupleTow.getValue1());
+        return queryList(sql, tupleTow.getValue2(), underlineToCamel);
     }
 
     /**
@@ -794,11 +1476,7 @@ public class JdbcDataSource extends AbstractDataSource {
         Assert.notEmpty(whereMap, "查询条件不能为空");
         TupleTow<String, Map<String, Object>> tupleTow = SqlUtils.selectSql(tableName, whereMap, camelToUnderscore);
         String sql = StringUtils.trim(tupleTow.getValue1());
-        Map<String, Object> data = queryMap(sql, tupleTow.getValue2());
-        if (underlineToCamel) {
-            data = UnderlineToCamelUtils.underlineToCamel(data);
-        }
-        return data;
+        return queryMap(sql, tupleTow.getValue2(), underlineToCamel);
     }
 
     /**
@@ -835,9 +1513,13 @@ public class JdbcDataSource extends AbstractDataSource {
     public int update(String sql, Map<String, Object> paramMap) {
         Assert.hasText(sql, "sql不能为空");
         sql = StringUtils.trim(sql);
-        SqlLoggerUtils.printfSql(sql, paramMap);
-        int res = jdbcTemplate.update(sql, paramMap);
-        SqlLoggerUtils.printfUpdateTotal(res);
+        int res;
+        try (SqlStatistics.Frame ignored = SqlStatistics.begin(sql, paramMap)) {
+            SqlLoggerUtils.printfSql(sql, paramMap);
+            res = jdbcTemplate.update(sql, paramMap);
+            SqlLoggerUtils.printfUpdateTotal(res);
+        }
+        invalidateResultCache(sql);
         return res;
     }
 
@@ -924,12 +1606,124 @@ public class JdbcDataSource extends AbstractDataSource {
             paramMapArray[index] = new MapSqlParameterSource(map);
             index++;
         }
-        SqlLoggerUtils.printfSql(sql, paramMapList);
-        int[] res = jdbcTemplate.batchUpdate(sql, paramMapArray);
-        SqlLoggerUtils.printfUpdateTotal(res);
+        int[] res;
+        try (SqlStatistics.Frame ignored = SqlStatistics.begin(sql, paramMapList)) {
+            SqlLoggerUtils.printfSql(sql, paramMapList);
+            res = jdbcTemplate.batchUpdate(sql, paramMapArray);
+            SqlLoggerUtils.printfUpdateTotal(res);
+        }
+        invalidateResultCache(sql);
         return res;
     }
 
+    /**
+     * 流式分批执行更新SQL(按批次从迭代器读取参数，内存占用与数据总量无关)<br/>
+     * 对于 MySQL rewriteBatchedStatements=true 之类的驱动，返回的影响数据量可能是 {@link java.sql.Statement#SUCCESS_NO_INFO}，这部分计入 unknownCount
+     *
+     * @param sql            sql脚本，参数格式[:param]
+     * @param paramIterator  参数迭代器，参数格式[:param]
+     * @param batchSize      每个批次的数据量
+     * @param commitPerBatch 是否每个批次在独立的事务中执行并提交(PROPAGATION_REQUIRES_NEW)
+     */
+    public BatchUpdateResult batchUpdate(String sql, Iterator<Map<String, Object>> paramIterator, int batchSize, boolean commitPerBatch) {
+        Assert.hasText(sql, "sql不能为空");
+        Assert.notNull(paramIterator, "参数迭代器不能为空");
+        Assert.isTrue(batchSize >= 1, "batchSize必须大于0");
+        final String batchSql = StringUtils.trim(sql);
+        final BatchUpdateResult result = new BatchUpdateResult();
+        invalidateResultCache(batchSql);
+        final List<SqlParameterSource> chunk = new ArrayList<>(batchSize);
+        while (paramIterator.hasNext()) {
+            Map<String, Object> paramMap = paramIterator.next();
+            chunk.add(new MapSqlParameterSource(paramMap));
+            if (chunk.size() >= batchSize) {
+                executeBatchChunk(batchSql, chunk, commitPerBatch, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            executeBatchChunk(batchSql, chunk, commitPerBatch, result);
+            chunk.clear();
+        }
+        invalidateResultCache(batchSql);
+        return result;
+    }
+
+    /**
+     * 流式分批执行更新SQL(按批次从迭代器读取参数，内存占用与数据总量无关)
+     *
+     * @param sql           sql脚本，参数格式[:param]
+     * @param paramIterator 参数迭代器，参数格式[:param]
+     * @param batchSize     每个批次的数据量
+     */
+    public BatchUpdateResult batchUpdate(String sql, Iterator<Map<String, Object>> paramIterator, int batchSize) {
+        return batchUpdate(sql, paramIterator, batchSize, false);
+    }
+
+    /**
+     * 流式分批执行更新SQL(按批次从Supplier读取参数，Supplier返回null表示数据读取完成)
+     *
+     * @param sql            sql脚本，参数格式[:param]
+     * @param paramSupplier  参数提供者，返回null表示结束，参数格式[:param]
+     * @param batchSize      每个批次的数据量
+     * @param commitPerBatch 是否每个批次在独立的事务中执行并提交(PROPAGATION_REQUIRES_NEW)
+     */
+    public BatchUpdateResult batchUpdate(String sql, Supplier<Map<String, Object>> paramSupplier, int batchSize, boolean commitPerBatch) {
+        Assert.notNull(paramSupplier, "参数提供者不能为空");
+        Iterator<Map<String, Object>> paramIterator = new Iterator<Map<String, Object>>() {
+            private Map<String, Object> next = paramSupplier.get();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Map<String, Object> next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Map<String, Object> current = next;
+                next = paramSupplier.get();
+                return current;
+            }
+        };
+        return batchUpdate(sql, paramIterator, batchSize, commitPerBatch);
+    }
+
+    /**
+     * 流式分批执行更新SQL(按批次从Supplier读取参数，Supplier返回null表示数据读取完成)
+     *
+     * @param sql           sql脚本，参数格式[:param]
+     * @param paramSupplier 参数提供者，返回null表示结束，参数格式[:param]
+     * @param batchSize     每个批次的数据量
+     */
+    public BatchUpdateResult batchUpdate(String sql, Supplier<Map<String, Object>> paramSupplier, int batchSize) {
+        return batchUpdate(sql, paramSupplier, batchSize, false);
+    }
+
+    /**
+     * 执行一个批次的更新，并累加结果
+     */
+    private void executeBatchChunk(String sql, List<SqlParameterSource> chunk, boolean commitPerBatch, BatchUpdateResult result) {
+        final SqlParameterSource[] batchArgs = chunk.toArray(new SqlParameterSource[0]);
+        // 每个批次单独统计(一次开始对应一次结束)
+        try (SqlStatistics.Frame ignored = SqlStatistics.begin(sql, Collections.<Map<String, Object>>emptyList())) {
+            SqlLoggerUtils.printfSql(sql, Collections.<Map<String, Object>>emptyList());
+            int[] res;
+            if (commitPerBatch) {
+                res = beginTX(status -> jdbcTemplate.batchUpdate(sql, batchArgs), TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+                result.setCommitCount(result.getCommitCount() + 1);
+            } else {
+                res = jdbcTemplate.batchUpdate(sql, batchArgs);
+            }
+            final long updateCount = result.getUpdateCount();
+            result.setRowCount(result.getRowCount() + batchArgs.length);
+            result.addBatch(res);
+            SqlLoggerUtils.printfUpdateTotal((int) (result.getUpdateCount() - updateCount));
+        }
+    }
+
     // --------------------------------------------------------------------------------------------
     // Delete 操作
     // --------------------------------------------------------------------------------------------
@@ -980,9 +1774,13 @@ public class JdbcDataSource extends AbstractDataSource {
             sqlParameterSource = new EmptySqlParameterSource();
         }
         KeyHolder keyHolder = new GeneratedKeyHolder();
-        SqlLoggerUtils.printfSql(sql, paramMap);
-        int insertCount = jdbcTemplate.update(sql, sqlParameterSource, keyHolder);
-        SqlLoggerUtils.printfUpdateTotal(insertCount);
+        int insertCount;
+        try (SqlStatistics.Frame ignored = SqlStatistics.begin(sql, paramMap)) {
+            SqlLoggerUtils.printfSql(sql, paramMap);
+            insertCount = jdbcTemplate.update(sql, sqlParameterSource, keyHolder);
+            SqlLoggerUtils.printfUpdateTotal(insertCount);
+        }
+        invalidateResultCache(sql);
         List<Map<String, Object>> keysList = keyHolder.getKeyList();
         InsertResult.KeyHolder resultKeyHolder = new InsertResult.KeyHolder(keysList);
         return new InsertResult(insertCount, resultKeyHolder);
@@ -1023,27 +1821,67 @@ public class JdbcDataSource extends AbstractDataSource {
     }
 
     /**
-     * 数据插入到表
+     * 数据批量插入到表(相同字段的数据会合并成多行 insert ... values (...), (...) 语句分批执行，所有批次在一个事务中执行)
      *
      * @param tableName         表名称
      * @param fieldsList        字段名集合
      * @param camelToUnderscore 字段驼峰转下划线(可选)
+     * @param batchSize         单条insert语句最多插入的数据行数(还会受数据库参数个数上限约束)
+     * @return 与fieldsList顺序一一对应的插入结果
      */
-    public List<InsertResult> insertTables(String tableName, Collection<Map<String, Object>> fieldsList, boolean camelToUnderscore) {
+    public List<InsertResult> insertTables(String tableName, Collection<Map<String, Object>> fieldsList, boolean camelToUnderscore, int batchSize) {
         Assert.hasText(tableName, "插入表名称不能为空");
         Assert.notEmpty(fieldsList, "插入字段不能为空");
+        Assert.isTrue(batchSize >= 1, "batchSize必须大于0");
         tableName = StringUtils.trim(tableName);
-        List<InsertResult> resultList = new ArrayList<>(fieldsList.size());
-        for (Map<String, Object> fields : fieldsList) {
-            TupleTow<String, Map<String, Object>> tupleTow = SqlUtils.insertSql(tableName, fields, camelToUnderscore);
-            InsertResult insertResult = insert(tupleTow.getValue1(), tupleTow.getValue2());
-            resultList.add(insertResult);
+        final List<Map<String, Object>> rows = (fieldsList instanceof List) ? (List<Map<String, Object>>) fieldsList : new ArrayList<>(fieldsList);
+        // 按字段签名分组(字段名排序，不受Map的字段顺序影响)
+        final Map<List<String>, List<Integer>> groups = new LinkedHashMap<>();
+        for (int index = 0; index < rows.size(); index++) {
+            Map<String, Object> fields = rows.get(index);
+            Assert.notEmpty(fields, "插入字段不能为空");
+            List<String> fieldNames = new ArrayList<>(fields.keySet());
+            Collections.sort(fieldNames);
+            groups.computeIfAbsent(fieldNames, key -> new ArrayList<>()).add(index);
         }
-        return resultList;
+        final IDialect dialect = DialectFactory.getDialect(dbType);
+        final InsertResult[] results = new InsertResult[rows.size()];
+        final String table = tableName;
+        // 所有批次在同一个事务中执行(已存在事务时加入)，部分批次失败时不会留下部分数据
+        beginTX(status -> {
+            for (Map.Entry<List<String>, List<Integer>> group : groups.entrySet()) {
+                final List<String> fieldNames = group.getKey();
+                final List<Integer> rowIndexes = group.getValue();
+                int chunkSize = Math.min(batchSize, dialect.getMaxInsertRows());
+                chunkSize = Math.max(1, Math.min(chunkSize, dialect.getMaxParameterCount() / fieldNames.size()));
+                for (int from = 0; from < rowIndexes.size(); from += chunkSize) {
+                    List<Integer> chunk = rowIndexes.subList(from, Math.min(from + chunkSize, rowIndexes.size()));
+                    if (dialect.supportMultiRowInsert()) {
+                        multiRowInsert(table, fieldNames, rows, chunk, camelToUnderscore, results);
+                    } else {
+                        batchRowInsert(table, fieldNames, rows, chunk, camelToUnderscore, results);
+                    }
+                }
+            }
+            return null;
+        }, TransactionDefinition.PROPAGATION_REQUIRED);
+        invalidateResultCache(Collections.singletonList(tableName));
+        return Arrays.asList(results);
     }
 
     /**
-     * 数据插入到表
+     * 数据批量插入到表
+     *
+     * @param tableName         表名称
+     * @param fieldsList        字段名集合
+     * @param camelToUnderscore 字段驼峰转下划线(可选)
+     */
+    public List<InsertResult> insertTables(String tableName, Collection<Map<String, Object>> fieldsList, boolean camelToUnderscore) {
+        return insertTables(tableName, fieldsList, camelToUnderscore, Default_Insert_Batch_Size);
+    }
+
+    /**
+     * 数据批量插入到表
      *
      * @param tableName  表名称
      * @param fieldsList 字段名集合
@@ -1052,6 +1890,70 @@ public class JdbcDataSource extends AbstractDataSource {
         return insertTables(tableName, fieldsList, Default_CamelToUnderscore);
     }
 
+    /**
+     * 使用一条多行 insert ... values (...), (...) 语句插入一批数据
+     */
+    private void multiRowInsert(String tableName, List<String> fieldNames, List<Map<String, Object>> rows, List<Integer> chunk, boolean camelToUnderscore, InsertResult[] results) {
+        final String sql = SqlUtils.insertSql(tableName, fieldNames, chunk.size(), camelToUnderscore);
+        final Object[] args = new Object[fieldNames.size() * chunk.size()];
+        final List<Map<String, Object>> chunkRows = new ArrayList<>(chunk.size());
+        int argIndex = 0;
+        for (Integer rowIndex : chunk) {
+            Map<String, Object> fields = rows.get(rowIndex);
+            for (String fieldName : fieldNames) {
+                args[argIndex++] = fields.get(fieldName);
+            }
+            chunkRows.add(fields);
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        int insertCount;
+        try (SqlStatistics.Frame ignored = SqlStatistics.begin(sql, chunkRows)) {
+            SqlLoggerUtils.printfSql(sql, chunkRows);
+            insertCount = jdbcTemplate.getJdbcTemplate().update(con -> {
+                PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+                new ArgumentPreparedStatementSetter(args).setValues(ps);
+                return ps;
+            }, keyHolder);
+            SqlLoggerUtils.printfUpdateTotal(insertCount);
+        }
+        // 驱动为每一行返回了自动生成的key时才能按行对应
+        List<Map<String, Object>> keysList = keyHolder.getKeyList();
+        boolean keyPerRow = keysList.size() == chunk.size();
+        int rowInsertCount = insertCount == chunk.size() ? 1 : Statement.SUCCESS_NO_INFO;
+        for (int i = 0; i < chunk.size(); i++) {
+            List<Map<String, Object>> rowKeys = keyPerRow ? Collections.singletonList(keysList.get(i)) : Collections.emptyList();
+            results[chunk.get(i)] = new InsertResult(rowInsertCount, new InsertResult.KeyHolder(rowKeys));
+        }
+    }
+
+    /**
+     * 不支持多行insert的数据库(如：Oracle)使用JDBC批处理插入一批数据(不返回自动生成的key)
+     */
+    private void batchRowInsert(String tableName, List<String> fieldNames, List<Map<String, Object>> rows, List<Integer> chunk, boolean camelToUnderscore, InsertResult[] results) {
+        final String sql = SqlUtils.insertSql(tableName, fieldNames, 1, camelToUnderscore);
+        final List<Object[]> batchArgs = new ArrayList<>(chunk.size());
+        final List<Map<String, Object>> chunkRows = new ArrayList<>(chunk.size());
+        for (Integer rowIndex : chunk) {
+            Map<String, Object> fields = rows.get(rowIndex);
+            Object[] rowArgs = new Object[fieldNames.size()];
+            for (int i = 0; i < fieldNames.size(); i++) {
+                rowArgs[i] = fields.get(fieldNames.get(i));
+            }
+            batchArgs.add(rowArgs);
+            chunkRows.add(fields);
+        }
+        int[] res;
+        try (SqlStatistics.Frame ignored = SqlStatistics.begin(sql, chunkRows)) {
+            SqlLoggerUtils.printfSql(sql, chunkRows);
+            res = jdbcTemplate.getJdbcTemplate().batchUpdate(sql, batchArgs);
+            SqlLoggerUtils.printfUpdateTotal(res);
+        }
+        for (int i = 0; i < chunk.size(); i++) {
+            int insertCount = i < res.length ? res[i] : Statement.SUCCESS_NO_INFO;
+            results[chunk.get(i)] = new InsertResult(insertCount, new InsertResult.KeyHolder(Collections.emptyList()));
+        }
+    }
+
     // --------------------------------------------------------------------------------------------
     //  事务操作
     // --------------------------------------------------------------------------------------------
@@ -1134,7 +2036,7 @@ public class JdbcDataSource extends AbstractDataSource {
      * @see org.springframework.transaction.TransactionDefinition
      */
     public <T> T beginReadOnlyTX(TransactionCallback<T> action, int propagationBehavior, int timeout, int isolationLevel) {
-        return beginTX(action, propagationBehavior, timeout, isolationLevel, Default_ReadOnly);
+        return beginTX(action, propagationBehavior, timeout, isolationLevel, true);
     }
 
     /**
@@ -1147,7 +2049,7 @@ public class JdbcDataSource extends AbstractDataSource {
      * @see org.springframework.transaction.TransactionDefinition
      */
     public <T> T beginReadOnlyTX(TransactionCallback<T> action, int propagationBehavior, int timeout) {
-        return beginTX(action, propagationBehavior, timeout, TransactionDefinition.ISOLATION_DEFAULT, Default_ReadOnly);
+        return beginTX(action, propagationBehavior, timeout, TransactionDefinition.ISOLATION_DEFAULT, true);
     }
 
     /**
@@ -1177,12 +2079,31 @@ public class JdbcDataSource extends AbstractDataSource {
     //  其它 操作
     // --------------------------------------------------------------------------------------------
 
+    /**
+     * 设置查询结果缓存(为null表示不使用缓存)<br/>
+     * 启用后事务外的 queryMap、queryList(包括 queryTableMap、queryTableList)使用缓存，
+     * 当前数据源执行的更新操作会删除引用了相关表的缓存
+     *
+     * @param resultCache 查询结果缓存
+     */
+    public void setResultCache(ResultCache resultCache) {
+        Assert.isNull(parent, "使用 withOptions 创建的数据源不能设置查询结果缓存");
+        this.resultCache = resultCache;
+    }
+
+    /**
+     * 获取查询结果缓存(未启用返回null)
+     */
+    public ResultCache getResultCache() {
+        return parent != null ? parent.resultCache : resultCache;
+    }
+
     /**
      * 获取数据源信息
      */
     public JdbcInfo getInfo() {
-        if (dataSource instanceof HikariDataSource) {
-            HikariDataSource hikariDataSource = (HikariDataSource) dataSource;
+        final HikariDataSource hikariDataSource = getHikariDataSource();
+        if (hikariDataSource != null) {
             JdbcInfo jdbcInfo = new JdbcInfo();
             jdbcInfo.setDriverClassName(hikariDataSource.getDriverClassName());
             jdbcInfo.setJdbcUrl(hikariDataSource.getJdbcUrl());
@@ -1197,17 +2118,30 @@ public class JdbcDataSource extends AbstractDataSource {
     }
 
     /**
-     * 获取数据源状态
+     * 获取数据源状态(读写分离模式下连接数为主库的连接数，所有节点的状态见 routingNodes)
      */
     public JdbcDataSourceStatus getStatus() {
-        if (dataSource instanceof HikariDataSource) {
-            HikariDataSource hikariDataSource = (HikariDataSource) dataSource;
+        final HikariDataSource hikariDataSource = getHikariDataSource();
+        if (hikariDataSource != null) {
             HikariPoolMXBean poolMXBean = hikariDataSource.getHikariPoolMXBean();
             JdbcDataSourceStatus status = new JdbcDataSourceStatus();
             status.setTotalConnections(poolMXBean.getTotalConnections());
             status.setActiveConnections(poolMXBean.getActiveConnections());
             status.setIdleConnections(poolMXBean.getIdleConnections());
             status.setThreadsAwaitingConnection(poolMXBean.getThreadsAwaitingConnection());
+            status.setSqlPlanCache(sqlPlanCache.getStatus());
+            status.setCountSqlCache(SqlUtils.getCountSqlCacheStatus());
+            status.setCountTotalCache(CacheStatus.of(countTotalCache));
+            status.setNameConversionCache(NameConversionCache.getStatus());
+            final ResultCache cache = getResultCache();
+            if (cache != null) {
+                status.setResultCache(cache.getStatus());
+            }
+            if (dataSource instanceof ReadWriteRoutingDataSource) {
+                ReadWriteRoutingDataSource routingDataSource = (ReadWriteRoutingDataSource) dataSource;
+                status.setRoutingNodes(routingDataSource.getNodeStatus());
+                status.setRoutingFallbackCount(routingDataSource.getFallbackCount());
+            }
             return status;
         } else {
             throw new UnsupportedOperationException("当前数据源类型：" + dataSource.getClass().getName() + "，不支持此操作");
@@ -1218,6 +2152,482 @@ public class JdbcDataSource extends AbstractDataSource {
     //  内部函数
     // --------------------------------------------------------------------------------------------
 
+    private Map<String, Object> doQueryMap(String sql, Map<String, Object> paramMap, boolean underlineToCamel) {
+        try (SqlStatistics.Frame ignored = SqlStatistics.begin(sql, paramMap)) {
+            SqlLoggerUtils.printfSql(sql, paramMap);
+            Map<String, Object> res = jdbcTemplate.queryForObject(sql, paramMap, new CamelColumnMapRowMapper(underlineToCamel));
+            SqlLoggerUtils.printfTotal(res);
+            return res;
+        }
+    }
+
+    private List<Map<String, Object>> doQueryList(String sql, Map<String, Object> paramMap, boolean underlineToCamel) {
+        try (SqlStatistics.Frame ignored = SqlStatistics.begin(sql, paramMap)) {
+            SqlLoggerUtils.printfSql(sql, paramMap);
+            List<Map<String, Object>> resList = jdbcTemplate.query(sql, paramMap, new CamelColumnMapRowMapper(underlineToCamel));
+            SqlLoggerUtils.printfTotal(resList);
+            return resList;
+        }
+    }
+
+    /**
+     * 获取当前可以使用的查询结果缓存(未启用或在事务中返回null，事务中可能读取到未提交的数据)
+     */
+    private ResultCache getUsableResultCache() {
+        final ResultCache cache = getResultCache();
+        if (cache == null || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return null;
+        }
+        return cache;
+    }
+
+    /**
+     * 根据更新SQL删除查询结果缓存(在事务中执行时，事务结束后再删除一次)
+     */
+    private void invalidateResultCache(String sql) {
+        final ResultCache cache = getResultCache();
+        if (cache == null) {
+            return;
+        }
+        cache.invalidateSql(sql);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidateSql(sql);
+                }
+            });
+        }
+    }
+
+    /**
+     * 根据表名称删除查询结果缓存(在事务中执行时，事务结束后再删除一次)
+     */
+    private void invalidateResultCache(Collection<String> tables) {
+        final ResultCache cache = getResultCache();
+        if (cache == null) {
+            return;
+        }
+        cache.invalidateTables(tables);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidateTables(tables);
+                }
+            });
+        }
+    }
+
+    /**
+     * 获取Hikari连接池(读写分离模式返回主库连接池)，不是Hikari连接池返回null
+     */
+    private HikariDataSource getHikariDataSource() {
+        if (dataSource instanceof ReadWriteRoutingDataSource) {
+            return ((ReadWriteRoutingDataSource) dataSource).getPrimary();
+        }
+        if (dataSource instanceof HikariDataSource) {
+            return (HikariDataSource) dataSource;
+        }
+        return null;
+    }
+
+    /**
+     * 使用两个数据库连接并行执行count查询和分页查询(各自在只读事务中执行)
+     * <pre>
+     * PostgreSQL : 分页查询事务导出快照(pg_export_snapshot)，count查询事务导入同一个快照(SET TRANSACTION SNAPSHOT)，两个查询读取的数据一致
+     * 其它数据库  : 两个独立的事务(MySQL、MariaDB使用可重复读)，并发写入时count与分页数据可能不一致(尽力而为)
+     * </pre>
+     * 线程池繁忙或连接池没有空闲连接时count查询会等待，分页查询完成时count查询还未获取到连接则在分页查询的事务中执行
+     * (count查询获取到连接之后才认领执行，分页查询只会等待已经持有连接的count查询导入快照，不会与连接池死锁)
+     */
+    private IPage<Map<String, Object>> parallelQueryByPage(String sql, QueryByPage pagination, Map<String, Object> paramMap, boolean underlineToCamel) {
+        final String trimSql = StringUtils.trim(sql);
+        final Map<String, Object> params = paramMap == null ? Collections.emptyMap() : paramMap;
+        final Page<Map<String, Object>> page = new Page<>(pagination.getPageNo(), Math.min(pagination.getPageSize(), Max_Page_Size));
+        final int isolationLevel = getSnapshotIsolationLevel();
+        // 读写分离时两个事务可能使用不同的从库，不能共享快照
+        final boolean shareSnapshot = DbType.POSTGRE_SQL.equals(dbType) && !(dataSource instanceof ReadWriteRoutingDataSource);
+        // count 查询使用参数副本(分页查询会向参数中写入分页参数)
+        final Map<String, Object> countParamMap = new HashMap<>(params);
+        final String sortSql = sqlPlanCache.getSortSql(trimSql, pagination);
+        // count查询是否已被认领(由已经获取到连接的工作线程或者当前线程执行)
+        final AtomicBoolean countStarted = new AtomicBoolean(false);
+        final CompletableFuture<Void> snapshotImported = new CompletableFuture<>();
+        final AtomicReference<Future<Long>> countFuture = new AtomicReference<>();
+        final AtomicReference<Long> localTotal = new AtomicReference<>();
+        List<Map<String, Object>> records;
+        try {
+            records = beginTX(status -> {
+                final String snapshotId = shareSnapshot ? exportSnapshot() : null;
+                try {
+                    countFuture.set(getPageQueryExecutor().submit(() -> {
+                        if (countStarted.get()) {
+                            return null;
+                        }
+                        try {
+                            // 开启事务时获取连接，获取到连接之后再认领count查询(获取连接时等待不会阻塞分页查询)
+                            return beginTX(countStatus -> {
+                                if (!countStarted.compareAndSet(false, true)) {
+                                    return null;
+                                }
+                                if (snapshotId != null) {
+                                    importSnapshot(snapshotId);
+                                }
+                                snapshotImported.complete(null);
+                                return queryCount(trimSql, countParamMap);
+                            }, TransactionDefinition.PROPAGATION_REQUIRED, -1, isolationLevel, true);
+                        } finally {
+                            snapshotImported.complete(null);
+                        }
+                    }));
+                } catch (RejectedExecutionException e) {
+                    log.debug("# 分页查询线程池已满，count查询在当前事务中执行");
+                }
+                final List<Map<String, Object>> pageRecords = queryPageRecords(sortSql, page, new HashMap<>(params), underlineToCamel);
+                if (countStarted.compareAndSet(false, true)) {
+                    // count查询还在排队或者在等待连接，直接在当前事务中执行(与分页查询使用同一个快照)
+                    localTotal.set(queryCount(trimSql, countParamMap));
+                } else if (snapshotId != null) {
+                    // 导出快照的事务结束之前，count查询事务必须完成快照导入(count查询已经持有连接，只需要等待导入快照)
+                    snapshotImported.join();
+                }
+                return pageRecords;
+            }, TransactionDefinition.PROPAGATION_REQUIRED, -1, isolationLevel, true);
+        } catch (RuntimeException e) {
+            Future<Long> future = countFuture.get();
+            if (future != null) {
+                future.cancel(true);
+            }
+            throw e;
+        }
+        long total;
+        if (localTotal.get() != null) {
+            total = localTotal.get();
+        } else {
+            try {
+                Long count = countFuture.get().get();
+                total = count == null ? 0 : count;
+            } catch (InterruptedException e) {
+                countFuture.get().cancel(true);
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("分页查询count被中断", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new RuntimeException("分页查询count失败", cause);
+            }
+        }
+        page.setTotal(total);
+        // 溢出总页数，设置最后一页并重新查询数据
+        long pages = page.getPages();
+        if (page.getCurrent() > pages) {
+            page.setCurrent(pages);
+            records = pages > 0 ? queryPageRecords(sortSql, page, new HashMap<>(params), underlineToCamel) : Collections.emptyList();
+        }
+        page.setRecords(records);
+        addPageOrders(page, pagination);
+        return page;
+    }
+
+    /**
+     * 导出当前事务的快照(PostgreSQL)
+     */
+    private String exportSnapshot() {
+        final String sql = "select pg_export_snapshot()";
+        String snapshotId;
+        try (SqlStatistics.Frame ignored = SqlStatistics.begin(sql, Collections.emptyMap())) {
+            SqlLoggerUtils.printfSql(sql, Collections.emptyMap());
+            snapshotId = jdbcTemplate.queryForObject(sql, Collections.emptyMap(), String.class);
+            SqlLoggerUtils.printfTotal(snapshotId);
+        }
+        Assert.isTrue(snapshotId != null && snapshotId.matches("[0-9A-Fa-f-]+"), "导出快照失败: " + snapshotId);
+        return snapshotId;
+    }
+
+    /**
+     * 当前事务使用导出的快照(PostgreSQL，必须是事务中的第一条SQL)
+     */
+    private void importSnapshot(String snapshotId) {
+        final String sql = "SET TRANSACTION SNAPSHOT '" + snapshotId + "'";
+        try (SqlStatistics.Frame ignored = SqlStatistics.begin(sql, Collections.emptyMap())) {
+            SqlLoggerUtils.printfSql(sql, Collections.emptyMap());
+            jdbcTemplate.getJdbcTemplate().execute(sql);
+            SqlLoggerUtils.printfUpdateTotal(0);
+        }
+    }
+
+    /**
+     * 并行分页查询时使用的事务隔离级别(PostgreSQL导入快照需要可重复读，MySQL的可重复读会在首次读取时建立快照)
+     */
+    private int getSnapshotIsolationLevel() {
+        switch (dbType) {
+            case MYSQL:
+            case MARIADB:
+            case POSTGRE_SQL:
+                return TransactionDefinition.ISOLATION_REPEATABLE_READ;
+            default:
+                return TransactionDefinition.ISOLATION_DEFAULT;
+        }
+    }
+
+    /**
+     * 获取并行分页查询线程池(懒加载，线程数不超过连接池大小的一半，任务队列满时拒绝，由调用方在当前事务中执行count查询)
+     */
+    private ExecutorService getPageQueryExecutor() {
+        if (parent != null) {
+            return parent.getPageQueryExecutor();
+        }
+        ExecutorService executor = pageQueryExecutor;
+        if (executor != null) {
+            return executor;
+        }
+        synchronized (this) {
+            if (pageQueryExecutor == null) {
+                int maxThreads = Default_Page_Query_Threads;
+                final HikariDataSource hikariDataSource = getHikariDataSource();
+                if (hikariDataSource != null) {
+                    maxThreads = Math.max(1, hikariDataSource.getMaximumPoolSize() / 2);
+                }
+                final AtomicInteger threadIndex = new AtomicInteger(0);
+                ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(
+                        maxThreads, maxThreads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(maxThreads * Page_Query_Queue_Multiple),
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "page-query-" + threadIndex.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        },
+                        new ThreadPoolExecutor.AbortPolicy()
+                );
+                threadPoolExecutor.allowCoreThreadTimeOut(true);
+                pageQueryExecutor = threadPoolExecutor;
+            }
+            return pageQueryExecutor;
+        }
+    }
+
+    /**
+     * 获取Seek分页排序字段在子查询结果中的列名(去掉表别名)
+     */
+    private static String getSeekColumnName(String orderField) {
+        int index = orderField.lastIndexOf('.');
+        return index >= 0 ? orderField.substring(index + 1) : orderField;
+    }
+
+    /**
+     * 生成Seek分页条件，排序方向一致、游标中没有null值且数据库支持时使用行值比较 {@code (a, b) > (:a, :b)}，
+     * 否则展开成 {@code (a > :a) or (a = :a and b > :b)}<br/>
+     * null值总是排在最前面：游标值为null时，相等条件为 {@code a is null}，之后的数据为 {@code a is not null}；
+     * 游标值不为null时，null值的数据都在游标之前，普通比较会排除这些数据
+     */
+    private static String getSeekPredicate(IDialect dialect, List<String> columns, List<Boolean> ascList, List<String> paramNames, List<Object> lastValues) {
+        boolean sameDirection = true;
+        for (Boolean asc : ascList) {
+            if (!asc.equals(ascList.get(0))) {
+                sameDirection = false;
+                break;
+            }
+        }
+        final boolean hasNull = lastValues.contains(null);
+        StringBuilder sb = new StringBuilder(columns.size() * 32);
+        if (!hasNull && (columns.size() == 1 || (sameDirection && dialect.supportRowValueComparison()))) {
+            String operator = ascList.get(0) ? " > " : " < ";
+            if (columns.size() == 1) {
+                return columns.get(0) + operator + IDialect.COLON + paramNames.get(0);
+            }
+            sb.append('(').append(StringUtils.join(columns, ", ")).append(')').append(operator).append('(');
+            for (int i = 0; i < paramNames.size(); i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                sb.append(IDialect.COLON).append(paramNames.get(i));
+            }
+            return sb.append(')').toString();
+        }
+        sb.append('(');
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                sb.append(" or ");
+            }
+            sb.append('(');
+            for (int j = 0; j < i; j++) {
+                if (lastValues.get(j) == null) {
+                    sb.append(columns.get(j)).append(" is null and ");
+                } else {
+                    sb.append(columns.get(j)).append(" = ").append(IDialect.COLON).append(paramNames.get(j)).append(" and ");
+                }
+            }
+            if (lastValues.get(i) == null) {
+                sb.append(columns.get(i)).append(" is not null");
+            } else {
+                sb.append(columns.get(i)).append(ascList.get(i) ? " > " : " < ").append(IDialect.COLON).append(paramNames.get(i));
+            }
+            sb.append(')');
+        }
+        return sb.append(')').toString();
+    }
+
+    /**
+     * 按策略计算数据总量，并设置到分页对象
+     */
+    private void countTotal(String sql, Map<String, Object> paramMap, CountOptions countOptions, CountPage<?> page) {
+        final CountStrategy strategy = countOptions.getStrategy() == null ? CountStrategy.EXACT : countOptions.getStrategy();
+        switch (strategy) {
+            case CACHED:
+                Assert.isTrue(
+                        countOptions.getCacheTtlSeconds() <= CountOptions.Max_Cache_Ttl_Seconds,
+                        "count缓存有效时间不能大于" + CountOptions.Max_Cache_Ttl_Seconds + "秒"
+                );
+                String cacheKey = getCountCacheKey(SqlUtils.getCountSql(sql), paramMap);
+                CachedTotal cachedTotal = countTotalCache.getIfPresent(cacheKey);
+                long ttlMillis = TimeUnit.SECONDS.toMillis(Math.max(countOptions.getCacheTtlSeconds(), 0));
+                if (cachedTotal != null && System.currentTimeMillis() - cachedTotal.createTime <= ttlMillis) {
+                    setPageTotal(page, cachedTotal.total, CountStrategy.CACHED, false);
+                    return;
+                }
+                long total = queryCount(sql, paramMap);
+                countTotalCache.put(cacheKey, new CachedTotal(total));
+                setPageTotal(page, total, CountStrategy.EXACT, false);
+                return;
+            case CAPPED:
+                Assert.isTrue(countOptions.getCap() >= 1, "count上限必须大于0");
+                long cappedTotal = queryCappedCount(sql, paramMap, countOptions.getCap());
+                boolean capped = cappedTotal > countOptions.getCap();
+                setPageTotal(page, Math.min(cappedTotal, countOptions.getCap()), CountStrategy.CAPPED, capped);
+                return;
+            case ESTIMATE:
+                Long estimate = queryEstimateCount(sql, paramMap);
+                if (estimate != null) {
+                    setPageTotal(page, estimate, CountStrategy.ESTIMATE, true);
+                    return;
+                }
+                setPageTotal(page, queryCount(sql, paramMap), CountStrategy.EXACT, false);
+                return;
+            default:
+                setPageTotal(page, queryCount(sql, paramMap), CountStrategy.EXACT, false);
+        }
+    }
+
+    /**
+     * 生成数据总量缓存的Key，参数按名称排序，数组参数按内容生成(而不是数组对象的hashCode)
+     */
+    static String getCountCacheKey(String countSql, Map<String, Object> paramMap) {
+        StringBuilder sb = new StringBuilder(countSql.length() + paramMap.size() * 16);
+        sb.append(countSql);
+        for (Map.Entry<String, Object> entry : new TreeMap<>(paramMap).entrySet()) {
+            sb.append('\u0000').append(entry.getKey()).append('=');
+            // 包装成数组后，任意维度的对象数组、基本类型数组都按内容输出
+            sb.append(Arrays.deepToString(new Object[]{entry.getValue()}));
+        }
+        return sb.toString();
+    }
+
+    private static void setPageTotal(CountPage<?> page, long total, CountStrategy strategy, boolean approximate) {
+        page.setTotal(total);
+        page.setCountStrategy(strategy);
+        page.setApproximate(approximate);
+    }
+
+    /**
+     * count查询最多读取 cap + 1 条数据就停止
+     */
+    private long queryCappedCount(String sql, Map<String, Object> paramMap, long cap) {
+        final Map<String, Object> countParamMap = new HashMap<>(paramMap);
+        final String cappedSql;
+        if (DbType.SQL_SERVER.equals(dbType) || DbType.SQL_SERVER2005.equals(dbType)) {
+            // SQL Server 的 OFFSET FETCH 必须有 ORDER BY，使用 TOP
+            cappedSql = "select count(1) from ( select top " + (cap + 1) + " 1 as capped_c from ( " + sql + " ) capped_s ) capped_t";
+        } else {
+            String limitSql = DialectFactory.getDialect(dbType).buildPaginationSql(sql, 0, cap + 1, countParamMap);
+            cappedSql = "select count(1) from ( " + limitSql + " ) capped_t";
+        }
+        try (SqlStatistics.Frame ignored = SqlStatistics.begin(cappedSql, countParamMap)) {
+            SqlLoggerUtils.printfSql(cappedSql, countParamMap);
+            Long total = jdbcTemplate.queryForObject(cappedSql, countParamMap, Long.class);
+            if (total == null) {
+                total = 0L;
+            }
+            SqlLoggerUtils.printfTotal(total);
+            return total;
+        }
+    }
+
+    /**
+     * 使用数据库执行计划估算查询的数据量(MySQL、PostgreSQL)，不支持或估算失败时返回null
+     */
+    private Long queryEstimateCount(String sql, Map<String, Object> paramMap) {
+        if (!DbType.MYSQL.equals(dbType) && !DbType.MARIADB.equals(dbType) && !DbType.POSTGRE_SQL.equals(dbType)) {
+            return null;
+        }
+        final String explainSql = "explain " + sql;
+        try (SqlStatistics.Frame ignored = SqlStatistics.begin(explainSql, paramMap)) {
+            SqlLoggerUtils.printfSql(explainSql, paramMap);
+            if (DbType.POSTGRE_SQL.equals(dbType)) {
+                // 第一行: Seq Scan on t  (cost=0.00..18.50 rows=850 width=68)
+                List<String> lines = jdbcTemplate.queryForList(explainSql, paramMap, String.class);
+                SqlLoggerUtils.printfTotal(lines);
+                if (!lines.isEmpty()) {
+                    Matcher matcher = Explain_Rows_Pattern.matcher(lines.get(0));
+                    if (matcher.find()) {
+                        return Long.parseLong(matcher.group(1));
+                    }
+                }
+                return null;
+            }
+            // MySQL 执行计划有多行时(关联查询、子查询、union)各行的 rows 无法直接推算结果数据量，使用精确count
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(explainSql, paramMap);
+            SqlLoggerUtils.printfTotal(rows);
+            if (rows.size() != 1) {
+                return null;
+            }
+            Object value = rows.get(0).get("rows");
+            if (!(value instanceof Number)) {
+                return null;
+            }
+            // rows 是扫描的数据量，filtered 是扫描后满足条件的百分比
+            double estimate = ((Number) value).doubleValue();
+            Object filtered = rows.get(0).get("filtered");
+            if (filtered instanceof Number) {
+                estimate = estimate * ((Number) filtered).doubleValue() / 100;
+            }
+            return Math.round(estimate);
+        } catch (Exception e) {
+            log.warn("估算查询数据量失败，使用精确count | error={}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 执行分页数据查询
+     */
+    private List<Map<String, Object>> queryPageRecords(String sortSql, Page<?> page, Map<String, Object> paramMap, boolean underlineToCamel) {
+        String pageSql = sqlPlanCache.getPageSql(DialectFactory.getDialect(dbType), sortSql, page.offset(), page.getSize(), paramMap);
+        try (SqlStatistics.Frame ignored = SqlStatistics.begin(pageSql, paramMap)) {
+            SqlLoggerUtils.printfSql(pageSql, paramMap);
+            List<Map<String, Object>> listData = jdbcTemplate.query(pageSql, paramMap, new CamelColumnMapRowMapper(underlineToCamel));
+            SqlLoggerUtils.printfTotal(listData);
+            return listData;
+        }
+    }
+
+    /**
+     * 设置分页对象的排序信息
+     */
+    private void addPageOrders(Page<?> page, QueryByPage pagination) {
+        List<String> orderFieldsTmp = pagination.getOrderFields();
+        List<String> sortsTmp = pagination.getSorts();
+        for (int i = 0; i < orderFieldsTmp.size(); i++) {
+            String fieldSql = orderFieldsTmp.get(i);
+            String sort = sortsTmp.get(i);
+            OrderItem orderItem = new OrderItem();
+            orderItem.setColumn(fieldSql);
+            orderItem.setAsc(SqlUtils.ASC.equalsIgnoreCase(StringUtils.trim(sort)));
+            page.addOrder(orderItem);
+        }
+    }
+
     /**
      * 创建事务执行模板对象
      *
@@ -1237,6 +2647,299 @@ public class JdbcDataSource extends AbstractDataSource {
         return new TransactionTemplate(transactionManager, transactionDefinition);
     }
 
+    /**
+     * 使用数据库游标读取数据(TYPE_FORWARD_ONLY、CONCUR_READ_ONLY)<br/>
+     * 默认使用JdbcTemplate的fetchSize读取数据，使用 {@link QueryOptions#setStreaming(boolean)} 开启流式读取时，
+     * 根据数据库类型设置 fetchSize 使数据库服务端分批返回数据
+     * <pre>
+     * MySQL      : 连接参数 useCursorFetch=true 时使用服务端游标(fetchSize=batchSize)，否则使用流式读取(fetchSize=Integer.MIN_VALUE)
+     * MariaDB    : fetchSize=batchSize(驱动流式读取)
+     * PostgreSQL : 只有关闭自动提交时才会使用服务端游标，当前不在事务中时自动开启读写事务(消费者中可以执行更新)
+     * 其它数据库  : fetchSize=batchSize
+     * </pre>
+     * 注意：MySQL/MariaDB流式读取时，在数据读取完成之前当前连接不能执行其它SQL
+     *
+     * @param sql                sql脚本，参数格式[:param]
+     * @param paramMap           参数(可选)，参数格式[:param]
+     * @param batchSize          一个批次的数据量(数据库服务端每次返回的数据量)
+     * @param rowCallbackHandler 游标读取数据处理器
+     */
+    private void cursorQuery(String sql, Map<String, Object> paramMap, int batchSize, RowCallbackHandler rowCallbackHandler) {
+        final boolean streaming = queryOptions != null && queryOptions.isStreaming();
+        cursorQuery(sql, paramMap, batchSize, rowCallbackHandler, queryOptions == null ? null : queryOptions.getCanceller(), streaming);
+    }
+
+    private void cursorQuery(String sql, Map<String, Object> paramMap, int batchSize, RowCallbackHandler rowCallbackHandler, QueryCanceller canceller, boolean streaming) {
+        if (streaming && DbType.POSTGRE_SQL.equals(dbType) && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            // 不能使用只读事务，否则消费者中执行的更新会失败
+            createTransactionDefinition(TransactionDefinition.ISOLATION_DEFAULT, TransactionDefinition.PROPAGATION_REQUIRED, false, -1).execute(status -> {
+                doCursorQuery(sql, paramMap, batchSize, rowCallbackHandler, canceller, true);
+                return null;
+            });
+            return;
+        }
+        doCursorQuery(sql, paramMap, batchSize, rowCallbackHandler, canceller, streaming);
+    }
+
+    private void doCursorQuery(String sql, Map<String, Object> paramMap, int batchSize, RowCallbackHandler rowCallbackHandler, QueryCanceller canceller, boolean streaming) {
+        final SqlParameterSource paramSource = paramMap == null ? new EmptySqlParameterSource() : new MapSqlParameterSource(paramMap);
+        final ParsedSql parsedSql = sqlPlanCache.getParsedSql(sql);
+        final String sqlToUse = NamedParameterUtils.substituteNamedParameters(parsedSql, paramSource);
+        final Object[] params = NamedParameterUtils.buildValueArray(parsedSql, paramSource, null);
+        final List<SqlParameter> declaredParameters = NamedParameterUtils.buildSqlParameterList(parsedSql, paramSource);
+        final PreparedStatementCreatorFactory creatorFactory = new PreparedStatementCreatorFactory(sqlToUse, declaredParameters);
+        creatorFactory.setResultSetType(ResultSet.TYPE_FORWARD_ONLY);
+        creatorFactory.setUpdatableResults(false);
+        final int fetchSize = streaming ? getStreamingFetchSize(batchSize) : 0;
+        ReadWriteRoutingDataSource.executeRead(() -> jdbcTemplate.getJdbcTemplate().execute(creatorFactory.newPreparedStatementCreator(params), (PreparedStatementCallback<Object>) ps -> {
+            if (streaming) {
+                // JdbcTemplate会先应用全局的fetchSize，这里需要覆盖
+                ps.setFetchSize(fetchSize);
+            }
+            if (canceller != null) {
+                canceller.register(ps);
+            }
+            ResultSet rs = null;
+            try {
+                rs = ps.executeQuery();
+                while (rs.next()) {
+                    if (canceller != null && canceller.isCancelled()) {
+                        throw new CancellationException("查询已取消");
+                    }
+                    rowCallbackHandler.processRow(rs);
+                }
+            } finally {
+                if (canceller != null) {
+                    canceller.unregister(ps);
+                }
+                org.springframework.jdbc.support.JdbcUtils.closeResultSet(rs);
+            }
+            return null;
+        }));
+    }
+
+    /**
+     * 根据数据库类型获取流式读取数据时的 fetchSize
+     *
+     * @param batchSize 一个批次的数据量
+     */
+    private int getStreamingFetchSize(int batchSize) {
+        if (queryOptions != null && queryOptions.getFetchSize() > 0) {
+            batchSize = queryOptions.getFetchSize();
+        }
+        final int fetchSize = batchSize <= 0 ? Fetch_Size : batchSize;
+        if (DbType.MYSQL.equals(dbType)) {
+            if (StringUtils.containsIgnoreCase(jdbcUrl, "useCursorFetch=true")) {
+                return fetchSize;
+            }
+            return Integer.MIN_VALUE;
+        }
+        return fetchSize;
+    }
+
+    /**
+     * 计算并行扫描的分区(分区字段为null的数据作为最后一个分区)
+     *
+     * @param tableName     表名称
+     * @param splitColumn   分区字段
+     * @param partitions    分区数量
+     * @param quantileSplit 使用分位数计算分区边界
+     */
+    private List<PartitionProgress> getScanPartitions(String tableName, String splitColumn, int partitions, boolean quantileSplit) {
+        final String rangeSql = String.format("select min(%1$s) as min_value, max(%1$s) as max_value from %2$s", splitColumn, tableName);
+        final Map<String, Object> range;
+        try (SqlStatistics.Frame ignored = SqlStatistics.begin(rangeSql, Collections.emptyMap())) {
+            SqlLoggerUtils.printfSql(rangeSql, Collections.emptyMap());
+            range = jdbcTemplate.queryForMap(rangeSql, Collections.emptyMap());
+            SqlLoggerUtils.printfTotal(range);
+        }
+        final Object minValue = range.get("min_value");
+        final Object maxValue = range.get("max_value");
+        final List<Object> splitPoints = new ArrayList<>(partitions + 1);
+        if (minValue != null && maxValue != null) {
+            splitPoints.add(minValue);
+            if (partitions > 1) {
+                if (!quantileSplit && minValue instanceof Number && maxValue instanceof Number) {
+                    splitPoints.addAll(getNumberSplitPoints((Number) minValue, (Number) maxValue, partitions));
+                } else {
+                    splitPoints.addAll(getQuantileSplitPoints(tableName, splitColumn, partitions));
+                }
+            }
+            splitPoints.add(maxValue);
+        }
+        final String selectSql = String.format("select * from %s where ", tableName);
+        final List<PartitionProgress> progressList = new ArrayList<>(partitions + 1);
+        for (int i = 0; i < splitPoints.size() - 1; i++) {
+            final boolean last = i == splitPoints.size() - 2;
+            final String sql = selectSql + splitColumn + " >= :lowerValue and " + splitColumn + (last ? " <= " : " < ") + ":upperValue";
+            progressList.add(new PartitionProgress(progressList.size(), sql, splitPoints.get(i), splitPoints.get(i + 1)));
+        }
+        progressList.add(new PartitionProgress(progressList.size(), selectSql + splitColumn + " is null", null, null));
+        return progressList;
+    }
+
+    /**
+     * 根据数值类型的最小值、最大值平均计算分区边界(不包含最小值、最大值)
+     */
+    private List<Object> getNumberSplitPoints(Number minValue, Number maxValue, int partitions) {
+        final BigDecimal min = new BigDecimal(minValue.toString());
+        final BigDecimal max = new BigDecimal(maxValue.toString());
+        final boolean integral = isIntegral(min) && isIntegral(max);
+        final BigDecimal step = max.subtract(min).divide(BigDecimal.valueOf(partitions), 10, RoundingMode.DOWN);
+        final List<Object> splitPoints = new ArrayList<>(partitions);
+        BigDecimal pre = min;
+        for (int i = 1; i < partitions; i++) {
+            BigDecimal point = min.add(step.multiply(BigDecimal.valueOf(i)));
+            if (integral) {
+                point = point.setScale(0, RoundingMode.DOWN);
+            }
+            if (point.compareTo(pre) <= 0 || point.compareTo(max) >= 0) {
+                continue;
+            }
+            pre = point;
+            if (integral && point.bitLength() < 64) {
+                splitPoints.add(point.longValue());
+            } else {
+                splitPoints.add(point);
+            }
+        }
+        return splitPoints;
+    }
+
+    private static boolean isIntegral(BigDecimal value) {
+        return value.signum() == 0 || value.scale() <= 0 || value.stripTrailingZeros().scale() <= 0;
+    }
+
+    /**
+     * 使用分位数计算分区边界(不包含最小值、最大值)<br/>
+     * 优先使用窗口函数 NTILE 一次查询计算所有边界，数据库不支持窗口函数时(如：MySQL 5.7)按顺序读取一次分区字段计算边界
+     */
+    private List<Object> getQuantileSplitPoints(String tableName, String splitColumn, int partitions) {
+        final String ntileSql = String.format(
+                "select min(split_value) from (select %1$s as split_value, ntile(%3$d) over (order by %1$s) as split_bucket from %2$s where %1$s is not null) tmp group by split_bucket order by split_bucket",
+                splitColumn, tableName, partitions
+        );
+        List<Object> bucketValues = null;
+        if (!DbType.MYSQL.equals(dbType) && !DbType.MARIADB.equals(dbType) && !DbType.SQLITE.equals(dbType)) {
+            try (SqlStatistics.Frame ignored = SqlStatistics.begin(ntileSql, Collections.emptyMap())) {
+                SqlLoggerUtils.printfSql(ntileSql, Collections.emptyMap());
+                bucketValues = jdbcTemplate.queryForList(ntileSql, Collections.emptyMap(), Object.class);
+                SqlLoggerUtils.printfTotal(bucketValues.size());
+            }
+        } else if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            // 这些数据库的旧版本不支持窗口函数
+            try (SqlStatistics.Frame ignored = SqlStatistics.begin(ntileSql, Collections.emptyMap())) {
+                SqlLoggerUtils.printfSql(ntileSql, Collections.emptyMap());
+                bucketValues = jdbcTemplate.queryForList(ntileSql, Collections.emptyMap(), Object.class);
+                SqlLoggerUtils.printfTotal(bucketValues.size());
+            } catch (DataAccessException e) {
+                log.debug("# 数据库不支持NTILE，顺序读取分区字段计算分区边界 | error={}", e.getMessage());
+            }
+        }
+        final List<Object> splitPoints = new ArrayList<>(partitions);
+        if (bucketValues != null) {
+            // 第一个分组的最小值就是整体最小值
+            Object pre = null;
+            for (int i = 1; i < bucketValues.size(); i++) {
+                final Object value = bucketValues.get(i);
+                if (value == null || Objects.equals(value, pre)) {
+                    continue;
+                }
+                pre = value;
+                splitPoints.add(value);
+            }
+            return splitPoints;
+        }
+        final String countSql = String.format("select count(1) from %s where %s is not null", tableName, splitColumn);
+        final Long total;
+        try (SqlStatistics.Frame ignored = SqlStatistics.begin(countSql, Collections.emptyMap())) {
+            SqlLoggerUtils.printfSql(countSql, Collections.emptyMap());
+            total = jdbcTemplate.queryForObject(countSql, Collections.emptyMap(), Long.class);
+            SqlLoggerUtils.printfTotal(total);
+        }
+        if (total == null || total <= partitions) {
+            return splitPoints;
+        }
+        final String sortSql = String.format("select %1$s as split_value from %2$s where %1$s is not null order by %1$s", splitColumn, tableName);
+        try (SqlStatistics.Frame ignored = SqlStatistics.begin(sortSql, Collections.emptyMap())) {
+            SqlLoggerUtils.printfSql(sortSql, Collections.emptyMap());
+            final long[] rowIndex = new long[]{0};
+            final int[] nextPoint = new int[]{1};
+            final Object[] pre = new Object[]{null};
+            jdbcTemplate.query(sortSql, Collections.emptyMap(), rs -> {
+                final long index = rowIndex[0]++;
+                if (nextPoint[0] >= partitions || index != total * nextPoint[0] / partitions) {
+                    return;
+                }
+                nextPoint[0]++;
+                final Object value = rs.getObject(1);
+                if (value == null || Objects.equals(value, pre[0])) {
+                    return;
+                }
+                pre[0] = value;
+                splitPoints.add(value);
+            });
+            SqlLoggerUtils.printfTotal(rowIndex[0]);
+            return splitPoints;
+        }
+    }
+
+    /**
+     * 把游标读取的数据放入队列(队列满时等待，取消时抛出异常中断读取)
+     */
+    private static void putScanItem(BlockingQueue<ScanItem> queue, ScanItem scanItem, AtomicBoolean cancelled) {
+        try {
+            while (!queue.offer(scanItem, 100, TimeUnit.MILLISECONDS)) {
+                if (cancelled.get()) {
+                    if (scanItem.batchData == null) {
+                        return;
+                    }
+                    throw new CancellationException("数据读取已取消");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("数据读取已取消");
+        }
+    }
+
+    /**
+     * 并行扫描、流水线读取时在线程之间传递的数据(batchData为null表示读取完成)
+     */
+    private static class ScanItem {
+        private final int partition;
+        private final BatchData batchData;
+
+        private ScanItem(int partition, BatchData batchData) {
+            this.partition = partition;
+            this.batchData = batchData;
+        }
+    }
+
+    /**
+     * 创建分页查询数据总量缓存
+     */
+    private static Cache<String, CachedTotal> newCountTotalCache() {
+        return CacheBuilder.newBuilder()
+                .maximumSize(Count_Total_Cache_Size)
+                .expireAfterWrite(CountOptions.Max_Cache_Ttl_Seconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 缓存的数据总量
+     */
+    private static class CachedTotal {
+        private final long total;
+        private final long createTime;
+
+        private CachedTotal(long total) {
+            this.total = total;
+            this.createTime = System.currentTimeMillis();
+        }
+    }
+
     /**
      * 获取下一个事务名称
      */
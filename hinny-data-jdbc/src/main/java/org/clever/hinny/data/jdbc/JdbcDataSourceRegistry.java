@@ -0,0 +1,519 @@
+package org.clever.hinny.data.jdbc;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.clever.hinny.data.jdbc.support.DataSourceRegistryConfig;
+import org.clever.hinny.data.jdbc.support.TenantPoolStatus;
+import org.springframework.util.Assert;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 多数据源(多租户)注册中心
+ * <pre>
+ * 1. 注册时只保存连接池配置，第一次使用时才创建连接池
+ * 2. 数据源空闲一段时间后收缩连接池(minimumIdle=0)，空闲更久后关闭连接池，再次使用时重新创建
+ * 3. 限制所有连接池的最大连接数之和，超出时关闭最久未使用的空闲连接池
+ * 4. 租用({@link #lease(String)})的数据源在归还之前不会被关闭
+ * </pre>
+ * 注意：数据源可能因空闲被关闭，使用方不要长期持有 {@link #get(String)} 返回的对象，每次使用时重新获取(或者使用 {@link #lease(String)})
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/18 19:20 <br/>
+ */
+@Slf4j
+public class JdbcDataSourceRegistry implements AutoCloseable {
+    /**
+     * 连接池未配置maximumPoolSize时的默认值(与Hikari一致)
+     */
+    private static final int Default_Maximum_Pool_Size = 10;
+    /**
+     * 注册中心配置
+     */
+    private final DataSourceRegistryConfig config;
+    /**
+     * 所有注册的数据源 {@code Map<name, Entry>}
+     */
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    /**
+     * 空闲检查线程池
+     */
+    private final ScheduledExecutorService idleCheckExecutor;
+    /**
+     * 是否已关闭
+     */
+    private volatile boolean closed = false;
+
+    public JdbcDataSourceRegistry(DataSourceRegistryConfig config) {
+        this.config = config == null ? new DataSourceRegistryConfig() : config;
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "datasource-idle-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        final int interval = Math.max(this.config.getCheckInterval(), 1);
+        executor.scheduleWithFixedDelay(this::idleCheck, interval, interval, TimeUnit.SECONDS);
+        this.idleCheckExecutor = executor;
+    }
+
+    public JdbcDataSourceRegistry() {
+        this(null);
+    }
+
+    /**
+     * 注册数据源(只保存连接池配置，不会创建连接池)
+     *
+     * @param name         数据源名称(租户)
+     * @param hikariConfig 连接池配置
+     */
+    public void register(String name, HikariConfig hikariConfig) {
+        Assert.hasText(name, "数据源名称不能为空");
+        Assert.notNull(hikariConfig, "HikariConfig不能为空");
+        Assert.isTrue(!closed, "注册中心已关闭");
+        HikariConfig copy = new HikariConfig();
+        hikariConfig.copyStateTo(copy);
+        if (copy.getPoolName() == null) {
+            copy.setPoolName(name);
+        }
+        Entry old = entries.putIfAbsent(name, new Entry(name, copy));
+        Assert.isNull(old, "数据源已存在: " + name);
+    }
+
+    /**
+     * 注销数据源(关闭连接池，不等待租用的数据源归还)
+     *
+     * @param name 数据源名称(租户)
+     * @return 数据源不存在返回false
+     */
+    public boolean unregister(String name) {
+        final JdbcDataSource detached;
+        synchronized (this) {
+            Entry entry = entries.remove(name);
+            if (entry == null) {
+                return false;
+            }
+            detached = entry.detachPool();
+        }
+        closePool(name, detached, "注销数据源");
+        return true;
+    }
+
+    /**
+     * 是否注册了数据源
+     *
+     * @param name 数据源名称(租户)
+     */
+    public boolean contains(String name) {
+        return entries.containsKey(name);
+    }
+
+    /**
+     * 所有注册的数据源名称
+     */
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    /**
+     * 获取数据源(第一次使用或连接池被关闭后会创建连接池)<br/>
+     * 返回的数据源没有租用，空闲时可能被关闭，需要保证使用期间不被关闭时使用 {@link #lease(String)}
+     *
+     * @param name 数据源名称(租户)
+     */
+    public JdbcDataSource get(String name) {
+        Entry entry = getEntry(name);
+        JdbcDataSource jdbcDataSource = entry.jdbcDataSource;
+        if (jdbcDataSource != null && !entry.shrunk) {
+            return jdbcDataSource;
+        }
+        return openPool(entry, false);
+    }
+
+    /**
+     * 租用数据源，归还({@link Lease#close()})之前连接池不会因空闲或超出最大连接数被关闭
+     *
+     * @param name 数据源名称(租户)
+     */
+    public Lease lease(String name) {
+        Entry entry = getEntry(name);
+        return new Lease(this, entry, openPool(entry, true));
+    }
+
+    /**
+     * 租用数据源执行操作，执行完成后归还数据源
+     *
+     * @param name   数据源名称(租户)
+     * @param action 数据源操作
+     */
+    public <T> T execute(String name, Function<JdbcDataSource, T> action) {
+        try (Lease lease = lease(name)) {
+            return action.apply(lease.getDataSource());
+        }
+    }
+
+    /**
+     * 所有数据源的连接池状态 {@code Map<name, TenantPoolStatus>}
+     */
+    public Map<String, TenantPoolStatus> getStatus() {
+        Map<String, TenantPoolStatus> map = new TreeMap<>();
+        for (Entry entry : entries.values()) {
+            map.put(entry.name, entry.getStatus());
+        }
+        return map;
+    }
+
+    /**
+     * 当前已创建(包括正在创建)的连接池的最大连接数之和
+     */
+    public int getTotalMaxConnections() {
+        int total = 0;
+        for (Entry entry : entries.values()) {
+            if (entry.jdbcDataSource != null || entry.opening) {
+                total += entry.maximumPoolSize;
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public void close() {
+        final Map<String, JdbcDataSource> detached = new HashMap<>();
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (Entry entry : entries.values()) {
+                detached.put(entry.name, entry.detachPool());
+            }
+            entries.clear();
+        }
+        idleCheckExecutor.shutdownNow();
+        detached.forEach((name, jdbcDataSource) -> closePool(name, jdbcDataSource, "关闭注册中心"));
+    }
+
+    private Entry getEntry(String name) {
+        Assert.isTrue(!closed, "注册中心已关闭");
+        Entry entry = entries.get(name);
+        Assert.notNull(entry, "数据源不存在: " + name);
+        entry.accessCount.incrementAndGet();
+        entry.lastAccessTime = System.currentTimeMillis();
+        return entry;
+    }
+
+    /**
+     * 获取数据源，连接池不存在时创建连接池<br/>
+     * 锁顺序：{@code entry.openLock -> this}，连接池的创建和关闭都在注册中心锁之外执行
+     *
+     * @param entry 注册的数据源
+     * @param lease 是否租用
+     */
+    private JdbcDataSource openPool(Entry entry, boolean lease) {
+        // 同一个数据源同时只创建一个连接池
+        synchronized (entry.openLock) {
+            final Map<String, JdbcDataSource> evicted;
+            synchronized (this) {
+                Assert.isTrue(!closed, "注册中心已关闭");
+                if (entry.jdbcDataSource != null) {
+                    if (entry.shrunk) {
+                        entry.restorePool();
+                    }
+                    if (lease) {
+                        entry.leaseCount++;
+                    }
+                    return entry.jdbcDataSource;
+                }
+                evicted = reserveCapacity(entry);
+                entry.opening = true;
+            }
+            evicted.forEach((name, jdbcDataSource) -> closePool(name, jdbcDataSource, "超出最大连接数限制"));
+            JdbcDataSource created = null;
+            try {
+                created = entry.createPool();
+            } finally {
+                if (created == null) {
+                    synchronized (this) {
+                        entry.opening = false;
+                    }
+                }
+            }
+            synchronized (this) {
+                entry.opening = false;
+                if (!closed && entries.get(entry.name) == entry) {
+                    entry.attachPool(created);
+                    if (lease) {
+                        entry.leaseCount++;
+                    }
+                    return created;
+                }
+            }
+            // 创建期间数据源被注销或注册中心被关闭
+            closePool(entry.name, created, "数据源已注销");
+            throw new IllegalStateException("数据源已注销: " + entry.name);
+        }
+    }
+
+    /**
+     * 归还租用的数据源
+     */
+    private synchronized void release(Entry entry) {
+        if (entry.leaseCount > 0) {
+            entry.leaseCount--;
+        }
+        entry.lastAccessTime = System.currentTimeMillis();
+    }
+
+    /**
+     * 创建连接池前检查最大连接数(必须持有注册中心锁)，超出时按最久未使用的顺序选择空闲的连接池并分离<br/>
+     * 连接数不够时不分离任何连接池并抛出异常
+     *
+     * @return 需要关闭的连接池(在注册中心锁之外关闭) {@code Map<name, JdbcDataSource>}
+     */
+    private Map<String, JdbcDataSource> reserveCapacity(Entry target) {
+        final int maxTotal = config.getMaxTotalConnections();
+        if (maxTotal <= 0) {
+            return Collections.emptyMap();
+        }
+        final int required = target.maximumPoolSize;
+        int total = getTotalMaxConnections();
+        if (total + required <= maxTotal) {
+            return Collections.emptyMap();
+        }
+        List<Entry> candidates = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (entry != target && entry.isIdle()) {
+                candidates.add(entry);
+            }
+        }
+        candidates.sort(Comparator.comparingLong(entry -> entry.lastAccessTime));
+        List<Entry> victims = new ArrayList<>();
+        for (Entry entry : candidates) {
+            if (total + required <= maxTotal) {
+                break;
+            }
+            total -= entry.maximumPoolSize;
+            victims.add(entry);
+        }
+        if (total + required > maxTotal) {
+            throw new RuntimeException("超出最大连接数限制: " + maxTotal + "，当前已使用: " + total + "，需要: " + required);
+        }
+        Map<String, JdbcDataSource> evicted = new HashMap<>(victims.size());
+        for (Entry entry : victims) {
+            evicted.put(entry.name, entry.detachPool());
+        }
+        return evicted;
+    }
+
+    /**
+     * 收缩或关闭空闲的连接池(在注册中心锁内决定，在锁之外关闭)
+     */
+    private void idleCheck() {
+        final long now = System.currentTimeMillis();
+        final long shrinkIdleMillis = TimeUnit.SECONDS.toMillis(config.getShrinkIdleTime());
+        final long closeIdleMillis = TimeUnit.SECONDS.toMillis(config.getCloseIdleTime());
+        final Map<String, JdbcDataSource> detached = new HashMap<>();
+        synchronized (this) {
+            for (Entry entry : entries.values()) {
+                if (closed) {
+                    return;
+                }
+                try {
+                    if (!entry.isIdle()) {
+                        continue;
+                    }
+                    final long idle = now - entry.lastAccessTime;
+                    if (closeIdleMillis > 0 && idle >= closeIdleMillis) {
+                        detached.put(entry.name, entry.detachPool());
+                    } else if (shrinkIdleMillis > 0 && idle >= shrinkIdleMillis && !entry.shrunk) {
+                        entry.shrinkPool();
+                    }
+                } catch (Exception e) {
+                    log.warn("数据源空闲检查失败 | name={}", entry.name, e);
+                }
+            }
+        }
+        detached.forEach((name, jdbcDataSource) -> closePool(name, jdbcDataSource, "空闲超时"));
+    }
+
+    /**
+     * 关闭连接池(不能持有注册中心锁)
+     */
+    private static void closePool(String name, JdbcDataSource jdbcDataSource, String reason) {
+        if (jdbcDataSource == null) {
+            return;
+        }
+        try {
+            jdbcDataSource.close();
+            log.info("关闭数据源连接池 | name={} | reason={}", name, reason);
+        } catch (Exception e) {
+            log.warn("关闭数据源连接池失败 | name={}", name, e);
+        }
+    }
+
+    /**
+     * 租用的数据源(归还之前连接池不会因空闲或超出最大连接数被关闭)
+     */
+    public static class Lease implements AutoCloseable {
+        private final JdbcDataSourceRegistry registry;
+        private final Entry entry;
+        private final JdbcDataSource dataSource;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private Lease(JdbcDataSourceRegistry registry, Entry entry, JdbcDataSource dataSource) {
+            this.registry = registry;
+            this.entry = entry;
+            this.dataSource = dataSource;
+        }
+
+        public JdbcDataSource getDataSource() {
+            Assert.isTrue(!released.get(), "数据源已归还");
+            return dataSource;
+        }
+
+        /**
+         * 归还数据源(重复调用无效)
+         */
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                registry.release(entry);
+            }
+        }
+    }
+
+    /**
+     * 注册的数据源
+     */
+    private static class Entry {
+        private final String name;
+        private final HikariConfig hikariConfig;
+        private final int maximumPoolSize;
+        private final AtomicLong accessCount = new AtomicLong(0);
+        private volatile long lastAccessTime = System.currentTimeMillis();
+        private volatile JdbcDataSource jdbcDataSource;
+        private volatile HikariDataSource hikariDataSource;
+        private volatile boolean shrunk = false;
+        /**
+         * 正在创建连接池(创建期间占用最大连接数)
+         */
+        private volatile boolean opening = false;
+        /**
+         * 租用次数(由注册中心锁保护)
+         */
+        private int leaseCount = 0;
+        /**
+         * 创建连接池的锁(只用于同一个数据源的连接池创建)
+         */
+        private final Object openLock = new Object();
+        /**
+         * 刚创建还未使用的连接池(由openLock保护)
+         */
+        private HikariDataSource createdPool;
+        private int minimumIdle;
+        private volatile int createCount = 0;
+
+        Entry(String name, HikariConfig hikariConfig) {
+            this.name = name;
+            this.hikariConfig = hikariConfig;
+            this.maximumPoolSize = hikariConfig.getMaximumPoolSize() < 1 ? Default_Maximum_Pool_Size : hikariConfig.getMaximumPoolSize();
+        }
+
+        /**
+         * 创建连接池(不持有注册中心锁)
+         */
+        JdbcDataSource createPool() {
+            HikariConfig copy = new HikariConfig();
+            hikariConfig.copyStateTo(copy);
+            HikariDataSource dataSource = new HikariDataSource(copy);
+            try {
+                JdbcDataSource created = new JdbcDataSource(dataSource);
+                createdPool = dataSource;
+                return created;
+            } catch (RuntimeException e) {
+                dataSource.close();
+                throw e;
+            }
+        }
+
+        /**
+         * 使用创建好的连接池(持有注册中心锁)
+         */
+        void attachPool(JdbcDataSource dataSource) {
+            HikariDataSource pool = createdPool;
+            createdPool = null;
+            jdbcDataSource = dataSource;
+            hikariDataSource = pool;
+            // 连接池创建后minimumIdle已按默认规则计算，收缩后按此值恢复
+            minimumIdle = pool.getMinimumIdle();
+            shrunk = false;
+            createCount++;
+            log.info("创建数据源连接池 | name={} | createCount={}", name, createCount);
+        }
+
+        void shrinkPool() {
+            hikariDataSource.getHikariConfigMXBean().setMinimumIdle(0);
+            shrunk = true;
+            log.info("收缩空闲数据源连接池 | name={}", name);
+        }
+
+        void restorePool() {
+            hikariDataSource.getHikariConfigMXBean().setMinimumIdle(minimumIdle);
+            shrunk = false;
+        }
+
+        /**
+         * 分离连接池(持有注册中心锁)，返回的连接池需要在锁之外关闭
+         */
+        JdbcDataSource detachPool() {
+            JdbcDataSource dataSource = jdbcDataSource;
+            jdbcDataSource = null;
+            hikariDataSource = null;
+            shrunk = false;
+            return dataSource;
+        }
+
+        /**
+         * 连接池已创建、没有被租用且没有正在使用的连接(持有注册中心锁)
+         */
+        boolean isIdle() {
+            return jdbcDataSource != null && leaseCount == 0 && getActiveConnections() == 0;
+        }
+
+        int getActiveConnections() {
+            HikariDataSource dataSource = hikariDataSource;
+            HikariPoolMXBean poolMXBean = dataSource == null ? null : dataSource.getHikariPoolMXBean();
+            return poolMXBean == null ? 0 : poolMXBean.getActiveConnections();
+        }
+
+        TenantPoolStatus getStatus() {
+            TenantPoolStatus status = new TenantPoolStatus();
+            status.setName(name);
+            status.setShrunk(shrunk);
+            status.setCreateCount(createCount);
+            status.setAccessCount(accessCount.get());
+            status.setLastAccessTime(lastAccessTime);
+            status.setMaximumPoolSize(maximumPoolSize);
+            HikariDataSource dataSource = hikariDataSource;
+            status.setOpen(dataSource != null && !dataSource.isClosed());
+            HikariPoolMXBean poolMXBean = dataSource == null ? null : dataSource.getHikariPoolMXBean();
+            if (poolMXBean != null) {
+                status.setTotalConnections(poolMXBean.getTotalConnections());
+                status.setActiveConnections(poolMXBean.getActiveConnections());
+                status.setIdleConnections(poolMXBean.getIdleConnections());
+                status.setThreadsAwaitingConnection(poolMXBean.getThreadsAwaitingConnection());
+            }
+            return status;
+        }
+    }
+}
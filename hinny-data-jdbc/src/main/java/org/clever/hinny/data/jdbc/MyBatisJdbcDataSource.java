@@ -5,7 +5,6 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import lombok.extern.slf4j.Slf4j;
 import org.clever.common.model.request.QueryByPage;
 import org.clever.common.model.request.QueryBySort;
-import org.clever.dynamic.sql.BoundSql;
 import org.clever.hinny.data.common.AbstractDataSource;
 import org.clever.hinny.data.jdbc.mybatis.MyBatisMapperSql;
 import org.clever.hinny.data.jdbc.support.*;
@@ -14,6 +13,9 @@ import org.springframework.util.Assert;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 
 /**
@@ -30,12 +32,21 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      * Mapper动态SQL
      */
     private final MyBatisMapperSql mapperSql;
+    /**
+     * Mapper动态SQL的编译缓存
+     */
+    private final CompiledSqlCache compiledSqlCache;
 
     public MyBatisJdbcDataSource(JdbcDataSource jdbcDataSource, MyBatisMapperSql mapperSql) {
+        this(jdbcDataSource, mapperSql, new CompiledSqlCache(mapperSql));
+    }
+
+    private MyBatisJdbcDataSource(JdbcDataSource jdbcDataSource, MyBatisMapperSql mapperSql, CompiledSqlCache compiledSqlCache) {
         Assert.notNull(jdbcDataSource, "参数jdbcDataSource不能为空");
         Assert.notNull(mapperSql, "参数mapperSql不能为空");
         this.jdbcDataSource = jdbcDataSource;
         this.mapperSql = mapperSql;
+        this.compiledSqlCache = compiledSqlCache;
     }
 
     /**
@@ -45,6 +56,23 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
         return jdbcDataSource.getDbType();
     }
 
+    /**
+     * Mapper动态SQL的编译缓存(可以读取统计信息或者禁用)
+     */
+    public CompiledSqlCache getCompiledSqlCache() {
+        return compiledSqlCache;
+    }
+
+    /**
+     * 创建使用指定SQL执行配置(超时时间、最大行数、fetchSize、取消句柄)的数据源<br/>
+     * 返回的数据源与当前数据源共享连接池和Mapper动态SQL，调用其close方法不会关闭连接池
+     *
+     * @param queryOptions SQL执行配置
+     */
+    public MyBatisJdbcDataSource withOptions(QueryOptions queryOptions) {
+        return new MyBatisJdbcDataSource(jdbcDataSource.withOptions(queryOptions), mapperSql, compiledSqlCache);
+    }
+
     @Override
     public boolean isClosed() {
         return jdbcDataSource.isClosed();
@@ -55,6 +83,39 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
         jdbcDataSource.close();
     }
 
+    /**
+     * 异步预热所有 select 语句的 count SQL(使用空参数生成SQL，失败的SQL会被忽略)
+     *
+     * @param executor 执行预热任务的线程池
+     * @return 预热成功的SQL数量
+     */
+    public CompletableFuture<Integer> warmUpCountSql(Executor executor) {
+        Assert.notNull(executor, "参数executor不能为空");
+        return CompletableFuture.supplyAsync(() -> {
+            int count = 0;
+            final long startTime = System.currentTimeMillis();
+            for (String sqlId : mapperSql.getSelectSqlIds()) {
+                try {
+                    SqlUtils.getCountSql(getSql(sqlId));
+                    count++;
+                } catch (Exception e) {
+                    log.debug("# 预热count SQL失败 | SqlId={} | error={}", sqlId, e.getMessage());
+                }
+            }
+            log.info("# 预热count SQL完成 | 数量: {} | 耗时: {}ms", count, System.currentTimeMillis() - startTime);
+            return count;
+        }, executor);
+    }
+
+    /**
+     * 异步预热所有 select 语句的 count SQL(使用公共ForkJoinPool)
+     *
+     * @return 预热成功的SQL数量
+     */
+    public CompletableFuture<Integer> warmUpCountSql() {
+        return warmUpCountSql(ForkJoinPool.commonPool());
+    }
+
     // --------------------------------------------------------------------------------------------
     // Query 操作
     // --------------------------------------------------------------------------------------------
@@ -67,7 +128,7 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      */
     public Map<String, Object> queryEntity(String sqlId, Map<String, Object> paramMap) {
         TupleTow<String, Map<String, Object>> sqlInfo = getSql(sqlId, paramMap);
-        return jdbcDataSource.queryMap(sqlInfo.getValue1(), sqlInfo.getValue2(), true);
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryMap(sqlInfo.getValue1(), sqlInfo.getValue2(), true));
     }
 
     /**
@@ -76,7 +137,7 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      * @param sqlId SqlID
      */
     public Map<String, Object> queryEntity(String sqlId) {
-        return jdbcDataSource.queryMap(getSql(sqlId), true);
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryMap(getSql(sqlId), true));
     }
 
     /**
@@ -87,7 +148,7 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      */
     public List<Map<String, Object>> queryList(String sqlId, Map<String, Object> paramMap) {
         TupleTow<String, Map<String, Object>> sqlInfo = getSql(sqlId, paramMap);
-        return jdbcDataSource.queryList(sqlInfo.getValue1(), sqlInfo.getValue2(), true);
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryList(sqlInfo.getValue1(), sqlInfo.getValue2(), true));
     }
 
     /**
@@ -96,7 +157,29 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      * @param sqlId SqlID
      */
     public List<Map<String, Object>> queryList(String sqlId) {
-        return jdbcDataSource.queryList(getSql(sqlId), true);
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryList(getSql(sqlId), true));
+    }
+
+    /**
+     * 查询多条数据，返回JavaBean数组
+     *
+     * @param sqlId    SqlID
+     * @param paramMap 查询参数
+     * @param clazz    数据类型(需要无参构造函数和setter)
+     */
+    public <T> List<T> queryList(String sqlId, Map<String, Object> paramMap, Class<T> clazz) {
+        TupleTow<String, Map<String, Object>> sqlInfo = getSql(sqlId, paramMap);
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryList(sqlInfo.getValue1(), sqlInfo.getValue2(), clazz));
+    }
+
+    /**
+     * 查询多条数据，返回JavaBean数组
+     *
+     * @param sqlId SqlID
+     * @param clazz 数据类型(需要无参构造函数和setter)
+     */
+    public <T> List<T> queryList(String sqlId, Class<T> clazz) {
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryList(getSql(sqlId), clazz));
     }
 
     /**
@@ -107,7 +190,7 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      */
     public String queryString(String sqlId, Map<String, Object> paramMap) {
         TupleTow<String, Map<String, Object>> sqlInfo = getSql(sqlId, paramMap);
-        return jdbcDataSource.queryString(sqlInfo.getValue1(), sqlInfo.getValue2());
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryString(sqlInfo.getValue1(), sqlInfo.getValue2()));
     }
 
     /**
@@ -116,7 +199,7 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      * @param sqlId SqlID
      */
     public String queryString(String sqlId) {
-        return jdbcDataSource.queryString(getSql(sqlId));
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryString(getSql(sqlId)));
     }
 
     /**
@@ -127,7 +210,7 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      */
     public Long queryLong(String sqlId, Map<String, Object> paramMap) {
         TupleTow<String, Map<String, Object>> sqlInfo = getSql(sqlId, paramMap);
-        return jdbcDataSource.queryLong(sqlInfo.getValue1(), sqlInfo.getValue2());
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryLong(sqlInfo.getValue1(), sqlInfo.getValue2()));
     }
 
     /**
@@ -136,7 +219,7 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      * @param sqlId SqlID
      */
     public Long queryLong(String sqlId) {
-        return jdbcDataSource.queryLong(getSql(sqlId));
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryLong(getSql(sqlId)));
     }
 
     /**
@@ -147,7 +230,7 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      */
     public Double queryDouble(String sqlId, Map<String, Object> paramMap) {
         TupleTow<String, Map<String, Object>> sqlInfo = getSql(sqlId, paramMap);
-        return jdbcDataSource.queryDouble(sqlInfo.getValue1(), sqlInfo.getValue2());
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryDouble(sqlInfo.getValue1(), sqlInfo.getValue2()));
     }
 
     /**
@@ -156,7 +239,7 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      * @param sqlId SqlID
      */
     public Double queryDouble(String sqlId) {
-        return jdbcDataSource.queryDouble(getSql(sqlId));
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryDouble(getSql(sqlId)));
     }
 
     /**
@@ -167,7 +250,7 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      */
     public BigDecimal queryBigDecimal(String sqlId, Map<String, Object> paramMap) {
         TupleTow<String, Map<String, Object>> sqlInfo = getSql(sqlId, paramMap);
-        return jdbcDataSource.queryBigDecimal(sqlInfo.getValue1(), sqlInfo.getValue2());
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryBigDecimal(sqlInfo.getValue1(), sqlInfo.getValue2()));
     }
 
     /**
@@ -176,7 +259,7 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      * @param sqlId SqlID
      */
     public BigDecimal queryBigDecimal(String sqlId) {
-        return jdbcDataSource.queryBigDecimal(getSql(sqlId));
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryBigDecimal(getSql(sqlId)));
     }
 
     /**
@@ -187,7 +270,7 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      */
     public Boolean queryBoolean(String sqlId, Map<String, Object> paramMap) {
         TupleTow<String, Map<String, Object>> sqlInfo = getSql(sqlId, paramMap);
-        return jdbcDataSource.queryBoolean(sqlInfo.getValue1(), sqlInfo.getValue2());
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryBoolean(sqlInfo.getValue1(), sqlInfo.getValue2()));
     }
 
     /**
@@ -196,7 +279,7 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      * @param sqlId SqlID
      */
     public Boolean queryBoolean(String sqlId) {
-        return jdbcDataSource.queryBoolean(getSql(sqlId));
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryBoolean(getSql(sqlId)));
     }
 
     /**
@@ -207,7 +290,7 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      */
     public Date queryDate(String sqlId, Map<String, Object> paramMap) {
         TupleTow<String, Map<String, Object>> sqlInfo = getSql(sqlId, paramMap);
-        return jdbcDataSource.queryDate(sqlInfo.getValue1(), sqlInfo.getValue2());
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryDate(sqlInfo.getValue1(), sqlInfo.getValue2()));
     }
 
     /**
@@ -216,7 +299,7 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      * @param sqlId SqlID
      */
     public Date queryDate(String sqlId) {
-        return jdbcDataSource.queryDate(getSql(sqlId));
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryDate(getSql(sqlId)));
     }
 
     /**
@@ -227,7 +310,7 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      */
     public long queryCount(String sqlId, Map<String, Object> paramMap) {
         TupleTow<String, Map<String, Object>> sqlInfo = getSql(sqlId, paramMap);
-        return jdbcDataSource.queryCount(sqlInfo.getValue1(), sqlInfo.getValue2());
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryCount(sqlInfo.getValue1(), sqlInfo.getValue2()));
     }
 
     /**
@@ -236,7 +319,7 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      * @param sqlId SqlID
      */
     public long queryCount(String sqlId) {
-        return jdbcDataSource.queryCount(getSql(sqlId));
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryCount(getSql(sqlId)));
     }
 
     /**
@@ -249,7 +332,7 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      */
     public void query(String sqlId, Map<String, Object> paramMap, int batchSize, Consumer<BatchData> consumer) {
         TupleTow<String, Map<String, Object>> sqlInfo = getSql(sqlId, paramMap);
-        jdbcDataSource.query(sqlInfo.getValue1(), sqlInfo.getValue2(), batchSize, consumer, true);
+        SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.query(sqlInfo.getValue1(), sqlInfo.getValue2(), batchSize, consumer, true));
     }
 
     /**
@@ -260,7 +343,21 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      * @param consumer  游标批次读取数据消费者
      */
     public void query(String sqlId, int batchSize, Consumer<BatchData> consumer) {
-        jdbcDataSource.query(getSql(sqlId), batchSize, consumer, true);
+        SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.query(getSql(sqlId), batchSize, consumer, true));
+    }
+
+    /**
+     * 查询多条数据(大量数据)，使用游标读取，数据直接读取到JavaBean
+     *
+     * @param sqlId     SqlID
+     * @param paramMap  查询参数
+     * @param batchSize 一个批次的数据量
+     * @param clazz     数据类型(需要无参构造函数和setter)
+     * @param consumer  游标批次读取数据消费者
+     */
+    public <T> void query(String sqlId, Map<String, Object> paramMap, int batchSize, Class<T> clazz, Consumer<List<T>> consumer) {
+        TupleTow<String, Map<String, Object>> sqlInfo = getSql(sqlId, paramMap);
+        SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.query(sqlInfo.getValue1(), sqlInfo.getValue2(), batchSize, clazz, consumer));
     }
 
     /**
@@ -272,7 +369,7 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      */
     public void query(String sqlId, Map<String, Object> paramMap, Consumer<RowData> consumer) {
         TupleTow<String, Map<String, Object>> sqlInfo = getSql(sqlId, paramMap);
-        jdbcDataSource.query(sqlInfo.getValue1(), sqlInfo.getValue2(), consumer, true);
+        SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.query(sqlInfo.getValue1(), sqlInfo.getValue2(), consumer, true));
     }
 
     /**
@@ -282,7 +379,43 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      * @param consumer 游标读取数据消费者
      */
     public void query(String sqlId, Consumer<RowData> consumer) {
-        jdbcDataSource.query(getSql(sqlId), consumer, true);
+        SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.query(getSql(sqlId), consumer, true));
+    }
+
+    /**
+     * 查询多条数据(大量数据)，使用游标读取，流水线模式：读取的批次数据放入有界队列，由工作线程处理，游标继续读取数据
+     *
+     * @param sqlId    SqlID
+     * @param paramMap 查询参数
+     * @param config   流水线配置
+     * @param consumer 批次数据消费者(在工作线程中执行)
+     * @return 读取的数据总量
+     */
+    public int queryPipelined(String sqlId, Map<String, Object> paramMap, PipelineConfig config, Consumer<BatchData> consumer) {
+        TupleTow<String, Map<String, Object>> sqlInfo = getSql(sqlId, paramMap);
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryPipelined(sqlInfo.getValue1(), sqlInfo.getValue2(), config, consumer));
+    }
+
+    /**
+     * 查询多条数据(大量数据)，使用游标读取，所有行共享一个行数据视图(不会为每一行数据创建Map)
+     *
+     * @param sqlId    SqlID
+     * @param paramMap 查询参数
+     * @param consumer 游标读取数据消费者(需要保留行数据时调用 {@link RowView#copy()})
+     */
+    public void queryRowView(String sqlId, Map<String, Object> paramMap, Consumer<RowView> consumer) {
+        TupleTow<String, Map<String, Object>> sqlInfo = getSql(sqlId, paramMap);
+        SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryRowView(sqlInfo.getValue1(), sqlInfo.getValue2(), consumer, true));
+    }
+
+    /**
+     * 查询多条数据(大量数据)，使用游标读取，所有行共享一个行数据视图(不会为每一行数据创建Map)
+     *
+     * @param sqlId    SqlID
+     * @param consumer 游标读取数据消费者(需要保留行数据时调用 {@link RowView#copy()})
+     */
+    public void queryRowView(String sqlId, Consumer<RowView> consumer) {
+        SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryRowView(getSql(sqlId), consumer, true));
     }
 
     /**
@@ -294,7 +427,7 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      */
     public List<Map<String, Object>> queryBySort(String sqlId, QueryBySort sort, Map<String, Object> paramMap) {
         TupleTow<String, Map<String, Object>> sqlInfo = getSql(sqlId, paramMap);
-        return jdbcDataSource.queryBySort(sqlInfo.getValue1(), sort, sqlInfo.getValue2(), true);
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryBySort(sqlInfo.getValue1(), sort, sqlInfo.getValue2(), true));
     }
 
     /**
@@ -304,7 +437,34 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      * @param sort  排序配置
      */
     public List<Map<String, Object>> queryBySort(String sqlId, QueryBySort sort) {
-        return jdbcDataSource.queryBySort(getSql(sqlId), sort, true);
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryBySort(getSql(sqlId), sort, true));
+    }
+
+    /**
+     * 分页查询(支持排序)，使用指定的策略计算数据总量，返回分页对象
+     *
+     * @param sqlId        SqlID
+     * @param pagination   分页配置(支持排序)
+     * @param paramMap     查询参数
+     * @param countOptions 数据总量的计算配置
+     */
+    public CountPage<Map<String, Object>> queryByPage(String sqlId, QueryByPage pagination, Map<String, Object> paramMap, CountOptions countOptions) {
+        TupleTow<String, Map<String, Object>> sqlInfo = getSql(sqlId, paramMap);
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryByPage(sqlInfo.getValue1(), pagination, sqlInfo.getValue2(), countOptions, true));
+    }
+
+    /**
+     * 分页查询(支持排序)，返回分页对象
+     *
+     * @param sqlId         SqlID
+     * @param pagination    分页配置(支持排序)
+     * @param paramMap      查询参数
+     * @param countQuery    是否要执行count查询(可选)
+     * @param parallelCount count查询与分页查询是否并行执行
+     */
+    public IPage<Map<String, Object>> queryByPage(String sqlId, QueryByPage pagination, Map<String, Object> paramMap, boolean countQuery, boolean parallelCount) {
+        TupleTow<String, Map<String, Object>> sqlInfo = getSql(sqlId, paramMap);
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryByPage(sqlInfo.getValue1(), pagination, sqlInfo.getValue2(), countQuery, true, parallelCount));
     }
 
     /**
@@ -317,7 +477,7 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      */
     public IPage<Map<String, Object>> queryByPage(String sqlId, QueryByPage pagination, Map<String, Object> paramMap, boolean countQuery) {
         TupleTow<String, Map<String, Object>> sqlInfo = getSql(sqlId, paramMap);
-        return jdbcDataSource.queryByPage(sqlInfo.getValue1(), pagination, sqlInfo.getValue2(), countQuery, true);
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryByPage(sqlInfo.getValue1(), pagination, sqlInfo.getValue2(), countQuery, true));
     }
 
     /**
@@ -329,7 +489,7 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      */
     public IPage<Map<String, Object>> queryByPage(String sqlId, QueryByPage pagination, Map<String, Object> paramMap) {
         TupleTow<String, Map<String, Object>> sqlInfo = getSql(sqlId, paramMap);
-        return jdbcDataSource.queryByPage(sqlInfo.getValue1(), pagination, sqlInfo.getValue2(), true);
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryByPage(sqlInfo.getValue1(), pagination, sqlInfo.getValue2(), true));
     }
 
     /**
@@ -340,7 +500,7 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      * @param countQuery 是否要执行count查询(可选)
      */
     public IPage<Map<String, Object>> queryByPage(String sqlId, QueryByPage pagination, boolean countQuery) {
-        return jdbcDataSource.queryByPage(getSql(sqlId), pagination, Collections.emptyMap(), countQuery, true);
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryByPage(getSql(sqlId), pagination, Collections.emptyMap(), countQuery, true));
     }
 
     /**
@@ -350,7 +510,33 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      * @param pagination 分页配置(支持排序)
      */
     public IPage<Map<String, Object>> queryByPage(String sqlId, QueryByPage pagination) {
-        return jdbcDataSource.queryByPage(getSql(sqlId), pagination, Collections.emptyMap(), true, true);
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryByPage(getSql(sqlId), pagination, Collections.emptyMap(), true, true));
+    }
+
+    /**
+     * Keyset(Seek)分页查询，使用上一页最后一行的排序字段值定位下一页，查询任意页的代价相同
+     *
+     * @param sqlId    SqlID
+     * @param sort     排序配置(不能为空)
+     * @param paramMap 查询参数
+     * @param cursor   上一页返回的游标(查询第一页时为null)
+     * @param pageSize 页大小
+     */
+    public SeekPage<Map<String, Object>> queryBySeek(String sqlId, QueryBySort sort, Map<String, Object> paramMap, String cursor, int pageSize) {
+        TupleTow<String, Map<String, Object>> sqlInfo = getSql(sqlId, paramMap);
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryBySeek(sqlInfo.getValue1(), sort, sqlInfo.getValue2(), cursor, pageSize, true));
+    }
+
+    /**
+     * Keyset(Seek)分页查询，使用上一页最后一行的排序字段值定位下一页，查询任意页的代价相同
+     *
+     * @param sqlId    SqlID
+     * @param sort     排序配置(不能为空)
+     * @param cursor   上一页返回的游标(查询第一页时为null)
+     * @param pageSize 页大小
+     */
+    public SeekPage<Map<String, Object>> queryBySeek(String sqlId, QueryBySort sort, String cursor, int pageSize) {
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.queryBySeek(getSql(sqlId), sort, null, cursor, pageSize, true));
     }
 
     /**
@@ -385,7 +571,7 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      */
     public int update(String sqlId, Map<String, Object> paramMap) {
         TupleTow<String, Map<String, Object>> sqlInfo = getSql(sqlId, paramMap);
-        return jdbcDataSource.update(sqlInfo.getValue1(), sqlInfo.getValue2());
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.update(sqlInfo.getValue1(), sqlInfo.getValue2()));
     }
 
     /**
@@ -394,7 +580,7 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      * @param sqlId SqlID
      */
     public int update(String sqlId) {
-        return jdbcDataSource.update(getSql(sqlId));
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.update(getSql(sqlId)));
     }
 
     /**
@@ -426,7 +612,30 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      * @param paramMapList 参数数组
      */
     public int[] batchUpdate(String sqlId, Collection<Map<String, Object>> paramMapList) {
-        return jdbcDataSource.batchUpdate(getSql(sqlId), paramMapList);
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.batchUpdate(getSql(sqlId), paramMapList));
+    }
+
+    /**
+     * 流式分批执行更新SQL(按批次从迭代器读取参数，内存占用与数据总量无关)
+     *
+     * @param sqlId          SqlID
+     * @param paramIterator  参数迭代器
+     * @param batchSize      每个批次的数据量
+     * @param commitPerBatch 是否每个批次在独立的事务中执行并提交
+     */
+    public BatchUpdateResult batchUpdate(String sqlId, Iterator<Map<String, Object>> paramIterator, int batchSize, boolean commitPerBatch) {
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.batchUpdate(getSql(sqlId), paramIterator, batchSize, commitPerBatch));
+    }
+
+    /**
+     * 流式分批执行更新SQL(按批次从迭代器读取参数，内存占用与数据总量无关)
+     *
+     * @param sqlId         SqlID
+     * @param paramIterator 参数迭代器
+     * @param batchSize     每个批次的数据量
+     */
+    public BatchUpdateResult batchUpdate(String sqlId, Iterator<Map<String, Object>> paramIterator, int batchSize) {
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.batchUpdate(getSql(sqlId), paramIterator, batchSize));
     }
 
     // --------------------------------------------------------------------------------------------
@@ -455,7 +664,7 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      */
     public InsertResult insert(String sqlId, Map<String, Object> paramMap) {
         TupleTow<String, Map<String, Object>> sqlInfo = getSql(sqlId, paramMap);
-        return jdbcDataSource.insert(sqlInfo.getValue1(), sqlInfo.getValue2());
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.insert(sqlInfo.getValue1(), sqlInfo.getValue2()));
     }
 
     /**
@@ -464,7 +673,7 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
      * @param sqlId SqlID
      */
     public InsertResult insert(String sqlId) {
-        return jdbcDataSource.insert(getSql(sqlId));
+        return SqlStatistics.withSqlId(sqlId, () -> jdbcDataSource.insert(getSql(sqlId)));
     }
 
     /**
@@ -487,6 +696,17 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
         return jdbcDataSource.insertTables(tableName, fieldsList, true);
     }
 
+    /**
+     * 数据批量插入到表
+     *
+     * @param tableName  表名称
+     * @param fieldsList 字段名集合
+     * @param batchSize  单条insert语句最多插入的数据行数
+     */
+    public List<InsertResult> insertTables(String tableName, Collection<Map<String, Object>> fieldsList, int batchSize) {
+        return jdbcDataSource.insertTables(tableName, fieldsList, true, batchSize);
+    }
+
     // --------------------------------------------------------------------------------------------
     //  事务操作
     // --------------------------------------------------------------------------------------------
@@ -624,19 +844,11 @@ public class MyBatisJdbcDataSource extends AbstractDataSource {
         return jdbcDataSource.getStatus();
     }
 
-    private TupleTow<String, Map<String, Object>> getSql(String sqlId, Object parameter) {
-        Assert.hasText(sqlId, "参数sqlId不能为空");
-        if (parameter == null) {
-            parameter = new HashMap<>();
-        }
-        BoundSql boundSql = mapperSql.getBoundSql(sqlId, parameter);
-        Assert.notNull(boundSql, "SQL不存在，sqlId=" + sqlId);
-        return TupleTow.creat(boundSql.getNamedParameterSql(), boundSql.getParameterMap());
+    private TupleTow<String, Map<String, Object>> getSql(String sqlId, Map<String, Object> parameter) {
+        return compiledSqlCache.getSql(sqlId, parameter);
     }
 
     private String getSql(String sqlId) {
-        Assert.hasText(sqlId, "参数sqlId不能为空");
-        BoundSql boundSql = mapperSql.getBoundSql(sqlId, new HashMap<>());
-        return boundSql.getNamedParameterSql();
+        return compiledSqlCache.getSql(sqlId);
     }
 }
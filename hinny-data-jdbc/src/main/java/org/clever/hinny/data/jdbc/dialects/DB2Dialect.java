@@ -22,4 +22,14 @@ public class DB2Dialect extends AbstractDialect {
         long secondParam = offset + limit;
         return "SELECT * FROM (SELECT TMP_PAGE.*,ROWNUMBER() OVER() AS ROW_ID FROM ( " + originalSql + " ) AS TMP_PAGE) TMP_PAGE WHERE ROW_ID BETWEEN " + firstParam + " AND " + secondParam;
     }
+
+    @Override
+    public int getMaxParameterCount() {
+        return 32767;
+    }
+
+    @Override
+    public boolean supportRowValueComparison() {
+        return false;
+    }
 }
@@ -9,19 +9,24 @@ import java.util.Map;
 public class H2Dialect extends AbstractDialect {
     @Override
     public String doBuildPaginationSql(String originalSql, long offset, long limit, Map<String, Object> paramMap, String firstMark, String secondMark) {
-        String sql = originalSql + " limit " + (COLON + firstMark);
+        String sql = originalSql + " limit " + (COLON + secondMark);
         if (offset > 0) {
-            sql += (" offset " + (COLON + secondMark));
+            sql += (" offset " + (COLON + firstMark));
         }
         return sql;
     }
 
     @Override
     public String buildPaginationSql(String originalSql, long offset, long limit) {
-        String sql = originalSql + " limit " + offset;
+        String sql = originalSql + " limit " + limit;
         if (offset > 0) {
-            sql += (" offset " + limit);
+            sql += (" offset " + offset);
         }
         return sql;
     }
+
+    @Override
+    public String getNullsFirstOrderBy(String column, boolean asc) {
+        return column + (asc ? " ASC" : " DESC") + " NULLS FIRST";
+    }
 }
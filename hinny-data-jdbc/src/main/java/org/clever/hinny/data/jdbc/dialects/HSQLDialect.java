@@ -16,4 +16,9 @@ public class HSQLDialect extends AbstractDialect {
     public String buildPaginationSql(String originalSql, long offset, long limit) {
         return originalSql + " limit " + offset + COMMA + limit;
     }
+
+    @Override
+    public String getNullsFirstOrderBy(String column, boolean asc) {
+        return column + (asc ? " ASC" : " DESC") + " NULLS FIRST";
+    }
 }
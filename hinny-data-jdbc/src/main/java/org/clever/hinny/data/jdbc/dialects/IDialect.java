@@ -30,4 +30,42 @@ public interface IDialect {
      * @param limit       界限
      */
     String buildPaginationSql(String originalSql, long offset, long limit);
+
+    /**
+     * 单条SQL最多能使用的参数数量
+     */
+    default int getMaxParameterCount() {
+        return 2000;
+    }
+
+    /**
+     * 是否支持多行插入语句 {@code insert into table (a, b) values (?, ?), (?, ?)}
+     */
+    default boolean supportMultiRowInsert() {
+        return true;
+    }
+
+    /**
+     * 多行插入语句最多能插入的行数
+     */
+    default int getMaxInsertRows() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * 是否支持行值比较 {@code where (a, b) > (:a, :b)}
+     */
+    default boolean supportRowValueComparison() {
+        return true;
+    }
+
+    /**
+     * 生成null值排在最前面的排序子句(升序、降序都是null值在前)，默认使用通用写法 {@code case when a is null then 0 else 1 end, a ASC}
+     *
+     * @param column 排序字段
+     * @param asc    是否升序
+     */
+    default String getNullsFirstOrderBy(String column, boolean asc) {
+        return "case when " + column + " is null then 0 else 1 end, " + column + (asc ? " ASC" : " DESC");
+    }
 }
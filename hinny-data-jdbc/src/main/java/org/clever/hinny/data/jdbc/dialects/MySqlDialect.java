@@ -16,4 +16,15 @@ public class MySqlDialect extends AbstractDialect {
     public String buildPaginationSql(String originalSql, long offset, long limit) {
         return originalSql + " LIMIT " + offset + COMMA + limit;
     }
+
+    @Override
+    public int getMaxParameterCount() {
+        return 65535;
+    }
+
+    @Override
+    public String getNullsFirstOrderBy(String column, boolean asc) {
+        // 升序时null值默认排在最前面
+        return asc ? (column + " ASC") : super.getNullsFirstOrderBy(column, false);
+    }
 }
@@ -10,12 +10,34 @@ public class OracleDialect extends AbstractDialect {
     @Override
     public String doBuildPaginationSql(String originalSql, long offset, long limit, Map<String, Object> paramMap, String firstMark, String secondMark) {
         limit = (offset >= 1) ? (offset + limit) : limit;
-        paramMap.put(secondMark, limit);
+        paramMap.put(firstMark, limit);
+        paramMap.put(secondMark, offset);
         return "SELECT * FROM ( SELECT TMP.*, ROWNUM ROW_ID FROM ( " + originalSql + " ) TMP WHERE ROWNUM <=" + (COLON + firstMark) + ") WHERE ROW_ID > " + (COLON + secondMark);
     }
 
     @Override
     public String buildPaginationSql(String originalSql, long offset, long limit) {
+        limit = (offset >= 1) ? (offset + limit) : limit;
         return "SELECT * FROM ( SELECT TMP.*, ROWNUM ROW_ID FROM ( " + originalSql + " ) TMP WHERE ROWNUM <=" + limit + ") WHERE ROW_ID > " + offset;
     }
+
+    @Override
+    public int getMaxParameterCount() {
+        return 65535;
+    }
+
+    @Override
+    public boolean supportMultiRowInsert() {
+        return false;
+    }
+
+    @Override
+    public boolean supportRowValueComparison() {
+        return false;
+    }
+
+    @Override
+    public String getNullsFirstOrderBy(String column, boolean asc) {
+        return column + (asc ? " ASC" : " DESC") + " NULLS FIRST";
+    }
 }
@@ -9,11 +9,21 @@ import java.util.Map;
 public class PostgreDialect extends AbstractDialect {
     @Override
     public String doBuildPaginationSql(String originalSql, long offset, long limit, Map<String, Object> paramMap, String firstMark, String secondMark) {
-        return originalSql + " limit " + (COLON + firstMark) + " offset " + (COLON + secondMark);
+        return originalSql + " limit " + (COLON + secondMark) + " offset " + (COLON + firstMark);
     }
 
     @Override
     public String buildPaginationSql(String originalSql, long offset, long limit) {
-        return originalSql + " limit " + offset + " offset " + limit;
+        return originalSql + " limit " + limit + " offset " + offset;
+    }
+
+    @Override
+    public int getMaxParameterCount() {
+        return 32767;
+    }
+
+    @Override
+    public String getNullsFirstOrderBy(String column, boolean asc) {
+        return column + (asc ? " ASC" : " DESC") + " NULLS FIRST";
     }
 }
@@ -84,4 +84,31 @@ public class SQLServer2005Dialect extends AbstractDialect {
                 //FIX#299：原因：mysql中limit 10(offset,size) 是从第10开始（不包含10）,；而这里用的BETWEEN是两边都包含，所以改为offset+1
                 firstParam + " AND " + secondParam + " ORDER BY __row_number__";
     }
+
+    /**
+     * SQL Server 单条SQL最多2100个参数
+     */
+    @Override
+    public int getMaxParameterCount() {
+        return 2000;
+    }
+
+    /**
+     * SQL Server 的 values 子句最多1000行
+     */
+    @Override
+    public int getMaxInsertRows() {
+        return 1000;
+    }
+
+    @Override
+    public boolean supportRowValueComparison() {
+        return false;
+    }
+
+    @Override
+    public String getNullsFirstOrderBy(String column, boolean asc) {
+        // 升序时null值默认排在最前面
+        return asc ? (column + " ASC") : super.getNullsFirstOrderBy(column, false);
+    }
 }
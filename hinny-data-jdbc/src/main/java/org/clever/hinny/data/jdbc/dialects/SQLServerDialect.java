@@ -16,4 +16,31 @@ public class SQLServerDialect extends AbstractDialect {
     public String buildPaginationSql(String originalSql, long offset, long limit) {
         return originalSql + " OFFSET " + offset + " ROWS FETCH NEXT " + limit + " ROWS ONLY";
     }
+
+    /**
+     * SQL Server 单条SQL最多2100个参数
+     */
+    @Override
+    public int getMaxParameterCount() {
+        return 2000;
+    }
+
+    /**
+     * SQL Server 的 values 子句最多1000行
+     */
+    @Override
+    public int getMaxInsertRows() {
+        return 1000;
+    }
+
+    @Override
+    public boolean supportRowValueComparison() {
+        return false;
+    }
+
+    @Override
+    public String getNullsFirstOrderBy(String column, boolean asc) {
+        // 升序时null值默认排在最前面
+        return asc ? (column + " ASC") : super.getNullsFirstOrderBy(column, false);
+    }
 }
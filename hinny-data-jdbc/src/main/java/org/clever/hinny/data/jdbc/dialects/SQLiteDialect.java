@@ -9,11 +9,22 @@ import java.util.Map;
 public class SQLiteDialect extends AbstractDialect {
     @Override
     public String doBuildPaginationSql(String originalSql, long offset, long limit, Map<String, Object> paramMap, String firstMark, String secondMark) {
-        return originalSql + " limit " + (COLON + firstMark) + " offset " + (COLON + secondMark);
+        return originalSql + " limit " + (COLON + secondMark) + " offset " + (COLON + firstMark);
     }
 
     @Override
     public String buildPaginationSql(String originalSql, long offset, long limit) {
-        return originalSql + " limit " + offset + " offset " + limit;
+        return originalSql + " limit " + limit + " offset " + offset;
+    }
+
+    @Override
+    public int getMaxParameterCount() {
+        return 999;
+    }
+
+    @Override
+    public String getNullsFirstOrderBy(String column, boolean asc) {
+        // 升序时null值默认排在最前面
+        return asc ? (column + " ASC") : super.getNullsFirstOrderBy(column, false);
     }
 }
@@ -15,7 +15,7 @@ import java.util.function.Consumer;
  * 作者：lizw <br/>
  * 创建时间：2020/09/02 15:58 <br/>
  */
-public class FileSystemWatcher {
+public class FileSystemWatcher implements FileWatcher {
     /**
      * 文件监听器
      */
@@ -94,6 +94,7 @@ public class FileSystemWatcher {
      * 开始监听
      */
     @SneakyThrows
+    @Override
     public void start() {
         monitor.start();
     }
@@ -102,6 +103,7 @@ public class FileSystemWatcher {
      * 停止监听
      */
     @SneakyThrows
+    @Override
     public void stop() {
         monitor.stop();
     }
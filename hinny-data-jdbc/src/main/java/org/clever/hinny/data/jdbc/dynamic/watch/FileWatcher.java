@@ -0,0 +1,42 @@
+package org.clever.hinny.data.jdbc.dynamic.watch;
+
+import org.apache.commons.io.IOCase;
+
+import java.io.File;
+import java.util.function.Consumer;
+
+/**
+ * 文件监听
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 19:10 <br/>
+ */
+public interface FileWatcher {
+    /**
+     * 开始监听
+     */
+    void start();
+
+    /**
+     * 停止监听
+     */
+    void stop();
+
+    /**
+     * 创建文件监听
+     *
+     * @param watchMode       文件监听的实现方式(为空使用 {@link WatchMode#NIO})
+     * @param absolutePath    监听文件绝对路径
+     * @param listener        文件变化时的处理函数
+     * @param include         包含的文件通配符(白名单)
+     * @param exclude         排除的文件通配符(黑名单)
+     * @param caseSensitivity 文件大小写敏感设置
+     * @param interval        {@link WatchMode#NIO}: 合并事件的等待时间，{@link WatchMode#POLLING}: 两次文件系统检查之间等待的时间(单位：毫秒)
+     */
+    static FileWatcher create(WatchMode watchMode, String absolutePath, Consumer<File> listener, String[] include, String[] exclude, IOCase caseSensitivity, long interval) {
+        if (watchMode == WatchMode.POLLING) {
+            return new FileSystemWatcher(absolutePath, listener, include, exclude, caseSensitivity, interval);
+        }
+        return new NioFileSystemWatcher(absolutePath, listener, include, exclude, caseSensitivity, interval);
+    }
+}
@@ -0,0 +1,329 @@
+package org.clever.hinny.data.jdbc.dynamic.watch;
+
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.IOCase;
+import org.springframework.util.Assert;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * 基于NIO {@link WatchService} 的文件监听(事件驱动，不需要定时遍历文件夹)
+ * <p>
+ * 1.递归注册所有子文件夹，新建的子文件夹会自动注册<br/>
+ * 2.一段时间(debounce)内没有新的事件才触发回调，同一个文件的多次事件会合并成一次(如: git checkout修改大量文件)<br/>
+ * 3.事件溢出(OVERFLOW)时重新扫描整个文件夹<br/>
+ * 文件系统不支持原生文件通知时(如：部分网络文件系统)，可以使用 {@link FileSystemWatcher} 轮询实现
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/18 17:05 <br/>
+ */
+@Slf4j
+public class NioFileSystemWatcher implements FileWatcher {
+    /**
+     * 默认合并事件的等待时间(毫秒)
+     */
+    public static final long Default_Debounce = 300;
+    /**
+     * 持续有事件时，最多推迟回调的倍数(相对于debounce)
+     */
+    private static final int Max_Delay_Multiple = 10;
+    /**
+     * 没有待处理事件时，检查停止标识的时间间隔(毫秒)
+     */
+    private static final long Idle_Poll_Interval = 1000;
+
+    /**
+     * 监听的根路径
+     */
+    private final Path rootPath;
+    /**
+     * 文件过滤器
+     */
+    private final FileFilter fileFilter;
+    /**
+     * 文件变化时的处理函数
+     */
+    private final Consumer<File> listener;
+    /**
+     * 合并事件的等待时间(毫秒)
+     */
+    private final long debounce;
+    /**
+     * 已注册的文件夹 {@code Map<WatchKey, 文件夹路径>}
+     */
+    private final Map<WatchKey, Path> watchKeys = new HashMap<>();
+    /**
+     * 已注册的文件夹
+     */
+    private final Set<Path> watchDirs = new HashSet<>();
+    /**
+     * 上次触发回调之后被删除的文件夹(删除事件不触发回调)
+     */
+    private final Set<Path> removedDirs = new HashSet<>();
+    /**
+     * 待处理的文件(保持事件顺序，同一个文件只保留一次)
+     */
+    private final Set<File> pendingFiles = new LinkedHashSet<>();
+    private WatchService watchService;
+    private Thread watchThread;
+    private volatile boolean running = false;
+
+    /**
+     * @param absolutePath    监听文件绝对路径
+     * @param listener        文件变化时的处理函数
+     * @param include         包含的文件通配符(白名单)
+     * @param exclude         排除的文件通配符(黑名单)
+     * @param caseSensitivity 文件大小写敏感设置
+     * @param debounce        合并事件的等待时间(毫秒)
+     */
+    public NioFileSystemWatcher(String absolutePath, Consumer<File> listener, String[] include, String[] exclude, IOCase caseSensitivity, long debounce) {
+        this(absolutePath, listener, new BlackWhiteFileFilter(include, exclude, caseSensitivity), debounce);
+    }
+
+    /**
+     * @param absolutePath 监听文件绝对路径
+     * @param listener     文件变化时的处理函数
+     * @param include      包含的文件通配符(白名单)
+     * @param exclude      排除的文件通配符(黑名单)
+     */
+    public NioFileSystemWatcher(String absolutePath, Consumer<File> listener, String[] include, String[] exclude) {
+        this(absolutePath, listener, include, exclude, null, Default_Debounce);
+    }
+
+    /**
+     * @param absolutePath    监听文件绝对路径
+     * @param listener        文件变化时的处理函数
+     * @param include         包含的文件通配符(白名单)
+     * @param exclude         排除的文件通配符(黑名单)
+     * @param caseSensitivity 文件大小写敏感设置
+     * @param debounce        合并事件的等待时间(毫秒)
+     */
+    public NioFileSystemWatcher(String absolutePath, Consumer<File> listener, Set<String> include, Set<String> exclude, IOCase caseSensitivity, long debounce) {
+        this(absolutePath, listener, new BlackWhiteFileFilter(include, exclude, caseSensitivity), debounce);
+    }
+
+    /**
+     * @param absolutePath 监听文件绝对路径
+     * @param listener     文件变化时的处理函数
+     * @param include      包含的文件通配符(白名单)
+     * @param exclude      排除的文件通配符(黑名单)
+     */
+    public NioFileSystemWatcher(String absolutePath, Consumer<File> listener, Set<String> include, Set<String> exclude) {
+        this(absolutePath, listener, include, exclude, null, Default_Debounce);
+    }
+
+    private NioFileSystemWatcher(String absolutePath, Consumer<File> listener, FileFilter fileFilter, long debounce) {
+        Assert.hasText(absolutePath, "参数absolutePath不能为空");
+        Assert.notNull(listener, "参数listener不能为空");
+        Assert.isTrue(debounce >= 0, "参数debounce不能小于0");
+        this.rootPath = Paths.get(absolutePath).toAbsolutePath().normalize();
+        Assert.isTrue(Files.isDirectory(rootPath), "路径：" + rootPath + "不存在或者不是一个文件夹");
+        this.listener = listener;
+        this.fileFilter = fileFilter;
+        this.debounce = debounce;
+    }
+
+    /**
+     * 开始监听
+     */
+    @SneakyThrows
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        watchService = rootPath.getFileSystem().newWatchService();
+        watchKeys.clear();
+        watchDirs.clear();
+        removedDirs.clear();
+        pendingFiles.clear();
+        registerAll(rootPath, false);
+        running = true;
+        watchThread = new Thread(this::watchLoop, "file-system-watcher");
+        watchThread.setDaemon(true);
+        watchThread.start();
+    }
+
+    /**
+     * 停止监听
+     */
+    @SneakyThrows
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        watchService.close();
+        if (watchThread != Thread.currentThread()) {
+            watchThread.join();
+        }
+        watchThread = null;
+        watchService = null;
+    }
+
+    private void watchLoop() {
+        long firstEventTime = 0;
+        long lastEventTime = 0;
+        while (running) {
+            final WatchKey key;
+            try {
+                key = watchService.poll(pendingFiles.isEmpty() ? Idle_Poll_Interval : Math.max(debounce, 1), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ClosedWatchServiceException e) {
+                break;
+            }
+            final long now = System.currentTimeMillis();
+            if (key != null) {
+                if (pendingFiles.isEmpty()) {
+                    firstEventTime = now;
+                }
+                lastEventTime = now;
+                try {
+                    processEvents(key);
+                } catch (ClosedWatchServiceException e) {
+                    break;
+                }
+            }
+            if (!pendingFiles.isEmpty() && (now - lastEventTime >= debounce || now - firstEventTime >= debounce * Max_Delay_Multiple)) {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * 处理一个文件夹的所有事件
+     */
+    private void processEvents(WatchKey key) {
+        final Path dir = watchKeys.get(key);
+        try {
+            if (dir == null) {
+                return;
+            }
+            for (WatchEvent<?> event : key.pollEvents()) {
+                final WatchEvent.Kind<?> kind = event.kind();
+                if (kind == OVERFLOW) {
+                    log.warn("# 文件监听事件溢出，重新扫描文件夹 | path={}", rootPath);
+                    registerAll(rootPath, true);
+                    continue;
+                }
+                final Path path = dir.resolve((Path) event.context());
+                if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                    // 新建的文件夹需要注册监听，文件夹中已存在的文件作为新文件处理
+                    if (kind == ENTRY_CREATE) {
+                        registerAll(path, true);
+                    }
+                    continue;
+                }
+                if (kind == ENTRY_DELETE && (watchDirs.contains(path) || removedDirs.contains(path))) {
+                    // 已注册的文件夹被删除，取消该文件夹以及子文件夹的监听
+                    unregisterAll(path);
+                    continue;
+                }
+                pendingFiles.add(path.toFile());
+            }
+        } finally {
+            if (!key.reset()) {
+                final Path removed = watchKeys.remove(key);
+                if (removed != null) {
+                    watchDirs.remove(removed);
+                    removedDirs.add(removed);
+                }
+            }
+        }
+    }
+
+    /**
+     * 递归注册文件夹
+     *
+     * @param start      开始的文件夹
+     * @param addPending 是否把文件夹中的文件加入待处理
+     */
+    private void registerAll(Path start, boolean addPending) {
+        try {
+            Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    if (watchDirs.add(dir)) {
+                        watchKeys.put(dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), dir);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (addPending && attrs.isRegularFile()) {
+                        pendingFiles.add(file.toFile());
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                    log.warn("# 文件监听注册失败 | path={}", file, exc);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (ClosedWatchServiceException e) {
+            throw e;
+        } catch (Exception e) {
+            log.warn("# 文件监听注册失败 | path={}", start, e);
+        }
+    }
+
+    /**
+     * 取消文件夹以及子文件夹的监听
+     *
+     * @param start 文件夹
+     */
+    private void unregisterAll(Path start) {
+        final Iterator<Map.Entry<WatchKey, Path>> iterator = watchKeys.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<WatchKey, Path> entry = iterator.next();
+            final Path dir = entry.getValue();
+            if (dir.startsWith(start)) {
+                entry.getKey().cancel();
+                iterator.remove();
+                watchDirs.remove(dir);
+                removedDirs.add(dir);
+            }
+        }
+        watchDirs.remove(start);
+        removedDirs.add(start);
+    }
+
+    /**
+     * 触发所有待处理文件的回调(文件夹不触发回调，包括已删除的文件夹)
+     */
+    private void flush() {
+        final List<File> files = new ArrayList<>(pendingFiles);
+        final Set<Path> dirs = new HashSet<>(removedDirs);
+        pendingFiles.clear();
+        removedDirs.clear();
+        for (File file : files) {
+            if (file.isDirectory() || (!file.exists() && (dirs.contains(file.toPath()) || watchDirs.contains(file.toPath())))) {
+                continue;
+            }
+            if (fileFilter != null && !fileFilter.accept(file)) {
+                continue;
+            }
+            try {
+                listener.accept(file);
+            } catch (Exception e) {
+                log.error("# 文件变化处理失败 | path={}", file.getAbsolutePath(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.clever.hinny.data.jdbc.dynamic.watch;
+
+/**
+ * 文件监听的实现方式
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 19:10 <br/>
+ */
+public enum WatchMode {
+    /**
+     * 基于NIO WatchService的事件通知({@link NioFileSystemWatcher})
+     */
+    NIO,
+    /**
+     * 定时遍历文件夹({@link FileSystemWatcher})，文件系统不支持原生文件通知时使用(如：部分网络文件系统)
+     */
+    POLLING
+}
@@ -1,5 +1,6 @@
 package org.clever.hinny.data.jdbc.mybatis;
 
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -9,48 +10,114 @@ import org.clever.dynamic.sql.builder.SqlSource;
 import org.clever.dynamic.sql.parsing.XNode;
 import org.clever.dynamic.sql.parsing.XPathParser;
 import org.clever.dynamic.sql.parsing.xml.XMLMapperEntityResolver;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
+import org.springframework.util.DigestUtils;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
-import java.util.List;
-import java.util.Properties;
+import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
+ * Mapper.xml文件中SQL的加载与读取
+ * <p>
+ * 已加载的SQL保存在不可变的快照({@link SqlRegistry})中，加载或者重新加载文件时先构建新的快照再一次性替换，
+ * 读取SQL只需要读取一次volatile变量，不会加锁也不会读取到重新加载过程中的中间状态。
+ * 修改快照的方法(reloadAll、reloadFile)之间使用当前对象加锁串行执行
+ * <p>
  * 作者：lizw <br/>
  * 创建时间：2020/09/30 15:37 <br/>
  */
 @Slf4j
 public abstract class AbstractMyBatisMapperSql implements MyBatisMapperSql {
     /**
-     * 所有的Mapper文件 {@code MultiValueMap<Mapper文件绝对路径, SqlId>}
+     * select 语句标签名称
      */
-    protected final MultiValueMap<String, String> mapperFiles = new LinkedMultiValueMap<>(32);
+    protected static final String Select_Node = "select";
     /**
-     * SqlSource对象 {@code Map<SqlId, SqlSource对象>}
+     * 默认并行解析Mapper.xml文件的线程数
      */
-    protected final ConcurrentHashMap<String, SqlSource> sqlSourceMap = new ConcurrentHashMap<>(64);
+    public static final int Default_Parallelism = Runtime.getRuntime().availableProcessors();
+    /**
+     * 当前已加载SQL的快照(只能整体替换)
+     */
+    private volatile SqlRegistry registry = SqlRegistry.Empty;
+    /**
+     * 并行解析Mapper.xml文件的线程数(小于等于1时串行解析)
+     */
+    protected volatile int parallelism = Default_Parallelism;
+
+    /**
+     * 设置并行解析Mapper.xml文件的线程数(小于等于1时串行解析)
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
 
     /**
      * 获取 SqlSource
      */
     public SqlSource getSqlSource(String sqlId) {
-        return sqlSourceMap.get(sqlId);
+        MapperSql mapperSql = registry.getSqlMap().get(sqlId);
+        return mapperSql == null ? null : mapperSql.getSqlSource();
     }
 
     /**
      * 获取 BoundSql
      */
     public BoundSql getBoundSql(String sqlId, Object parameter) {
-        SqlSource sqlSource = sqlSourceMap.get(sqlId);
+        SqlSource sqlSource = getSqlSource(sqlId);
         if (sqlSource == null) {
             return null;
         }
         return sqlSource.getBoundSql(parameter);
     }
 
+    /**
+     * 是否是静态SQL(不包含动态标签和${}，生成的SQL与参数无关)
+     */
+    @Override
+    public boolean isStaticSql(String sqlId) {
+        MapperSql mapperSql = registry.getSqlMap().get(sqlId);
+        return mapperSql != null && mapperSql.isStaticSql();
+    }
+
+    /**
+     * 获取动态SQL的形状(不支持时返回null)
+     */
+    @Override
+    public SqlShape getSqlShape(String sqlId) {
+        MapperSql mapperSql = registry.getSqlMap().get(sqlId);
+        return mapperSql == null ? null : mapperSql.getSqlShape();
+    }
+
+    /**
+     * 获取所有 select 语句的 SQL ID
+     */
+    @Override
+    public Set<String> getSelectSqlIds() {
+        return new LinkedHashSet<>(registry.getSelectSqlIds());
+    }
+
+    /**
+     * 当前已加载SQL快照的版本号(每次加载或者重新加载文件后加1)
+     */
+    public long getGeneration() {
+        return registry.getGeneration();
+    }
+
+    /**
+     * 当前已加载SQL的快照(不可变)
+     */
+    protected SqlRegistry getRegistry() {
+        return registry;
+    }
+
     /**
      * 加载指定文件
      *
@@ -58,12 +125,78 @@ public abstract class AbstractMyBatisMapperSql implements MyBatisMapperSql {
      * @param inputStream  文件输入流
      */
     protected void loadSqlSource(String absolutePath, InputStream inputStream) throws Exception {
+        final byte[] content = IOUtils.toByteArray(inputStream);
+        loadSqlSource(absolutePath, content, getContentHash(content));
+    }
+
+    /**
+     * 加载指定文件内容(同时记录文件内容Hash)，替换该文件之前加载的SQL
+     *
+     * @param absolutePath 文件绝对路径
+     * @param content      文件内容
+     * @param contentHash  文件内容Hash
+     */
+    protected synchronized void loadSqlSource(String absolutePath, byte[] content, String contentHash) throws Exception {
+        final List<MapperSql> mapperSqlList = parseSqlSource(absolutePath, new ByteArrayInputStream(content));
+        final SqlRegistry.Builder builder = registry.toBuilder();
+        builder.putFile(absolutePath, contentHash, mapperSqlList);
+        publish(builder);
+    }
+
+    /**
+     * 重新加载指定文件(文件内容未变化时跳过解析)
+     *
+     * @param absolutePath 文件绝对路径
+     * @param nowExists    文件当前是否存在
+     */
+    protected synchronized void reloadFile(String absolutePath, boolean nowExists) {
+        if (!nowExists) {
+            if (registry.getFileSqlIds().containsKey(absolutePath) || registry.getFileHashes().containsKey(absolutePath)) {
+                final SqlRegistry.Builder builder = registry.toBuilder();
+                builder.removeFile(absolutePath);
+                publish(builder);
+            }
+            log.info("# 清除文件SQL | path={}", absolutePath);
+            return;
+        }
+        final long startTime = System.currentTimeMillis();
+        try {
+            final byte[] content = readMapperFile(absolutePath);
+            final String contentHash = getContentHash(content);
+            if (isUnchanged(absolutePath, contentHash)) {
+                log.info("# 文件内容未变化跳过解析 | path={}", absolutePath);
+                return;
+            }
+            loadSqlSource(absolutePath, content, contentHash);
+        } catch (Exception e) {
+            log.error("解析Mapper.xml文件失败 | path={}", absolutePath, e);
+            return;
+        }
+        final long endTime = System.currentTimeMillis();
+        log.info("# 重新解析文件成功 | 耗时: {}ms | path={}", (endTime - startTime), absolutePath);
+    }
+
+    /**
+     * 发布新的快照(版本号加1)
+     */
+    private void publish(SqlRegistry.Builder builder) {
+        registry = builder.build(registry.getGeneration() + 1);
+    }
+
+    /**
+     * 解析指定文件(不修改当前已加载的SQL，可以多线程并行调用)
+     *
+     * @param absolutePath 文件绝对路径
+     * @param inputStream  文件输入流
+     * @return 文件中的所有SQL(按文件中的顺序)
+     */
+    protected List<MapperSql> parseSqlSource(String absolutePath, InputStream inputStream) throws Exception {
         final Properties variables = new Properties();
         final String xml = IOUtils.toString(inputStream, StandardCharsets.UTF_8);
         final XPathParser parser = new XPathParser(xml, false, variables, new XMLMapperEntityResolver());
         final XNode mapper = parser.evalNode("/mapper");
         if (mapper == null) {
-            return;
+            return Collections.emptyList();
         }
         final String namespace = mapper.getStringAttribute("namespace", "");
         if (StringUtils.isBlank(namespace)) {
@@ -71,8 +204,9 @@ public abstract class AbstractMyBatisMapperSql implements MyBatisMapperSql {
         }
         final List<XNode> nodes = mapper.evalNodes("sql|select|insert|update|delete");
         if (nodes == null) {
-            return;
+            return Collections.emptyList();
         }
+        final List<MapperSql> mapperSqlList = new ArrayList<>(nodes.size());
         for (XNode node : nodes) {
             final String name = node.getName();
             final String id = node.getStringAttribute("id", "");
@@ -92,15 +226,126 @@ public abstract class AbstractMyBatisMapperSql implements MyBatisMapperSql {
             }
             final String sqlId = sqlIdSB.toString();
             SqlSource sqlSource = DynamicSqlParser.parserSql(node);
-            if (sqlSourceMap.containsKey(sqlId)) {
-                log.warn("# SQL出现冲突(覆盖) | SqlId={} | path={}", sqlId, absolutePath);
+            mapperSqlList.add(new MapperSql(sqlId, name, sqlSource, isStaticNode(node.getNode()), SqlShape.create(node.getNode())));
+        }
+        return mapperSqlList;
+    }
+
+    /**
+     * 并行解析所有文件，在新的Map中构建完整的SQL后一次性替换当前的SQL(解析过程中读取的始终是旧的完整数据)
+     *
+     * @param absolutePaths 所有文件的绝对路径(文件顺序决定SqlId冲突时的覆盖顺序)
+     */
+    protected synchronized void loadAll(Collection<String> absolutePaths) {
+        final List<String> paths = new ArrayList<>(absolutePaths);
+        final ConcurrentHashMap<String, String> newFileHashMap = new ConcurrentHashMap<>(Math.max(32, paths.size()));
+        final List<Callable<List<MapperSql>>> tasks = new ArrayList<>(paths.size());
+        for (String absolutePath : paths) {
+            tasks.add(() -> {
+                log.info("# 解析文件: {}", absolutePath);
+                try {
+                    final byte[] content = readMapperFile(absolutePath);
+                    final String contentHash = getContentHash(content);
+                    final List<MapperSql> mapperSqlList = parseSqlSource(absolutePath, new ByteArrayInputStream(content));
+                    newFileHashMap.put(absolutePath, contentHash);
+                    return mapperSqlList;
+                } catch (Exception e) {
+                    log.error("解析Mapper.xml文件失败 | path={}", absolutePath, e);
+                    return Collections.<MapperSql>emptyList();
+                }
+            });
+        }
+        final List<List<MapperSql>> results = new ArrayList<>(paths.size());
+        final int threads = Math.min(parallelism, paths.size());
+        if (threads <= 1) {
+            for (Callable<List<MapperSql>> task : tasks) {
+                try {
+                    results.add(task.call());
+                } catch (Exception e) {
+                    results.add(Collections.emptyList());
+                }
+            }
+        } else {
+            final ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                for (Future<List<MapperSql>> future : pool.invokeAll(tasks)) {
+                    results.add(future.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("解析Mapper.xml文件被中断", e);
+            } catch (Exception e) {
+                throw new RuntimeException("解析Mapper.xml文件失败", e);
+            } finally {
+                pool.shutdown();
+            }
+        }
+        final int size = results.stream().mapToInt(List::size).sum();
+        final SqlRegistry.Builder builder = new SqlRegistry.Builder(paths.size(), size);
+        for (int index = 0; index < paths.size(); index++) {
+            final String absolutePath = paths.get(index);
+            builder.putFile(absolutePath, newFileHashMap.get(absolutePath), results.get(index));
+        }
+        publish(builder);
+    }
+
+    /**
+     * 判断SQL节点是否是静态SQL(不包含子标签和${}，生成的SQL与参数无关)
+     *
+     * @param node SQL节点
+     */
+    protected static boolean isStaticNode(Node node) {
+        final NodeList children = node.getChildNodes();
+        for (int index = 0; index < children.getLength(); index++) {
+            final Node child = children.item(index);
+            final short type = child.getNodeType();
+            if (type == Node.ELEMENT_NODE) {
+                return false;
+            }
+            if ((type == Node.TEXT_NODE || type == Node.CDATA_SECTION_NODE) && StringUtils.contains(child.getNodeValue(), "${")) {
+                return false;
             }
-            mapperFiles.add(absolutePath, sqlId);
-            sqlSourceMap.put(sqlId, sqlSource);
-            log.info("# SQL读取成功,SqlId: {}", sqlId);
         }
+        return true;
+    }
+
+    /**
+     * 读取Mapper.xml文件内容
+     *
+     * @param absolutePath 文件绝对路径
+     */
+    protected byte[] readMapperFile(String absolutePath) throws Exception {
+        try (InputStream inputStream = openMapperFile(absolutePath)) {
+            return IOUtils.toByteArray(inputStream);
+        }
+    }
+
+    /**
+     * 文件内容是否与已加载的内容相同
+     *
+     * @param absolutePath 文件绝对路径
+     * @param contentHash  文件内容Hash
+     */
+    protected boolean isUnchanged(String absolutePath, String contentHash) {
+        return contentHash.equals(registry.getFileHashes().get(absolutePath));
+    }
+
+    /**
+     * 计算文件内容Hash(MD5)
+     *
+     * @param content 文件内容
+     */
+    protected static String getContentHash(byte[] content) {
+        return DigestUtils.md5DigestAsHex(content);
     }
 
+    /**
+     * 打开Mapper.xml文件输入流
+     *
+     * @param absolutePath 文件绝对路径
+     */
+    protected abstract InputStream openMapperFile(String absolutePath) throws Exception;
+
     /**
      * 加载所有文件
      */
@@ -125,4 +370,157 @@ public abstract class AbstractMyBatisMapperSql implements MyBatisMapperSql {
         log.info("# === 读取Mapper.xml文件完成 | 耗时: {}ms ===", (endTime - startTime));
         log.info("# ==================================================================================================================================");
     }
+
+    /**
+     * Mapper.xml文件中的一条SQL
+     */
+    @Getter
+    protected static class MapperSql {
+        /**
+         * SqlId
+         */
+        private final String sqlId;
+        /**
+         * SQL类型(select|insert|update|delete|sql)
+         */
+        private final String name;
+        /**
+         * SqlSource对象
+         */
+        private final SqlSource sqlSource;
+        /**
+         * 是否是静态SQL(不包含动态标签和${}，生成的SQL与参数无关)
+         */
+        private final boolean staticSql;
+        /**
+         * 动态SQL的形状(不支持时为null)
+         */
+        private final SqlShape sqlShape;
+
+        public MapperSql(String sqlId, String name, SqlSource sqlSource, boolean staticSql, SqlShape sqlShape) {
+            this.sqlId = sqlId;
+            this.name = name;
+            this.sqlSource = sqlSource;
+            this.staticSql = staticSql;
+            this.sqlShape = sqlShape;
+        }
+    }
+
+    /**
+     * 已加载SQL的不可变快照
+     */
+    @Getter
+    protected static final class SqlRegistry {
+        /**
+         * 空快照
+         */
+        static final SqlRegistry Empty = new Builder(0, 0).build(0);
+
+        /**
+         * 版本号
+         */
+        private final long generation;
+        /**
+         * 所有的SQL {@code Map<SqlId, SQL>}
+         */
+        private final Map<String, MapperSql> sqlMap;
+        /**
+         * 所有的Mapper文件 {@code Map<Mapper文件绝对路径, SqlId集合>}
+         */
+        private final Map<String, List<String>> fileSqlIds;
+        /**
+         * 文件内容Hash {@code Map<Mapper文件绝对路径, 文件内容Hash>}
+         */
+        private final Map<String, String> fileHashes;
+        /**
+         * 所有 select 语句的 SQL ID
+         */
+        private final Set<String> selectSqlIds;
+
+        private SqlRegistry(long generation, Map<String, MapperSql> sqlMap, Map<String, List<String>> fileSqlIds, Map<String, String> fileHashes) {
+            this.generation = generation;
+            this.sqlMap = Collections.unmodifiableMap(sqlMap);
+            this.fileSqlIds = Collections.unmodifiableMap(fileSqlIds);
+            this.fileHashes = Collections.unmodifiableMap(fileHashes);
+            final Set<String> selectSqlIds = new LinkedHashSet<>();
+            for (MapperSql mapperSql : sqlMap.values()) {
+                if (Select_Node.equals(mapperSql.getName())) {
+                    selectSqlIds.add(mapperSql.getSqlId());
+                }
+            }
+            this.selectSqlIds = Collections.unmodifiableSet(selectSqlIds);
+        }
+
+        /**
+         * 基于当前快照创建Builder(复制数据，不影响当前快照)
+         */
+        Builder toBuilder() {
+            return new Builder(this);
+        }
+
+        /**
+         * 构建快照(Builder只在持有锁的线程中使用)
+         */
+        static final class Builder {
+            private final Map<String, MapperSql> sqlMap;
+            private final Map<String, List<String>> fileSqlIds;
+            private final Map<String, String> fileHashes;
+
+            Builder(int fileCount, int sqlCount) {
+                this.sqlMap = new LinkedHashMap<>(Math.max(64, sqlCount * 4 / 3 + 1));
+                this.fileSqlIds = new LinkedHashMap<>(Math.max(32, fileCount * 4 / 3 + 1));
+                this.fileHashes = new HashMap<>(Math.max(32, fileCount * 4 / 3 + 1));
+            }
+
+            Builder(SqlRegistry registry) {
+                this.sqlMap = new LinkedHashMap<>(registry.sqlMap);
+                this.fileSqlIds = new LinkedHashMap<>(registry.fileSqlIds);
+                this.fileHashes = new HashMap<>(registry.fileHashes);
+            }
+
+            /**
+             * 删除文件之前加载的SQL
+             *
+             * @param absolutePath 文件绝对路径
+             */
+            void removeFile(String absolutePath) {
+                final List<String> sqlIds = fileSqlIds.remove(absolutePath);
+                if (sqlIds != null) {
+                    sqlIds.forEach(sqlMap::remove);
+                }
+                fileHashes.remove(absolutePath);
+            }
+
+            /**
+             * 加入文件中的SQL(替换该文件之前加载的SQL)
+             *
+             * @param absolutePath  文件绝对路径
+             * @param contentHash   文件内容Hash(可以为null)
+             * @param mapperSqlList 文件中的所有SQL
+             */
+            void putFile(String absolutePath, String contentHash, List<MapperSql> mapperSqlList) {
+                removeFile(absolutePath);
+                final List<String> sqlIds = new ArrayList<>(mapperSqlList.size());
+                for (MapperSql mapperSql : mapperSqlList) {
+                    final String sqlId = mapperSql.getSqlId();
+                    if (sqlMap.containsKey(sqlId)) {
+                        log.warn("# SQL出现冲突(覆盖) | SqlId={} | path={}", sqlId, absolutePath);
+                    }
+                    sqlMap.put(sqlId, mapperSql);
+                    sqlIds.add(sqlId);
+                    log.info("# SQL读取成功,SqlId: {}", sqlId);
+                }
+                if (!sqlIds.isEmpty()) {
+                    fileSqlIds.put(absolutePath, Collections.unmodifiableList(sqlIds));
+                }
+                if (contentHash != null) {
+                    fileHashes.put(absolutePath, contentHash);
+                }
+            }
+
+            SqlRegistry build(long generation) {
+                return new SqlRegistry(generation, sqlMap, fileSqlIds, fileHashes);
+            }
+        }
+    }
 }
@@ -6,6 +6,7 @@ import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -49,55 +50,29 @@ public class ClassPathMyBatisMapperSql extends AbstractMyBatisMapperSql {
     }
 
     @Override
-    public void reloadAll() {
-        mapperFiles.clear();
-        sqlSourceMap.clear();
+    public synchronized void reloadAll() {
+        List<String> absolutePaths = new ArrayList<>(resourceSet.size());
         for (Resource resource : resourceSet) {
             try {
-                final String absolutePath = resource.getURL().toExternalForm();
-                log.info("# 解析文件: {}", absolutePath);
-                loadSqlSource(resource);
+                absolutePaths.add(resource.getURL().toExternalForm());
             } catch (Exception e) {
                 log.error("解析Mapper.xml文件失败 | path={}", resource, e);
             }
         }
+        loadAll(absolutePaths);
     }
 
-    @SuppressWarnings("DuplicatedCode")
     @Override
     public void reloadFile(String absolutePath) {
         if (absolutePath == null || !absolutePath.endsWith(".xml")) {
             return;
         }
-        final boolean preExists = mapperFiles.containsKey(absolutePath);
         final Resource resource = Path_Matching_Resolver.getResource(absolutePath);
-        final boolean nowExists = resource.isReadable();
-        // 删除之前的 SqlId
-        if (preExists) {
-            List<String> sqlIds = mapperFiles.get(absolutePath);
-            if (sqlIds != null) {
-                sqlIds.forEach(sqlSourceMap::remove);
-            }
-            mapperFiles.remove(absolutePath);
-        }
-        // 解析新的文件
-        if (nowExists) {
-            long startTime = System.currentTimeMillis();
-            loadSqlSource(resource);
-            long endTime = System.currentTimeMillis();
-            log.info("# 重新解析文件成功 | 耗时: {}ms | path={}", (endTime - startTime), absolutePath);
-        } else {
-            log.info("# 清除文件SQL | path={}", absolutePath);
-        }
+        reloadFile(absolutePath, resource.isReadable());
     }
 
-    @SneakyThrows
-    protected void loadSqlSource(Resource resource) {
-        final String absolutePath = resource.getURL().toExternalForm();
-        try (InputStream inputStream = resource.getInputStream()) {
-            loadSqlSource(absolutePath, inputStream);
-        } catch (Exception exception) {
-            log.error("解析Mapper.xml文件失败 | path={}", absolutePath);
-        }
+    @Override
+    protected InputStream openMapperFile(String absolutePath) throws Exception {
+        return Path_Matching_Resolver.getResource(absolutePath).getInputStream();
     }
 }
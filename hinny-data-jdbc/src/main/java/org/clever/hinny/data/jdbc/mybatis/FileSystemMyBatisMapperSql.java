@@ -2,10 +2,14 @@ package org.clever.hinny.data.jdbc.mybatis;
 
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOCase;
+import org.clever.hinny.data.jdbc.dynamic.watch.FileWatcher;
+import org.clever.hinny.data.jdbc.dynamic.watch.WatchMode;
 import org.springframework.util.Assert;
 
 import java.io.File;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
@@ -27,55 +31,47 @@ public class FileSystemMyBatisMapperSql extends AbstractMyBatisMapperSql {
     }
 
     @Override
-    public void reloadAll() {
-        mapperFiles.clear();
-        sqlSourceMap.clear();
+    public synchronized void reloadAll() {
         Collection<File> files = FileUtils.listFiles(rootPath, new String[]{"xml"}, true);
+        List<String> absolutePaths = new ArrayList<>(files.size());
         for (File file : files) {
-            final String absolutePath = file.getAbsolutePath();
-            log.info("# 解析文件: {}", absolutePath);
-            try {
-                loadSqlSource(file);
-            } catch (Exception e) {
-                log.error("解析Mapper.xml文件失败 | path={}", absolutePath);
-            }
+            absolutePaths.add(file.getAbsolutePath());
         }
+        loadAll(absolutePaths);
     }
 
-    @SuppressWarnings("DuplicatedCode")
     @Override
     public void reloadFile(String absolutePath) {
         if (absolutePath == null || !absolutePath.endsWith(".xml")) {
             return;
         }
-        final boolean preExists = mapperFiles.containsKey(absolutePath);
         final File file = new File(absolutePath);
-        final boolean nowExists = file.exists() && file.isFile();
-        // 删除之前的 SqlId
-        if (preExists) {
-            List<String> sqlIds = mapperFiles.get(absolutePath);
-            if (sqlIds != null) {
-                sqlIds.forEach(sqlSourceMap::remove);
-            }
-            mapperFiles.remove(absolutePath);
-        }
-        // 解析新的文件
-        if (nowExists) {
-            long startTime = System.currentTimeMillis();
-            loadSqlSource(file);
-            long endTime = System.currentTimeMillis();
-            log.info("# 重新解析文件成功 | 耗时: {}ms | path={}", (endTime - startTime), absolutePath);
-        } else {
-            log.info("# 清除文件SQL | path={}", absolutePath);
-        }
+        reloadFile(absolutePath, file.exists() && file.isFile());
     }
 
-    protected void loadSqlSource(File file) {
-        final String absolutePath = file.getAbsolutePath();
-        try (InputStream inputStream = FileUtils.openInputStream(file)) {
-            loadSqlSource(absolutePath, inputStream);
-        } catch (Exception exception) {
-            log.error("解析Mapper.xml文件失败 | path={}", absolutePath);
-        }
+    /**
+     * 监听文件夹中Mapper.xml文件的变化，文件变化时重新加载该文件
+     *
+     * @param watchMode 文件监听的实现方式
+     * @param interval  {@link WatchMode#NIO}: 合并事件的等待时间，{@link WatchMode#POLLING}: 两次文件系统检查之间等待的时间(单位：毫秒)
+     * @return 已经开始监听的FileWatcher(不再使用时需要调用stop)
+     */
+    public FileWatcher startWatch(WatchMode watchMode, long interval) {
+        final FileWatcher watcher = FileWatcher.create(
+                watchMode,
+                rootPath.getAbsolutePath(),
+                file -> reloadFile(file.getAbsolutePath()),
+                new String[]{"*.xml"},
+                new String[]{},
+                IOCase.SYSTEM,
+                interval
+        );
+        watcher.start();
+        return watcher;
+    }
+
+    @Override
+    protected InputStream openMapperFile(String absolutePath) throws Exception {
+        return FileUtils.openInputStream(new File(absolutePath));
     }
 }
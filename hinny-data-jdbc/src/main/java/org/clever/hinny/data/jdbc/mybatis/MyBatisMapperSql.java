@@ -3,6 +3,8 @@ package org.clever.hinny.data.jdbc.mybatis;
 import org.clever.dynamic.sql.BoundSql;
 import org.clever.dynamic.sql.builder.SqlSource;
 
+import java.util.Set;
+
 /**
  * 作者：lizw <br/>
  * 创建时间：2020/09/30 15:28 <br/>
@@ -23,4 +25,27 @@ public interface MyBatisMapperSql {
      * @param parameter SQL参数
      */
     BoundSql getBoundSql(String sqlId, Object parameter);
+
+    /**
+     * 获取所有 select 语句的 SQL ID
+     */
+    Set<String> getSelectSqlIds();
+
+    /**
+     * 是否是静态SQL(不包含动态标签和${}，生成的SQL与参数无关)，默认返回false
+     *
+     * @param sqlId SQL ID
+     */
+    default boolean isStaticSql(String sqlId) {
+        return false;
+    }
+
+    /**
+     * 获取动态SQL的形状(决定生成SQL文本的条件)，不支持时返回null，默认返回null
+     *
+     * @param sqlId SQL ID
+     */
+    default SqlShape getSqlShape(String sqlId) {
+        return null;
+    }
 }
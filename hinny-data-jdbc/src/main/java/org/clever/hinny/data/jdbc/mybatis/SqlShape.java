@@ -0,0 +1,559 @@
+package org.clever.hinny.data.jdbc.mybatis;
+
+import org.apache.commons.lang3.StringUtils;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * 动态SQL的"形状"：决定生成SQL文本的条件(if/choose的测试结果、foreach的集合大小)
+ * <p>
+ * 相同形状的参数生成相同的SQL文本，只是参数值不同。解析Mapper.xml时从SQL节点中提取，
+ * 只支持常用的测试表达式(null判断、比较、and/or/not、size()/isEmpty()/length)，
+ * 包含其它表达式或者标签(bind、include、${}等)的SQL没有形状({@link #create(Node)}返回null)
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 20:10 <br/>
+ */
+public class SqlShape {
+    /**
+     * 不影响SQL形状的容器标签(只需要处理子标签)
+     */
+    private static final Set<String> Container_Tags = new HashSet<>(Arrays.asList("where", "set", "trim"));
+    /**
+     * 表达式无法计算(交给SqlSource处理)
+     */
+    private static final Object Unknown = new Object();
+
+    /**
+     * 影响形状的节点
+     */
+    private final List<ShapeNode> nodes;
+    /**
+     * 所有foreach标签的集合参数名(按出现顺序)
+     */
+    private final List<String> foreachCollections;
+
+    private SqlShape(List<ShapeNode> nodes, List<String> foreachCollections) {
+        this.nodes = nodes;
+        this.foreachCollections = Collections.unmodifiableList(foreachCollections);
+    }
+
+    /**
+     * 从SQL节点(select|insert|update|delete|sql)中提取形状
+     *
+     * @param node SQL节点
+     * @return 不支持的SQL返回null
+     */
+    public static SqlShape create(Node node) {
+        final List<String> foreachCollections = new ArrayList<>();
+        final List<ShapeNode> nodes = parseChildren(node, foreachCollections);
+        return nodes == null ? null : new SqlShape(nodes, foreachCollections);
+    }
+
+    /**
+     * 计算参数对应的形状Key(所有条件的测试结果以及集合的大小)
+     *
+     * @param parameter 参数
+     * @return 无法计算时返回null
+     */
+    public String getShapeKey(Map<String, Object> parameter) {
+        if (nodes.isEmpty()) {
+            return "";
+        }
+        final StringBuilder key = new StringBuilder(nodes.size() * 2);
+        try {
+            return appendKey(nodes, parameter, key) ? key.toString() : null;
+        } catch (RuntimeException e) {
+            // 如：数字格式错误，交给SqlSource处理
+            return null;
+        }
+    }
+
+    /**
+     * 所有foreach标签的集合参数名(按出现顺序)
+     */
+    public List<String> getForeachCollections() {
+        return foreachCollections;
+    }
+
+    /**
+     * 是否不包含任何条件或者循环(生成的SQL文本与参数无关)
+     */
+    public boolean isStatic() {
+        return nodes.isEmpty();
+    }
+
+    private static boolean appendKey(List<ShapeNode> nodes, Map<String, Object> parameter, StringBuilder key) {
+        for (ShapeNode node : nodes) {
+            if (node.collection != null) {
+                final int size = sizeOf(parameter.get(node.collection));
+                if (size < 0) {
+                    return false;
+                }
+                key.append('[').append(size).append(']');
+                continue;
+            }
+            // if 只有一个分支，choose 取第一个成立的分支(otherwise的test为null)
+            int fired = -1;
+            for (int index = 0; index < node.tests.size(); index++) {
+                final Expression test = node.tests.get(index);
+                if (test == null) {
+                    fired = index;
+                    break;
+                }
+                final Object value = test.evaluate(parameter);
+                if (value == Unknown) {
+                    return false;
+                }
+                if (isTrue(value)) {
+                    fired = index;
+                    break;
+                }
+            }
+            key.append(fired < 0 ? "-" : String.valueOf(fired)).append(',');
+            if (fired >= 0 && !appendKey(node.branches.get(fired), parameter, key)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<ShapeNode> parseChildren(Node parent, List<String> foreachCollections) {
+        final List<ShapeNode> nodes = new ArrayList<>();
+        final NodeList children = parent.getChildNodes();
+        for (int index = 0; index < children.getLength(); index++) {
+            final Node child = children.item(index);
+            final short type = child.getNodeType();
+            if (type == Node.TEXT_NODE || type == Node.CDATA_SECTION_NODE) {
+                if (StringUtils.contains(child.getNodeValue(), "${")) {
+                    return null;
+                }
+                continue;
+            }
+            if (type != Node.ELEMENT_NODE) {
+                continue;
+            }
+            final Element element = (Element) child;
+            final String tag = element.getNodeName();
+            if (Container_Tags.contains(tag)) {
+                final List<ShapeNode> inner = parseChildren(element, foreachCollections);
+                if (inner == null) {
+                    return null;
+                }
+                nodes.addAll(inner);
+            } else if ("if".equals(tag)) {
+                final ShapeNode node = new ShapeNode();
+                if (!addBranch(node, element, foreachCollections)) {
+                    return null;
+                }
+                nodes.add(node);
+            } else if ("choose".equals(tag)) {
+                final ShapeNode node = new ShapeNode();
+                final NodeList branches = element.getChildNodes();
+                for (int i = 0; i < branches.getLength(); i++) {
+                    final Node branch = branches.item(i);
+                    if (branch.getNodeType() != Node.ELEMENT_NODE) {
+                        continue;
+                    }
+                    if (!addBranch(node, (Element) branch, foreachCollections)) {
+                        return null;
+                    }
+                }
+                nodes.add(node);
+            } else if ("foreach".equals(tag)) {
+                // foreach 中的条件和参数依赖循环变量，只支持不包含子标签的foreach
+                final String collection = StringUtils.trim(element.getAttribute("collection"));
+                if (!Expression.isIdentifier(collection) || !AbstractMyBatisMapperSql.isStaticNode(element)) {
+                    return null;
+                }
+                final ShapeNode node = new ShapeNode();
+                node.collection = collection;
+                nodes.add(node);
+                foreachCollections.add(collection);
+            } else {
+                return null;
+            }
+        }
+        return nodes;
+    }
+
+    private static boolean addBranch(ShapeNode node, Element element, List<String> foreachCollections) {
+        final String tag = element.getNodeName();
+        final Expression test;
+        if ("if".equals(tag) || "when".equals(tag)) {
+            test = Expression.parse(element.getAttribute("test"));
+            if (test == null) {
+                return false;
+            }
+        } else if ("otherwise".equals(tag)) {
+            test = null;
+        } else {
+            return false;
+        }
+        final List<ShapeNode> children = parseChildren(element, foreachCollections);
+        if (children == null) {
+            return false;
+        }
+        node.tests.add(test);
+        node.branches.add(children);
+        return true;
+    }
+
+    /**
+     * 集合大小(foreach的集合)
+     *
+     * @return 不支持的类型返回-1
+     */
+    private static int sizeOf(Object value) {
+        if (value instanceof Collection) {
+            return ((Collection<?>) value).size();
+        }
+        if (value != null && value.getClass().isArray()) {
+            return Array.getLength(value);
+        }
+        return -1;
+    }
+
+    /**
+     * 与MyBatis计算test表达式结果的规则一致
+     */
+    private static boolean isTrue(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if (value instanceof Number) {
+            return new BigDecimal(String.valueOf(value)).compareTo(BigDecimal.ZERO) != 0;
+        }
+        return value != null;
+    }
+
+    /**
+     * 影响形状的节点(if、choose、foreach)
+     */
+    private static class ShapeNode {
+        /**
+         * 每个分支的条件(otherwise为null)
+         */
+        private final List<Expression> tests = new ArrayList<>(2);
+        /**
+         * 每个分支中影响形状的节点
+         */
+        private final List<List<ShapeNode>> branches = new ArrayList<>(2);
+        /**
+         * foreach的集合参数名
+         */
+        private String collection;
+    }
+
+    /**
+     * 测试表达式(OGNL的一个子集)
+     */
+    private interface Expression {
+        Object evaluate(Map<String, Object> parameter);
+
+        static boolean isIdentifier(String str) {
+            if (StringUtils.isEmpty(str) || !Character.isJavaIdentifierStart(str.charAt(0))) {
+                return false;
+            }
+            for (int index = 1; index < str.length(); index++) {
+                if (!Character.isJavaIdentifierPart(str.charAt(index))) {
+                    return false;
+                }
+            }
+            // _parameter、_databaseId 是MyBatis的内置变量，不能从参数Map中读取
+            return !Parser.Keywords.contains(str) && !"_parameter".equals(str) && !"_databaseId".equals(str);
+        }
+
+        /**
+         * @return 不支持的表达式返回null
+         */
+        static Expression parse(String text) {
+            if (StringUtils.isBlank(text)) {
+                return null;
+            }
+            try {
+                final Parser parser = new Parser(text);
+                final Expression expression = parser.parseOr();
+                return parser.isEnd() ? expression : null;
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * 递归下降解析测试表达式，不支持的语法抛出 IllegalArgumentException
+     */
+    private static class Parser {
+        private static final Set<String> Keywords = new HashSet<>(Arrays.asList(
+                "and", "or", "not", "eq", "neq", "lt", "gt", "lte", "gte", "null", "true", "false"
+        ));
+
+        private final String text;
+        private int position;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        boolean isEnd() {
+            skipWhitespace();
+            return position >= text.length();
+        }
+
+        Expression parseOr() {
+            Expression left = parseAnd();
+            while (acceptWord("or") || accept("||")) {
+                final Expression first = left;
+                final Expression second = parseAnd();
+                left = parameter -> {
+                    final Object value = first.evaluate(parameter);
+                    if (value == Unknown || isTrue(value)) {
+                        return value == Unknown ? Unknown : Boolean.TRUE;
+                    }
+                    final Object other = second.evaluate(parameter);
+                    return other == Unknown ? Unknown : isTrue(other);
+                };
+            }
+            return left;
+        }
+
+        Expression parseAnd() {
+            Expression left = parseNot();
+            while (acceptWord("and") || accept("&&")) {
+                final Expression first = left;
+                final Expression second = parseNot();
+                left = parameter -> {
+                    final Object value = first.evaluate(parameter);
+                    if (value == Unknown || !isTrue(value)) {
+                        return value == Unknown ? Unknown : Boolean.FALSE;
+                    }
+                    final Object other = second.evaluate(parameter);
+                    return other == Unknown ? Unknown : isTrue(other);
+                };
+            }
+            return left;
+        }
+
+        Expression parseNot() {
+            if (acceptWord("not") || (peek("!") && !peek("!=") && accept("!"))) {
+                final Expression inner = parseNot();
+                return parameter -> {
+                    final Object value = inner.evaluate(parameter);
+                    return value == Unknown ? Unknown : !isTrue(value);
+                };
+            }
+            return parseComparison();
+        }
+
+        Expression parseComparison() {
+            final Expression left = parseOperand();
+            final String operator;
+            if (accept("==") || acceptWord("eq")) {
+                operator = "==";
+            } else if (accept("!=") || acceptWord("neq")) {
+                operator = "!=";
+            } else if (accept(">=") || acceptWord("gte")) {
+                operator = ">=";
+            } else if (accept("<=") || acceptWord("lte")) {
+                operator = "<=";
+            } else if (accept(">") || acceptWord("gt")) {
+                operator = ">";
+            } else if (accept("<") || acceptWord("lt")) {
+                operator = "<";
+            } else {
+                return left;
+            }
+            final Expression right = parseOperand();
+            return parameter -> {
+                final Object a = left.evaluate(parameter);
+                final Object b = right.evaluate(parameter);
+                if (a == Unknown || b == Unknown) {
+                    return Unknown;
+                }
+                return compare(operator, a, b);
+            };
+        }
+
+        Expression parseOperand() {
+            skipWhitespace();
+            if (accept("(")) {
+                final Expression inner = parseOr();
+                if (!accept(")")) {
+                    throw new IllegalArgumentException();
+                }
+                return inner;
+            }
+            if (position >= text.length()) {
+                throw new IllegalArgumentException();
+            }
+            final char ch = text.charAt(position);
+            if (ch == '\'' || ch == '"') {
+                final int end = text.indexOf(ch, position + 1);
+                if (end < 0) {
+                    throw new IllegalArgumentException();
+                }
+                final String literal = text.substring(position + 1, end);
+                // OGNL中单引号包含的单个字符是Character，比较规则与字符串不同
+                if ((ch == '\'' && literal.length() == 1) || literal.indexOf('\\') >= 0) {
+                    throw new IllegalArgumentException();
+                }
+                position = end + 1;
+                return parameter -> literal;
+            }
+            if (Character.isDigit(ch)) {
+                final int start = position;
+                while (position < text.length() && (Character.isDigit(text.charAt(position)) || text.charAt(position) == '.')) {
+                    position++;
+                }
+                if (position < text.length() && Character.isJavaIdentifierPart(text.charAt(position))) {
+                    throw new IllegalArgumentException();
+                }
+                final BigDecimal number = new BigDecimal(text.substring(start, position));
+                return parameter -> number;
+            }
+            final String word = readWord();
+            if ("null".equals(word)) {
+                return parameter -> null;
+            }
+            if ("true".equals(word) || "false".equals(word)) {
+                final Boolean value = Boolean.valueOf(word);
+                return parameter -> value;
+            }
+            if (!Expression.isIdentifier(word)) {
+                throw new IllegalArgumentException();
+            }
+            if (!accept(".")) {
+                return parameter -> parameter.get(word);
+            }
+            final String member = readWord();
+            final boolean call = accept("(");
+            if (call && !accept(")")) {
+                throw new IllegalArgumentException();
+            }
+            if (call && "size".equals(member)) {
+                return parameter -> {
+                    final Object value = parameter.get(word);
+                    if (value instanceof Collection) {
+                        return ((Collection<?>) value).size();
+                    }
+                    if (value instanceof Map) {
+                        return ((Map<?, ?>) value).size();
+                    }
+                    return Unknown;
+                };
+            }
+            if (call && "isEmpty".equals(member)) {
+                return parameter -> {
+                    final Object value = parameter.get(word);
+                    if (value instanceof Collection) {
+                        return ((Collection<?>) value).isEmpty();
+                    }
+                    if (value instanceof Map) {
+                        return ((Map<?, ?>) value).isEmpty();
+                    }
+                    if (value instanceof String) {
+                        return ((String) value).isEmpty();
+                    }
+                    return Unknown;
+                };
+            }
+            if (call && "length".equals(member)) {
+                return parameter -> {
+                    final Object value = parameter.get(word);
+                    return value instanceof String ? (Object) ((String) value).length() : Unknown;
+                };
+            }
+            if (!call && "length".equals(member)) {
+                return parameter -> {
+                    final Object value = parameter.get(word);
+                    return value != null && value.getClass().isArray() ? (Object) Array.getLength(value) : Unknown;
+                };
+            }
+            throw new IllegalArgumentException();
+        }
+
+        /**
+         * 比较两个值，类型不同或者不支持的比较返回 Unknown
+         */
+        private static Object compare(String operator, Object a, Object b) {
+            if ("==".equals(operator) || "!=".equals(operator)) {
+                final Boolean equals;
+                if (a == null || b == null) {
+                    equals = a == b;
+                } else if (a instanceof Number && b instanceof Number) {
+                    equals = toBigDecimal(a).compareTo(toBigDecimal(b)) == 0;
+                } else if ((a instanceof String && b instanceof String) || (a instanceof Boolean && b instanceof Boolean)) {
+                    equals = a.equals(b);
+                } else {
+                    return Unknown;
+                }
+                return "==".equals(operator) == equals;
+            }
+            if (!(a instanceof Number) || !(b instanceof Number)) {
+                return Unknown;
+            }
+            final int result = toBigDecimal(a).compareTo(toBigDecimal(b));
+            switch (operator) {
+                case ">":
+                    return result > 0;
+                case ">=":
+                    return result >= 0;
+                case "<":
+                    return result < 0;
+                default:
+                    return result <= 0;
+            }
+        }
+
+        private static BigDecimal toBigDecimal(Object number) {
+            return number instanceof BigDecimal ? (BigDecimal) number : new BigDecimal(String.valueOf(number));
+        }
+
+        private String readWord() {
+            skipWhitespace();
+            final int start = position;
+            while (position < text.length() && Character.isJavaIdentifierPart(text.charAt(position))) {
+                position++;
+            }
+            if (start == position) {
+                throw new IllegalArgumentException();
+            }
+            return text.substring(start, position);
+        }
+
+        private boolean peek(String token) {
+            skipWhitespace();
+            return text.startsWith(token, position);
+        }
+
+        private boolean accept(String token) {
+            if (!peek(token)) {
+                return false;
+            }
+            position += token.length();
+            return true;
+        }
+
+        private boolean acceptWord(String word) {
+            skipWhitespace();
+            final int end = position + word.length();
+            if (!text.startsWith(word, position) || (end < text.length() && Character.isJavaIdentifierPart(text.charAt(end)))) {
+                return false;
+            }
+            position = end;
+            return true;
+        }
+
+        private void skipWhitespace() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+    }
+}
@@ -53,6 +53,19 @@ public class BatchData implements Serializable {
         this.rowCount = rowCount;
     }
 
+    /**
+     * @param columns     列描述信息(多个批次共享)
+     * @param rowDataList 当前批次数据
+     * @param rowCount    当前读取的行数
+     */
+    public BatchData(ColumnDescriptor columns, List<Map<String, Object>> rowDataList, int rowCount) {
+        this.columnNames = columns.getColumnNames();
+        this.columnTypes = columns.getColumnTypes();
+        this.columnCount = columns.getColumnCount();
+        this.rowDataList = rowDataList;
+        this.rowCount = rowCount;
+    }
+
     /**
      * 返回当前批次数据量
      */
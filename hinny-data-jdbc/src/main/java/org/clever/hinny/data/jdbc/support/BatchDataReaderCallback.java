@@ -32,6 +32,10 @@ public class BatchDataReaderCallback extends AbstractRowCountCallbackHandler {
      * 读取数据
      */
     private List<Map<String, Object>> rowDataList;
+    /**
+     * 列描述信息(整个结果集共享)
+     */
+    private ColumnDescriptor columns;
 
     /**
      * @param batchSize 一个批次的数据量
@@ -47,13 +51,9 @@ public class BatchDataReaderCallback extends AbstractRowCountCallbackHandler {
     @SuppressWarnings("NullableProblems")
     @Override
     protected synchronized void processRow(ResultSet rs, int rowNum) throws SQLException {
-        Map<String, Object> rowData = getRowData(rs, rowNum);
-        if (underlineToCamel) {
-            rowData = UnderlineToCamelUtils.underlineToCamel(rowData);
-        }
-        rowDataList.add(rowData);
+        rowDataList.add(getColumns().readRow(rs));
         if (rowDataList.size() >= batchSize) {
-            consumer.accept(new BatchData(getColumnNames(), getColumnTypes(), getColumnCount(), rowDataList, this.getRowCount()));
+            consumer.accept(new BatchData(getColumns(), rowDataList, this.getRowCount()));
             rowDataList = new ArrayList<>(this.batchSize);
         }
     }
@@ -62,7 +62,14 @@ public class BatchDataReaderCallback extends AbstractRowCountCallbackHandler {
         if (rowDataList.isEmpty()) {
             return;
         }
-        consumer.accept(new BatchData(getColumnNames(), getColumnTypes(), getColumnCount(), rowDataList, this.getRowCount()));
+        consumer.accept(new BatchData(getColumns(), rowDataList, this.getRowCount()));
         rowDataList = new ArrayList<>();
     }
+
+    private ColumnDescriptor getColumns() {
+        if (columns == null) {
+            columns = ColumnDescriptor.of(getColumnNames(), getColumnTypes(), underlineToCamel);
+        }
+        return columns;
+    }
 }
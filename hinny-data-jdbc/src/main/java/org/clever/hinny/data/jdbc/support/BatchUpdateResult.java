@@ -0,0 +1,61 @@
+package org.clever.hinny.data.jdbc.support;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.sql.Statement;
+
+/**
+ * 流式分批执行更新SQL的汇总结果
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/17 16:05 <br/>
+ */
+@Data
+public class BatchUpdateResult implements Serializable {
+    /**
+     * 提交执行的参数行数
+     */
+    private long rowCount;
+    /**
+     * 执行的批次数
+     */
+    private int batchCount;
+    /**
+     * 提交的事务数(commitPerBatch=true时每个批次一个事务)
+     */
+    private int commitCount;
+    /**
+     * 已知的更新影响数据量之和
+     */
+    private long updateCount;
+    /**
+     * 驱动未返回影响数据量的行数({@link Statement#SUCCESS_NO_INFO}，如：MySQL rewriteBatchedStatements=true)
+     */
+    private long unknownCount;
+    /**
+     * 驱动返回执行失败的行数({@link Statement#EXECUTE_FAILED})
+     */
+    private long failedCount;
+
+    /**
+     * 累加一个批次的执行结果
+     *
+     * @param res 批次执行结果
+     */
+    public void addBatch(int[] res) {
+        batchCount++;
+        if (res == null) {
+            return;
+        }
+        for (int count : res) {
+            if (count >= 0) {
+                updateCount += count;
+            } else if (count == Statement.EXECUTE_FAILED) {
+                failedCount++;
+            } else {
+                unknownCount++;
+            }
+        }
+    }
+}
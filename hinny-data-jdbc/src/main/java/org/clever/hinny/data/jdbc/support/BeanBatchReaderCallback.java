@@ -0,0 +1,66 @@
+package org.clever.hinny.data.jdbc.support;
+
+import org.springframework.jdbc.core.RowCountCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 游标批量读取模式(数据直接读取到JavaBean)
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/18 22:32 <br/>
+ */
+public class BeanBatchReaderCallback<T> extends RowCountCallbackHandler {
+    private static final int Default_Batch_Size = 200;
+
+    /**
+     * 一个批次的数据量
+     */
+    private final int batchSize;
+    /**
+     * 游标批次读取数据消费者
+     */
+    private final Consumer<List<T>> consumer;
+    /**
+     * 行数据映射
+     */
+    private final BeanRowMapper<T> rowMapper;
+    /**
+     * 读取数据
+     */
+    private List<T> rowDataList;
+
+    /**
+     * @param batchSize 一个批次的数据量
+     * @param clazz     数据类型
+     * @param consumer  游标批次读取数据消费者
+     */
+    public BeanBatchReaderCallback(int batchSize, Class<T> clazz, Consumer<List<T>> consumer) {
+        this.batchSize = batchSize <= 0 ? Default_Batch_Size : batchSize;
+        this.consumer = consumer;
+        this.rowMapper = new BeanRowMapper<>(clazz);
+        this.rowDataList = new ArrayList<>(this.batchSize);
+    }
+
+    @SuppressWarnings("NullableProblems")
+    @Override
+    protected void processRow(ResultSet rs, int rowNum) throws SQLException {
+        rowDataList.add(rowMapper.mapRow(rs, rowNum));
+        if (rowDataList.size() >= batchSize) {
+            consumer.accept(rowDataList);
+            rowDataList = new ArrayList<>(this.batchSize);
+        }
+    }
+
+    public void processEnd() {
+        if (rowDataList.isEmpty()) {
+            return;
+        }
+        consumer.accept(rowDataList);
+        rowDataList = new ArrayList<>();
+    }
+}
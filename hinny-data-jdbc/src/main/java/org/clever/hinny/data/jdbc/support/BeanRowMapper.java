@@ -0,0 +1,182 @@
+package org.clever.hinny.data.jdbc.support;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 把查询结果的每一行直接读取到JavaBean(不创建中间Map)
+ * <pre>
+ * 1. 每个Class只解析一次，构造函数和setter转换成 MethodHandle 缓存
+ * 2. 每个结果集只匹配一次列序号与setter(忽略大小写和下划线，如：user_name 匹配 userName)
+ * 3. 没有匹配的列会被忽略，值类型不一致时使用 {@link DefaultConversionService} 转换
+ * </pre>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/18 22:10 <br/>
+ */
+public class BeanRowMapper<T> implements RowMapper<T> {
+    /**
+     * Bean解析结果缓存 {@code Map<Class, BeanMeta>}
+     */
+    private static final ConcurrentHashMap<Class<?>, BeanMeta> Bean_Meta_Cache = new ConcurrentHashMap<>();
+    /**
+     * MethodHandle 统一调用类型
+     */
+    private static final MethodType Constructor_Type = MethodType.methodType(Object.class);
+    private static final MethodType Setter_Type = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Class<T> clazz;
+    private final BeanMeta beanMeta;
+    /**
+     * 结果集列对应的setter(下标是列序号-1，没有匹配的列为null)
+     */
+    private PropertySetter[] columnSetters;
+
+    public BeanRowMapper(Class<T> clazz) {
+        Assert.notNull(clazz, "数据类型不能为空");
+        this.clazz = clazz;
+        this.beanMeta = Bean_Meta_Cache.computeIfAbsent(clazz, BeanMeta::new);
+    }
+
+    @SuppressWarnings({"unchecked", "NullableProblems"})
+    @Override
+    public T mapRow(ResultSet rs, int rowNum) throws SQLException {
+        if (columnSetters == null) {
+            columnSetters = beanMeta.matchColumns(rs.getMetaData());
+        }
+        final Object instance;
+        try {
+            instance = beanMeta.constructor.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("创建对象失败: " + clazz.getName(), e);
+        }
+        final T bean = (T) instance;
+        for (int index = 0; index < columnSetters.length; index++) {
+            final PropertySetter setter = columnSetters[index];
+            if (setter == null) {
+                continue;
+            }
+            Object value = JdbcUtils.getResultSetValue(rs, index + 1, setter.type);
+            if (value == null) {
+                if (setter.primitive) {
+                    continue;
+                }
+            } else if (!setter.type.isInstance(value)) {
+                value = getConversionService().convert(value, setter.type);
+            }
+            try {
+                setter.handle.invokeExact(instance, value);
+            } catch (Throwable e) {
+                throw new IllegalStateException("设置属性值失败: " + clazz.getName() + "." + setter.name, e);
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * 清空Bean解析结果缓存(热加载Class后调用)
+     */
+    public static void clearCache() {
+        Bean_Meta_Cache.clear();
+    }
+
+    private static ConversionService getConversionService() {
+        return DefaultConversionService.getSharedInstance();
+    }
+
+    /**
+     * 名称规范化：去掉下划线，转小写
+     */
+    private static String normalizeName(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char ch = name.charAt(i);
+            if (ch != '_') {
+                sb.append(Character.toLowerCase(ch));
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Bean解析结果
+     */
+    private static class BeanMeta {
+        private final MethodHandle constructor;
+        /**
+         * {@code Map<规范化的属性名, PropertySetter>}
+         */
+        private final Map<String, PropertySetter> setters = new HashMap<>();
+
+        BeanMeta(Class<?> clazz) {
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            try {
+                Constructor<?> ctor = clazz.getDeclaredConstructor();
+                ReflectionUtils.makeAccessible(ctor);
+                this.constructor = lookup.unreflectConstructor(ctor).asType(Constructor_Type);
+                for (PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(clazz)) {
+                    Method writeMethod = descriptor.getWriteMethod();
+                    if (writeMethod == null) {
+                        continue;
+                    }
+                    ReflectionUtils.makeAccessible(writeMethod);
+                    MethodHandle handle = lookup.unreflect(writeMethod).asType(Setter_Type);
+                    Class<?> type = descriptor.getPropertyType();
+                    setters.put(normalizeName(descriptor.getName()), new PropertySetter(descriptor.getName(), ClassUtils.resolvePrimitiveIfNecessary(type), type.isPrimitive(), handle));
+                }
+            } catch (NoSuchMethodException e) {
+                throw new IllegalArgumentException("类型缺少无参构造函数: " + clazz.getName(), e);
+            } catch (IllegalAccessException e) {
+                throw new IllegalArgumentException("无法访问类型: " + clazz.getName(), e);
+            }
+        }
+
+        PropertySetter[] matchColumns(ResultSetMetaData metaData) throws SQLException {
+            final int columnCount = metaData.getColumnCount();
+            final PropertySetter[] columnSetters = new PropertySetter[columnCount];
+            for (int index = 1; index <= columnCount; index++) {
+                String column = JdbcUtils.lookupColumnName(metaData, index);
+                columnSetters[index - 1] = setters.get(normalizeName(column));
+            }
+            return columnSetters;
+        }
+    }
+
+    /**
+     * 属性setter
+     */
+    private static class PropertySetter {
+        private final String name;
+        /**
+         * 属性类型(基本类型转换成包装类型)
+         */
+        private final Class<?> type;
+        private final boolean primitive;
+        private final MethodHandle handle;
+
+        PropertySetter(String name, Class<?> type, boolean primitive, MethodHandle handle) {
+            this.name = name;
+            this.type = type;
+            this.primitive = primitive;
+            this.handle = handle;
+        }
+    }
+}
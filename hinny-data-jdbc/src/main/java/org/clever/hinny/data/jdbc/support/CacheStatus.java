@@ -0,0 +1,53 @@
+package org.clever.hinny.data.jdbc.support;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheStats;
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 缓存使用情况统计
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/17 17:20 <br/>
+ */
+@Data
+public class CacheStatus implements Serializable {
+    /**
+     * 当前缓存数量
+     */
+    private long size;
+    /**
+     * 缓存命中次数
+     */
+    private long hitCount;
+    /**
+     * 缓存未命中次数
+     */
+    private long missCount;
+    /**
+     * 缓存命中率
+     */
+    private double hitRate;
+    /**
+     * 缓存被淘汰的次数
+     */
+    private long evictionCount;
+
+    /**
+     * 读取Guava缓存的统计信息(缓存需要开启recordStats)
+     *
+     * @param cache Guava缓存
+     */
+    public static CacheStatus of(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        CacheStatus status = new CacheStatus();
+        status.setSize(cache.size());
+        status.setHitCount(stats.hitCount());
+        status.setMissCount(stats.missCount());
+        status.setHitRate(stats.hitRate());
+        status.setEvictionCount(stats.evictionCount());
+        return status;
+    }
+}
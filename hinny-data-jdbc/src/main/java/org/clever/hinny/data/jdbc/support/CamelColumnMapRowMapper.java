@@ -0,0 +1,44 @@
+package org.clever.hinny.data.jdbc.support;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * 读取Map数据的RowMapper，列名称的下划线转驼峰在整个结果集只计算一次(每次查询使用一个新实例)
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/18 14:06 <br/>
+ */
+public class CamelColumnMapRowMapper implements RowMapper<Map<String, Object>> {
+    /**
+     * 下划线转驼峰
+     */
+    private final boolean underlineToCamel;
+    /**
+     * 列描述信息(读取第一行数据时创建)
+     */
+    private ColumnDescriptor columns;
+
+    public CamelColumnMapRowMapper(boolean underlineToCamel) {
+        this.underlineToCamel = underlineToCamel;
+    }
+
+    @SuppressWarnings("NullableProblems")
+    @Override
+    public Map<String, Object> mapRow(ResultSet rs, int rowNum) throws SQLException {
+        if (columns == null) {
+            columns = ColumnDescriptor.of(rs.getMetaData(), underlineToCamel);
+        }
+        return columns.readRow(rs);
+    }
+
+    /**
+     * 列描述信息(未读取到数据时返回null)
+     */
+    public ColumnDescriptor getColumns() {
+        return columns;
+    }
+}
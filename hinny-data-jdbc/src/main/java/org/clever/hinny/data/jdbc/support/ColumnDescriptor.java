@@ -0,0 +1,136 @@
+package org.clever.hinny.data.jdbc.support;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+
+import java.io.Serializable;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * 查询结果集的列描述信息(不可变对象，一个结果集共享一个实例)
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/17 10:12 <br/>
+ */
+@Getter
+public final class ColumnDescriptor implements Serializable {
+    /**
+     * 列名称集合
+     */
+    private final List<String> columnNames;
+    /**
+     * 返回数据使用的Key集合(下划线转驼峰之后的列名称)
+     */
+    private final List<String> keys;
+    /**
+     * 列类型集合
+     */
+    private final List<Integer> columnTypes;
+    /**
+     * 列宽(列数)
+     */
+    private final int columnCount;
+    /**
+     * 列类型
+     */
+    @Getter(AccessLevel.NONE)
+    private final int[] types;
+    /**
+     * 列名称(包含列名称和Key)与列位置(从0开始)的映射，不区分大小写(重复的列名称使用最后一列，与读取的Map数据一致)
+     */
+    private final Map<String, Integer> indexMapping;
+    /**
+     * 是否下划线转驼峰
+     */
+    private final boolean underlineToCamel;
+
+    private ColumnDescriptor(String[] columnNames, int[] columnTypes, boolean underlineToCamel) {
+        this.underlineToCamel = underlineToCamel;
+        this.columnCount = columnNames.length;
+        this.types = columnTypes == null ? new int[0] : columnTypes.clone();
+        String[] keys = new String[columnCount];
+        Integer[] columnTypesTmp = new Integer[this.types.length];
+        for (int i = 0; i < this.types.length; i++) {
+            columnTypesTmp[i] = this.types[i];
+        }
+        Map<String, Integer> indexMapping = new LinkedCaseInsensitiveMap<>(columnCount * 2);
+        for (int i = 0; i < columnCount; i++) {
+            String columnName = columnNames[i];
+            keys[i] = underlineToCamel ? NameConversionCache.underlineToCamel(columnName) : columnName;
+            indexMapping.put(columnName, i);
+        }
+        for (int i = 0; i < columnCount; i++) {
+            indexMapping.put(keys[i], i);
+        }
+        this.columnNames = Collections.unmodifiableList(Arrays.asList(columnNames.clone()));
+        this.keys = Collections.unmodifiableList(Arrays.asList(keys));
+        this.columnTypes = Collections.unmodifiableList(Arrays.asList(columnTypesTmp));
+        this.indexMapping = Collections.unmodifiableMap(indexMapping);
+    }
+
+    /**
+     * 根据列信息创建
+     *
+     * @param columnNames      列名称
+     * @param columnTypes      列类型
+     * @param underlineToCamel 下划线转驼峰
+     */
+    public static ColumnDescriptor of(String[] columnNames, int[] columnTypes, boolean underlineToCamel) {
+        return new ColumnDescriptor(columnNames == null ? new String[0] : columnNames, columnTypes, underlineToCamel);
+    }
+
+    /**
+     * 根据结果集元数据创建
+     *
+     * @param metaData         结果集元数据
+     * @param underlineToCamel 下划线转驼峰
+     */
+    public static ColumnDescriptor of(ResultSetMetaData metaData, boolean underlineToCamel) throws SQLException {
+        int columnCount = metaData.getColumnCount();
+        String[] columnNames = new String[columnCount];
+        int[] columnTypes = new int[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            columnNames[i] = JdbcUtils.lookupColumnName(metaData, i + 1);
+            columnTypes[i] = metaData.getColumnType(i + 1);
+        }
+        return new ColumnDescriptor(columnNames, columnTypes, underlineToCamel);
+    }
+
+    /**
+     * 获取列位置(从0开始)，不存在返回-1
+     *
+     * @param name 列名称或者Key(不区分大小写)
+     */
+    public int indexOf(String name) {
+        if (name == null) {
+            return -1;
+        }
+        Integer index = indexMapping.get(name);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * 读取结果集当前行数据，使用 keys 作为Map的key(下划线转驼峰时返回LinkedHashMap，否则返回不区分大小写的Map)，重复的列名称使用最后一列的值
+     *
+     * @param rs 结果集
+     */
+    public Map<String, Object> readRow(ResultSet rs) throws SQLException {
+        final Map<String, Object> rowData = underlineToCamel ? new LinkedHashMap<>(columnCount * 4 / 3 + 1) : new LinkedCaseInsensitiveMap<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            rowData.put(keys.get(i), JdbcUtils.getResultSetValue(rs, i + 1));
+        }
+        return rowData;
+    }
+
+    /**
+     * 获取列类型
+     */
+    public int[] originalGetColumnTypes() {
+        return types.clone();
+    }
+}
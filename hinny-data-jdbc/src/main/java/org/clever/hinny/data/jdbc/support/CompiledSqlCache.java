@@ -0,0 +1,410 @@
+package org.clever.hinny.data.jdbc.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.clever.dynamic.sql.BoundSql;
+import org.clever.dynamic.sql.builder.SqlSource;
+import org.clever.hinny.data.jdbc.mybatis.MyBatisMapperSql;
+import org.clever.hinny.data.jdbc.mybatis.SqlShape;
+import org.springframework.util.Assert;
+
+import java.lang.reflect.Array;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Mapper动态SQL的编译缓存，避免每次调用都遍历SqlSource节点树生成SQL
+ * <p>
+ * 1.无参数调用：生成的SQL只与SqlSource有关，每个SqlSource只生成一次<br/>
+ * 2.按形状({@link SqlShape}：if/choose的测试结果、foreach的集合大小)缓存SQL文本，静态SQL只有一个形状。
+ * 每个形状前几次调用用原始结果校验编译结果，校验通过后只需要按参数名(或者foreach集合中的位置)绑定参数值<br/>
+ * 3.没有形状(不支持的表达式或者标签)、表达式无法计算或者校验失败：使用 {@link SqlSource#getBoundSql(Object)} 生成SQL<br/>
+ * 缓存与SqlSource对象绑定，Mapper.xml文件重新加载后自动失效
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/18 19:40 <br/>
+ */
+@Slf4j
+public class CompiledSqlCache {
+    /**
+     * 静态SQL编译结果需要校验通过的次数
+     */
+    private static final int Verify_Count = 3;
+    /**
+     * 可以直接从参数Map中读取值的参数名
+     */
+    private static final Pattern Simple_Param_Name = Pattern.compile("[A-Za-z_$][A-Za-z0-9_$]*");
+    /**
+     * 每个SQL最多缓存的形状数量(超过之后新的形状不再缓存)
+     */
+    private static final int Max_Shape_Count = 64;
+
+    /**
+     * Mapper动态SQL
+     */
+    private final MyBatisMapperSql mapperSql;
+    /**
+     * 编译缓存 {@code Map<SqlId, 编译结果>}
+     */
+    private final ConcurrentHashMap<String, CompiledSql> compiledSqlMap = new ConcurrentHashMap<>(64);
+    /**
+     * 使用编译结果的次数
+     */
+    private final LongAdder hitCount = new LongAdder();
+    /**
+     * 使用SqlSource生成SQL的次数
+     */
+    private final LongAdder missCount = new LongAdder();
+    /**
+     * 是否启用编译缓存
+     */
+    private volatile boolean enabled = true;
+
+    public CompiledSqlCache(MyBatisMapperSql mapperSql) {
+        Assert.notNull(mapperSql, "参数mapperSql不能为空");
+        this.mapperSql = mapperSql;
+    }
+
+    /**
+     * 获取SQL和参数
+     *
+     * @param sqlId     SqlID
+     * @param parameter 参数
+     * @return {@code TupleTow<SQL(参数格式[:param]), 参数>}
+     */
+    public TupleTow<String, Map<String, Object>> getSql(String sqlId, Map<String, Object> parameter) {
+        Assert.hasText(sqlId, "参数sqlId不能为空");
+        if (parameter == null) {
+            parameter = new HashMap<>();
+        }
+        final SqlSource sqlSource = mapperSql.getSqlSource(sqlId);
+        Assert.notNull(sqlSource, "SQL不存在，sqlId=" + sqlId);
+        if (!enabled) {
+            missCount.increment();
+            BoundSql boundSql = sqlSource.getBoundSql(parameter);
+            return TupleTow.creat(boundSql.getNamedParameterSql(), boundSql.getParameterMap());
+        }
+        final CompiledSql compiledSql = getCompiledSql(sqlId, sqlSource);
+        final String shapeKey = compiledSql.getShapeKey(parameter);
+        final ShapeSql shapeSql = shapeKey == null ? null : compiledSql.getShapeSql(shapeKey);
+        if (shapeSql != null && shapeSql.isReady()) {
+            hitCount.increment();
+            return TupleTow.creat(shapeSql.namedParameterSql, shapeSql.bind(parameter));
+        }
+        missCount.increment();
+        BoundSql boundSql = sqlSource.getBoundSql(parameter);
+        TupleTow<String, Map<String, Object>> sqlInfo = TupleTow.creat(boundSql.getNamedParameterSql(), boundSql.getParameterMap());
+        if (shapeSql != null) {
+            shapeSql.verify(sqlId, shapeKey, sqlInfo, parameter);
+        }
+        return sqlInfo;
+    }
+
+    /**
+     * 获取无参数时的SQL
+     *
+     * @param sqlId SqlID
+     * @return SQL(参数格式[:param])
+     */
+    public String getSql(String sqlId) {
+        Assert.hasText(sqlId, "参数sqlId不能为空");
+        final SqlSource sqlSource = mapperSql.getSqlSource(sqlId);
+        Assert.notNull(sqlSource, "SQL不存在，sqlId=" + sqlId);
+        if (!enabled) {
+            missCount.increment();
+            return sqlSource.getBoundSql(new HashMap<>()).getNamedParameterSql();
+        }
+        final CompiledSql compiledSql = getCompiledSql(sqlId, sqlSource);
+        String sql = compiledSql.noParameterSql;
+        if (sql != null) {
+            hitCount.increment();
+            return sql;
+        }
+        missCount.increment();
+        sql = sqlSource.getBoundSql(new HashMap<>()).getNamedParameterSql();
+        compiledSql.noParameterSql = sql;
+        return sql;
+    }
+
+    /**
+     * 清空编译缓存
+     */
+    public void clear() {
+        compiledSqlMap.clear();
+    }
+
+    /**
+     * 设置是否启用编译缓存
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            clear();
+        }
+    }
+
+    /**
+     * 是否启用编译缓存
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 编译缓存统计信息
+     */
+    public CacheStatus getStatus() {
+        final long hit = hitCount.sum();
+        final long miss = missCount.sum();
+        CacheStatus status = new CacheStatus();
+        status.setSize(compiledSqlMap.size());
+        status.setHitCount(hit);
+        status.setMissCount(miss);
+        status.setHitRate((hit + miss) == 0 ? 1.0 : ((double) hit / (hit + miss)));
+        return status;
+    }
+
+    private CompiledSql getCompiledSql(String sqlId, SqlSource sqlSource) {
+        CompiledSql compiledSql = compiledSqlMap.get(sqlId);
+        if (compiledSql == null || compiledSql.sqlSource != sqlSource) {
+            compiledSql = new CompiledSql(sqlSource, mapperSql.isStaticSql(sqlId), mapperSql.getSqlShape(sqlId));
+            compiledSqlMap.put(sqlId, compiledSql);
+        }
+        return compiledSql;
+    }
+
+    /**
+     * 一个SqlSource的编译结果
+     */
+    private static class CompiledSql {
+        /**
+         * 编译对应的SqlSource
+         */
+        private final SqlSource sqlSource;
+        /**
+         * 是否是静态SQL
+         */
+        private final boolean staticSql;
+        /**
+         * 动态SQL的形状(不支持时为null)
+         */
+        private final SqlShape sqlShape;
+        /**
+         * 每个形状的编译结果 {@code Map<形状Key, 编译结果>}
+         */
+        private final ConcurrentHashMap<String, ShapeSql> shapeSqlMap = new ConcurrentHashMap<>(8);
+        /**
+         * 无参数时的SQL
+         */
+        private volatile String noParameterSql;
+
+        CompiledSql(SqlSource sqlSource, boolean staticSql, SqlShape sqlShape) {
+            this.sqlSource = sqlSource;
+            this.staticSql = staticSql;
+            this.sqlShape = sqlShape;
+        }
+
+        /**
+         * 计算参数对应的形状Key
+         *
+         * @return 不能使用编译结果时返回null
+         */
+        String getShapeKey(Map<String, Object> parameter) {
+            if (sqlShape != null) {
+                return sqlShape.getShapeKey(parameter);
+            }
+            return staticSql ? "" : null;
+        }
+
+        /**
+         * 获取形状的编译结果(形状数量超过上限时返回null)
+         */
+        ShapeSql getShapeSql(String shapeKey) {
+            ShapeSql shapeSql = shapeSqlMap.get(shapeKey);
+            if (shapeSql == null && shapeSqlMap.size() < Max_Shape_Count) {
+                final List<String> collections = sqlShape == null ? Collections.emptyList() : sqlShape.getForeachCollections();
+                shapeSql = shapeSqlMap.computeIfAbsent(shapeKey, key -> new ShapeSql(collections));
+            }
+            return shapeSql;
+        }
+    }
+
+    /**
+     * 一个形状的编译结果
+     */
+    private static class ShapeSql {
+        /**
+         * foreach的集合参数名
+         */
+        private final List<String> collections;
+        /**
+         * SQL文本(参数格式[:param])
+         */
+        private volatile String namedParameterSql;
+        /**
+         * 参数名
+         */
+        private volatile String[] paramNames;
+        /**
+         * 参数值在foreach集合中的位置(集合序号，-1表示直接按参数名读取)
+         */
+        private volatile int[] collectionIndexes;
+        /**
+         * 参数值在foreach集合中的位置(元素序号)
+         */
+        private volatile int[] elementIndexes;
+        /**
+         * 校验通过的次数
+         */
+        private int verifiedCount;
+        /**
+         * 编译结果是否可用(校验通过)
+         */
+        private volatile boolean ready;
+        /**
+         * 编译失败(不再校验)
+         */
+        private volatile boolean failed;
+
+        ShapeSql(List<String> collections) {
+            this.collections = collections;
+        }
+
+        boolean isReady() {
+            return ready;
+        }
+
+        /**
+         * 按参数名(或者foreach集合中的位置)读取参数值
+         */
+        Map<String, Object> bind(Map<String, Object> parameter) {
+            final String[] names = paramNames;
+            final int[] collectionIdx = collectionIndexes;
+            final int[] elementIdx = elementIndexes;
+            final Map<String, Object> paramMap = new HashMap<>(Math.max(16, names.length * 4 / 3 + 1));
+            for (int index = 0; index < names.length; index++) {
+                if (collectionIdx[index] < 0) {
+                    paramMap.put(names[index], parameter.get(names[index]));
+                } else {
+                    paramMap.put(names[index], elementAt(parameter.get(collections.get(collectionIdx[index])), elementIdx[index]));
+                }
+            }
+            return paramMap;
+        }
+
+        /**
+         * 使用原始结果校验编译结果
+         */
+        synchronized void verify(String sqlId, String shapeKey, TupleTow<String, Map<String, Object>> sqlInfo, Map<String, Object> parameter) {
+            if (ready || failed) {
+                return;
+            }
+            final String sql = sqlInfo.getValue1();
+            final Map<String, Object> paramMap = sqlInfo.getValue2() == null ? Collections.emptyMap() : sqlInfo.getValue2();
+            if (namedParameterSql == null && !compile(sqlId, shapeKey, sql, paramMap, parameter)) {
+                return;
+            }
+            if (!Objects.equals(namedParameterSql, sql) || !Objects.equals(bind(parameter), paramMap)) {
+                fail(sqlId, shapeKey, "编译结果与原始结果不一致");
+                return;
+            }
+            verifiedCount++;
+            if (verifiedCount >= Verify_Count) {
+                ready = true;
+                log.debug("# SQL编译成功 | SqlId={} | shape={}", sqlId, shapeKey);
+            }
+        }
+
+        /**
+         * 记录SQL文本，并确定每个参数值的来源
+         */
+        private boolean compile(String sqlId, String shapeKey, String sql, Map<String, Object> paramMap, Map<String, Object> parameter) {
+            final int size = paramMap.size();
+            final String[] names = new String[size];
+            final int[] collectionIdx = new int[size];
+            final int[] elementIdx = new int[size];
+            int index = 0;
+            for (Map.Entry<String, Object> entry : paramMap.entrySet()) {
+                final String name = entry.getKey();
+                final Object value = entry.getValue();
+                if (name == null || !Simple_Param_Name.matcher(name).matches()) {
+                    fail(sqlId, shapeKey, "参数名不是简单名称: " + name);
+                    return false;
+                }
+                names[index] = name;
+                collectionIdx[index] = -1;
+                if (parameter.containsKey(name)) {
+                    if (parameter.get(name) != value) {
+                        fail(sqlId, shapeKey, "参数值与参数Map中的值不一致: " + name);
+                        return false;
+                    }
+                } else {
+                    // 不在参数Map中的参数只能是foreach生成的参数，按值在集合中的位置查找(必须唯一，包括null值)
+                    int found = 0;
+                    for (int i = 0; i < collections.size(); i++) {
+                        final Object collection = parameter.get(collections.get(i));
+                        int position = 0;
+                        for (Object element : toIterable(collection)) {
+                            if (element == value) {
+                                found++;
+                                collectionIdx[index] = i;
+                                elementIdx[index] = position;
+                            }
+                            position++;
+                        }
+                    }
+                    if (found != 1) {
+                        fail(sqlId, shapeKey, "无法确定参数值的来源: " + name);
+                        return false;
+                    }
+                }
+                index++;
+            }
+            namedParameterSql = sql;
+            paramNames = names;
+            collectionIndexes = collectionIdx;
+            elementIndexes = elementIdx;
+            return true;
+        }
+
+        private void fail(String sqlId, String shapeKey, String reason) {
+            failed = true;
+            namedParameterSql = null;
+            paramNames = null;
+            log.debug("# SQL编译失败，使用SqlSource生成SQL | SqlId={} | shape={} | {}", sqlId, shapeKey, reason);
+        }
+
+        private static Iterable<?> toIterable(Object collection) {
+            if (collection instanceof Iterable) {
+                return (Iterable<?>) collection;
+            }
+            if (collection != null && collection.getClass().isArray()) {
+                final int length = Array.getLength(collection);
+                final List<Object> list = new ArrayList<>(length);
+                for (int index = 0; index < length; index++) {
+                    list.add(Array.get(collection, index));
+                }
+                return list;
+            }
+            return Collections.emptyList();
+        }
+
+        private static Object elementAt(Object collection, int index) {
+            if (collection instanceof List) {
+                return ((List<?>) collection).get(index);
+            }
+            if (collection != null && collection.getClass().isArray()) {
+                return Array.get(collection, index);
+            }
+            int position = 0;
+            for (Object element : toIterable(collection)) {
+                if (position == index) {
+                    return element;
+                }
+                position++;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.clever.hinny.data.jdbc.support;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 分页查询时数据总量的计算配置
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/18 11:06 <br/>
+ */
+@Data
+public class CountOptions implements Serializable {
+    /**
+     * CACHED策略缓存有效时间的最大值(单位：秒)，数据总量缓存最多保留这么长时间
+     */
+    public static final int Max_Cache_Ttl_Seconds = 3600;
+
+    /**
+     * 数据总量的计算策略
+     */
+    private CountStrategy strategy = CountStrategy.EXACT;
+    /**
+     * CACHED策略缓存有效时间(单位：秒)，取值范围[0, {@link #Max_Cache_Ttl_Seconds}]
+     */
+    private int cacheTtlSeconds = 60;
+    /**
+     * CAPPED策略最多count的数据量
+     */
+    private long cap = 10000;
+
+    public CountOptions() {
+    }
+
+    public CountOptions(CountStrategy strategy) {
+        this.strategy = strategy;
+    }
+}
@@ -0,0 +1,28 @@
+package org.clever.hinny.data.jdbc.support;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 带数据总量计算策略信息的分页对象
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/18 11:10 <br/>
+ */
+@Getter
+@Setter
+public class CountPage<T> extends Page<T> {
+    /**
+     * 实际产生数据总量的策略
+     */
+    private CountStrategy countStrategy;
+    /**
+     * 数据总量是否是近似值(CAPPED截断或ESTIMATE估算)
+     */
+    private boolean approximate;
+
+    public CountPage(long current, long size) {
+        super(current, size);
+    }
+}
@@ -0,0 +1,26 @@
+package org.clever.hinny.data.jdbc.support;
+
+/**
+ * 分页查询时数据总量的计算策略
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/18 11:02 <br/>
+ */
+public enum CountStrategy {
+    /**
+     * 精确count查询
+     */
+    EXACT,
+    /**
+     * 使用缓存的总量(按count SQL + 参数缓存，过期后重新精确count)
+     */
+    CACHED,
+    /**
+     * 最多count到指定数量就停止
+     */
+    CAPPED,
+    /**
+     * 使用数据库执行计划估算的数据量(支持MySQL单表查询、PostgreSQL，其他情况退化成精确count)
+     */
+    ESTIMATE
+}
@@ -0,0 +1,31 @@
+package org.clever.hinny.data.jdbc.support;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 多数据源(多租户)注册中心配置
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/18 19:10 <br/>
+ */
+@Data
+public class DataSourceRegistryConfig implements Serializable {
+    /**
+     * 所有数据源的最大连接数之和(按每个连接池的maximumPoolSize计算，小于等于0表示不限制)
+     */
+    private int maxTotalConnections = 200;
+    /**
+     * 数据源空闲多久后收缩连接池(minimumIdle设置为0，单位：秒，小于等于0表示不收缩)
+     */
+    private int shrinkIdleTime = 300;
+    /**
+     * 数据源空闲多久后关闭连接池(下次使用时重新创建，单位：秒，小于等于0表示不关闭)
+     */
+    private int closeIdleTime = 1800;
+    /**
+     * 空闲检查时间间隔(单位：秒)
+     */
+    private int checkInterval = 60;
+}
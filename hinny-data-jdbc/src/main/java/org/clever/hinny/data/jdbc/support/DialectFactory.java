@@ -46,6 +46,15 @@ public class DialectFactory {
         return getDialect(dbType, dialectClazz).buildPaginationSql(buildSql, page.offset(), page.getSize());
     }
 
+    /**
+     * 获取数据库方言
+     *
+     * @param dbType 数据库类型
+     */
+    public static IDialect getDialect(DbType dbType) {
+        return getDialect(dbType, null);
+    }
+
     /**
      * 获取数据库方言
      *
@@ -3,6 +3,8 @@ package org.clever.hinny.data.jdbc.support;
 import lombok.Data;
 
 import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 作者：lizw <br/>
@@ -18,4 +20,39 @@ public class JdbcDataSourceStatus implements Serializable {
     private int idleConnections;
 
     private int threadsAwaitingConnection;
+
+    /**
+     * SQL执行计划缓存统计信息(key: 缓存名称)
+     */
+    private Map<String, CacheStatus> sqlPlanCache;
+
+    /**
+     * Count SQL 缓存统计信息(全局共享)
+     */
+    private CacheStatus countSqlCache;
+
+    /**
+     * 分页查询数据总量缓存统计信息
+     */
+    private CacheStatus countTotalCache;
+
+    /**
+     * 下划线与驼峰名称转换缓存统计信息(全局共享)
+     */
+    private CacheStatus nameConversionCache;
+
+    /**
+     * 查询结果缓存统计信息(未启用时为null)
+     */
+    private CacheStatus resultCache;
+
+    /**
+     * 读写分离模式下所有节点(主库和从库)的状态
+     */
+    private List<RoutingNodeStatus> routingNodes;
+
+    /**
+     * 读写分离模式下没有可用从库回退到主库的次数
+     */
+    private long routingFallbackCount;
 }
@@ -0,0 +1,18 @@
+package org.clever.hinny.data.jdbc.support;
+
+/**
+ * 读写分离时从库的负载均衡策略
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/18 18:02 <br/>
+ */
+public enum LoadBalance {
+    /**
+     * 轮询
+     */
+    ROUND_ROBIN,
+    /**
+     * 最少活动连接数
+     */
+    LEAST_CONNECTIONS
+}
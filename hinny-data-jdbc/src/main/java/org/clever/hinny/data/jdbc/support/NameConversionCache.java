@@ -0,0 +1,118 @@
+package org.clever.hinny.data.jdbc.support;
+
+import org.clever.common.utils.StrFormatter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 下划线与驼峰格式名称转换缓存(进程全局共享，无锁，有大小上限)<br/>
+ * 相同的名称转换结果返回同一个String实例，减少重复的转换计算和重复字符串占用的内存<br/>
+ * 缓存已满时清空该种转换的缓存后再写入(名称数量通常远小于上限，不需要LRU)，清空的数量计入淘汰数量
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/18 15:30 <br/>
+ */
+public class NameConversionCache {
+    /**
+     * 每种转换最多缓存的名称数量(超过之后清空重新缓存)
+     */
+    static final int Max_Size = 16384;
+    /**
+     * 下划线转驼峰 {@code Map<原始名称, 驼峰名称>}
+     */
+    private static final ConcurrentHashMap<String, String> Underline_To_Camel = new ConcurrentHashMap<>(256);
+    /**
+     * 驼峰转下划线 {@code Map<原始名称, 下划线名称>}
+     */
+    private static final ConcurrentHashMap<String, String> Camel_To_Underline = new ConcurrentHashMap<>(256);
+    /**
+     * 命中次数
+     */
+    private static final LongAdder Hit_Count = new LongAdder();
+    /**
+     * 未命中次数
+     */
+    private static final LongAdder Miss_Count = new LongAdder();
+    /**
+     * 淘汰数量
+     */
+    private static final LongAdder Eviction_Count = new LongAdder();
+
+    /**
+     * 下划线转驼峰
+     *
+     * @param name 原始名称
+     */
+    public static String underlineToCamel(String name) {
+        if (name == null) {
+            return null;
+        }
+        String value = Underline_To_Camel.get(name);
+        if (value != null) {
+            Hit_Count.increment();
+            return value;
+        }
+        Miss_Count.increment();
+        return putIfAbsent(Underline_To_Camel, name, StrFormatter.underlineToCamel(name));
+    }
+
+    /**
+     * 驼峰转下划线
+     *
+     * @param name 原始名称
+     */
+    public static String camelToUnderline(String name) {
+        if (name == null) {
+            return null;
+        }
+        String value = Camel_To_Underline.get(name);
+        if (value != null) {
+            Hit_Count.increment();
+            return value;
+        }
+        Miss_Count.increment();
+        return putIfAbsent(Camel_To_Underline, name, StrFormatter.camelToUnderline(name));
+    }
+
+    /**
+     * 清空缓存(包括统计信息)
+     */
+    public static void clear() {
+        Underline_To_Camel.clear();
+        Camel_To_Underline.clear();
+        Hit_Count.reset();
+        Miss_Count.reset();
+        Eviction_Count.reset();
+    }
+
+    /**
+     * 缓存统计信息
+     */
+    public static CacheStatus getStatus() {
+        long hitCount = Hit_Count.sum();
+        long missCount = Miss_Count.sum();
+        long requestCount = hitCount + missCount;
+        CacheStatus status = new CacheStatus();
+        status.setSize(Underline_To_Camel.size() + Camel_To_Underline.size());
+        status.setHitCount(hitCount);
+        status.setMissCount(missCount);
+        status.setHitRate(requestCount == 0 ? 1.0 : (double) hitCount / requestCount);
+        status.setEvictionCount(Eviction_Count.sum());
+        return status;
+    }
+
+    private static String putIfAbsent(ConcurrentHashMap<String, String> cache, String name, String value) {
+        if (value == null) {
+            return null;
+        }
+        if (cache.size() >= Max_Size) {
+            // 并发时可能有多个线程同时清空，统计的淘汰数量是近似值
+            final int size = cache.size();
+            cache.clear();
+            Eviction_Count.add(size);
+        }
+        String existing = cache.putIfAbsent(name, value);
+        return existing == null ? value : existing;
+    }
+}
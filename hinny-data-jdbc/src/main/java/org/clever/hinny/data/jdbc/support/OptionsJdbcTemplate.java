@@ -0,0 +1,91 @@
+package org.clever.hinny.data.jdbc.support;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.*;
+
+/**
+ * 应用 {@link QueryOptions} 配置的 JdbcTemplate(复制原始JdbcTemplate的配置，再设置超时时间、最大行数、fetchSize，执行SQL时注册取消句柄)
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/18 17:12 <br/>
+ */
+public class OptionsJdbcTemplate extends ReadRoutingJdbcTemplate {
+    /**
+     * 取消句柄
+     */
+    private final QueryCanceller canceller;
+
+    /**
+     * @param template     原始JdbcTemplate(复制其配置)
+     * @param queryOptions SQL执行配置
+     */
+    public OptionsJdbcTemplate(JdbcTemplate template, QueryOptions queryOptions) {
+        super(template.getDataSource());
+        setExceptionTranslator(template.getExceptionTranslator());
+        setIgnoreWarnings(template.isIgnoreWarnings());
+        setFetchSize(template.getFetchSize());
+        setMaxRows(template.getMaxRows());
+        setQueryTimeout(template.getQueryTimeout());
+        setSkipResultsProcessing(template.isSkipResultsProcessing());
+        setSkipUndeclaredResults(template.isSkipUndeclaredResults());
+        setResultsMapCaseInsensitive(template.isResultsMapCaseInsensitive());
+        if (queryOptions.getQueryTimeout() > 0) {
+            setQueryTimeout(queryOptions.getQueryTimeout());
+        }
+        if (queryOptions.getMaxRows() > 0) {
+            setMaxRows(queryOptions.getMaxRows());
+        }
+        if (queryOptions.getFetchSize() > 0) {
+            setFetchSize(queryOptions.getFetchSize());
+        }
+        this.canceller = queryOptions.getCanceller();
+    }
+
+    @SuppressWarnings("NullableProblems")
+    @Override
+    public <T> T execute(StatementCallback<T> action) throws DataAccessException {
+        if (canceller == null) {
+            return super.execute(action);
+        }
+        return super.execute((StatementCallback<T>) stmt -> {
+            canceller.register(stmt);
+            try {
+                return action.doInStatement(stmt);
+            } finally {
+                canceller.unregister(stmt);
+            }
+        });
+    }
+
+    @SuppressWarnings("NullableProblems")
+    @Override
+    public <T> T execute(PreparedStatementCreator psc, PreparedStatementCallback<T> action) throws DataAccessException {
+        if (canceller == null) {
+            return super.execute(psc, action);
+        }
+        return super.execute(psc, (PreparedStatementCallback<T>) ps -> {
+            canceller.register(ps);
+            try {
+                return action.doInPreparedStatement(ps);
+            } finally {
+                canceller.unregister(ps);
+            }
+        });
+    }
+
+    @SuppressWarnings("NullableProblems")
+    @Override
+    public <T> T execute(CallableStatementCreator csc, CallableStatementCallback<T> action) throws DataAccessException {
+        if (canceller == null) {
+            return super.execute(csc, action);
+        }
+        return super.execute(csc, (CallableStatementCallback<T>) cs -> {
+            canceller.register(cs);
+            try {
+                return action.doInCallableStatement(cs);
+            } finally {
+                canceller.unregister(cs);
+            }
+        });
+    }
+}
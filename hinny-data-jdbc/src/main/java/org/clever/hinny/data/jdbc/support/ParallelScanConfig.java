@@ -0,0 +1,43 @@
+package org.clever.hinny.data.jdbc.support;
+
+import lombok.Data;
+
+import java.util.function.Consumer;
+
+/**
+ * 并行分区扫描表数据配置
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/17 14:05 <br/>
+ */
+@Data
+public class ParallelScanConfig {
+    /**
+     * 一个批次的数据量
+     */
+    private int batchSize = 500;
+    /**
+     * 是否按分区顺序交付数据(true: 按分区顺序交付，false: 先读到先交付)
+     */
+    private boolean ordered = false;
+    /**
+     * 每个分区(无序交付时为每个线程)最多缓存的批次数，缓存满时读取数据的线程会等待(背压)
+     */
+    private int queueCapacity = 4;
+    /**
+     * 最大并发线程数(小于等于0表示与分区数相同)，不会超过连接池的最大连接数
+     */
+    private int maxThreads = 0;
+    /**
+     * 使用分位数计算分区边界(分区字段不是数值类型时总是使用分位数)
+     */
+    private boolean quantileSplit = false;
+    /**
+     * 下划线转驼峰
+     */
+    private boolean underlineToCamel = true;
+    /**
+     * 分区读取进度回调(在调用parallelScan的线程中执行)
+     */
+    private Consumer<PartitionProgress> progressConsumer;
+}
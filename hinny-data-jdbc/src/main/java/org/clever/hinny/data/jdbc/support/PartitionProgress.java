@@ -0,0 +1,51 @@
+package org.clever.hinny.data.jdbc.support;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 并行分区扫描时单个分区的读取进度(工作线程和消费数据的线程都会读写进度，可变字段使用volatile保证可见性)
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/17 14:12 <br/>
+ */
+@Data
+public class PartitionProgress implements Serializable {
+    /**
+     * 分区序号(从0开始)
+     */
+    private final int partition;
+    /**
+     * 分区查询SQL
+     */
+    private final String sql;
+    /**
+     * 分区下边界(包含)
+     */
+    private final Object lowerValue;
+    /**
+     * 分区上边界
+     */
+    private final Object upperValue;
+    /**
+     * 已交付的数据量
+     */
+    private volatile long rowCount;
+    /**
+     * 已交付的批次数
+     */
+    private volatile int batchCount;
+    /**
+     * 分区是否读取完成
+     */
+    private volatile boolean finished;
+    /**
+     * 开始读取时间
+     */
+    private volatile long startTime;
+    /**
+     * 读取完成时间
+     */
+    private volatile long endTime;
+}
@@ -0,0 +1,35 @@
+package org.clever.hinny.data.jdbc.support;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 游标批量读取流水线模式配置(读取数据与处理数据在不同的线程中并行执行)
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/18 16:26 <br/>
+ */
+@Data
+public class PipelineConfig implements Serializable {
+    /**
+     * 一个批次的数据量
+     */
+    private int batchSize = 500;
+    /**
+     * 等待处理的批次队列深度(队列满时游标读取等待)
+     */
+    private int queueCapacity = 4;
+    /**
+     * 处理数据的线程数(ordered=true时只使用一个线程)
+     */
+    private int workers = 1;
+    /**
+     * 是否按读取顺序处理批次数据
+     */
+    private boolean ordered = true;
+    /**
+     * 下划线转驼峰
+     */
+    private boolean underlineToCamel = true;
+}
@@ -0,0 +1,36 @@
+package org.clever.hinny.data.jdbc.support;
+
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.ParsedSql;
+import org.springframework.util.Assert;
+
+import javax.sql.DataSource;
+
+/**
+ * 使用 {@link SqlPlanCache} 缓存命名参数SQL解析结果的 NamedParameterJdbcTemplate
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/17 17:48 <br/>
+ */
+public class PlanCachedNamedParameterJdbcTemplate extends NamedParameterJdbcTemplate {
+    private final SqlPlanCache sqlPlanCache;
+
+    public PlanCachedNamedParameterJdbcTemplate(DataSource dataSource, SqlPlanCache sqlPlanCache) {
+        super(dataSource);
+        Assert.notNull(sqlPlanCache, "SqlPlanCache不能为空");
+        this.sqlPlanCache = sqlPlanCache;
+    }
+
+    public PlanCachedNamedParameterJdbcTemplate(JdbcOperations classicJdbcTemplate, SqlPlanCache sqlPlanCache) {
+        super(classicJdbcTemplate);
+        Assert.notNull(sqlPlanCache, "SqlPlanCache不能为空");
+        this.sqlPlanCache = sqlPlanCache;
+    }
+
+    @SuppressWarnings("NullableProblems")
+    @Override
+    protected ParsedSql getParsedSql(String sql) {
+        return sqlPlanCache.getParsedSql(sql);
+    }
+}
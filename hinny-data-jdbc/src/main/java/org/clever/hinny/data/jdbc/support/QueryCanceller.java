@@ -0,0 +1,108 @@
+package org.clever.hinny.data.jdbc.support;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 查询取消句柄(可以在其他线程中调用 {@link #cancel()} 取消正在执行的SQL)<br/>
+ * 可以被多个线程同时使用，取消时会取消所有正在执行的Statement；取消状态会一直保留(之后注册的Statement会被立即取消)，调用 {@link #reset()} 后才能继续使用
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/18 16:20 <br/>
+ */
+@Slf4j
+public class QueryCanceller {
+    /**
+     * 当前正在执行的Statement
+     */
+    private final Set<Statement> statements = ConcurrentHashMap.newKeySet();
+    /**
+     * 是否已取消
+     */
+    private volatile boolean cancelled;
+    /**
+     * 关联的上级取消句柄(可选)，上级取消时也会取消当前句柄注册的Statement；当前句柄取消时不影响上级
+     */
+    private final QueryCanceller parent;
+
+    public QueryCanceller() {
+        this(null);
+    }
+
+    /**
+     * @param parent 关联的上级取消句柄(可以为null)
+     */
+    public QueryCanceller(QueryCanceller parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * 注册当前正在执行的Statement(已取消时立即取消该Statement)
+     *
+     * @param statement 正在执行的Statement
+     */
+    public void register(Statement statement) {
+        statements.add(statement);
+        if (parent != null) {
+            parent.register(statement);
+        }
+        if (cancelled) {
+            cancelStatement(statement);
+        }
+    }
+
+    /**
+     * 取消注册Statement(Statement执行完成时调用)
+     *
+     * @param statement 执行完成的Statement
+     */
+    public void unregister(Statement statement) {
+        statements.remove(statement);
+        if (parent != null) {
+            parent.unregister(statement);
+        }
+    }
+
+    /**
+     * 取消所有正在执行的SQL
+     */
+    public void cancel() {
+        cancelled = true;
+        for (Statement statement : statements) {
+            cancelStatement(statement);
+        }
+    }
+
+    /**
+     * 清除取消状态，之后执行的SQL不再被取消
+     */
+    public void reset() {
+        cancelled = false;
+    }
+
+    /**
+     * 是否已取消(包括上级取消句柄已取消)
+     */
+    public boolean isCancelled() {
+        return cancelled || (parent != null && parent.isCancelled());
+    }
+
+    /**
+     * 当前正在执行的Statement数量
+     */
+    public int getRunningCount() {
+        return statements.size();
+    }
+
+    private static void cancelStatement(Statement statement) {
+        try {
+            statement.cancel();
+        } catch (SQLException | RuntimeException e) {
+            log.warn("取消SQL执行失败 | error={}", e.getMessage());
+        }
+    }
+}
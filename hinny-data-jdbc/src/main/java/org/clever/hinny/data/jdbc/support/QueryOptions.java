@@ -0,0 +1,53 @@
+package org.clever.hinny.data.jdbc.support;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * SQL执行配置(超时时间、最大行数、fetchSize、取消句柄、流式读取)，参考 {@link java.sql.Statement} 的同名配置
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/18 17:05 <br/>
+ */
+@Data
+public class QueryOptions implements Serializable {
+    /**
+     * SQL执行超时时间(单位：秒，小于等于0表示不限制)
+     */
+    private int queryTimeout;
+    /**
+     * 查询返回的最大行数(小于等于0表示不限制)
+     */
+    private int maxRows;
+    /**
+     * 查询的 fetchSize(小于等于0表示使用默认值)
+     */
+    private int fetchSize;
+    /**
+     * 取消句柄(可以在其他线程中取消正在执行的SQL，为null表示不支持取消)
+     */
+    private transient QueryCanceller canceller;
+    /**
+     * 游标查询是否使用数据库流式读取(默认false，按JdbcTemplate的fetchSize读取)
+     * <pre>
+     * MySQL      : 连接参数 useCursorFetch=true 时使用服务端游标，否则使用流式读取(fetchSize=Integer.MIN_VALUE)，
+     *              数据读取完成之前当前连接不能执行其它SQL(在事务中处理数据时不要在消费者中执行SQL)
+     * MariaDB    : 驱动根据 fetchSize 流式读取，限制同MySQL
+     * PostgreSQL : 只有关闭自动提交时才会使用服务端游标，当前不在事务中时会开启一个读写事务
+     * </pre>
+     */
+    private boolean streaming;
+
+    public QueryOptions() {
+    }
+
+    public QueryOptions(int queryTimeout) {
+        this.queryTimeout = queryTimeout;
+    }
+
+    public QueryOptions(int queryTimeout, QueryCanceller canceller) {
+        this.queryTimeout = queryTimeout;
+        this.canceller = canceller;
+    }
+}
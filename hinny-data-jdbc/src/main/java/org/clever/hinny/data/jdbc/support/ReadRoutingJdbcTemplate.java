@@ -0,0 +1,30 @@
+package org.clever.hinny.data.jdbc.support;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import javax.sql.DataSource;
+
+/**
+ * 查询操作标记为只读的 JdbcTemplate(数据源是 {@link ReadWriteRoutingDataSource} 时事务外的查询使用从库)
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/18 18:36 <br/>
+ */
+public class ReadRoutingJdbcTemplate extends JdbcTemplate {
+    public ReadRoutingJdbcTemplate(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    @SuppressWarnings("NullableProblems")
+    @Override
+    public <T> T query(PreparedStatementCreator psc, PreparedStatementSetter pss, ResultSetExtractor<T> rse) throws DataAccessException {
+        if (getDataSource() instanceof ReadWriteRoutingDataSource) {
+            return ReadWriteRoutingDataSource.executeRead(() -> super.query(psc, pss, rse));
+        }
+        return super.query(psc, pss, rse);
+    }
+}
@@ -0,0 +1,399 @@
+package org.clever.hinny.data.jdbc.support;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 读写分离数据源(一个主库，多个从库)
+ * <pre>
+ * 1. 只读事务使用从库(由 {@link RoutingTransactionManager} 开启事务时决定)
+ * 2. 事务外的查询使用从库(由 {@link #executeRead(Supplier)} 标记)
+ * 3. 其它情况(写事务、更新操作)使用主库
+ * 4. 从库不健康或复制延迟过大时回退到主库
+ * 5. 从库获取连接失败时等待 {@link RoutingConfig#getRetryAfter()} 秒后重新尝试(未开启健康检查时也能恢复)
+ * </pre>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/18 18:12 <br/>
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+    /**
+     * 当前线程的读操作标记(事务外执行查询时使用从库)
+     */
+    private static final ThreadLocal<Boolean> Read_Hint = new ThreadLocal<>();
+    /**
+     * 当前线程正在开启的事务是否只读(由 {@link RoutingTransactionManager} 设置)
+     */
+    private static final ThreadLocal<Boolean> Transaction_Read_Only = new ThreadLocal<>();
+
+    /**
+     * 主库
+     */
+    private final Node primary;
+    /**
+     * 从库
+     */
+    private final List<Node> replicas;
+    /**
+     * 路由配置
+     */
+    private final RoutingConfig config;
+    /**
+     * 轮询计数器
+     */
+    private final AtomicInteger roundRobinCounter = new AtomicInteger(0);
+    /**
+     * 没有可用从库回退到主库的次数
+     */
+    private final AtomicLong fallbackCount = new AtomicLong(0);
+    /**
+     * 健康检查线程池
+     */
+    private final ScheduledExecutorService healthCheckExecutor;
+    /**
+     * 是否已关闭
+     */
+    private volatile boolean closed = false;
+
+    /**
+     * @param primaryConfig  主库连接池配置
+     * @param replicaConfigs 从库连接池配置
+     * @param config         路由配置(可选)
+     */
+    public ReadWriteRoutingDataSource(HikariConfig primaryConfig, List<HikariConfig> replicaConfigs, RoutingConfig config) {
+        Assert.notNull(primaryConfig, "主库HikariConfig不能为空");
+        this.config = config == null ? new RoutingConfig() : config;
+        this.primary = new Node(new HikariDataSource(primaryConfig), true);
+        List<Node> replicaList = new ArrayList<>(replicaConfigs == null ? 0 : replicaConfigs.size());
+        try {
+            if (replicaConfigs != null) {
+                for (HikariConfig replicaConfig : replicaConfigs) {
+                    Assert.notNull(replicaConfig, "从库HikariConfig不能为空");
+                    replicaList.add(new Node(new HikariDataSource(replicaConfig), false));
+                }
+            }
+        } catch (RuntimeException e) {
+            primary.dataSource.close();
+            replicaList.forEach(node -> node.dataSource.close());
+            throw e;
+        }
+        this.replicas = Collections.unmodifiableList(replicaList);
+        if (!replicas.isEmpty() && this.config.getHealthCheckInterval() > 0) {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "routing-health-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+            final int interval = this.config.getHealthCheckInterval();
+            executor.scheduleWithFixedDelay(this::healthCheck, interval, interval, TimeUnit.SECONDS);
+            this.healthCheckExecutor = executor;
+        } else {
+            this.healthCheckExecutor = null;
+        }
+    }
+
+    /**
+     * 标记当前线程在事务外执行的是只读操作(可以使用从库)
+     *
+     * @param action 只读操作
+     */
+    public static <T> T executeRead(Supplier<T> action) {
+        final Boolean old = Read_Hint.get();
+        Read_Hint.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (old == null) {
+                Read_Hint.remove();
+            } else {
+                Read_Hint.set(old);
+            }
+        }
+    }
+
+    /**
+     * 设置当前线程正在开启的事务是否只读(null表示清除)
+     */
+    static void setTransactionReadOnly(Boolean readOnly) {
+        if (readOnly == null) {
+            Transaction_Read_Only.remove();
+        } else {
+            Transaction_Read_Only.set(readOnly);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!isReadRequest() || replicas.isEmpty()) {
+            return primary.getConnection();
+        }
+        Node replica = chooseReplica();
+        if (replica == null) {
+            fallbackCount.incrementAndGet();
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = replica.getConnection();
+            if (!replica.healthy) {
+                // 等待时间过后重新尝试成功
+                log.info("从库恢复可用 | replica={}", replica.name);
+                replica.markHealthy();
+            }
+            return connection;
+        } catch (SQLException e) {
+            replica.markUnhealthy(e.getMessage(), System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(Math.max(config.getRetryAfter(), 0)));
+            fallbackCount.incrementAndGet();
+            log.warn("从库获取连接失败，回退到主库 | replica={} | error={}", replica.name, e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("读写分离数据源不支持指定用户名密码获取连接");
+    }
+
+    /**
+     * 当前获取连接的请求是否可以使用从库
+     */
+    private boolean isReadRequest() {
+        Boolean readOnly = Transaction_Read_Only.get();
+        if (readOnly != null) {
+            return readOnly;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        }
+        // 事务同步开启时连接会绑定到当前线程，后续的更新操作也会使用该连接，所以只能使用主库
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        return Boolean.TRUE.equals(Read_Hint.get());
+    }
+
+    /**
+     * 根据负载均衡策略选择一个健康的从库，没有健康的从库返回null
+     */
+    private Node chooseReplica() {
+        final int size = replicas.size();
+        if (LoadBalance.LEAST_CONNECTIONS.equals(config.getLoadBalance())) {
+            Node selected = null;
+            int minActive = Integer.MAX_VALUE;
+            for (Node replica : replicas) {
+                if (!replica.isAvailable()) {
+                    continue;
+                }
+                int active = replica.getActiveConnections();
+                if (active < minActive) {
+                    minActive = active;
+                    selected = replica;
+                }
+            }
+            return selected;
+        }
+        final int start = Math.abs(roundRobinCounter.getAndIncrement() % size);
+        for (int i = 0; i < size; i++) {
+            Node replica = replicas.get((start + i) % size);
+            if (replica.isAvailable()) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 检查所有从库的健康状态和复制延迟
+     */
+    private void healthCheck() {
+        for (Node replica : replicas) {
+            if (closed) {
+                return;
+            }
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (!connection.isValid(Math.max(config.getValidationTimeout(), 0))) {
+                    replica.markUnhealthy("连接校验失败");
+                    continue;
+                }
+                if (StringUtils.isNotBlank(config.getLagSql())) {
+                    Double lag = queryLag(connection);
+                    replica.lagSeconds = lag;
+                    if (lag != null && lag > config.getMaxLagSeconds()) {
+                        replica.markUnhealthy("复制延迟过大: " + lag + "s");
+                        continue;
+                    }
+                }
+                if (!replica.healthy) {
+                    log.info("从库恢复可用 | replica={}", replica.name);
+                }
+                replica.markHealthy();
+            } catch (Exception e) {
+                replica.markUnhealthy(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 查询复制延迟(单位：秒)
+     */
+    private Double queryLag(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(Math.max(config.getValidationTimeout(), 0));
+            try (ResultSet rs = statement.executeQuery(config.getLagSql())) {
+                if (!rs.next()) {
+                    return null;
+                }
+                double lag = rs.getDouble(1);
+                return rs.wasNull() ? null : lag;
+            }
+        }
+    }
+
+    /**
+     * 主库
+     */
+    public HikariDataSource getPrimary() {
+        return primary.dataSource;
+    }
+
+    /**
+     * 没有可用从库回退到主库的次数
+     */
+    public long getFallbackCount() {
+        return fallbackCount.get();
+    }
+
+    /**
+     * 所有节点(主库和从库)的状态
+     */
+    public List<RoutingNodeStatus> getNodeStatus() {
+        List<RoutingNodeStatus> list = new ArrayList<>(replicas.size() + 1);
+        list.add(primary.getStatus());
+        for (Node replica : replicas) {
+            list.add(replica.getStatus());
+        }
+        return list;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (healthCheckExecutor != null) {
+            healthCheckExecutor.shutdownNow();
+        }
+        for (Node replica : replicas) {
+            replica.dataSource.close();
+        }
+        primary.dataSource.close();
+    }
+
+    /**
+     * 数据源节点
+     */
+    private static class Node {
+        private final HikariDataSource dataSource;
+        private final boolean primary;
+        private final String name;
+        private final AtomicLong routeCount = new AtomicLong(0);
+        private volatile boolean healthy = true;
+        /**
+         * 不健康时再次尝试使用的时间(Long.MAX_VALUE 表示只能由健康检查恢复)
+         */
+        private volatile long retryTime = Long.MAX_VALUE;
+        private volatile Double lagSeconds;
+        private volatile String lastError;
+
+        Node(HikariDataSource dataSource, boolean primary) {
+            this.dataSource = dataSource;
+            this.primary = primary;
+            this.name = dataSource.getPoolName();
+        }
+
+        Connection getConnection() throws SQLException {
+            routeCount.incrementAndGet();
+            return dataSource.getConnection();
+        }
+
+        int getActiveConnections() {
+            HikariPoolMXBean poolMXBean = dataSource.getHikariPoolMXBean();
+            return poolMXBean == null ? 0 : poolMXBean.getActiveConnections();
+        }
+
+        /**
+         * 是否可以路由到当前节点(健康，或者不健康但已到再次尝试的时间)
+         */
+        boolean isAvailable() {
+            return healthy || System.currentTimeMillis() >= retryTime;
+        }
+
+        void markHealthy() {
+            healthy = true;
+            retryTime = Long.MAX_VALUE;
+            lastError = null;
+        }
+
+        void markUnhealthy(String error) {
+            markUnhealthy(error, Long.MAX_VALUE);
+        }
+
+        /**
+         * @param error     错误信息
+         * @param retryTime 再次尝试使用的时间
+         */
+        void markUnhealthy(String error, long retryTime) {
+            if (healthy) {
+                log.warn("从库不可用，读请求回退到其它节点 | replica={} | error={}", name, error);
+            }
+            // 先设置再次尝试时间，避免并发读取到旧的retryTime
+            this.retryTime = retryTime;
+            healthy = false;
+            lastError = error;
+        }
+
+        RoutingNodeStatus getStatus() {
+            RoutingNodeStatus status = new RoutingNodeStatus();
+            status.setName(name);
+            status.setPrimary(primary);
+            status.setJdbcUrl(dataSource.getJdbcUrl());
+            status.setHealthy(healthy);
+            status.setLagSeconds(lagSeconds);
+            status.setLastError(lastError);
+            status.setRouteCount(routeCount.get());
+            HikariPoolMXBean poolMXBean = dataSource.getHikariPoolMXBean();
+            if (poolMXBean != null) {
+                status.setTotalConnections(poolMXBean.getTotalConnections());
+                status.setActiveConnections(poolMXBean.getActiveConnections());
+                status.setIdleConnections(poolMXBean.getIdleConnections());
+                status.setThreadsAwaitingConnection(poolMXBean.getThreadsAwaitingConnection());
+            }
+            return status;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.clever.hinny.data.jdbc.support;
+
+import org.clever.hinny.data.redis.RedisDataSource;
+import org.springframework.util.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 使用 {@link RedisDataSource} 的查询结果二级缓存<br/>
+ * 缓存值使用 RedisDataSource 的序列化方式读写，读取的字段值类型可能与直接查询不同(如：日期类型)
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/18 20:12 <br/>
+ */
+public class RedisResultCacheStore implements ResultCacheStore {
+    private final RedisDataSource redisDataSource;
+
+    public RedisResultCacheStore(RedisDataSource redisDataSource) {
+        Assert.notNull(redisDataSource, "RedisDataSource不能为空");
+        this.redisDataSource = redisDataSource;
+    }
+
+    @Override
+    public Object get(String key) {
+        return redisDataSource.vGet(key);
+    }
+
+    @Override
+    public void put(String key, Object value, int ttlSeconds) {
+        redisDataSource.vSet(key, value, TimeUnit.SECONDS.toMillis(ttlSeconds));
+    }
+
+    @Override
+    public void delete(Collection<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return;
+        }
+        redisDataSource.kDelete(keys);
+    }
+
+    @Override
+    public List<Long> getVersions(List<String> keys) {
+        List<Object> values = redisDataSource.vMultiGet(keys);
+        List<Long> versions = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Object value = values == null || values.size() <= i ? null : values.get(i);
+            versions.add(toVersion(value));
+        }
+        return versions;
+    }
+
+    @Override
+    public void incrementVersions(Collection<String> keys) {
+        for (String key : keys) {
+            redisDataSource.vIncrement(key);
+        }
+    }
+
+    /**
+     * 版本号由 INCR 命令写入，不同的值序列化方式读取的类型可能不同
+     */
+    private static long toVersion(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof byte[]) {
+            value = new String((byte[]) value, StandardCharsets.UTF_8);
+        }
+        return Long.parseLong(value.toString().trim());
+    }
+}
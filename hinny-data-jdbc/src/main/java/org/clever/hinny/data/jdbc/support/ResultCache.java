@@ -0,0 +1,423 @@
+package org.clever.hinny.data.jdbc.support;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import lombok.extern.slf4j.Slf4j;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.util.TablesNamesFinder;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 查询结果缓存(key: SQL + 参数)
+ * <pre>
+ * 1. 一级缓存使用本地内存，支持过期时间和最大数量限制
+ * 2. 二级缓存可选(如：{@link RedisResultCacheStore})
+ * 3. 按SQL引用的表建立索引，更新表数据时删除相关缓存
+ * 4. 使用二级缓存时，每张表在二级缓存中保存一个版本号，更新表数据时版本号加1(所有进程共享)，
+ *    二级缓存key包含SQL引用的所有表的版本号，一级缓存命中时也会校验版本号，其他进程的更新能使缓存立即失效
+ * 5. 返回缓存数据的副本，修改返回值不会影响缓存
+ * </pre>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/18 20:18 <br/>
+ */
+@Slf4j
+public class ResultCache {
+    /**
+     * 清空所有缓存的版本号(包含在所有二级缓存key的版本号中)
+     */
+    private static final String All_Tables = "*";
+    /**
+     * 缓存配置
+     */
+    private final ResultCacheConfig config;
+    /**
+     * 二级缓存(可选)
+     */
+    private final ResultCacheStore store;
+    /**
+     * 一级缓存
+     */
+    private final Cache<String, CachedResult> cache;
+    /**
+     * 表名索引 {@code Map<表名, Set<缓存key>>}
+     */
+    private final ConcurrentHashMap<String, Set<String>> tableIndex = new ConcurrentHashMap<>();
+    /**
+     * 缓存失效版本号(查询期间发生过失效时不写入缓存，避免缓存旧数据)
+     */
+    private final AtomicLong invalidateVersion = new AtomicLong(0);
+
+    public ResultCache(ResultCacheConfig config, ResultCacheStore store) {
+        this.config = config == null ? new ResultCacheConfig() : config;
+        Assert.isTrue(this.config.getTtlSeconds() > 0, "缓存过期时间必须大于0");
+        Assert.isTrue(this.config.getMaxSize() > 0, "缓存最大数量必须大于0");
+        this.store = store;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(this.config.getMaxSize())
+                .expireAfterWrite(this.config.getTtlSeconds(), TimeUnit.SECONDS)
+                .removalListener(this::onRemoval)
+                .recordStats()
+                .build();
+    }
+
+    public ResultCache(ResultCacheConfig config) {
+        this(config, null);
+    }
+
+    public ResultCache() {
+        this(null, null);
+    }
+
+    /**
+     * 读取缓存，缓存不存在时调用loader查询并写入缓存(无法解析SQL引用的表时不缓存)
+     *
+     * @param sql              sql脚本
+     * @param paramMap         参数
+     * @param underlineToCamel 下划线转驼峰
+     * @param loader           查询数据
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String sql, Map<String, Object> paramMap, boolean underlineToCamel, Supplier<T> loader) {
+        final String key = getCacheKey(sql, paramMap, underlineToCamel);
+        CachedResult cachedResult = cache.getIfPresent(key);
+        if (cachedResult != null) {
+            if (store == null || cachedResult.versions.equals(getVersions(cachedResult.tables))) {
+                return (T) copyValue(cachedResult.value);
+            }
+            // 其他进程更新了表数据
+            cache.invalidate(key);
+        }
+        final List<String> tables = getTables(sql);
+        if (tables == null) {
+            return loader.get();
+        }
+        final long version = invalidateVersion.get();
+        // 查询数据之前读取版本号，查询期间表数据被更新时缓存写入到旧版本号的key，不会被读取到
+        final List<Long> versions = store == null ? Collections.emptyList() : getVersions(tables);
+        if (versions == null) {
+            return loader.get();
+        }
+        final String storeKey = getStoreKey(key, versions);
+        if (store != null) {
+            Object value = getFromStore(storeKey);
+            if (value != null) {
+                if (version == invalidateVersion.get()) {
+                    putCache(key, new CachedResult(copyValue(value), tables, versions));
+                }
+                return (T) value;
+            }
+        }
+        final T value = loader.get();
+        if (version != invalidateVersion.get()) {
+            return value;
+        }
+        putCache(key, new CachedResult(copyValue(value), tables, versions));
+        if (store != null) {
+            putToStore(storeKey, value);
+        }
+        return value;
+    }
+
+    /**
+     * 根据更新SQL删除相关缓存(无法解析SQL时清空所有缓存)
+     *
+     * @param sql 更新SQL
+     */
+    public void invalidateSql(String sql) {
+        List<String> tables = getTables(sql);
+        if (tables == null) {
+            clear();
+            return;
+        }
+        invalidateTables(tables);
+    }
+
+    /**
+     * 删除引用了指定表的缓存
+     *
+     * @param tables 表名称
+     */
+    public void invalidateTables(Collection<String> tables) {
+        invalidateVersion.incrementAndGet();
+        final Set<String> keys = new HashSet<>();
+        final Set<String> tableNames = new HashSet<>(tables.size());
+        for (String table : tables) {
+            String tableName = normalizeTableName(table);
+            tableNames.add(tableName);
+            Set<String> tableKeys = tableIndex.remove(tableName);
+            if (tableKeys != null) {
+                keys.addAll(tableKeys);
+            }
+        }
+        if (!keys.isEmpty()) {
+            cache.invalidateAll(keys);
+        }
+        incrementVersions(tableNames);
+    }
+
+    /**
+     * 清空所有缓存
+     */
+    public void clear() {
+        invalidateVersion.incrementAndGet();
+        cache.invalidateAll();
+        tableIndex.clear();
+        incrementVersions(Collections.singleton(All_Tables));
+    }
+
+    /**
+     * 缓存统计信息
+     */
+    public CacheStatus getStatus() {
+        return CacheStatus.of(cache);
+    }
+
+    private void putCache(String key, CachedResult cachedResult) {
+        addTableIndex(key, cachedResult.tables);
+        cache.put(key, cachedResult);
+        // 同一个key之前的数据被删除时可能已经把索引删除了，重新添加(Set中已存在时无影响)
+        addTableIndex(key, cachedResult.tables);
+    }
+
+    private void addTableIndex(String key, List<String> tables) {
+        for (String table : tables) {
+            tableIndex.computeIfAbsent(table, name -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+
+    private void onRemoval(RemovalNotification<String, CachedResult> notification) {
+        // 被替换时key依然有效，不需要从索引中删除；主动删除(如：版本号不一致、更新了关联查询中的其它表)和淘汰都需要从索引中删除
+        if (notification.getCause() == RemovalCause.REPLACED || notification.getValue() == null) {
+            return;
+        }
+        final String key = notification.getKey();
+        if (cache.asMap().containsKey(key)) {
+            return;
+        }
+        for (String table : notification.getValue().tables) {
+            Set<String> keys = tableIndex.get(table);
+            if (keys != null) {
+                keys.remove(key);
+            }
+        }
+    }
+
+    /**
+     * 引用了指定表的缓存key数量(用于测试)
+     */
+    int getIndexedKeyCount(String table) {
+        Set<String> keys = tableIndex.get(normalizeTableName(table));
+        return keys == null ? 0 : keys.size();
+    }
+
+    private Object getFromStore(String storeKey) {
+        try {
+            return store.get(storeKey);
+        } catch (Exception e) {
+            log.warn("读取二级缓存失败 | error={}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void putToStore(String storeKey, Object value) {
+        try {
+            store.put(storeKey, value, config.getTtlSeconds());
+        } catch (Exception e) {
+            log.warn("写入二级缓存失败 | error={}", e.getMessage());
+        }
+    }
+
+    /**
+     * 读取表的版本号(包含清空所有缓存的版本号)，读取失败返回null
+     */
+    private List<Long> getVersions(List<String> tables) {
+        List<String> versionKeys = new ArrayList<>(tables.size() + 1);
+        versionKeys.add(getVersionKey(All_Tables));
+        for (String table : tables) {
+            versionKeys.add(getVersionKey(table));
+        }
+        try {
+            return store.getVersions(versionKeys);
+        } catch (Exception e) {
+            log.warn("读取二级缓存版本号失败 | error={}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 表的版本号加1，使所有进程中引用了这些表的缓存失效
+     */
+    private void incrementVersions(Set<String> tables) {
+        if (store == null || tables.isEmpty()) {
+            return;
+        }
+        List<String> versionKeys = new ArrayList<>(tables.size());
+        for (String table : tables) {
+            versionKeys.add(getVersionKey(table));
+        }
+        try {
+            store.incrementVersions(versionKeys);
+        } catch (Exception e) {
+            log.warn("更新二级缓存版本号失败 | error={}", e.getMessage());
+        }
+    }
+
+    private String getVersionKey(String table) {
+        return config.getKeyPrefix() + "version:" + table;
+    }
+
+    /**
+     * 二级缓存key: 前缀 + 缓存key + 表的版本号
+     */
+    private String getStoreKey(String key, List<Long> versions) {
+        StringBuilder sb = new StringBuilder(config.getKeyPrefix().length() + key.length() + versions.size() * 4);
+        sb.append(config.getKeyPrefix()).append(key);
+        for (Long version : versions) {
+            sb.append(':').append(version);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 缓存key: 规范化后的SQL + 参数(按参数名排序，参数值包含类型)的MD5
+     */
+    private static String getCacheKey(String sql, Map<String, Object> paramMap, boolean underlineToCamel) {
+        StringBuilder sb = new StringBuilder(sql.length() + 64);
+        sb.append(SqlUtils.normalizeSql(sql)).append('\u0000').append(underlineToCamel);
+        if (paramMap != null && !paramMap.isEmpty()) {
+            for (Map.Entry<String, Object> entry : new TreeMap<>(paramMap).entrySet()) {
+                Object value = entry.getValue();
+                sb.append('\u0000').append(entry.getKey()).append('=');
+                if (value != null) {
+                    appendValue(sb, value);
+                }
+            }
+        }
+        return DigestUtils.md5DigestAsHex(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 参数值转换成缓存key：时间使用毫秒数(toString会丢失毫秒)，数组和集合按元素转换(数组的toString是对象地址)
+     */
+    private static void appendValue(StringBuilder sb, Object value) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append(value.getClass().getName()).append(':');
+        if (value instanceof Timestamp) {
+            sb.append(((Timestamp) value).getTime()).append('.').append(((Timestamp) value).getNanos());
+        } else if (value instanceof Date) {
+            sb.append(((Date) value).getTime());
+        } else if (value.getClass().isArray()) {
+            final int length = Array.getLength(value);
+            sb.append('[');
+            for (int i = 0; i < length; i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                appendValue(sb, Array.get(value, i));
+            }
+            sb.append(']');
+        } else if (value instanceof Collection) {
+            sb.append('[');
+            boolean first = true;
+            for (Object item : (Collection<?>) value) {
+                if (!first) {
+                    sb.append(',');
+                }
+                first = false;
+                appendValue(sb, item);
+            }
+            sb.append(']');
+        } else {
+            sb.append(value);
+        }
+    }
+
+    /**
+     * 解析SQL引用的表名称(去重并排序)，解析失败返回null
+     */
+    private static List<String> getTables(String sql) {
+        try {
+            Statement statement = CCJSqlParserUtil.parse(sql);
+            List<String> tableList = new TablesNamesFinder().getTableList(statement);
+            Set<String> tables = new TreeSet<>();
+            for (String table : tableList) {
+                tables.add(normalizeTableName(table));
+            }
+            return new ArrayList<>(tables);
+        } catch (Exception e) {
+            log.debug("解析SQL引用的表失败 | sql={}", sql, e);
+            return null;
+        }
+    }
+
+    /**
+     * 表名称规范化：去掉schema和引号，转小写
+     */
+    private static String normalizeTableName(String table) {
+        String name = StringUtils.trim(table);
+        int index = name.lastIndexOf('.');
+        if (index >= 0) {
+            name = name.substring(index + 1);
+        }
+        name = StringUtils.strip(name, "`\"[]");
+        return name.toLowerCase();
+    }
+
+    /**
+     * 复制缓存数据(复制 List 和 Map 结构，字段值不复制)
+     */
+    @SuppressWarnings("unchecked")
+    private static Object copyValue(Object value) {
+        if (value instanceof List) {
+            List<Object> list = (List<Object>) value;
+            List<Object> copy = new ArrayList<>(list.size());
+            for (Object item : list) {
+                copy.add(copyValue(item));
+            }
+            return copy;
+        }
+        if (value instanceof LinkedCaseInsensitiveMap) {
+            return ((LinkedCaseInsensitiveMap<Object>) value).clone();
+        }
+        if (value instanceof Map) {
+            return new LinkedHashMap<>((Map<String, Object>) value);
+        }
+        return value;
+    }
+
+    /**
+     * 缓存的查询结果
+     */
+    private static class CachedResult {
+        private final Object value;
+        private final List<String> tables;
+        /**
+         * 写入缓存时表的版本号(不使用二级缓存时为空)
+         */
+        private final List<Long> versions;
+
+        CachedResult(Object value, List<String> tables, List<Long> versions) {
+            this.value = value;
+            this.tables = tables;
+            this.versions = versions;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.clever.hinny.data.jdbc.support;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 查询结果缓存配置
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/18 20:05 <br/>
+ */
+@Data
+public class ResultCacheConfig implements Serializable {
+    /**
+     * 缓存过期时间(单位：秒)
+     */
+    private int ttlSeconds = 60;
+    /**
+     * 本地缓存最大数量
+     */
+    private int maxSize = 10000;
+    /**
+     * 二级缓存key前缀
+     */
+    private String keyPrefix = "jdbc:result:";
+}
@@ -0,0 +1,51 @@
+package org.clever.hinny.data.jdbc.support;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 查询结果二级缓存存储(如：Redis)<br/>
+ * 版本号用于多个进程共享表数据的失效状态，需要保存在所有进程都能访问的存储中
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/18 20:08 <br/>
+ */
+public interface ResultCacheStore {
+    /**
+     * 读取缓存，不存在返回null
+     *
+     * @param key 缓存key
+     */
+    Object get(String key);
+
+    /**
+     * 写入缓存
+     *
+     * @param key        缓存key
+     * @param value      缓存值
+     * @param ttlSeconds 过期时间(单位：秒)
+     */
+    void put(String key, Object value, int ttlSeconds);
+
+    /**
+     * 删除缓存
+     *
+     * @param keys 缓存key
+     */
+    void delete(Collection<String> keys);
+
+    /**
+     * 读取版本号(不存在返回0)
+     *
+     * @param keys 版本号key
+     * @return 与keys一一对应的版本号
+     */
+    List<Long> getVersions(List<String> keys);
+
+    /**
+     * 版本号加1(不存在时从0开始)
+     *
+     * @param keys 版本号key
+     */
+    void incrementVersions(Collection<String> keys);
+}
@@ -0,0 +1,40 @@
+package org.clever.hinny.data.jdbc.support;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 读写分离路由配置
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/18 18:05 <br/>
+ */
+@Data
+public class RoutingConfig implements Serializable {
+    /**
+     * 从库负载均衡策略
+     */
+    private LoadBalance loadBalance = LoadBalance.ROUND_ROBIN;
+    /**
+     * 从库健康检查时间间隔(单位：秒，小于等于0表示不检查)
+     */
+    private int healthCheckInterval = 5;
+    /**
+     * 健康检查时校验连接的超时时间(单位：秒)
+     */
+    private int validationTimeout = 3;
+    /**
+     * 查询从库复制延迟的SQL(可选，返回延迟的秒数)，如PostgreSQL：
+     * {@code select extract(epoch from now() - pg_last_xact_replay_timestamp())}
+     */
+    private String lagSql;
+    /**
+     * 允许的最大复制延迟(单位：秒)，超过时不再路由到该从库
+     */
+    private double maxLagSeconds = 10;
+    /**
+     * 从库获取连接失败后，再次尝试使用该从库的等待时间(单位：秒)，等待期间读请求回退到其它节点
+     */
+    private int retryAfter = 30;
+}
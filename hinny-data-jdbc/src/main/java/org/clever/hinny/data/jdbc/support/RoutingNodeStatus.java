@@ -0,0 +1,51 @@
+package org.clever.hinny.data.jdbc.support;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 读写分离数据源中单个节点(主库或从库)的状态
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/18 18:08 <br/>
+ */
+@Data
+public class RoutingNodeStatus implements Serializable {
+    /**
+     * 节点名称(连接池名称)
+     */
+    private String name;
+    /**
+     * 是否是主库
+     */
+    private boolean primary;
+    /**
+     * 数据库连接地址
+     */
+    private String jdbcUrl;
+    /**
+     * 是否健康(不健康的从库不会被路由)
+     */
+    private boolean healthy;
+    /**
+     * 最近一次检查到的复制延迟(单位：秒，未配置lagSql时为null)
+     */
+    private Double lagSeconds;
+    /**
+     * 最近一次健康检查的错误信息
+     */
+    private String lastError;
+    /**
+     * 路由到当前节点获取连接的次数
+     */
+    private long routeCount;
+
+    private int totalConnections;
+
+    private int activeConnections;
+
+    private int idleConnections;
+
+    private int threadsAwaitingConnection;
+}
@@ -0,0 +1,27 @@
+package org.clever.hinny.data.jdbc.support;
+
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * 读写分离事务管理器(开启只读事务时使用从库连接，其它事务使用主库连接)
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/18 18:30 <br/>
+ */
+public class RoutingTransactionManager extends DataSourceTransactionManager {
+    public RoutingTransactionManager(ReadWriteRoutingDataSource dataSource) {
+        super(dataSource);
+    }
+
+    @SuppressWarnings("NullableProblems")
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        ReadWriteRoutingDataSource.setTransactionReadOnly(definition.isReadOnly());
+        try {
+            super.doBegin(transaction, definition);
+        } finally {
+            ReadWriteRoutingDataSource.setTransactionReadOnly(null);
+        }
+    }
+}
@@ -51,6 +51,19 @@ public class RowData implements Serializable {
         this.rowCount = rowCount;
     }
 
+    /**
+     * @param columns  列描述信息(多行数据共享)
+     * @param rowData  行数据
+     * @param rowCount 当前读取的行数
+     */
+    public RowData(ColumnDescriptor columns, Map<String, Object> rowData, int rowCount) {
+        this.columnNames = columns.getColumnNames();
+        this.columnTypes = columns.getColumnTypes();
+        this.columnCount = columns.getColumnCount();
+        this.rowData = rowData;
+        this.rowCount = rowCount;
+    }
+
     public int[] originalGetColumnTypes() {
         int[] result = new int[columnTypes.size()];
         for (int i = 0; i < columnTypes.size(); i++) {
@@ -2,7 +2,6 @@ package org.clever.hinny.data.jdbc.support;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Map;
 import java.util.function.Consumer;
 
 /**
@@ -18,6 +17,10 @@ public class RowDataReaderCallback extends AbstractRowCountCallbackHandler {
      * 下划线转驼峰
      */
     private final boolean underlineToCamel;
+    /**
+     * 列描述信息(整个结果集共享)
+     */
+    private ColumnDescriptor columns;
 
     public RowDataReaderCallback(Consumer<RowData> consumer, boolean underlineToCamel) {
         this.consumer = consumer;
@@ -27,10 +30,9 @@ public class RowDataReaderCallback extends AbstractRowCountCallbackHandler {
     @SuppressWarnings("NullableProblems")
     @Override
     protected void processRow(ResultSet rs, int rowNum) throws SQLException {
-        Map<String, Object> rowData = getRowData(rs, rowNum);
-        if (underlineToCamel) {
-            rowData = UnderlineToCamelUtils.underlineToCamel(rowData);
+        if (columns == null) {
+            columns = ColumnDescriptor.of(getColumnNames(), getColumnTypes(), underlineToCamel);
         }
-        consumer.accept(new RowData(getColumnNames(), getColumnTypes(), getColumnCount(), rowData, this.getRowCount()));
+        consumer.accept(new RowData(columns, columns.readRow(rs), this.getRowCount()));
     }
 }
@@ -0,0 +1,135 @@
+package org.clever.hinny.data.jdbc.support;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 游标读取的行数据视图(享元对象)
+ * <p>
+ * 同一个结果集的所有行共享一个RowView实例，读取下一行数据时会覆盖当前数据，
+ * 如果需要保留当前行数据请调用 {@link #copy()}
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/17 10:36 <br/>
+ */
+public final class RowView {
+    /**
+     * 列描述信息
+     */
+    private final ColumnDescriptor columns;
+    /**
+     * 当前行数据
+     */
+    private final Object[] values;
+    /**
+     * 当前读取的行数
+     */
+    private int rowCount;
+
+    public RowView(ColumnDescriptor columns) {
+        this.columns = columns;
+        this.values = new Object[columns.getColumnCount()];
+    }
+
+    /**
+     * 设置当前行数据(由读取游标的线程调用)
+     *
+     * @param index 列位置(从0开始)
+     * @param value 数据
+     */
+    void setValue(int index, Object value) {
+        values[index] = value;
+    }
+
+    /**
+     * 设置当前读取的行数(由读取游标的线程调用)
+     */
+    void setRowCount(int rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * 列描述信息
+     */
+    public ColumnDescriptor getColumns() {
+        return columns;
+    }
+
+    /**
+     * 列名称集合
+     */
+    public List<String> getColumnNames() {
+        return columns.getColumnNames();
+    }
+
+    /**
+     * 列宽(列数)
+     */
+    public int getColumnCount() {
+        return columns.getColumnCount();
+    }
+
+    /**
+     * 当前读取的行数
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * 根据列位置读取数据
+     *
+     * @param index 列位置(从0开始)
+     */
+    public Object get(int index) {
+        return values[index];
+    }
+
+    /**
+     * 根据列名称读取数据
+     *
+     * @param name 列名称或者下划线转驼峰之后的列名称(不区分大小写)
+     */
+    public Object get(String name) {
+        int index = columns.indexOf(name);
+        if (index < 0) {
+            return null;
+        }
+        return values[index];
+    }
+
+    /**
+     * 是否存在指定的列
+     *
+     * @param name 列名称或者下划线转驼峰之后的列名称(不区分大小写)
+     */
+    public boolean hasColumn(String name) {
+        return columns.indexOf(name) >= 0;
+    }
+
+    /**
+     * 复制当前行数据，返回一个新的Map(重复的列名称使用最后一列的值)
+     */
+    public Map<String, Object> copy() {
+        List<String> keys = columns.getKeys();
+        Map<String, Object> rowData = new LinkedHashMap<>(Math.max(16, (int) (values.length / 0.75f) + 1));
+        for (int i = 0; i < values.length; i++) {
+            rowData.put(keys.get(i), values[i]);
+        }
+        return rowData;
+    }
+
+    /**
+     * 复制当前行数据，返回一个新的数组
+     */
+    public Object[] toArray() {
+        return Arrays.copyOf(values, values.length);
+    }
+
+    @Override
+    public String toString() {
+        return copy().toString();
+    }
+}
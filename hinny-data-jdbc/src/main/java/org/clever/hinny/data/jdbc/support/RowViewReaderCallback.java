@@ -0,0 +1,66 @@
+package org.clever.hinny.data.jdbc.support;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+/**
+ * 游标逐行读取模式(享元模式，不会为每一行数据创建Map)
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/17 10:58 <br/>
+ */
+public class RowViewReaderCallback implements RowCallbackHandler {
+    /**
+     * 游标读取数据消费者
+     */
+    private final Consumer<RowView> consumer;
+    /**
+     * 下划线转驼峰
+     */
+    private final boolean underlineToCamel;
+    /**
+     * 行数据视图(整个结果集共享)
+     */
+    private RowView rowView;
+    /**
+     * 当前读取的行数
+     */
+    private int rowCount;
+
+    public RowViewReaderCallback(Consumer<RowView> consumer, boolean underlineToCamel) {
+        this.consumer = consumer;
+        this.underlineToCamel = underlineToCamel;
+    }
+
+    @SuppressWarnings("NullableProblems")
+    @Override
+    public void processRow(ResultSet rs) throws SQLException {
+        if (rowView == null) {
+            rowView = new RowView(ColumnDescriptor.of(rs.getMetaData(), underlineToCamel));
+        }
+        final int columnCount = rowView.getColumnCount();
+        for (int i = 0; i < columnCount; i++) {
+            rowView.setValue(i, org.springframework.jdbc.support.JdbcUtils.getResultSetValue(rs, i + 1));
+        }
+        rowCount++;
+        rowView.setRowCount(rowCount);
+        consumer.accept(rowView);
+    }
+
+    /**
+     * 当前读取的行数
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * 列描述信息(未读取到数据时返回null)
+     */
+    public ColumnDescriptor getColumns() {
+        return rowView == null ? null : rowView.getColumns();
+    }
+}
@@ -0,0 +1,196 @@
+package org.clever.hinny.data.jdbc.support;
+
+import org.springframework.util.Assert;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Keyset(Seek)分页游标编解码(带类型标记的二进制格式 + Base64Url，不使用Java序列化)
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/18 09:20 <br/>
+ */
+public class SeekCursor {
+    /**
+     * 游标格式版本
+     */
+    private static final byte Version = 1;
+
+    private static final byte Type_Null = 'n';
+    private static final byte Type_String = 's';
+    private static final byte Type_Long = 'l';
+    private static final byte Type_Integer = 'i';
+    private static final byte Type_Double = 'f';
+    private static final byte Type_BigDecimal = 'd';
+    private static final byte Type_BigInteger = 'b';
+    private static final byte Type_Boolean = 'z';
+    private static final byte Type_Timestamp = 't';
+    private static final byte Type_Sql_Date = 'D';
+    private static final byte Type_Date = 'T';
+    private static final byte Type_LocalDateTime = 'L';
+    private static final byte Type_LocalDate = 'A';
+    private static final byte Type_LocalTime = 'C';
+
+    /**
+     * 编码游标
+     *
+     * @param sortKey 排序签名(解码时校验，防止游标用于不同的排序)
+     * @param values  最后一行数据的排序字段值
+     */
+    public static String encode(String sortKey, List<Object> values) {
+        try (ByteArrayOutputStream bytes = new ByteArrayOutputStream(64); DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(Version);
+            out.writeInt(sortKey.hashCode());
+            out.writeShort(values.size());
+            for (Object value : values) {
+                writeValue(out, value);
+            }
+            out.flush();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+        } catch (IOException e) {
+            throw new IllegalStateException("编码分页游标失败", e);
+        }
+    }
+
+    /**
+     * 解码游标
+     *
+     * @param sortKey 排序签名
+     * @param cursor  游标
+     * @return 排序字段值
+     */
+    public static List<Object> decode(String sortKey, String cursor) {
+        final byte[] data;
+        try {
+            data = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("分页游标格式错误", e);
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            Assert.isTrue(in.readByte() == Version, "分页游标版本不匹配");
+            Assert.isTrue(in.readInt() == sortKey.hashCode(), "分页游标与当前排序不匹配");
+            final int size = in.readShort();
+            final List<Object> values = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                values.add(readValue(in));
+            }
+            return values;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("分页游标格式错误", e);
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(Type_Null);
+        } else if (value instanceof String) {
+            out.writeByte(Type_String);
+            writeString(out, (String) value);
+        } else if (value instanceof Long) {
+            out.writeByte(Type_Long);
+            out.writeLong((Long) value);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            out.writeByte(Type_Integer);
+            out.writeInt(((Number) value).intValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            out.writeByte(Type_Double);
+            out.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof BigDecimal) {
+            out.writeByte(Type_BigDecimal);
+            writeString(out, ((BigDecimal) value).toString());
+        } else if (value instanceof BigInteger) {
+            out.writeByte(Type_BigInteger);
+            writeString(out, value.toString());
+        } else if (value instanceof Boolean) {
+            out.writeByte(Type_Boolean);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Timestamp) {
+            Timestamp timestamp = (Timestamp) value;
+            out.writeByte(Type_Timestamp);
+            out.writeLong(timestamp.getTime());
+            out.writeInt(timestamp.getNanos());
+        } else if (value instanceof java.sql.Date) {
+            out.writeByte(Type_Sql_Date);
+            out.writeLong(((java.sql.Date) value).getTime());
+        } else if (value instanceof Date) {
+            out.writeByte(Type_Date);
+            out.writeLong(((Date) value).getTime());
+        } else if (value instanceof LocalDateTime) {
+            out.writeByte(Type_LocalDateTime);
+            writeString(out, value.toString());
+        } else if (value instanceof LocalDate) {
+            out.writeByte(Type_LocalDate);
+            writeString(out, value.toString());
+        } else if (value instanceof LocalTime) {
+            out.writeByte(Type_LocalTime);
+            writeString(out, value.toString());
+        } else {
+            throw new IllegalArgumentException("分页游标不支持的排序字段类型: " + value.getClass().getName());
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        final byte type = in.readByte();
+        switch (type) {
+            case Type_Null:
+                return null;
+            case Type_String:
+                return readString(in);
+            case Type_Long:
+                return in.readLong();
+            case Type_Integer:
+                return in.readInt();
+            case Type_Double:
+                return in.readDouble();
+            case Type_BigDecimal:
+                return new BigDecimal(readString(in));
+            case Type_BigInteger:
+                return new BigInteger(readString(in));
+            case Type_Boolean:
+                return in.readBoolean();
+            case Type_Timestamp:
+                Timestamp timestamp = new Timestamp(in.readLong());
+                timestamp.setNanos(in.readInt());
+                return timestamp;
+            case Type_Sql_Date:
+                return new java.sql.Date(in.readLong());
+            case Type_Date:
+                return new Date(in.readLong());
+            case Type_LocalDateTime:
+                return LocalDateTime.parse(readString(in));
+            case Type_LocalDate:
+                return LocalDate.parse(readString(in));
+            case Type_LocalTime:
+                return LocalTime.parse(readString(in));
+            default:
+                throw new IllegalArgumentException("分页游标格式错误，未知的类型: " + type);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > in.available()) {
+            throw new IllegalArgumentException("分页游标格式错误");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,32 @@
+package org.clever.hinny.data.jdbc.support;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Keyset(Seek)分页查询结果
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/18 09:12 <br/>
+ */
+@Data
+public class SeekPage<T> implements Serializable {
+    /**
+     * 当前页数据
+     */
+    private List<T> records;
+    /**
+     * 页大小
+     */
+    private int pageSize;
+    /**
+     * 是否还有下一页
+     */
+    private boolean hasMore;
+    /**
+     * 读取下一页使用的游标(没有下一页时为null)
+     */
+    private String nextCursor;
+}
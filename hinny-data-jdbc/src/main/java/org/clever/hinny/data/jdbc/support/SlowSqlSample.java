@@ -0,0 +1,48 @@
+package org.clever.hinny.data.jdbc.support;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 慢SQL采样
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/18 21:05 <br/>
+ */
+@Data
+public class SlowSqlSample implements Serializable {
+    /**
+     * 统计key(sqlId或规范化后的SQL)
+     */
+    private String key;
+    /**
+     * 规范化后的SQL
+     */
+    private String sql;
+    /**
+     * SQL参数
+     */
+    private String parameters;
+    /**
+     * 耗时(单位：毫秒)
+     */
+    private double costMillis;
+    /**
+     * 查询返回或更新影响的数据量
+     */
+    private long rowCount;
+    /**
+     * 是否执行失败
+     */
+    private boolean error;
+    /**
+     * 执行线程
+     */
+    private String threadName;
+    /**
+     * 执行完成时间
+     */
+    private Date time;
+}
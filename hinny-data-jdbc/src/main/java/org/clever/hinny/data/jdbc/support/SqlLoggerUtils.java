@@ -6,6 +6,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 作者：lizw <br/>
@@ -18,6 +19,38 @@ public class SqlLoggerUtils {
     private static final String Log_Batch_Param /* */ = "==>  BatchParam: {}";
     private static final String Log_Total /*       */ = "<==       Total: {}";
     private static final String Log_Update_Total /**/ = "<==     Updated: {}";
+    private static final String Log_Batch_More /*  */ = "==>  BatchParam: ... 共 {} 条参数，省略 {} 条";
+    /**
+     * 批量参数最多打印的数量
+     */
+    private static final int Max_Batch_Param_Log = 10;
+    /**
+     * 批量更新数据量最多打印的数量
+     */
+    private static final int Max_Update_Total_Log = 20;
+    /**
+     * 规范化SQL缓存最大数量(超过之后不再缓存新的SQL)
+     */
+    private static final int Max_Sql_Cache_Size = 4096;
+    /**
+     * 规范化SQL缓存 {@code Map<原始SQL, 删除多余空白字符后的SQL>}
+     */
+    private static final ConcurrentHashMap<String, String> Normalized_Sql_Cache = new ConcurrentHashMap<>(256);
+    /**
+     * 参数类型显示名称缓存
+     */
+    private static final ClassValue<String> Type_Name = new ClassValue<String>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            String valueType = type.getName();
+            for (String packagePrefix : Ignore_Package_Prefix) {
+                if (valueType.startsWith(packagePrefix)) {
+                    return type.getSimpleName();
+                }
+            }
+            return valueType;
+        }
+    };
     /**
      * 忽略的包前缀
      */
@@ -33,8 +66,7 @@ public class SqlLoggerUtils {
         if (!log.isDebugEnabled()) {
             return;
         }
-        sql = deleteWhitespace(sql);
-        log.debug(Log_Sql, sql);
+        log.debug(Log_Sql, getNormalizedSql(sql));
         if (paramMap != null) {
             String paramMapStr = getParamMapStr(paramMap);
             log.debug(Log_Parameters, paramMapStr);
@@ -51,12 +83,20 @@ public class SqlLoggerUtils {
         if (!log.isDebugEnabled()) {
             return;
         }
-        sql = deleteWhitespace(sql);
-        log.debug(Log_Sql, sql);
+        log.debug(Log_Sql, getNormalizedSql(sql));
         if (paramMapList != null) {
+            // 只打印前面的参数，避免大批量更新时日志过多
+            int index = 0;
             for (Map<String, Object> paramMap : paramMapList) {
+                if (index >= Max_Batch_Param_Log) {
+                    break;
+                }
                 String paramMapStr = getParamMapStr(paramMap);
                 log.debug(Log_Batch_Param, paramMapStr);
+                index++;
+            }
+            if (paramMapList.size() > index) {
+                log.debug(Log_Batch_More, paramMapList.size(), paramMapList.size() - index);
             }
         }
     }
@@ -67,6 +107,10 @@ public class SqlLoggerUtils {
      * @param total 查询结果数据量
      */
     public static void printfTotal(Long total) {
+        SqlStatistics.end(total == null ? 0 : total);
+        if (!log.isDebugEnabled()) {
+            return;
+        }
         log.debug(Log_Total, total);
     }
 
@@ -76,6 +120,10 @@ public class SqlLoggerUtils {
      * @param total 查询结果数据量
      */
     public static void printfTotal(int total) {
+        SqlStatistics.end(total);
+        if (!log.isDebugEnabled()) {
+            return;
+        }
         log.debug(Log_Total, total);
     }
 
@@ -85,6 +133,10 @@ public class SqlLoggerUtils {
      * @param res 查询结果Map
      */
     public static void printfTotal(Map<String, Object> res) {
+        SqlStatistics.end(res == null ? 0 : 1);
+        if (!log.isDebugEnabled()) {
+            return;
+        }
         log.debug(Log_Total, res == null ? 0 : 1);
     }
 
@@ -94,6 +146,10 @@ public class SqlLoggerUtils {
      * @param resCollection 查询结果Collection
      */
     public static void printfTotal(Collection<?> resCollection) {
+        SqlStatistics.end(resCollection == null ? 0 : resCollection.size());
+        if (!log.isDebugEnabled()) {
+            return;
+        }
         log.debug(Log_Total, resCollection == null ? 0 : resCollection.size());
     }
 
@@ -103,6 +159,10 @@ public class SqlLoggerUtils {
      * @param res 查询结果Object
      */
     public static void printfTotal(Object res) {
+        SqlStatistics.end(res == null ? 0 : 1);
+        if (!log.isDebugEnabled()) {
+            return;
+        }
         log.debug(Log_Total, res == null ? 0 : 1);
     }
 
@@ -112,6 +172,10 @@ public class SqlLoggerUtils {
      * @param updateTotal 更新数据量
      */
     public static void printfUpdateTotal(int updateTotal) {
+        SqlStatistics.end(Math.max(updateTotal, 0));
+        if (!log.isDebugEnabled()) {
+            return;
+        }
         log.debug(Log_Update_Total, updateTotal);
     }
 
@@ -121,7 +185,56 @@ public class SqlLoggerUtils {
      * @param totals 查询结果数据量
      */
     public static void printfUpdateTotal(int[] totals) {
-        log.debug(Log_Update_Total, Arrays.toString(totals));
+        long updateTotal = 0;
+        if (totals != null) {
+            for (int total : totals) {
+                updateTotal += Math.max(total, 0);
+            }
+        }
+        SqlStatistics.end(updateTotal);
+        if (!log.isDebugEnabled()) {
+            return;
+        }
+        if (totals != null && totals.length > Max_Update_Total_Log) {
+            String head = Arrays.toString(Arrays.copyOf(totals, Max_Update_Total_Log));
+            log.debug(Log_Update_Total, head.substring(0, head.length() - 1) + ", ... 共 " + totals.length + " 条] 合计: " + updateTotal);
+        } else {
+            log.debug(Log_Update_Total, Arrays.toString(totals));
+        }
+    }
+
+    /**
+     * 参数转换成字符串(用于慢SQL采样)
+     *
+     * @param parameters 参数Map或者参数Map集合
+     * @param maxLength  最大长度
+     */
+    @SuppressWarnings("unchecked")
+    static String getParametersStr(Object parameters, int maxLength) {
+        if (parameters == null) {
+            return null;
+        }
+        String str;
+        if (parameters instanceof Map) {
+            str = getParamMapStr((Map<String, Object>) parameters);
+        } else if (parameters instanceof Collection) {
+            Collection<Map<String, Object>> paramMapList = (Collection<Map<String, Object>>) parameters;
+            StringBuilder sb = new StringBuilder();
+            sb.append("size=").append(paramMapList.size());
+            for (Map<String, Object> paramMap : paramMapList) {
+                if (sb.length() >= maxLength) {
+                    break;
+                }
+                sb.append(" | ").append(getParamMapStr(paramMap));
+            }
+            str = sb.toString();
+        } else {
+            str = String.valueOf(parameters);
+        }
+        if (str != null && str.length() > maxLength) {
+            str = str.substring(0, maxLength) + "...";
+        }
+        return str;
     }
 
     private static String getParamMapStr(Map<String, Object> paramMap) {
@@ -137,19 +250,32 @@ public class SqlLoggerUtils {
             }
             sb.append(name).append("=").append(value);
             if (value != null) {
-                String valueType = value.getClass().getName();
-                for (String packagePrefix : Ignore_Package_Prefix) {
-                    if (valueType.startsWith(packagePrefix)) {
-                        valueType = value.getClass().getSimpleName();
-                        break;
-                    }
-                }
-                sb.append("(").append(valueType).append(")");
+                sb.append("(").append(Type_Name.get(value.getClass())).append(")");
             }
         }
         return sb.toString();
     }
 
+    /**
+     * 获取删除多余空白字符后的SQL(有缓存)
+     *
+     * @param sql sql语句
+     */
+    public static String getNormalizedSql(String sql) {
+        if (sql == null) {
+            return null;
+        }
+        String normalizedSql = Normalized_Sql_Cache.get(sql);
+        if (normalizedSql != null) {
+            return normalizedSql;
+        }
+        normalizedSql = deleteWhitespace(sql);
+        if (Normalized_Sql_Cache.size() < Max_Sql_Cache_Size) {
+            Normalized_Sql_Cache.putIfAbsent(sql, normalizedSql);
+        }
+        return normalizedSql;
+    }
+
     /**
      * 删除多余的空白字符
      */
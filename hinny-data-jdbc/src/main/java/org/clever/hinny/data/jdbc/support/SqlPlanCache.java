@@ -0,0 +1,243 @@
+package org.clever.hinny.data.jdbc.support;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.Getter;
+import org.clever.common.model.request.QueryBySort;
+import org.clever.hinny.data.jdbc.dialects.IDialect;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+import org.springframework.jdbc.core.namedparam.ParsedSql;
+
+import java.util.*;
+
+/**
+ * SQL执行计划缓存(缓存解析后的命名参数SQL、排序SQL、分页SQL模版)，避免重复的字符串改写与解析<br/>
+ * count SQL使用全局缓存 {@link SqlUtils#getCountSql(String)}
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/17 17:26 <br/>
+ */
+public class SqlPlanCache {
+    /**
+     * 默认每种缓存的最大数量
+     */
+    public static final int Default_Maximum_Size = 2048;
+    /**
+     * 缓存key的分隔符
+     */
+    private static final char Key_Separator = '\u0000';
+
+    /**
+     * 解析后的命名参数SQL
+     */
+    private final Cache<String, ParsedSql> parsedSqlCache;
+    /**
+     * 排序SQL(key: 原始SQL + 排序字段)
+     */
+    private final Cache<String, String> sortSqlCache;
+    /**
+     * 分页SQL模版(key: 方言 + 是否有offset + 排序SQL)，offset、limit作为参数绑定
+     */
+    private final Cache<String, PageSql> pageSqlCache;
+
+    public SqlPlanCache(int maximumSize) {
+        this.parsedSqlCache = newCache(maximumSize);
+        this.sortSqlCache = newCache(maximumSize);
+        this.pageSqlCache = newCache(maximumSize);
+    }
+
+    public SqlPlanCache() {
+        this(Default_Maximum_Size);
+    }
+
+    private static <V> Cache<String, V> newCache(int maximumSize) {
+        return CacheBuilder.newBuilder().maximumSize(maximumSize).initialCapacity(64).recordStats().build();
+    }
+
+    /**
+     * 获取解析后的命名参数SQL
+     *
+     * @param sql 命名参数SQL，参数格式[:param]
+     */
+    public ParsedSql getParsedSql(String sql) {
+        ParsedSql parsedSql = parsedSqlCache.getIfPresent(sql);
+        if (parsedSql == null) {
+            parsedSql = NamedParameterUtils.parseSqlStatement(sql);
+            parsedSqlCache.put(sql, parsedSql);
+        }
+        return parsedSql;
+    }
+
+    /**
+     * 获取拼接Order By之后的SQL
+     *
+     * @param sql  原始SQL
+     * @param sort 排序配置
+     */
+    public String getSortSql(String sql, QueryBySort sort) {
+        if (sort == null || sort.getOrderFields() == null || sort.getOrderFields().isEmpty()) {
+            return sql;
+        }
+        StringBuilder sb = new StringBuilder(sql.length() + 32);
+        sb.append(sql);
+        appendKeyPart(sb, sort.getOrderFieldsSql());
+        appendKeyPart(sb, sort.getSortsSql());
+        String key = sb.toString();
+        String sortSql = sortSqlCache.getIfPresent(key);
+        if (sortSql == null) {
+            sortSql = SqlUtils.concatOrderBy(sql, sort);
+            sortSqlCache.put(key, sortSql);
+        }
+        return sortSql;
+    }
+
+    /**
+     * 获取分页SQL，分页参数会写入paramMap<br/>
+     * 同一个排序SQL只缓存一个分页SQL模版(offset为0和大于0各一个)，分页参数值根据offset、limit计算，
+     * 方言把分页值直接拼接到SQL中时不使用缓存
+     *
+     * @param dialect  数据库方言
+     * @param sortSql  排序SQL
+     * @param offset   偏移量
+     * @param limit    界限
+     * @param paramMap Sql参数
+     */
+    public String getPageSql(IDialect dialect, String sortSql, long offset, long limit, Map<String, Object> paramMap) {
+        // 分页参数名与业务参数冲突时，方言会生成不同的参数名，不使用缓存
+        if (paramMap.containsKey(IDialect.FIRST_MARK) || paramMap.containsKey(IDialect.SECOND_MARK)) {
+            return dialect.buildPaginationSql(sortSql, offset, limit, paramMap);
+        }
+        final boolean hasOffset = offset > 0;
+        String key = dialect.getClass().getName() + Key_Separator + (hasOffset ? '1' : '0') + Key_Separator + sortSql;
+        PageSql pageSql = pageSqlCache.getIfPresent(key);
+        if (pageSql == null) {
+            pageSql = PageSql.compile(dialect, sortSql, hasOffset);
+            pageSqlCache.put(key, pageSql);
+        }
+        if (pageSql.getSql() == null) {
+            return dialect.buildPaginationSql(sortSql, offset, limit, paramMap);
+        }
+        pageSql.bind(offset, limit, paramMap);
+        return pageSql.getSql();
+    }
+
+    /**
+     * 清空所有缓存
+     */
+    public void clear() {
+        parsedSqlCache.invalidateAll();
+        sortSqlCache.invalidateAll();
+        pageSqlCache.invalidateAll();
+    }
+
+    /**
+     * 获取缓存统计信息
+     */
+    public Map<String, CacheStatus> getStatus() {
+        Map<String, CacheStatus> status = new LinkedHashMap<>(3);
+        status.put("parsedSql", CacheStatus.of(parsedSqlCache));
+        status.put("sortSql", CacheStatus.of(sortSqlCache));
+        status.put("pageSql", CacheStatus.of(pageSqlCache));
+        return status;
+    }
+
+    private static void appendKeyPart(StringBuilder sb, List<String> parts) {
+        sb.append(Key_Separator);
+        if (parts == null) {
+            return;
+        }
+        for (String part : parts) {
+            sb.append(part).append(',');
+        }
+    }
+
+    /**
+     * 分页SQL模版以及分页参数的计算方式
+     */
+    @Getter
+    private static class PageSql {
+        /**
+         * 推导分页参数使用的样本 {@code {offset, limit}}，最后一个样本用于校验
+         */
+        private static final long[][] Offset_Samples = new long[][]{{1, 1}, {2, 1}, {1, 2}, {7, 3}};
+        private static final long[][] No_Offset_Samples = new long[][]{{0, 1}, {0, 2}, {0, 5}};
+        private static final PageSql Not_Cacheable = new PageSql(null, null, null, null, null);
+
+        /**
+         * 分页SQL模版(为null表示方言生成的SQL与分页值有关，不能缓存)
+         */
+        private final String sql;
+        /**
+         * 分页参数名
+         */
+        private final String[] names;
+        /**
+         * 分页参数值 = offsetFactor * offset + limitFactor * limit + constant
+         */
+        private final long[] offsetFactors;
+        private final long[] limitFactors;
+        private final long[] constants;
+
+        private PageSql(String sql, String[] names, long[] offsetFactors, long[] limitFactors, long[] constants) {
+            this.sql = sql;
+            this.names = names;
+            this.offsetFactors = offsetFactors;
+            this.limitFactors = limitFactors;
+            this.constants = constants;
+        }
+
+        /**
+         * 使用样本值生成分页SQL，推导分页参数与offset、limit的线性关系
+         */
+        static PageSql compile(IDialect dialect, String sortSql, boolean hasOffset) {
+            final long[][] samples = hasOffset ? Offset_Samples : No_Offset_Samples;
+            final List<Map<String, Object>> sampleParams = new ArrayList<>(samples.length);
+            String sql = null;
+            for (long[] sample : samples) {
+                Map<String, Object> params = new HashMap<>(4);
+                String sampleSql = dialect.buildPaginationSql(sortSql, sample[0], sample[1], params);
+                if (sql != null && !sql.equals(sampleSql)) {
+                    return Not_Cacheable;
+                }
+                sql = sampleSql;
+                sampleParams.add(params);
+            }
+            final String[] names = sampleParams.get(0).keySet().toArray(new String[0]);
+            final long[] offsetFactors = new long[names.length];
+            final long[] limitFactors = new long[names.length];
+            final long[] constants = new long[names.length];
+            final long[] check = samples[samples.length - 1];
+            for (int i = 0; i < names.length; i++) {
+                final long[] values = new long[samples.length];
+                for (int j = 0; j < samples.length; j++) {
+                    Map<String, Object> params = sampleParams.get(j);
+                    Object value = params.get(names[i]);
+                    if (params.size() != names.length || !(value instanceof Long || value instanceof Integer)) {
+                        return Not_Cacheable;
+                    }
+                    values[j] = ((Number) value).longValue();
+                }
+                if (hasOffset) {
+                    offsetFactors[i] = values[1] - values[0];
+                    limitFactors[i] = values[2] - values[0];
+                } else {
+                    limitFactors[i] = values[1] - values[0];
+                }
+                constants[i] = values[0] - offsetFactors[i] * samples[0][0] - limitFactors[i] * samples[0][1];
+                if (offsetFactors[i] * check[0] + limitFactors[i] * check[1] + constants[i] != values[samples.length - 1]) {
+                    return Not_Cacheable;
+                }
+            }
+            return new PageSql(sql, names, offsetFactors, limitFactors, constants);
+        }
+
+        /**
+         * 计算分页参数并写入paramMap
+         */
+        void bind(long offset, long limit, Map<String, Object> paramMap) {
+            for (int i = 0; i < names.length; i++) {
+                paramMap.put(names[i], offsetFactors[i] * offset + limitFactors[i] * limit + constants[i]);
+            }
+        }
+    }
+}
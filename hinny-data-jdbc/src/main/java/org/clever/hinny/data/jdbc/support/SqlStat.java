@@ -0,0 +1,55 @@
+package org.clever.hinny.data.jdbc.support;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 单个SQL(或sqlId)的执行统计信息
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/18 21:02 <br/>
+ */
+@Data
+public class SqlStat implements Serializable {
+    /**
+     * 统计key(sqlId或规范化后的SQL)
+     */
+    private String key;
+    /**
+     * 规范化后的SQL(最近一次执行的SQL)
+     */
+    private String sql;
+    /**
+     * 执行次数
+     */
+    private long callCount;
+    /**
+     * 执行失败次数
+     */
+    private long errorCount;
+    /**
+     * 查询返回或更新影响的数据量之和
+     */
+    private long rowCount;
+    /**
+     * 总耗时(单位：毫秒)
+     */
+    private double totalMillis;
+    /**
+     * 平均耗时(单位：毫秒)
+     */
+    private double avgMillis;
+    /**
+     * 耗时中位数(单位：毫秒，直方图估算值)
+     */
+    private double p50Millis;
+    /**
+     * 99%耗时(单位：毫秒，直方图估算值)
+     */
+    private double p99Millis;
+    /**
+     * 最大耗时(单位：毫秒)
+     */
+    private double maxMillis;
+}
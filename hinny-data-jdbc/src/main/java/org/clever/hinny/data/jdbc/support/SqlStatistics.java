@@ -0,0 +1,506 @@
+package org.clever.hinny.data.jdbc.support;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * SQL执行统计(进程全局共享，默认开启)
+ * <pre>
+ * 1. 按sqlId(MyBatis)或规范化后的SQL统计执行次数、失败次数、数据量、耗时分布(p50/p99/max)
+ * 2. 耗时超过阈值的SQL记录到有界的慢SQL采样缓冲区(包含参数)
+ * 3. 在执行SQL的位置使用 {@link #begin(String, Object)} 开始记录(try-with-resources关闭)，由 {@link SqlLoggerUtils} 记录SQL执行完成，没有执行完成的SQL当作执行失败
+ * 4. 每个线程使用栈记录正在执行的SQL，支持在游标读取数据时嵌套执行其它SQL
+ * </pre>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/18 21:10 <br/>
+ */
+public class SqlStatistics {
+    /**
+     * 最多统计的SQL数量(超过之后统计到 {@link #Other_Sql_Key})
+     */
+    private static final int Max_Sql_Count = 2048;
+    /**
+     * 超过最大统计数量的SQL使用的统计key
+     */
+    public static final String Other_Sql_Key = "<other>";
+    /**
+     * 慢SQL采样最大数量
+     */
+    private static final int Max_Slow_Samples = 200;
+    /**
+     * 慢SQL采样参数字符串最大长度
+     */
+    private static final int Max_Parameters_Length = 2048;
+    /**
+     * 耗时直方图每个2的幂区间的子区间数量(相对误差约25%)
+     */
+    private static final int Sub_Buckets = 4;
+    /**
+     * 耗时直方图区间数量(单位：微秒，覆盖到2^40微秒)
+     */
+    private static final int Bucket_Count = 41 * Sub_Buckets;
+    /**
+     * 每个线程最多记录的正在执行的SQL数量(超过时丢弃最早的记录，被丢弃的SQL关闭时仍然会记录统计)
+     */
+    private static final int Max_Frame_Depth = 32;
+
+    /**
+     * 是否启用统计
+     */
+    private static volatile boolean enabled = true;
+    /**
+     * 慢SQL阈值(单位：纳秒)
+     */
+    private static volatile long slowThresholdNanos = TimeUnit.SECONDS.toNanos(1);
+    /**
+     * 统计信息 {@code Map<统计key, 统计信息>}
+     */
+    private static final ConcurrentHashMap<String, Stat> Stats = new ConcurrentHashMap<>(256);
+    /**
+     * 慢SQL采样(保留最近的数据)
+     */
+    private static final Deque<SlowSqlSample> Slow_Samples = new ArrayDeque<>(Max_Slow_Samples);
+    /**
+     * 当前线程执行的MyBatis sqlId
+     */
+    private static final ThreadLocal<String> Current_Sql_Id = new ThreadLocal<>();
+    /**
+     * 当前线程正在执行的SQL(栈顶是最近开始执行的SQL)
+     */
+    private static final ThreadLocal<Deque<Frame>> Current_Frames = ThreadLocal.withInitial(ArrayDeque::new);
+    /**
+     * 新增统计key的监听器
+     */
+    private static final List<Consumer<String>> Key_Listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * 使用指定的sqlId统计action中执行的SQL
+     *
+     * @param sqlId  MyBatis sqlId
+     * @param action 执行SQL的操作
+     */
+    public static <T> T withSqlId(String sqlId, Supplier<T> action) {
+        final String old = Current_Sql_Id.get();
+        Current_Sql_Id.set(sqlId);
+        try {
+            return action.get();
+        } finally {
+            restoreSqlId(old);
+        }
+    }
+
+    /**
+     * 使用指定的sqlId统计action中执行的SQL
+     *
+     * @param sqlId  MyBatis sqlId
+     * @param action 执行SQL的操作
+     */
+    public static void withSqlId(String sqlId, Runnable action) {
+        final String old = Current_Sql_Id.get();
+        Current_Sql_Id.set(sqlId);
+        try {
+            action.run();
+        } finally {
+            restoreSqlId(old);
+        }
+    }
+
+    /**
+     * 记录SQL开始执行，返回的 {@link Frame} 必须在finally中关闭(推荐使用try-with-resources)
+     * <pre>
+     * 关闭时如果没有调用 {@link #end(long)} 记录SQL执行完成，当作执行失败
+     * </pre>
+     *
+     * @param sql        sql语句
+     * @param parameters sql参数(只在慢SQL采样时转换成字符串)
+     * @return 未启用统计时返回null
+     */
+    public static Frame begin(String sql, Object parameters) {
+        if (!enabled || sql == null) {
+            return null;
+        }
+        final String normalizedSql = SqlLoggerUtils.getNormalizedSql(sql);
+        final String sqlId = Current_Sql_Id.get();
+        final Stat stat = sqlId == null ? getStat(normalizedSql, normalizedSql, false) : getStat(sqlId, normalizedSql, true);
+        final Deque<Frame> frames = Current_Frames.get();
+        if (frames.size() >= Max_Frame_Depth) {
+            frames.pollLast();
+        }
+        // 上一个SQL可能还没有结束(如：游标读取数据时执行其它SQL)，不能当作执行失败
+        final Frame frame = new Frame(stat, normalizedSql, parameters, System.nanoTime());
+        frames.push(frame);
+        return frame;
+    }
+
+    /**
+     * 记录当前线程最近开始执行的SQL执行完成(在 {@link Frame#close()} 时统计)
+     *
+     * @param rowCount 查询返回或更新影响的数据量
+     */
+    static void end(long rowCount) {
+        final Deque<Frame> frames = Current_Frames.get();
+        final Frame frame = frames.peek();
+        if (frame == null) {
+            Current_Frames.remove();
+            return;
+        }
+        frame.rowCount = rowCount;
+        frame.completed = true;
+    }
+
+    /**
+     * 在action中执行SQL并记录统计，action抛出异常时记录SQL执行失败
+     *
+     * @param sql        sql语句
+     * @param parameters sql参数(只在慢SQL采样时转换成字符串)
+     * @param action     执行SQL的操作(可以使用 {@link SqlLoggerUtils} 记录数据量)
+     */
+    public static <T> T execute(String sql, Object parameters, Supplier<T> action) {
+        try (Frame frame = begin(sql, parameters)) {
+            final T res = action.get();
+            if (frame != null) {
+                frame.completed = true;
+            }
+            return res;
+        }
+    }
+
+    /**
+     * 获取所有SQL的统计信息(按总耗时倒序)
+     */
+    public static List<SqlStat> getStats() {
+        List<SqlStat> list = new ArrayList<>(Stats.size());
+        for (Map.Entry<String, Stat> entry : Stats.entrySet()) {
+            list.add(entry.getValue().snapshot(entry.getKey()));
+        }
+        list.sort((a, b) -> Double.compare(b.getTotalMillis(), a.getTotalMillis()));
+        return list;
+    }
+
+    /**
+     * 获取指定SQL的统计信息，不存在返回null
+     *
+     * @param key 统计key(sqlId或规范化后的SQL)
+     */
+    public static SqlStat getStat(String key) {
+        Stat stat = Stats.get(key);
+        return stat == null ? null : stat.snapshot(key);
+    }
+
+    /**
+     * 获取慢SQL采样(按时间倒序)
+     */
+    public static List<SlowSqlSample> getSlowSamples() {
+        synchronized (Slow_Samples) {
+            return new ArrayList<>(Slow_Samples);
+        }
+    }
+
+    /**
+     * 清空统计信息
+     */
+    public static void reset() {
+        Stats.clear();
+        synchronized (Slow_Samples) {
+            Slow_Samples.clear();
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 启用或禁用统计
+     */
+    public static void setEnabled(boolean enabled) {
+        SqlStatistics.enabled = enabled;
+        if (!enabled) {
+            Current_Frames.remove();
+        }
+    }
+
+    /**
+     * 慢SQL阈值(单位：毫秒)
+     */
+    public static long getSlowThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos);
+    }
+
+    /**
+     * 设置慢SQL阈值(单位：毫秒)
+     */
+    public static void setSlowThresholdMillis(long slowThresholdMillis) {
+        slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(slowThresholdMillis, 0));
+    }
+
+    /**
+     * 添加新增统计key的监听器(用于导出指标)
+     */
+    public static void addKeyListener(Consumer<String> listener) {
+        Key_Listeners.add(listener);
+    }
+
+    /**
+     * 统计key是否是sqlId(MyBatis)，统计key不存在返回false
+     */
+    public static boolean isNamed(String key) {
+        Stat stat = Stats.get(key);
+        return stat != null && stat.named;
+    }
+
+    /**
+     * 所有统计key
+     */
+    public static Set<String> getKeys() {
+        return Collections.unmodifiableSet(Stats.keySet());
+    }
+
+    /**
+     * 读取统计值，统计key不存在返回0(用于导出指标)
+     */
+    static long getCallCount(String key) {
+        Stat stat = Stats.get(key);
+        return stat == null ? 0 : stat.callCount.sum();
+    }
+
+    static long getErrorCount(String key) {
+        Stat stat = Stats.get(key);
+        return stat == null ? 0 : stat.errorCount.sum();
+    }
+
+    static long getRowCount(String key) {
+        Stat stat = Stats.get(key);
+        return stat == null ? 0 : stat.rowCount.sum();
+    }
+
+    static double getTotalMillis(String key) {
+        Stat stat = Stats.get(key);
+        return stat == null ? 0 : toMillis(stat.totalNanos.sum());
+    }
+
+    static double getPercentileMillis(String key, double percentile) {
+        Stat stat = Stats.get(key);
+        return stat == null ? 0 : stat.percentileMillis(percentile);
+    }
+
+    static double getMaxMillis(String key) {
+        Stat stat = Stats.get(key);
+        return stat == null ? 0 : toMillis(stat.maxNanos.get());
+    }
+
+    private static void restoreSqlId(String old) {
+        if (old == null) {
+            Current_Sql_Id.remove();
+        } else {
+            Current_Sql_Id.set(old);
+        }
+    }
+
+    private static void close(Frame frame) {
+        if (frame.closed) {
+            return;
+        }
+        frame.closed = true;
+        final Deque<Frame> frames = Current_Frames.get();
+        // 栈顶通常就是当前Frame
+        frames.removeFirstOccurrence(frame);
+        if (frames.isEmpty()) {
+            Current_Frames.remove();
+        }
+        record(frame, frame.completed ? frame.rowCount : 0, !frame.completed);
+    }
+
+    /**
+     * 当前线程正在执行的SQL数量
+     */
+    static int getFrameDepth() {
+        final Deque<Frame> frames = Current_Frames.get();
+        final int depth = frames.size();
+        if (depth <= 0) {
+            Current_Frames.remove();
+        }
+        return depth;
+    }
+
+    /**
+     * @param key           统计key
+     * @param normalizedSql 规范化后的SQL
+     * @param named         统计key是否是sqlId
+     */
+    private static Stat getStat(String key, String normalizedSql, boolean named) {
+        Stat stat = Stats.get(key);
+        if (stat != null) {
+            stat.sql = normalizedSql;
+            return stat;
+        }
+        if (Stats.size() >= Max_Sql_Count) {
+            key = Other_Sql_Key;
+            named = false;
+        }
+        final boolean isNamed = named;
+        boolean[] created = new boolean[1];
+        stat = Stats.computeIfAbsent(key, k -> {
+            created[0] = true;
+            return new Stat(isNamed);
+        });
+        stat.sql = normalizedSql;
+        if (created[0]) {
+            for (Consumer<String> listener : Key_Listeners) {
+                listener.accept(key);
+            }
+        }
+        return stat;
+    }
+
+    private static void record(Frame frame, long rowCount, boolean error) {
+        final long costNanos = System.nanoTime() - frame.startNanos;
+        final Stat stat = frame.stat;
+        stat.callCount.increment();
+        if (error) {
+            stat.errorCount.increment();
+        }
+        stat.rowCount.add(rowCount);
+        stat.totalNanos.add(costNanos);
+        stat.maxNanos.accumulate(costNanos);
+        stat.buckets.incrementAndGet(bucketIndex(TimeUnit.NANOSECONDS.toMicros(costNanos)));
+        if (costNanos >= slowThresholdNanos) {
+            addSlowSample(frame, costNanos, rowCount, error);
+        }
+    }
+
+    private static void addSlowSample(Frame frame, long costNanos, long rowCount, boolean error) {
+        SlowSqlSample sample = new SlowSqlSample();
+        sample.setKey(Current_Sql_Id.get() == null ? frame.sql : Current_Sql_Id.get());
+        sample.setSql(frame.sql);
+        sample.setParameters(SqlLoggerUtils.getParametersStr(frame.parameters, Max_Parameters_Length));
+        sample.setCostMillis(toMillis(costNanos));
+        sample.setRowCount(rowCount);
+        sample.setError(error);
+        sample.setThreadName(Thread.currentThread().getName());
+        sample.setTime(new Date());
+        synchronized (Slow_Samples) {
+            if (Slow_Samples.size() >= Max_Slow_Samples) {
+                Slow_Samples.pollLast();
+            }
+            Slow_Samples.addFirst(sample);
+        }
+    }
+
+    /**
+     * 计算耗时所在的直方图区间：每个2的幂区间再平均分成 {@link #Sub_Buckets} 个子区间
+     */
+    static int bucketIndex(long micros) {
+        if (micros <= 0) {
+            return 0;
+        }
+        final int msb = 63 - Long.numberOfLeadingZeros(micros);
+        final int sub = msb >= 2 ? (int) ((micros >>> (msb - 2)) & 3) : (int) ((micros << (2 - msb)) & 3);
+        return Math.min(msb * Sub_Buckets + sub, Bucket_Count - 1);
+    }
+
+    /**
+     * 直方图区间的上限值(单位：微秒)
+     */
+    static long bucketUpperMicros(int index) {
+        final int msb = index / Sub_Buckets;
+        final int sub = index % Sub_Buckets;
+        return ((long) (Sub_Buckets + sub + 1) << msb) / Sub_Buckets;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * 单个SQL的统计数据
+     */
+    private static class Stat {
+        private final LongAdder callCount = new LongAdder();
+        private final LongAdder errorCount = new LongAdder();
+        private final LongAdder rowCount = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final AtomicLongArray buckets = new AtomicLongArray(Bucket_Count);
+        /**
+         * 统计key是否是sqlId
+         */
+        private final boolean named;
+        private volatile String sql;
+
+        Stat(boolean named) {
+            this.named = named;
+        }
+
+        double percentileMillis(double percentile) {
+            long total = 0;
+            final long[] counts = new long[Bucket_Count];
+            for (int i = 0; i < Bucket_Count; i++) {
+                counts[i] = buckets.get(i);
+                total += counts[i];
+            }
+            if (total <= 0) {
+                return 0;
+            }
+            final long rank = (long) Math.ceil(total * percentile);
+            long count = 0;
+            for (int i = 0; i < Bucket_Count; i++) {
+                count += counts[i];
+                if (count >= rank) {
+                    // 区间上限不超过实际的最大值
+                    return Math.min(bucketUpperMicros(i) / 1000.0, toMillis(maxNanos.get()));
+                }
+            }
+            return toMillis(maxNanos.get());
+        }
+
+        SqlStat snapshot(String key) {
+            SqlStat sqlStat = new SqlStat();
+            sqlStat.setKey(key);
+            sqlStat.setSql(sql);
+            final long calls = callCount.sum();
+            sqlStat.setCallCount(calls);
+            sqlStat.setErrorCount(errorCount.sum());
+            sqlStat.setRowCount(rowCount.sum());
+            final double totalMillis = toMillis(totalNanos.sum());
+            sqlStat.setTotalMillis(totalMillis);
+            sqlStat.setAvgMillis(calls <= 0 ? 0 : totalMillis / calls);
+            sqlStat.setP50Millis(percentileMillis(0.5));
+            sqlStat.setP99Millis(percentileMillis(0.99));
+            sqlStat.setMaxMillis(toMillis(maxNanos.get()));
+            return sqlStat;
+        }
+    }
+
+    /**
+     * 正在执行的SQL(关闭时记录统计)
+     */
+    public static final class Frame implements AutoCloseable {
+        private final Stat stat;
+        private final String sql;
+        private final Object parameters;
+        private final long startNanos;
+        private long rowCount;
+        private boolean completed;
+        private boolean closed;
+
+        private Frame(Stat stat, String sql, Object parameters, long startNanos) {
+            this.stat = stat;
+            this.sql = sql;
+            this.parameters = parameters;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void close() {
+            SqlStatistics.close(this);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.clever.hinny.data.jdbc.support;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 把 {@link SqlStatistics} 的统计信息导出为 Micrometer 指标(tag: sql_id)<br/>
+ * 只导出使用sqlId统计的SQL(MyBatis)，没有sqlId的SQL文本数量不可控，不适合作为指标的tag
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/18 21:48 <br/>
+ */
+public class SqlStatisticsMeterBinder implements MeterBinder {
+    /**
+     * 指标名称前缀
+     */
+    private static final String Prefix = "jdbc.sql";
+    private final List<MeterRegistry> registries = new CopyOnWriteArrayList<>();
+
+    public SqlStatisticsMeterBinder() {
+        SqlStatistics.addKeyListener(this::bindKey);
+    }
+
+    @SuppressWarnings("NullableProblems")
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        registries.add(registry);
+        for (String key : SqlStatistics.getKeys()) {
+            bindKey(registry, key);
+        }
+    }
+
+    private void bindKey(String key) {
+        for (MeterRegistry registry : registries) {
+            bindKey(registry, key);
+        }
+    }
+
+    private void bindKey(MeterRegistry registry, String key) {
+        if (!SqlStatistics.isNamed(key)) {
+            return;
+        }
+        Tags tags = Tags.of("sql_id", key);
+        FunctionCounter.builder(Prefix + ".calls", key, SqlStatistics::getCallCount).tags(tags).description("SQL执行次数").register(registry);
+        FunctionCounter.builder(Prefix + ".errors", key, SqlStatistics::getErrorCount).tags(tags).description("SQL执行失败次数").register(registry);
+        FunctionCounter.builder(Prefix + ".rows", key, SqlStatistics::getRowCount).tags(tags).description("SQL查询返回或更新影响的数据量").register(registry);
+        FunctionCounter.builder(Prefix + ".time", key, SqlStatistics::getTotalMillis).tags(tags).baseUnit("milliseconds").description("SQL执行总耗时").register(registry);
+        Gauge.builder(Prefix + ".time.p50", key, k -> SqlStatistics.getPercentileMillis(k, 0.5)).tags(tags).baseUnit("milliseconds").register(registry);
+        Gauge.builder(Prefix + ".time.p99", key, k -> SqlStatistics.getPercentileMillis(k, 0.99)).tags(tags).baseUnit("milliseconds").register(registry);
+        Gauge.builder(Prefix + ".time.max", key, SqlStatistics::getMaxMillis).tags(tags).baseUnit("milliseconds").register(registry);
+    }
+}
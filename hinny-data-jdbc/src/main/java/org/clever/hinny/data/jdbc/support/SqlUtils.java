@@ -6,7 +6,6 @@ import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import org.apache.commons.lang3.StringUtils;
 import org.clever.common.model.request.QueryBySort;
-import org.clever.common.utils.StrFormatter;
 import org.clever.common.utils.tuples.TupleTow;
 
 import java.util.HashMap;
@@ -22,9 +21,18 @@ public class SqlUtils {
     public static final String DESC = "DESC";
     public static final String COMMA = ",";
     /**
-     * Count Sql 缓存(最大3K条数据)
+     * Count Sql 缓存最大占用的字符数(key + value，约16MB内存)
      */
-    private static final Cache<String, String> Count_Sql_Cache = CacheBuilder.newBuilder().maximumSize(4096).initialCapacity(256).build();
+    private static final long Count_Sql_Cache_Max_Chars = 8 * 1024 * 1024;
+    /**
+     * Count Sql 缓存(key: 规范化后的原始SQL，按字符数限制大小)
+     */
+    private static final Cache<String, String> Count_Sql_Cache = CacheBuilder.newBuilder()
+            .maximumWeight(Count_Sql_Cache_Max_Chars)
+            .weigher((String key, String value) -> key.length() + value.length())
+            .initialCapacity(256)
+            .recordStats()
+            .build();
 
     /**
      * 查询SQL拼接Order By
@@ -79,15 +87,73 @@ public class SqlUtils {
      * @param sql 原始sql
      */
     public static String getCountSql(String sql) {
-        String countSql = Count_Sql_Cache.getIfPresent(StringUtils.trim(sql));
+        final String key = normalizeSql(sql);
+        String countSql = Count_Sql_Cache.getIfPresent(key);
         if (StringUtils.isBlank(countSql)) {
             SqlInfo sqlInfo = SqlParserUtils.getOptimizeCountSql(true, null, sql);
             countSql = sqlInfo.getSql();
-            Count_Sql_Cache.put(sql, countSql);
+            Count_Sql_Cache.put(key, countSql);
         }
         return countSql;
     }
 
+    /**
+     * Count Sql 缓存统计信息
+     */
+    public static CacheStatus getCountSqlCacheStatus() {
+        return CacheStatus.of(Count_Sql_Cache);
+    }
+
+    /**
+     * 规范化SQL：去掉首尾空白，引号外连续的空白字符合并成一个(包含换行时保留一个换行，避免改变行注释的范围)<br/>
+     * 单引号、双引号中的反斜杠转义字符(如：MySQL的 'a\'  b')原样保留；不支持反斜杠转义的数据库中，这只会让后面的空白少合并一些，不会改变SQL
+     *
+     * @param sql 原始sql
+     */
+    public static String normalizeSql(String sql) {
+        if (sql == null) {
+            return null;
+        }
+        final String trimmed = StringUtils.trim(sql);
+        final int length = trimmed.length();
+        final StringBuilder sb = new StringBuilder(length);
+        char quote = 0;
+        int index = 0;
+        while (index < length) {
+            char ch = trimmed.charAt(index);
+            if (quote != 0) {
+                sb.append(ch);
+                if (ch == '\\' && quote != '`' && index + 1 < length) {
+                    // 转义字符之后的字符原样保留(不会结束引号)
+                    sb.append(trimmed.charAt(index + 1));
+                    index += 2;
+                    continue;
+                }
+                if (ch == quote) {
+                    quote = 0;
+                }
+                index++;
+            } else if (ch == '\'' || ch == '"' || ch == '`') {
+                quote = ch;
+                sb.append(ch);
+                index++;
+            } else if (Character.isWhitespace(ch)) {
+                boolean newLine = false;
+                while (index < length && Character.isWhitespace(trimmed.charAt(index))) {
+                    if (trimmed.charAt(index) == '\n') {
+                        newLine = true;
+                    }
+                    index++;
+                }
+                sb.append(newLine ? '\n' : ' ');
+            } else {
+                sb.append(ch);
+                index++;
+            }
+        }
+        return sb.toString();
+    }
+
     /**
      * 生成更新table的sql TODO 不更新null??
      *
@@ -167,6 +233,40 @@ public class SqlUtils {
         return TupleTow.creat(sb.toString(), paramMap);
     }
 
+    /**
+     * 生成批量插入table的sql(参数格式[?])，rowCount大于1时生成多行插入语句 {@code insert into table (a, b) values (?, ?), (?, ?)}
+     *
+     * @param tableName         表名称
+     * @param fieldNames        字段名称
+     * @param rowCount          插入行数
+     * @param camelToUnderscore 是否使用驼峰转下划线
+     */
+    public static String insertSql(String tableName, List<String> fieldNames, int rowCount, boolean camelToUnderscore) {
+        StringBuilder sb = new StringBuilder(32 + fieldNames.size() * (16 + rowCount * 3));
+        sb.append("insert into ").append(tableName).append(" (");
+        for (int index = 0; index < fieldNames.size(); index++) {
+            if (index != 0) {
+                sb.append(", ");
+            }
+            sb.append(getFieldName(fieldNames.get(index), camelToUnderscore));
+        }
+        sb.append(") values ");
+        for (int row = 0; row < rowCount; row++) {
+            if (row != 0) {
+                sb.append(", ");
+            }
+            sb.append('(');
+            for (int index = 0; index < fieldNames.size(); index++) {
+                if (index != 0) {
+                    sb.append(", ");
+                }
+                sb.append('?');
+            }
+            sb.append(')');
+        }
+        return sb.toString();
+    }
+
     /**
      * 生成查询table的sql
      *
@@ -227,6 +327,6 @@ public class SqlUtils {
         if (!camelToUnderscore) {
             return fieldName;
         }
-        return StrFormatter.camelToUnderline(fieldName);
+        return NameConversionCache.camelToUnderline(fieldName);
     }
 }
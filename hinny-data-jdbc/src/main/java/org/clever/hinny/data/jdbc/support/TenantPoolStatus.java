@@ -0,0 +1,51 @@
+package org.clever.hinny.data.jdbc.support;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 注册中心中单个数据源(租户)的连接池状态
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/18 19:14 <br/>
+ */
+@Data
+public class TenantPoolStatus implements Serializable {
+    /**
+     * 数据源名称(租户)
+     */
+    private String name;
+    /**
+     * 连接池是否已创建
+     */
+    private boolean open;
+    /**
+     * 连接池是否已收缩
+     */
+    private boolean shrunk;
+    /**
+     * 连接池创建次数(关闭后再次使用会重新创建)
+     */
+    private int createCount;
+    /**
+     * 获取数据源的次数
+     */
+    private long accessCount;
+    /**
+     * 最后一次获取数据源的时间
+     */
+    private long lastAccessTime;
+    /**
+     * 连接池最大连接数
+     */
+    private int maximumPoolSize;
+
+    private int totalConnections;
+
+    private int activeConnections;
+
+    private int idleConnections;
+
+    private int threadsAwaitingConnection;
+}
@@ -1,7 +1,5 @@
 package org.clever.hinny.data.jdbc.support;
 
-import org.clever.common.utils.StrFormatter;
-
 import java.util.*;
 
 /**
@@ -23,27 +21,34 @@ public class UnderlineToCamelUtils {
             if (mapping.containsKey(key)) {
                 continue;
             }
-            mapping.put(key, StrFormatter.underlineToCamel(key));
+            mapping.put(key, NameConversionCache.underlineToCamel(key));
         }
     }
 
     /**
      * Key 下划线转驼峰格式
      *
-     * @param mapping 映射缓存
+     * @param mapping 映射缓存(不存在的Key会计算并写入映射缓存，为null时使用临时的映射)
      */
     public static Map<String, Object> underlineToCamel(Map<String, Object> map, Map<String, String> mapping) {
         if (map == null) {
             return null;
         }
-        if (mapping == null || mapping.isEmpty()) {
+        if (mapping == null) {
             mapping = new HashMap<>(map.size());
-            underlineToCamelMapping(mapping, map);
         }
         Map<String, Object> result = new LinkedHashMap<>(map.size());
         for (Map.Entry<String, Object> entry : map.entrySet()) {
-            String key = mapping.getOrDefault(entry.getKey(), entry.getKey());
-            result.put(StrFormatter.underlineToCamel(key), entry.getValue());
+            String key = mapping.get(entry.getKey());
+            if (key == null) {
+                key = NameConversionCache.underlineToCamel(entry.getKey());
+                if (key == null) {
+                    key = entry.getKey();
+                } else {
+                    mapping.put(entry.getKey(), key);
+                }
+            }
+            result.put(key, entry.getValue());
         }
         return result;
     }
@@ -68,7 +73,6 @@ public class UnderlineToCamelUtils {
             if (mapping == null) {
                 mapping = new HashMap<>(map.size());
             }
-            underlineToCamelMapping(mapping, map);
             result.add(underlineToCamel(map, mapping));
         }
         return result;
@@ -0,0 +1,82 @@
+package org.clever.hinny.data.jdbc;
+
+import lombok.Data;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 21:50 <br/>
+ */
+public class BeanQueryTest {
+    private JdbcDataSource jdbcDataSource;
+
+    @Data
+    public static class User {
+        private Long id;
+        private String userName;
+        private int age;
+        /**
+         * 查询结果中没有的属性
+         */
+        private String remark;
+    }
+
+    @Before
+    public void init() {
+        jdbcDataSource = H2DataSourceUtils.newDataSource(100);
+    }
+
+    @After
+    public void close() throws Exception {
+        jdbcDataSource.close();
+    }
+
+    @Test
+    public void queryList() {
+        List<User> users = jdbcDataSource.queryList("select * from tb_user where age = :age order by id", Collections.singletonMap("age", 3), User.class);
+        assertEquals(2, users.size());
+        User user = users.get(0);
+        assertEquals(Long.valueOf(3), user.getId());
+        assertEquals("user_3", user.getUserName());
+        assertEquals(3, user.getAge());
+        assertNull(user.getRemark());
+    }
+
+    @Test
+    public void nullToPrimitive() {
+        jdbcDataSource.update("update tb_user set age = null where id = 1");
+        List<User> users = jdbcDataSource.queryList("select id, user_name, age from tb_user where id = 1", User.class);
+        assertEquals(1, users.size());
+        // null值不设置基本类型属性
+        assertEquals(0, users.get(0).getAge());
+    }
+
+    @Test
+    public void typeConversion() {
+        // 字符串转换成数值
+        List<User> users = jdbcDataSource.queryList("select '7' as id, 'lizw' as user_name from tb_user where id = 1", User.class);
+        assertEquals(Long.valueOf(7), users.get(0).getId());
+    }
+
+    @Test
+    public void cursorQuery() {
+        final AtomicInteger batches = new AtomicInteger(0);
+        final List<User> users = new ArrayList<>();
+        jdbcDataSource.query("select * from tb_user order by id", 30, User.class, batch -> {
+            batches.incrementAndGet();
+            users.addAll(batch);
+        });
+        assertEquals(4, batches.get());
+        assertEquals(100, users.size());
+        assertEquals("user_100", users.get(99).getUserName());
+    }
+}
@@ -0,0 +1,83 @@
+package org.clever.hinny.data.jdbc;
+
+import org.clever.common.model.request.QueryByPage;
+import org.clever.hinny.data.jdbc.support.CountOptions;
+import org.clever.hinny.data.jdbc.support.CountPage;
+import org.clever.hinny.data.jdbc.support.CountStrategy;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 16:05 <br/>
+ */
+public class CountTotalTest {
+    private static final String Sql = "select * from tb_user where age < :age";
+    private JdbcDataSource jdbcDataSource;
+
+    @Before
+    public void init() {
+        jdbcDataSource = H2DataSourceUtils.newDataSource(500);
+    }
+
+    @After
+    public void close() throws Exception {
+        jdbcDataSource.close();
+    }
+
+    private static QueryByPage newPagination() {
+        QueryByPage pagination = new QueryByPage();
+        pagination.setPageNo(1);
+        pagination.setPageSize(10);
+        return pagination;
+    }
+
+    @Test
+    public void cachedCount() {
+        CountOptions countOptions = new CountOptions(CountStrategy.CACHED);
+        Map<String, Object> paramMap = Collections.singletonMap("age", 10);
+        CountPage<Map<String, Object>> first = jdbcDataSource.queryByPage(Sql, newPagination(), paramMap, countOptions);
+        assertEquals(100, first.getTotal());
+        assertEquals(CountStrategy.EXACT, first.getCountStrategy());
+        jdbcDataSource.update("delete from tb_user where id <= 50");
+        CountPage<Map<String, Object>> second = jdbcDataSource.queryByPage(Sql, newPagination(), paramMap, countOptions);
+        assertEquals(CountStrategy.CACHED, second.getCountStrategy());
+        assertEquals(100, second.getTotal());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cachedTtlTooLong() {
+        CountOptions countOptions = new CountOptions(CountStrategy.CACHED);
+        countOptions.setCacheTtlSeconds(CountOptions.Max_Cache_Ttl_Seconds + 1);
+        jdbcDataSource.queryByPage(Sql, newPagination(), Collections.singletonMap("age", 10), countOptions);
+    }
+
+    @Test
+    public void cacheKeyWithArray() {
+        Map<String, Object> paramMap1 = new HashMap<>();
+        paramMap1.put("ids", new long[]{1, 2, 3});
+        paramMap1.put("names", new String[]{"a", "b"});
+        Map<String, Object> paramMap2 = new HashMap<>();
+        paramMap2.put("names", new String[]{"a", "b"});
+        paramMap2.put("ids", new long[]{1, 2, 3});
+        assertEquals(JdbcDataSource.getCountCacheKey("count", paramMap1), JdbcDataSource.getCountCacheKey("count", paramMap2));
+        paramMap2.put("ids", new long[]{1, 2, 4});
+        assertNotEquals(JdbcDataSource.getCountCacheKey("count", paramMap1), JdbcDataSource.getCountCacheKey("count", paramMap2));
+    }
+
+    @Test
+    public void estimateFallbackToExact() {
+        // H2不支持估算，退化成精确count
+        CountPage<Map<String, Object>> page = jdbcDataSource.queryByPage(Sql, newPagination(), Collections.singletonMap("age", 10), new CountOptions(CountStrategy.ESTIMATE));
+        assertEquals(100, page.getTotal());
+        assertEquals(CountStrategy.EXACT, page.getCountStrategy());
+        assertFalse(page.isApproximate());
+    }
+}
@@ -0,0 +1,73 @@
+package org.clever.hinny.data.jdbc;
+
+import org.clever.hinny.data.jdbc.support.QueryOptions;
+import org.clever.hinny.data.jdbc.support.RowData;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 10:05 <br/>
+ */
+public class CursorQueryTest {
+    private JdbcDataSource jdbcDataSource;
+
+    @Before
+    public void init() {
+        jdbcDataSource = H2DataSourceUtils.newDataSource(1000);
+    }
+
+    @After
+    public void close() throws Exception {
+        jdbcDataSource.close();
+    }
+
+    @Test
+    public void batchQuery() {
+        final AtomicInteger batches = new AtomicInteger(0);
+        final AtomicInteger rows = new AtomicInteger(0);
+        jdbcDataSource.query("select * from tb_user", 300, batchData -> {
+            batches.incrementAndGet();
+            rows.addAndGet(batchData.getRowDataList().size());
+        });
+        assertEquals(4, batches.get());
+        assertEquals(1000, rows.get());
+    }
+
+    @Test
+    public void updateInConsumer() {
+        // 默认(非流式读取)不会开启事务，消费者中可以执行更新
+        jdbcDataSource.query("select id from tb_user where age=:age", Collections.singletonMap("age", 1), rowData -> {
+            jdbcDataSource.update("update tb_user set user_name='updated' where id=:id", Collections.singletonMap("id", firstValue(rowData)));
+        });
+        assertEquals(20L, jdbcDataSource.queryCount("select * from tb_user where user_name='updated'"));
+    }
+
+    @Test
+    public void streamingQuery() {
+        QueryOptions queryOptions = new QueryOptions();
+        queryOptions.setStreaming(true);
+        queryOptions.setFetchSize(100);
+        final JdbcDataSource streamingDataSource = jdbcDataSource.withOptions(queryOptions);
+        final List<Object> ids = new ArrayList<>();
+        streamingDataSource.query("select id from tb_user order by id", rowData -> ids.add(firstValue(rowData)));
+        assertEquals(1000, ids.size());
+        final List<Object> expected = new ArrayList<>();
+        jdbcDataSource.query("select id from tb_user order by id", rowData -> expected.add(firstValue(rowData)));
+        assertEquals(expected, ids);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object firstValue(RowData rowData) {
+        return ((Map<String, Object>) rowData.getRowData()).values().iterator().next();
+    }
+}
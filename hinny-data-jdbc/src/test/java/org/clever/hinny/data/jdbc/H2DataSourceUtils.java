@@ -0,0 +1,43 @@
+package org.clever.hinny.data.jdbc;
+
+import com.zaxxer.hikari.HikariConfig;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 单元测试使用的H2内存数据库
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 09:10 <br/>
+ */
+public class H2DataSourceUtils {
+    private static final AtomicInteger Database_Index = new AtomicInteger(0);
+
+    /**
+     * 创建一个独立的H2内存数据库连接池配置(每次调用使用不同的数据库)
+     */
+    public static HikariConfig newHikariConfig() {
+        HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setDriverClassName("org.h2.Driver");
+        hikariConfig.setJdbcUrl("jdbc:h2:mem:test_" + Database_Index.incrementAndGet() + ";DB_CLOSE_DELAY=-1");
+        hikariConfig.setUsername("sa");
+        hikariConfig.setPassword("");
+        hikariConfig.setMaximumPoolSize(8);
+        hikariConfig.setMinimumIdle(1);
+        return hikariConfig;
+    }
+
+    /**
+     * 创建一个独立的H2内存数据库数据源，并创建测试表 tb_user(id, user_name, age) 写入 rowCount 条数据
+     *
+     * @param rowCount 测试数据量
+     */
+    public static JdbcDataSource newDataSource(int rowCount) {
+        JdbcDataSource jdbcDataSource = new JdbcDataSource(newHikariConfig());
+        jdbcDataSource.update("create table tb_user(id bigint primary key, user_name varchar(64), age int)");
+        for (int i = 1; i <= rowCount; i++) {
+            jdbcDataSource.update("insert into tb_user(id, user_name, age) values (" + i + ", 'user_" + i + "', " + (i % 50) + ")");
+        }
+        return jdbcDataSource;
+    }
+}
@@ -0,0 +1,70 @@
+package org.clever.hinny.data.jdbc;
+
+import org.clever.hinny.data.jdbc.support.InsertResult;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 11:30 <br/>
+ */
+public class InsertTablesTest {
+    private JdbcDataSource jdbcDataSource;
+
+    @Before
+    public void init() {
+        jdbcDataSource = H2DataSourceUtils.newDataSource(0);
+    }
+
+    @After
+    public void close() throws Exception {
+        jdbcDataSource.close();
+    }
+
+    private static Map<String, Object> row(Object... keyValues) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            row.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return row;
+    }
+
+    @Test
+    public void insertTables() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 1; i <= 25; i++) {
+            // 字段顺序不同的数据使用同一条insert语句
+            rows.add(i % 2 == 0 ? row("id", i, "userName", "user_" + i, "age", i) : row("age", i, "userName", "user_" + i, "id", i));
+        }
+        rows.add(row("id", 26, "userName", "no_age"));
+        List<InsertResult> results = jdbcDataSource.insertTables("tb_user", rows, true, 10);
+        assertEquals(26, results.size());
+        for (InsertResult result : results) {
+            assertNotNull(result);
+        }
+        assertEquals(26L, jdbcDataSource.queryCount("select * from tb_user"));
+        assertEquals("user_7", jdbcDataSource.queryString("select user_name from tb_user where id=7"));
+        assertNull(jdbcDataSource.queryString("select age from tb_user where id=26"));
+    }
+
+    @Test
+    public void rollbackAllChunks() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            rows.add(row("id", i, "userName", "user_" + i));
+        }
+        // 最后一个批次主键冲突
+        rows.add(row("id", 1, "userName", "duplicate"));
+        try {
+            jdbcDataSource.insertTables("tb_user", rows, true, 2);
+            fail("主键冲突时应该抛出异常");
+        } catch (RuntimeException ignored) {
+        }
+        assertEquals(0L, jdbcDataSource.queryCount("select * from tb_user"));
+    }
+}
@@ -0,0 +1,100 @@
+package org.clever.hinny.data.jdbc;
+
+import com.zaxxer.hikari.HikariConfig;
+import org.clever.hinny.data.jdbc.support.DataSourceRegistryConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 19:10 <br/>
+ */
+public class JdbcDataSourceRegistryTest {
+    private JdbcDataSourceRegistry registry;
+
+    @Before
+    public void init() {
+        DataSourceRegistryConfig config = new DataSourceRegistryConfig();
+        config.setMaxTotalConnections(8);
+        registry = new JdbcDataSourceRegistry(config);
+        for (String name : new String[]{"a", "b", "c", "d"}) {
+            HikariConfig hikariConfig = H2DataSourceUtils.newHikariConfig();
+            hikariConfig.setMaximumPoolSize(4);
+            registry.register(name, hikariConfig);
+        }
+    }
+
+    @After
+    public void close() {
+        registry.close();
+    }
+
+    @Test
+    public void leaseBlocksEviction() {
+        JdbcDataSourceRegistry.Lease leaseA = registry.lease("a");
+        JdbcDataSourceRegistry.Lease leaseB = registry.lease("b");
+        try {
+            // a、b都被租用，没有可以关闭的连接池
+            registry.get("c");
+            fail("超出最大连接数时应该抛出异常");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage().contains("超出最大连接数限制"));
+        }
+        assertTrue(registry.getStatus().get("a").isOpen());
+        leaseA.close();
+        assertNotNull(registry.get("c"));
+        assertFalse(registry.getStatus().get("a").isOpen());
+        assertTrue(registry.getStatus().get("b").isOpen());
+        leaseB.close();
+        assertEquals(8, registry.getTotalMaxConnections());
+    }
+
+    @Test
+    public void execute() {
+        long count = registry.execute("a", jdbcDataSource -> jdbcDataSource.queryCount("select 1 from dual"));
+        assertEquals(1, count);
+        // 连接池关闭后再次使用会重新创建
+        registry.execute("b", jdbcDataSource -> null);
+        registry.execute("c", jdbcDataSource -> null);
+        assertEquals(1L, (long) registry.execute("a", jdbcDataSource -> jdbcDataSource.queryCount("select 1 from dual")));
+        assertEquals(2, registry.getStatus().get("a").getCreateCount());
+    }
+
+    @Test
+    public void concurrentAccess() throws InterruptedException {
+        final String[] names = new String[]{"a", "b", "c", "d"};
+        final AtomicInteger success = new AtomicInteger(0);
+        final AtomicInteger unexpected = new AtomicInteger(0);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < 50; j++) {
+                    String name = names[ThreadLocalRandom.current().nextInt(names.length)];
+                    try {
+                        registry.execute(name, jdbcDataSource -> jdbcDataSource.queryCount("select 1 from dual"));
+                        success.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        // 租用中的连接池不会被关闭，只可能因为连接数不够失败
+                        if (e.getMessage() == null || !e.getMessage().contains("超出最大连接数限制")) {
+                            unexpected.incrementAndGet();
+                        }
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue("并发获取数据源死锁", executor.awaitTermination(60, TimeUnit.SECONDS));
+        assertEquals(0, unexpected.get());
+        assertTrue(success.get() > 0);
+        assertTrue(registry.getTotalMaxConnections() <= 8);
+    }
+}
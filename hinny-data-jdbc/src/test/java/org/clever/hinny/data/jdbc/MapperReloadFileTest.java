@@ -0,0 +1,110 @@
+package org.clever.hinny.data.jdbc;
+
+import org.apache.commons.io.FileUtils;
+import org.clever.hinny.data.jdbc.mybatis.FileSystemMyBatisMapperSql;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 18:40 <br/>
+ */
+public class MapperReloadFileTest {
+    private File rootPath;
+    private File mapperFile;
+
+    @Before
+    public void before() throws Exception {
+        rootPath = Files.createTempDirectory("mapper-reload-").toFile();
+        mapperFile = new File(rootPath, "UserMapper.xml");
+        writeMapper("tb_user");
+        writeFile(new File(rootPath, "OrderMapper.xml"), "<mapper namespace=\"order\"><select id=\"query\">select * from tb_order</select></mapper>");
+    }
+
+    @After
+    public void after() {
+        FileUtils.deleteQuietly(rootPath);
+    }
+
+    private void writeMapper(String table) throws Exception {
+        writeFile(mapperFile, "<mapper namespace=\"user\"><select id=\"query\">select * from " + table + " where id = #{id}</select></mapper>");
+    }
+
+    private static void writeFile(File file, String content) throws Exception {
+        FileUtils.writeStringToFile(file, "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" + content, StandardCharsets.UTF_8);
+    }
+
+    private static String getSql(FileSystemMyBatisMapperSql mapperSql, String sqlId) {
+        HashMap<String, Object> parameter = new HashMap<>();
+        parameter.put("id", 1);
+        return mapperSql.getBoundSql(sqlId, parameter).getNamedParameterSql();
+    }
+
+    @Test
+    public void unchangedFileSkipped() throws Exception {
+        FileSystemMyBatisMapperSql mapperSql = new FileSystemMyBatisMapperSql(rootPath.getAbsolutePath());
+        final long generation = mapperSql.getGeneration();
+        final Object sqlSource = mapperSql.getSqlSource("user.query");
+        // 重新写入相同的内容(文件修改时间变化，内容不变)
+        writeMapper("tb_user");
+        mapperSql.reloadFile(mapperFile.getAbsolutePath());
+        assertEquals(generation, mapperSql.getGeneration());
+        assertSame(sqlSource, mapperSql.getSqlSource("user.query"));
+    }
+
+    @Test
+    public void changedFileReparsed() throws Exception {
+        FileSystemMyBatisMapperSql mapperSql = new FileSystemMyBatisMapperSql(rootPath.getAbsolutePath());
+        final long generation = mapperSql.getGeneration();
+        final Object orderSqlSource = mapperSql.getSqlSource("order.query");
+        assertTrue(getSql(mapperSql, "user.query").contains("tb_user"));
+        writeMapper("tb_user_history");
+        mapperSql.reloadFile(mapperFile.getAbsolutePath());
+        assertEquals(generation + 1, mapperSql.getGeneration());
+        assertTrue(getSql(mapperSql, "user.query").contains("tb_user_history"));
+        assertSame(orderSqlSource, mapperSql.getSqlSource("order.query"));
+        // 改回原来的内容也要重新解析
+        writeMapper("tb_user");
+        mapperSql.reloadFile(mapperFile.getAbsolutePath());
+        assertEquals(generation + 2, mapperSql.getGeneration());
+        assertFalse(getSql(mapperSql, "user.query").contains("tb_user_history"));
+    }
+
+    @Test
+    public void deletedFileRemoved() throws Exception {
+        FileSystemMyBatisMapperSql mapperSql = new FileSystemMyBatisMapperSql(rootPath.getAbsolutePath());
+        final long generation = mapperSql.getGeneration();
+        assertTrue(mapperSql.getSelectSqlIds().contains("user.query"));
+        assertTrue(mapperFile.delete());
+        mapperSql.reloadFile(mapperFile.getAbsolutePath());
+        assertEquals(generation + 1, mapperSql.getGeneration());
+        assertNull(mapperSql.getSqlSource("user.query"));
+        assertFalse(mapperSql.getSelectSqlIds().contains("user.query"));
+        assertNotNull(mapperSql.getSqlSource("order.query"));
+        // 再次通知删除不会产生新的快照
+        mapperSql.reloadFile(mapperFile.getAbsolutePath());
+        assertEquals(generation + 1, mapperSql.getGeneration());
+        // 重新创建文件
+        writeMapper("tb_user");
+        mapperSql.reloadFile(mapperFile.getAbsolutePath());
+        assertNotNull(mapperSql.getSqlSource("user.query"));
+    }
+
+    @Test
+    public void invalidFileKeepsOldSql() throws Exception {
+        FileSystemMyBatisMapperSql mapperSql = new FileSystemMyBatisMapperSql(rootPath.getAbsolutePath());
+        final long generation = mapperSql.getGeneration();
+        writeFile(mapperFile, "<mapper namespace=\"user\"><select id=\"query\">select * from");
+        mapperSql.reloadFile(mapperFile.getAbsolutePath());
+        assertEquals(generation, mapperSql.getGeneration());
+        assertTrue(getSql(mapperSql, "user.query").contains("tb_user"));
+    }
+}
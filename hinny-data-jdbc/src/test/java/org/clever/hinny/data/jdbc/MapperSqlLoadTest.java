@@ -0,0 +1,137 @@
+package org.clever.hinny.data.jdbc;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.clever.hinny.data.jdbc.mybatis.FileSystemMyBatisMapperSql;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 18:10 <br/>
+ */
+@Slf4j
+public class MapperSqlLoadTest {
+    private static final int File_Count = 40;
+    private static final int Sql_Count = 5;
+
+    private File rootPath;
+
+    @Before
+    public void before() throws Exception {
+        rootPath = Files.createTempDirectory("mapper-load-").toFile();
+        for (int i = 0; i < File_Count; i++) {
+            writeMapper(new File(rootPath, "dir" + (i % 4) + "/Mapper" + i + ".xml"), "mapper" + i, "tb_user");
+        }
+    }
+
+    @After
+    public void after() {
+        FileUtils.deleteQuietly(rootPath);
+    }
+
+    private static void writeMapper(File file, String namespace, String table) throws Exception {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        sb.append("<mapper namespace=\"").append(namespace).append("\">\n");
+        for (int i = 0; i < Sql_Count; i++) {
+            sb.append("    <select id=\"query").append(i).append("\">\n");
+            sb.append("        select * from ").append(table).append(" where age > #{age}\n");
+            sb.append("        <if test=\"name != null\">and user_name = #{name}</if>\n");
+            sb.append("    </select>\n");
+        }
+        sb.append("    <update id=\"update\">update ").append(table).append(" set age = #{age}</update>\n");
+        sb.append("</mapper>\n");
+        FileUtils.writeStringToFile(file, sb.toString(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void loadAllFiles() {
+        FileSystemMyBatisMapperSql mapperSql = new FileSystemMyBatisMapperSql(rootPath.getAbsolutePath());
+        assertEquals(1, mapperSql.getGeneration());
+        assertEquals(File_Count * Sql_Count, mapperSql.getSelectSqlIds().size());
+        for (int i = 0; i < File_Count; i++) {
+            for (int j = 0; j < Sql_Count; j++) {
+                assertNotNull(mapperSql.getSqlSource("mapper" + i + ".query" + j));
+            }
+            assertNotNull(mapperSql.getSqlSource("mapper" + i + ".update"));
+            assertFalse(mapperSql.getSelectSqlIds().contains("mapper" + i + ".update"));
+        }
+        assertNull(mapperSql.getSqlSource("mapper" + File_Count + ".query0"));
+    }
+
+    @Test
+    public void serialAndParallelLoadSame() {
+        FileSystemMyBatisMapperSql mapperSql = new FileSystemMyBatisMapperSql(rootPath.getAbsolutePath());
+        HashMap<String, Object> parameter = new HashMap<>();
+        parameter.put("age", 18);
+        parameter.put("name", "user_1");
+        HashMap<String, String> parallelSql = new HashMap<>();
+        for (String sqlId : mapperSql.getSelectSqlIds()) {
+            parallelSql.put(sqlId, mapperSql.getBoundSql(sqlId, parameter).getNamedParameterSql());
+        }
+        mapperSql.setParallelism(1);
+        mapperSql.reloadAll();
+        assertEquals(2, mapperSql.getGeneration());
+        assertEquals(parallelSql.keySet(), mapperSql.getSelectSqlIds());
+        for (String sqlId : mapperSql.getSelectSqlIds()) {
+            assertEquals(parallelSql.get(sqlId), mapperSql.getBoundSql(sqlId, parameter).getNamedParameterSql());
+        }
+    }
+
+    @Test
+    public void readersNeverSeeMissingSql() throws Exception {
+        final FileSystemMyBatisMapperSql mapperSql = new FileSystemMyBatisMapperSql(rootPath.getAbsolutePath());
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicInteger missing = new AtomicInteger();
+        final AtomicInteger reads = new AtomicInteger();
+        final CountDownLatch finished = new CountDownLatch(4);
+        for (int t = 0; t < 4; t++) {
+            final int index = t;
+            new Thread(() -> {
+                try {
+                    while (running.get()) {
+                        int i = (index + reads.incrementAndGet()) % File_Count;
+                        if (mapperSql.getSqlSource("mapper" + i + ".query" + (i % Sql_Count)) == null) {
+                            missing.incrementAndGet();
+                        }
+                    }
+                } finally {
+                    finished.countDown();
+                }
+            }).start();
+        }
+        for (int i = 0; i < 20; i++) {
+            mapperSql.reloadAll();
+        }
+        running.set(false);
+        finished.await();
+        log.info("reads={} | generation={}", reads.get(), mapperSql.getGeneration());
+        assertEquals(0, missing.get());
+        assertEquals(21, mapperSql.getGeneration());
+    }
+
+    @Test
+    public void reloadAllReplacesSnapshot() throws Exception {
+        FileSystemMyBatisMapperSql mapperSql = new FileSystemMyBatisMapperSql(rootPath.getAbsolutePath());
+        FileUtils.deleteQuietly(new File(rootPath, "dir0/Mapper0.xml"));
+        writeMapper(new File(rootPath, "dir0/Mapper" + File_Count + ".xml"), "mapper" + File_Count, "tb_user");
+        assertNotNull(mapperSql.getSqlSource("mapper0.query0"));
+        mapperSql.reloadAll();
+        assertNull(mapperSql.getSqlSource("mapper0.query0"));
+        assertNull(mapperSql.getSqlSource("mapper0.update"));
+        assertNotNull(mapperSql.getSqlSource("mapper" + File_Count + ".query0"));
+        assertEquals(File_Count * Sql_Count, mapperSql.getSelectSqlIds().size());
+    }
+}
@@ -0,0 +1,97 @@
+package org.clever.hinny.data.jdbc;
+
+import org.apache.commons.io.FileUtils;
+import org.clever.hinny.data.jdbc.mybatis.FileSystemMyBatisMapperSql;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 21:20 <br/>
+ */
+public class MapperSqlRegistryTest {
+    private File rootPath;
+    private File mapperFile;
+
+    @Before
+    public void before() throws Exception {
+        rootPath = Files.createTempDirectory("mapper-registry-").toFile();
+        mapperFile = new File(rootPath, "UserMapper.xml");
+        writeMapper(0);
+    }
+
+    @After
+    public void after() {
+        FileUtils.deleteQuietly(rootPath);
+    }
+
+    private void writeMapper(int version) throws Exception {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<mapper namespace=\"user\">\n");
+        for (int i = 0; i < 20; i++) {
+            sb.append("    <select id=\"query").append(i).append("\">select ").append(version).append(" from tb_user</select>\n");
+        }
+        sb.append("    <select id=\"version").append(version).append("\">select ").append(version).append("</select>\n");
+        sb.append("</mapper>\n");
+        FileUtils.writeStringToFile(mapperFile, sb.toString(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void readersNeverSeeMissingSqlDuringReloadFile() throws Exception {
+        final FileSystemMyBatisMapperSql mapperSql = new FileSystemMyBatisMapperSql(rootPath.getAbsolutePath());
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicInteger missing = new AtomicInteger();
+        final AtomicInteger reads = new AtomicInteger();
+        final CountDownLatch finished = new CountDownLatch(4);
+        for (int t = 0; t < 4; t++) {
+            new Thread(() -> {
+                try {
+                    while (running.get()) {
+                        final int i = reads.incrementAndGet() % 20;
+                        if (mapperSql.getSqlSource("user.query" + i) == null) {
+                            missing.incrementAndGet();
+                        }
+                        final Set<String> sqlIds = mapperSql.getSelectSqlIds();
+                        if (sqlIds.size() != 21) {
+                            missing.incrementAndGet();
+                        }
+                    }
+                } finally {
+                    finished.countDown();
+                }
+            }).start();
+        }
+        final long generation = mapperSql.getGeneration();
+        for (int version = 1; version <= 50; version++) {
+            writeMapper(version);
+            mapperSql.reloadFile(mapperFile.getAbsolutePath());
+        }
+        running.set(false);
+        finished.await();
+        assertEquals(0, missing.get());
+        assertEquals(generation + 50, mapperSql.getGeneration());
+        assertNotNull(mapperSql.getSqlSource("user.version50"));
+        assertNull(mapperSql.getSqlSource("user.version49"));
+    }
+
+    @Test
+    public void selectSqlIdsIsCopy() {
+        FileSystemMyBatisMapperSql mapperSql = new FileSystemMyBatisMapperSql(rootPath.getAbsolutePath());
+        Set<String> sqlIds = mapperSql.getSelectSqlIds();
+        sqlIds.clear();
+        assertEquals(21, mapperSql.getSelectSqlIds().size());
+        assertTrue(mapperSql.isStaticSql("user.query0"));
+        assertFalse(mapperSql.isStaticSql("user.not_exists"));
+    }
+}
@@ -0,0 +1,115 @@
+package org.clever.hinny.data.jdbc;
+
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.zaxxer.hikari.HikariConfig;
+import org.clever.common.model.request.QueryByPage;
+import org.clever.hinny.data.jdbc.support.SqlUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 14:30 <br/>
+ */
+public class ParallelQueryByPageTest {
+    private static final String Sql = "select id as \"id\", user_name as \"user_name\" from tb_user where age >= :age";
+
+    private JdbcDataSource jdbcDataSource;
+
+    @Before
+    public void init() {
+        jdbcDataSource = H2DataSourceUtils.newDataSource(500);
+    }
+
+    @After
+    public void close() throws Exception {
+        jdbcDataSource.close();
+    }
+
+    private static QueryByPage newPagination(int pageNo) {
+        QueryByPage pagination = new QueryByPage();
+        pagination.setPageNo(pageNo);
+        pagination.setPageSize(10);
+        pagination.addOrderFieldMapping("id", "id");
+        pagination.addOrderField("id", SqlUtils.ASC);
+        return pagination;
+    }
+
+    @Test
+    public void sameAsSerial() {
+        IPage<Map<String, Object>> serial = jdbcDataSource.queryByPage(Sql, newPagination(3), Collections.singletonMap("age", 10), true, true, false);
+        IPage<Map<String, Object>> parallel = jdbcDataSource.queryByPage(Sql, newPagination(3), Collections.singletonMap("age", 10), true, true, true);
+        assertEquals(400, parallel.getTotal());
+        assertEquals(serial.getTotal(), parallel.getTotal());
+        assertEquals(serial.getRecords(), parallel.getRecords());
+        assertEquals(10, parallel.getRecords().size());
+    }
+
+    @Test
+    public void lastPageOverflow() {
+        IPage<Map<String, Object>> page = jdbcDataSource.queryByPage(Sql, newPagination(100), Collections.singletonMap("age", 10), true, true, true);
+        assertEquals(40, page.getCurrent());
+        assertEquals(10, page.getRecords().size());
+    }
+
+    @Test
+    public void concurrent() throws Exception {
+        // 线程池繁忙时count查询排队或者在当前事务中执行，结果不变
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<IPage<Map<String, Object>>>> futures = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                final int pageNo = i % 5 + 1;
+                futures.add(executor.submit(() -> jdbcDataSource.queryByPage(Sql, newPagination(pageNo), Collections.singletonMap("age", 0), true, true, true)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                IPage<Map<String, Object>> page = futures.get(i).get();
+                assertEquals(500, page.getTotal());
+                assertEquals(10, page.getRecords().size());
+                assertEquals((long) ((i % 5) * 10 + 1), ((Number) page.getRecords().get(0).get("id")).longValue());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void poolExhausted() throws Exception {
+        // 所有连接都被分页查询占用时，count查询在等待连接，分页查询在当前事务中执行count查询(不会等待连接池超时)
+        HikariConfig hikariConfig = H2DataSourceUtils.newHikariConfig();
+        hikariConfig.setMaximumPoolSize(2);
+        hikariConfig.setConnectionTimeout(30_000);
+        JdbcDataSource smallPool = new JdbcDataSource(hikariConfig);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            smallPool.update("create table tb_user(id bigint primary key, user_name varchar(64), age int)");
+            for (int i = 1; i <= 100; i++) {
+                smallPool.update("insert into tb_user(id, user_name, age) values (" + i + ", 'user_" + i + "', " + (i % 50) + ")");
+            }
+            final long startTime = System.currentTimeMillis();
+            List<Future<IPage<Map<String, Object>>>> futures = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                futures.add(executor.submit(() -> smallPool.queryByPage(Sql, newPagination(1), Collections.singletonMap("age", 0), true, true, true)));
+            }
+            for (Future<IPage<Map<String, Object>>> future : futures) {
+                assertEquals(100, future.get().getTotal());
+            }
+            assertTrue(System.currentTimeMillis() - startTime < hikariConfig.getConnectionTimeout());
+        } finally {
+            executor.shutdownNow();
+            smallPool.close();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.clever.hinny.data.jdbc;
+
+import org.clever.hinny.data.jdbc.support.BatchData;
+import org.clever.hinny.data.jdbc.support.ParallelScanConfig;
+import org.clever.hinny.data.jdbc.support.PartitionProgress;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+
+/**
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 10:40 <br/>
+ */
+public class ParallelScanTest {
+    private JdbcDataSource jdbcDataSource;
+    private final Set<Long> ids = Collections.synchronizedSet(new HashSet<>());
+    private final List<Long> duplicates = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void init() {
+        jdbcDataSource = H2DataSourceUtils.newDataSource(1000);
+        jdbcDataSource.update("insert into tb_user(id, user_name, age) values (1001, 'null_age', null)");
+    }
+
+    @After
+    public void close() throws Exception {
+        jdbcDataSource.close();
+    }
+
+    @Test
+    public void numberSplit() {
+        ParallelScanConfig config = new ParallelScanConfig();
+        config.setBatchSize(64);
+        assertScanAll(jdbcDataSource.parallelScan("tb_user", "id", 4, config, collect()), 4);
+    }
+
+    @Test
+    public void quantileSplit() {
+        ParallelScanConfig config = new ParallelScanConfig();
+        config.setBatchSize(64);
+        config.setQuantileSplit(true);
+        config.setOrdered(true);
+        // age 分布不均匀，使用分位数分区
+        final List<PartitionProgress> progressList = jdbcDataSource.parallelScan("tb_user", "age", 5, config, collect());
+        assertScanAll(progressList, 5);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Consumer<BatchData> collect() {
+        return batchData -> {
+            for (Object row : batchData.getRowDataList()) {
+                Object id = ((Map<String, Object>) row).values().iterator().next();
+                if (!ids.add(((Number) id).longValue())) {
+                    duplicates.add(((Number) id).longValue());
+                }
+            }
+        };
+    }
+
+    private void assertScanAll(List<PartitionProgress> progressList, int partitions) {
+        assertEquals(1001, ids.size());
+        assertTrue(duplicates.isEmpty());
+        // 分区字段为null的数据作为最后一个分区
+        assertTrue(progressList.size() <= partitions + 1);
+        assertNull(progressList.get(progressList.size() - 1).getLowerValue());
+        assertEquals(1, progressList.get(progressList.size() - 1).getRowCount());
+        long rowCount = 0;
+        for (PartitionProgress progress : progressList) {
+            assertTrue(progress.isFinished());
+            assertTrue(progress.getStartTime() > 0);
+            assertTrue(progress.getEndTime() >= progress.getStartTime());
+            rowCount += progress.getRowCount();
+        }
+        assertEquals(1001, rowCount);
+    }
+}
@@ -0,0 +1,77 @@
+package org.clever.hinny.data.jdbc;
+
+import org.clever.hinny.data.jdbc.support.PipelineConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 17:05 <br/>
+ */
+public class PipelinedQueryTest {
+    private JdbcDataSource jdbcDataSource;
+
+    @Before
+    public void init() {
+        jdbcDataSource = H2DataSourceUtils.newDataSource(1000);
+    }
+
+    @After
+    public void close() throws Exception {
+        jdbcDataSource.close();
+    }
+
+    @Test
+    public void ordered() {
+        PipelineConfig config = new PipelineConfig();
+        config.setBatchSize(128);
+        config.setUnderlineToCamel(false);
+        final List<Object> ids = new ArrayList<>();
+        int rowCount = jdbcDataSource.queryPipelined("select id from tb_user order by id", config, batchData -> {
+            for (Object row : batchData.getRowDataList()) {
+                ids.add(((Map<?, ?>) row).values().iterator().next());
+            }
+        });
+        assertEquals(1000, rowCount);
+        assertEquals(1000, ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals((long) (i + 1), ((Number) ids.get(i)).longValue());
+        }
+    }
+
+    @Test
+    public void multipleWorkers() {
+        PipelineConfig config = new PipelineConfig();
+        config.setBatchSize(100);
+        config.setOrdered(false);
+        config.setWorkers(4);
+        final AtomicInteger rows = new AtomicInteger(0);
+        int rowCount = jdbcDataSource.queryPipelined("select * from tb_user where age < :age", Collections.singletonMap("age", 10), config, batchData -> rows.addAndGet(batchData.getBatchCount()));
+        assertEquals(200, rowCount);
+        assertEquals(200, rows.get());
+    }
+
+    @Test
+    public void consumerError() {
+        PipelineConfig config = new PipelineConfig();
+        config.setBatchSize(10);
+        final IllegalStateException failure = new IllegalStateException("consumer error");
+        try {
+            jdbcDataSource.queryPipelined("select * from tb_user", config, batchData -> {
+                throw failure;
+            });
+            fail("数据处理失败时应该抛出异常");
+        } catch (RuntimeException e) {
+            assertSame(failure, e.getCause());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package org.clever.hinny.data.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.clever.hinny.data.jdbc.support.PipelineConfig;
+import org.clever.hinny.data.jdbc.support.QueryCanceller;
+import org.clever.hinny.data.jdbc.support.QueryOptions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 17:45 <br/>
+ */
+public class QueryOptionsTest {
+    private JdbcDataSource source;
+
+    @Before
+    public void init() {
+        source = H2DataSourceUtils.newDataSource(100);
+    }
+
+    @After
+    public void close() throws Exception {
+        source.close();
+    }
+
+    @Test
+    public void keepJdbcTemplateSettings() {
+        try (HikariDataSource dataSource = new HikariDataSource(H2DataSourceUtils.newHikariConfig())) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.setMaxRows(5);
+            JdbcDataSource jdbcDataSource = new JdbcDataSource(jdbcTemplate);
+            jdbcDataSource.update("create table tb_order(id bigint primary key)");
+            for (int i = 1; i <= 10; i++) {
+                jdbcDataSource.update("insert into tb_order(id) values (" + i + ")");
+            }
+            // withOptions 创建的数据源保留用户JdbcTemplate的配置
+            JdbcDataSource optionsDataSource = jdbcDataSource.withOptions(new QueryOptions(30));
+            assertEquals(5, optionsDataSource.queryList("select * from tb_order").size());
+        }
+    }
+
+    @Test
+    public void cancellerUnregistered() {
+        QueryCanceller canceller = new QueryCanceller();
+        JdbcDataSource optionsDataSource = source.withOptions(new QueryOptions(30, canceller));
+        assertEquals(100, optionsDataSource.queryList("select * from tb_user").size());
+        assertEquals(100, optionsDataSource.queryCount("select * from tb_user"));
+        assertEquals(0, canceller.getRunningCount());
+    }
+
+    @Test
+    public void cancelAndReset() {
+        QueryCanceller canceller = new QueryCanceller();
+        JdbcDataSource optionsDataSource = source.withOptions(new QueryOptions(30, canceller));
+        canceller.cancel();
+        try {
+            optionsDataSource.queryList("select * from tb_user");
+        } catch (RuntimeException ignored) {
+            // 已取消时执行SQL可能失败
+        }
+        canceller.reset();
+        assertEquals(100, optionsDataSource.queryList("select * from tb_user").size());
+        assertEquals(0, canceller.getRunningCount());
+    }
+
+    @Test
+    public void pipelinedUseOptionsCanceller() {
+        QueryCanceller canceller = new QueryCanceller();
+        JdbcDataSource optionsDataSource = source.withOptions(new QueryOptions(30, canceller));
+        PipelineConfig config = new PipelineConfig();
+        config.setBatchSize(5);
+        config.setQueueCapacity(1);
+        final AtomicInteger rows = new AtomicInteger(0);
+        // 在消费者中使用 QueryOptions 的取消句柄取消查询
+        try {
+            optionsDataSource.queryPipelined("select * from tb_user order by id", config, batchData -> {
+                rows.addAndGet(batchData.getBatchCount());
+                canceller.cancel();
+            });
+            fail();
+        } catch (RuntimeException ignored) {
+        }
+        assertTrue(rows.get() < 100);
+        assertEquals(0, canceller.getRunningCount());
+        // 消费者失败时只取消当前查询，不影响 QueryOptions 的取消句柄
+        canceller.reset();
+        try {
+            optionsDataSource.queryPipelined("select * from tb_user order by id", config, batchData -> {
+                throw new IllegalStateException("consumer error");
+            });
+            fail();
+        } catch (RuntimeException ignored) {
+        }
+        assertFalse(canceller.isCancelled());
+        assertEquals(100, optionsDataSource.queryPipelined("select * from tb_user", config, batchData -> {
+        }));
+        assertEquals(0, canceller.getRunningCount());
+    }
+}
@@ -0,0 +1,61 @@
+package org.clever.hinny.data.jdbc;
+
+import org.clever.hinny.data.jdbc.support.RowView;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 09:35 <br/>
+ */
+public class RowViewQueryTest {
+    private JdbcDataSource jdbcDataSource;
+
+    @Before
+    public void init() {
+        jdbcDataSource = H2DataSourceUtils.newDataSource(100);
+    }
+
+    @After
+    public void close() throws Exception {
+        jdbcDataSource.close();
+    }
+
+    @Test
+    public void queryRowView() {
+        final List<RowView> views = new ArrayList<>();
+        final List<Map<String, Object>> rows = new ArrayList<>();
+        jdbcDataSource.queryRowView(
+                "select id as \"id\", user_name as \"user_name\" from tb_user where age=:age order by id",
+                Collections.singletonMap("age", 1),
+                rowView -> {
+                    views.add(rowView);
+                    rows.add(rowView.copy());
+                }
+        );
+        assertEquals(2, rows.size());
+        // 所有行共享同一个RowView
+        assertSame(views.get(0), views.get(1));
+        assertEquals(1L, ((Number) rows.get(0).get("id")).longValue());
+        assertEquals("user_1", rows.get(0).get("userName"));
+        assertEquals(51L, ((Number) rows.get(1).get("id")).longValue());
+        assertEquals("user_51", rows.get(1).get("userName"));
+        assertEquals(2, views.get(1).getRowCount());
+    }
+
+    @Test
+    public void queryRowViewMatchesQueryList() {
+        final String sql = "select id as \"id\", user_name as \"user_name\", age as \"age\" from tb_user order by id";
+        final List<Map<String, Object>> rows = new ArrayList<>();
+        jdbcDataSource.queryRowView(sql, rowView -> rows.add(rowView.copy()));
+        assertEquals(jdbcDataSource.queryList(sql), rows);
+    }
+}
@@ -0,0 +1,88 @@
+package org.clever.hinny.data.jdbc;
+
+import org.clever.common.model.request.QueryBySort;
+import org.clever.hinny.data.jdbc.support.SeekPage;
+import org.clever.hinny.data.jdbc.support.SqlUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 15:20 <br/>
+ */
+public class SeekQueryTest {
+    private static final String Sql = "select id, age from tb_user";
+    private JdbcDataSource jdbcDataSource;
+
+    @Before
+    public void init() {
+        jdbcDataSource = H2DataSourceUtils.newDataSource(200);
+        // 排序字段包含null值
+        jdbcDataSource.update("update tb_user set age=null where mod(id, 7)=0");
+    }
+
+    @After
+    public void close() throws Exception {
+        jdbcDataSource.close();
+    }
+
+    private static QueryBySort newSort(String ageSort, String idSort) {
+        QueryBySort sort = new QueryBySort();
+        sort.addOrderFieldMapping("age", "age");
+        sort.addOrderFieldMapping("id", "id");
+        sort.addOrderField("age", ageSort);
+        sort.addOrderField("id", idSort);
+        return sort;
+    }
+
+    private void assertSeekAll(QueryBySort sort, String expectedOrderBy) {
+        List<Object> expected = new ArrayList<>();
+        jdbcDataSource.query(Sql + " order by " + expectedOrderBy, rowData -> {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> row = (Map<String, Object>) rowData.getRowData();
+            expected.add(row.get("id"));
+        });
+        List<Object> ids = new ArrayList<>();
+        Set<Object> distinct = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            SeekPage<Map<String, Object>> page = jdbcDataSource.queryBySeek(Sql, sort, null, cursor, 9, false);
+            for (Map<String, Object> row : page.getRecords()) {
+                ids.add(row.get("id"));
+                distinct.add(row.get("id"));
+            }
+            cursor = page.getNextCursor();
+            pages++;
+            assertFalse("分页没有结束", pages > 100);
+        } while (cursor != null);
+        assertEquals(200, ids.size());
+        assertEquals(200, distinct.size());
+        assertEquals(expected, ids);
+    }
+
+    @Test
+    public void ascWithNull() {
+        assertSeekAll(newSort(SqlUtils.ASC, SqlUtils.ASC), "age ASC NULLS FIRST, id ASC");
+    }
+
+    @Test
+    public void descWithNull() {
+        assertSeekAll(newSort(SqlUtils.DESC, SqlUtils.DESC), "age DESC NULLS FIRST, id DESC");
+    }
+
+    @Test
+    public void mixedWithNull() {
+        assertSeekAll(newSort(SqlUtils.DESC, SqlUtils.ASC), "age DESC NULLS FIRST, id ASC");
+    }
+}
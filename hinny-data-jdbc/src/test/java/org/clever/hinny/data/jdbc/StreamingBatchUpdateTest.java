@@ -0,0 +1,101 @@
+package org.clever.hinny.data.jdbc;
+
+import org.clever.hinny.data.jdbc.support.BatchUpdateResult;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 11:55 <br/>
+ */
+public class StreamingBatchUpdateTest {
+    private static final String Insert_Sql = "insert into tb_user(id, user_name, age) values (:id, :userName, :age)";
+
+    private JdbcDataSource jdbcDataSource;
+
+    @Before
+    public void init() {
+        jdbcDataSource = H2DataSourceUtils.newDataSource(0);
+    }
+
+    @After
+    public void close() throws Exception {
+        jdbcDataSource.close();
+    }
+
+    private static Map<String, Object> row(int id) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("userName", "user_" + id);
+        row.put("age", id % 50);
+        return row;
+    }
+
+    @Test
+    public void supplier() {
+        final AtomicInteger index = new AtomicInteger(0);
+        BatchUpdateResult result = jdbcDataSource.batchUpdate(Insert_Sql, () -> index.get() >= 1050 ? null : row(index.incrementAndGet()), 100);
+        assertEquals(1050, result.getRowCount());
+        assertEquals(11, result.getBatchCount());
+        assertEquals(0, result.getCommitCount());
+        assertEquals(1050, result.getUpdateCount() + result.getUnknownCount());
+        assertEquals(0, result.getFailedCount());
+        assertEquals(1050L, jdbcDataSource.queryCount("select * from tb_user"));
+    }
+
+    @Test
+    public void commitPerBatch() {
+        // 第250行失败时，前面已提交的批次不会回滚
+        Iterator<Map<String, Object>> iterator = new Iterator<Map<String, Object>>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < 300;
+            }
+
+            @Override
+            public Map<String, Object> next() {
+                index++;
+                if (index == 250) {
+                    throw new IllegalStateException("读取参数失败");
+                }
+                return row(index);
+            }
+        };
+        try {
+            jdbcDataSource.batchUpdate(Insert_Sql, iterator, 100, true);
+            fail("读取参数失败时应该抛出异常");
+        } catch (IllegalStateException ignored) {
+        }
+        assertEquals(200L, jdbcDataSource.queryCount("select * from tb_user"));
+    }
+
+    @Test
+    public void emptyIterator() {
+        BatchUpdateResult result = jdbcDataSource.batchUpdate(Insert_Sql, Collections.<Map<String, Object>>emptyIterator(), 100);
+        assertEquals(0, result.getRowCount());
+        assertEquals(0, result.getBatchCount());
+    }
+
+    @Test
+    public void addBatch() {
+        BatchUpdateResult result = new BatchUpdateResult();
+        result.addBatch(new int[]{1, 2, Statement.SUCCESS_NO_INFO, Statement.EXECUTE_FAILED});
+        result.addBatch(null);
+        assertEquals(2, result.getBatchCount());
+        assertEquals(3, result.getUpdateCount());
+        assertEquals(1, result.getUnknownCount());
+        assertEquals(1, result.getFailedCount());
+    }
+}
@@ -0,0 +1,42 @@
+package org.clever.hinny.data.jdbc.dialects;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 11:40 <br/>
+ */
+public class IDialectTest {
+
+    @Test
+    public void defaultMethods() {
+        // 只实现分页方法的自定义方言不受新增方法影响
+        IDialect dialect = new IDialect() {
+            @Override
+            public String buildPaginationSql(String originalSql, long offset, long limit, Map<String, Object> paramMap) {
+                return originalSql;
+            }
+
+            @Override
+            public String buildPaginationSql(String originalSql, long offset, long limit) {
+                return originalSql;
+            }
+        };
+        assertEquals(2000, dialect.getMaxParameterCount());
+        assertTrue(dialect.supportMultiRowInsert());
+        assertEquals(Integer.MAX_VALUE, dialect.getMaxInsertRows());
+        assertTrue(dialect.supportRowValueComparison());
+    }
+
+    @Test
+    public void overrideMethods() {
+        assertFalse(new OracleDialect().supportMultiRowInsert());
+        assertFalse(new OracleDialect().supportRowValueComparison());
+        assertEquals(65535, new MySqlDialect().getMaxParameterCount());
+        assertEquals(2000, new H2Dialect().getMaxParameterCount());
+    }
+}
@@ -0,0 +1,74 @@
+package org.clever.hinny.data.jdbc.dialects;
+
+import org.clever.hinny.data.jdbc.H2DataSourceUtils;
+import org.clever.hinny.data.jdbc.JdbcDataSource;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 分页SQL的 offset、limit 参数位置
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 11:05 <br/>
+ */
+public class PaginationSqlTest {
+    private static final String Sql = "select * from tb_user";
+
+    @Test
+    public void limitOffset() {
+        IDialect[] dialects = new IDialect[]{new H2Dialect(), new PostgreDialect(), new SQLiteDialect()};
+        for (IDialect dialect : dialects) {
+            assertEquals(Sql + " limit 10 offset 20", dialect.buildPaginationSql(Sql, 20, 10));
+            Map<String, Object> paramMap = new HashMap<>();
+            String sql = dialect.buildPaginationSql(Sql, 20, 10, paramMap);
+            assertEquals(Sql + " limit :" + IDialect.SECOND_MARK + " offset :" + IDialect.FIRST_MARK, sql);
+            assertEquals(20L, paramMap.get(IDialect.FIRST_MARK));
+            assertEquals(10L, paramMap.get(IDialect.SECOND_MARK));
+        }
+    }
+
+    @Test
+    public void mysql() {
+        Map<String, Object> paramMap = new HashMap<>();
+        assertEquals(Sql + " LIMIT 20,10", new MySqlDialect().buildPaginationSql(Sql, 20, 10));
+        assertEquals(Sql + " LIMIT :" + IDialect.FIRST_MARK + ",:" + IDialect.SECOND_MARK, new MySqlDialect().buildPaginationSql(Sql, 20, 10, paramMap));
+        assertEquals(20L, paramMap.get(IDialect.FIRST_MARK));
+        assertEquals(10L, paramMap.get(IDialect.SECOND_MARK));
+    }
+
+    @Test
+    public void oracle() {
+        // ROWNUM <= offset + limit 且 ROW_ID > offset
+        final String expected = "SELECT * FROM ( SELECT TMP.*, ROWNUM ROW_ID FROM ( " + Sql + " ) TMP WHERE ROWNUM <=30) WHERE ROW_ID > 20";
+        assertEquals(expected, new OracleDialect().buildPaginationSql(Sql, 20, 10));
+        Map<String, Object> paramMap = new HashMap<>();
+        new OracleDialect().buildPaginationSql(Sql, 20, 10, paramMap);
+        assertEquals(30L, paramMap.get(IDialect.FIRST_MARK));
+        assertEquals(20L, paramMap.get(IDialect.SECOND_MARK));
+    }
+
+    @Test
+    public void existsParamName() {
+        Map<String, Object> paramMap = new HashMap<>();
+        paramMap.put(IDialect.FIRST_MARK, "a");
+        String sql = new H2Dialect().buildPaginationSql(Sql, 20, 10, paramMap);
+        assertEquals(Sql + " limit :" + IDialect.SECOND_MARK + " offset :" + IDialect.FIRST_MARK + "_1", sql);
+        assertEquals("a", paramMap.get(IDialect.FIRST_MARK));
+    }
+
+    @Test
+    public void executeOnH2() throws Exception {
+        try (JdbcDataSource jdbcDataSource = H2DataSourceUtils.newDataSource(100)) {
+            Map<String, Object> paramMap = new HashMap<>();
+            String sql = new H2Dialect().buildPaginationSql("select id from tb_user order by id", 20, 10, paramMap);
+            List<Map<String, Object>> rows = jdbcDataSource.queryList(sql, paramMap);
+            assertEquals(10, rows.size());
+            assertEquals(21L, ((Number) rows.get(0).values().iterator().next()).longValue());
+        }
+    }
+}
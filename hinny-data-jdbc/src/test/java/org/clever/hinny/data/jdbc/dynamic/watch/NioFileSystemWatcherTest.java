@@ -0,0 +1,160 @@
+package org.clever.hinny.data.jdbc.dynamic.watch;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOCase;
+import org.clever.hinny.data.jdbc.mybatis.FileSystemMyBatisMapperSql;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 19:30 <br/>
+ */
+public class NioFileSystemWatcherTest {
+    private static final long Debounce = 200;
+    private static final long Timeout = 10_000;
+
+    private File rootPath;
+    private final List<File> changedFiles = new CopyOnWriteArrayList<>();
+    private FileWatcher watcher;
+
+    @Before
+    public void before() throws Exception {
+        rootPath = Files.createTempDirectory("file-watch-").toFile().getCanonicalFile();
+        FileUtils.forceMkdir(new File(rootPath, "sub"));
+    }
+
+    @After
+    public void after() {
+        if (watcher != null) {
+            watcher.stop();
+        }
+        FileUtils.deleteQuietly(rootPath);
+    }
+
+    private void startWatch(String[] include, String[] exclude) {
+        watcher = new NioFileSystemWatcher(rootPath.getAbsolutePath(), changedFiles::add, include, exclude, IOCase.SENSITIVE, Debounce);
+        watcher.start();
+    }
+
+    private static void write(File file, String content) throws Exception {
+        FileUtils.writeStringToFile(file, content, StandardCharsets.UTF_8);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + Timeout;
+        while (!condition.getAsBoolean()) {
+            assertTrue("等待文件事件超时", System.currentTimeMillis() < deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    private long count(File file) {
+        return changedFiles.stream().filter(file::equals).count();
+    }
+
+    @Test
+    public void createModifyDelete() throws Exception {
+        startWatch(null, null);
+        final File file = new File(rootPath, "sub/a.xml");
+        write(file, "1");
+        await(() -> count(file) >= 1);
+        changedFiles.clear();
+        write(file, "2");
+        await(() -> count(file) >= 1);
+        changedFiles.clear();
+        assertTrue(file.delete());
+        await(() -> count(file) >= 1);
+    }
+
+    @Test
+    public void burstCoalesced() throws Exception {
+        startWatch(null, null);
+        final File file = new File(rootPath, "a.xml");
+        final File other = new File(rootPath, "sub/b.xml");
+        for (int i = 0; i < 50; i++) {
+            write(file, String.valueOf(i));
+            write(other, String.valueOf(i));
+        }
+        await(() -> count(file) >= 1 && count(other) >= 1);
+        Thread.sleep(Debounce * 3);
+        assertTrue("changed=" + changedFiles, count(file) <= 2);
+        assertTrue("changed=" + changedFiles, count(other) <= 2);
+    }
+
+    @Test
+    public void includeExclude() throws Exception {
+        startWatch(new String[]{"*.xml"}, new String[]{"skip*"});
+        final File ignoredByInclude = new File(rootPath, "sub/a.txt");
+        final File ignoredByExclude = new File(rootPath, "sub/skip.xml");
+        final File accepted = new File(rootPath, "sub/a.xml");
+        write(ignoredByInclude, "1");
+        write(ignoredByExclude, "1");
+        write(accepted, "1");
+        await(() -> count(accepted) >= 1);
+        Thread.sleep(Debounce * 3);
+        assertEquals(0, count(ignoredByInclude));
+        assertEquals(0, count(ignoredByExclude));
+    }
+
+    @Test
+    public void directoriesNotReported() throws Exception {
+        startWatch(null, null);
+        // 新建文件夹中已存在的文件作为新文件处理，新建的子文件夹自动注册监听
+        final File dir = new File(rootPath, "new");
+        final File nested = new File(dir, "a.xml");
+        write(nested, "1");
+        await(() -> count(nested) >= 1);
+        final File later = new File(dir, "b.xml");
+        write(later, "1");
+        await(() -> count(later) >= 1);
+        // 删除文件夹(包括文件夹中的文件)
+        changedFiles.clear();
+        FileUtils.deleteDirectory(dir);
+        final File sub = new File(rootPath, "sub");
+        FileUtils.deleteDirectory(sub);
+        final File marker = new File(rootPath, "marker.xml");
+        write(marker, "1");
+        await(() -> count(marker) >= 1);
+        Thread.sleep(Debounce * 3);
+        assertEquals("changed=" + changedFiles, 0, count(dir));
+        assertEquals("changed=" + changedFiles, 0, count(sub));
+        for (File file : changedFiles) {
+            assertTrue("changed=" + changedFiles, file.getName().endsWith(".xml"));
+        }
+    }
+
+    @Test
+    public void createByWatchMode() {
+        FileWatcher nio = FileWatcher.create(WatchMode.NIO, rootPath.getAbsolutePath(), changedFiles::add, null, null, null, Debounce);
+        FileWatcher polling = FileWatcher.create(WatchMode.POLLING, rootPath.getAbsolutePath(), changedFiles::add, null, null, null, 1000);
+        FileWatcher defaultWatcher = FileWatcher.create(null, rootPath.getAbsolutePath(), changedFiles::add, null, null, null, Debounce);
+        assertTrue(nio instanceof NioFileSystemWatcher);
+        assertTrue(polling instanceof FileSystemWatcher);
+        assertTrue(defaultWatcher instanceof NioFileSystemWatcher);
+    }
+
+    @Test
+    public void mapperSqlReloadOnChange() throws Exception {
+        final File mapperFile = new File(rootPath, "sub/UserMapper.xml");
+        write(mapperFile, "<mapper namespace=\"user\"><select id=\"query\">select * from tb_user</select></mapper>");
+        FileSystemMyBatisMapperSql mapperSql = new FileSystemMyBatisMapperSql(rootPath.getAbsolutePath());
+        watcher = mapperSql.startWatch(WatchMode.NIO, Debounce);
+        assertNotNull(mapperSql.getSqlSource("user.query"));
+        write(mapperFile, "<mapper namespace=\"user\"><select id=\"query2\">select * from tb_user</select></mapper>");
+        await(() -> mapperSql.getSqlSource("user.query2") != null);
+        assertNull(mapperSql.getSqlSource("user.query"));
+        assertTrue(mapperFile.delete());
+        await(() -> mapperSql.getSqlSource("user.query2") == null);
+    }
+}
@@ -0,0 +1,95 @@
+package org.clever.hinny.data.jdbc.support;
+
+import org.junit.Test;
+
+import java.sql.*;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 09:20 <br/>
+ */
+public class ColumnDescriptorTest {
+
+    @Test
+    public void indexOf() {
+        ColumnDescriptor columns = ColumnDescriptor.of(new String[]{"user_id", "user_name"}, new int[]{Types.BIGINT, Types.VARCHAR}, true);
+        assertEquals(2, columns.getColumnCount());
+        assertEquals(Arrays.asList("userId", "userName"), columns.getKeys());
+        assertEquals(0, columns.indexOf("user_id"));
+        assertEquals(0, columns.indexOf("userId"));
+        assertEquals(1, columns.indexOf("USER_NAME"));
+        assertEquals(1, columns.indexOf("username"));
+        assertEquals(-1, columns.indexOf("age"));
+        assertEquals(-1, columns.indexOf(null));
+    }
+
+    @Test
+    public void duplicateColumn() {
+        // 重复的列名称使用最后一列(与 ColumnMapRowMapper 的结果一致)
+        ColumnDescriptor columns = ColumnDescriptor.of(new String[]{"id", "id"}, new int[]{Types.BIGINT, Types.BIGINT}, false);
+        assertEquals(1, columns.indexOf("id"));
+        assertEquals(Arrays.asList("id", "id"), columns.getKeys());
+        RowView rowView = new RowView(columns);
+        rowView.setValue(0, 1L);
+        rowView.setValue(1, 2L);
+        rowView.setRowCount(1);
+        assertEquals(2L, rowView.get("id"));
+        assertEquals(Collections.singletonMap("id", 2L), new HashMap<>(rowView.copy()));
+    }
+
+    @Test
+    public void duplicateColumnReadRow() throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:duplicate_column", "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select 1 as user_id, 2 as user_id")) {
+            assertTrue(rs.next());
+            for (boolean underlineToCamel : new boolean[]{false, true}) {
+                ColumnDescriptor columns = ColumnDescriptor.of(rs.getMetaData(), underlineToCamel);
+                Map<String, Object> row = columns.readRow(rs);
+                assertEquals(1, row.size());
+                assertEquals(2, ((Number) row.get(columns.getKeys().get(1))).intValue());
+            }
+        }
+    }
+
+    @Test
+    public void columnTypes() {
+        int[] types = new int[]{Types.BIGINT, Types.VARCHAR};
+        ColumnDescriptor columns = ColumnDescriptor.of(new String[]{"a", "b"}, types, false);
+        types[0] = Types.DATE;
+        // 创建后不受原始数组修改影响
+        assertArrayEquals(new int[]{Types.BIGINT, Types.VARCHAR}, columns.originalGetColumnTypes());
+        columns.originalGetColumnTypes()[1] = Types.DATE;
+        assertEquals(Integer.valueOf(Types.VARCHAR), columns.getColumnTypes().get(1));
+    }
+
+    @Test
+    public void rowView() {
+        ColumnDescriptor columns = ColumnDescriptor.of(new String[]{"user_id", "user_name"}, new int[]{Types.BIGINT, Types.VARCHAR}, true);
+        RowView rowView = new RowView(columns);
+        rowView.setValue(0, 1L);
+        rowView.setValue(1, "a");
+        rowView.setRowCount(1);
+        Map<String, Object> first = rowView.copy();
+        // 享元对象：读取下一行覆盖当前数据，copy的数据不受影响
+        rowView.setValue(0, 2L);
+        rowView.setValue(1, null);
+        rowView.setRowCount(2);
+        assertEquals(1L, first.get("userId"));
+        assertEquals("a", first.get("userName"));
+        assertEquals(2L, rowView.get("user_id"));
+        assertEquals(2L, rowView.get(0));
+        assertNull(rowView.get("userName"));
+        assertNull(rowView.get("not_exists"));
+        assertTrue(rowView.hasColumn("USERID"));
+        assertFalse(rowView.hasColumn("age"));
+        assertEquals(2, rowView.getRowCount());
+        assertArrayEquals(new Object[]{2L, null}, rowView.toArray());
+    }
+}
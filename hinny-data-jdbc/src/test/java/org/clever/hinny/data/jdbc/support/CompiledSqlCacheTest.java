@@ -0,0 +1,220 @@
+package org.clever.hinny.data.jdbc.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.clever.dynamic.sql.BoundSql;
+import org.clever.hinny.data.jdbc.mybatis.FileSystemMyBatisMapperSql;
+import org.clever.hinny.data.jdbc.mybatis.SqlShape;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 20:40 <br/>
+ */
+@Slf4j
+public class CompiledSqlCacheTest {
+    private static final String Mapper_Xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+            "<mapper namespace=\"user\">\n" +
+            "    <select id=\"static\">select * from tb_user where id = #{id}</select>\n" +
+            "    <select id=\"dynamic\">\n" +
+            "        select * from tb_user\n" +
+            "        <where>\n" +
+            "            <if test=\"name != null and name != ''\">and user_name = #{name}</if>\n" +
+            "            <if test=\"minAge != null\">and age &gt;= #{minAge}</if>\n" +
+            "            <if test=\"ids != null and ids.size() > 0\">\n" +
+            "                and id in <foreach collection=\"ids\" item=\"item\" open=\"(\" separator=\",\" close=\")\">#{item}</foreach>\n" +
+            "            </if>\n" +
+            "        </where>\n" +
+            "        <choose>\n" +
+            "            <when test=\"sort == 'age'\">order by age</when>\n" +
+            "            <when test=\"sort == 'name'\">order by user_name</when>\n" +
+            "            <otherwise>order by id</otherwise>\n" +
+            "        </choose>\n" +
+            "    </select>\n" +
+            "    <select id=\"unsupported\">\n" +
+            "        select * from tb_user\n" +
+            "        <if test=\"name != null and name.trim() != ''\">where user_name = #{name}</if>\n" +
+            "    </select>\n" +
+            "</mapper>\n";
+
+    private File rootPath;
+    private FileSystemMyBatisMapperSql mapperSql;
+
+    @Before
+    public void before() throws Exception {
+        rootPath = Files.createTempDirectory("compiled-sql-").toFile();
+        FileUtils.writeStringToFile(new File(rootPath, "UserMapper.xml"), Mapper_Xml, StandardCharsets.UTF_8);
+        mapperSql = new FileSystemMyBatisMapperSql(rootPath.getAbsolutePath());
+    }
+
+    @After
+    public void after() {
+        FileUtils.deleteQuietly(rootPath);
+    }
+
+    private static Map<String, Object> newParameter(Random random) {
+        Map<String, Object> parameter = new HashMap<>();
+        String[] names = new String[]{null, "", "user_1", "user_2"};
+        String[] sorts = new String[]{null, "age", "name", "other"};
+        parameter.put("name", names[random.nextInt(names.length)]);
+        parameter.put("minAge", random.nextBoolean() ? null : random.nextInt(50));
+        parameter.put("sort", sorts[random.nextInt(sorts.length)]);
+        int size = random.nextInt(5) - 1;
+        if (size >= 0) {
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                ids.add(1000L + i * 1000L + random.nextInt(1000));
+            }
+            parameter.put("ids", ids);
+        }
+        return parameter;
+    }
+
+    private void assertSameAsBoundSql(CompiledSqlCache cache, String sqlId, Map<String, Object> parameter) {
+        BoundSql boundSql = mapperSql.getBoundSql(sqlId, new HashMap<>(parameter));
+        TupleTow<String, Map<String, Object>> sqlInfo = cache.getSql(sqlId, new HashMap<>(parameter));
+        assertEquals(String.valueOf(parameter), boundSql.getNamedParameterSql(), sqlInfo.getValue1());
+        assertEquals(String.valueOf(parameter), boundSql.getParameterMap(), sqlInfo.getValue2());
+    }
+
+    @Test
+    public void dynamicSqlSameAsBoundSql() {
+        CompiledSqlCache cache = new CompiledSqlCache(mapperSql);
+        Random random = new Random(20201019);
+        for (int i = 0; i < 2000; i++) {
+            assertSameAsBoundSql(cache, "user.dynamic", newParameter(random));
+        }
+        CacheStatus status = cache.getStatus();
+        log.info("status -> {}", status);
+        assertTrue(status.getHitCount() > 0);
+    }
+
+    @Test
+    public void staticAndUnsupportedSql() {
+        CompiledSqlCache cache = new CompiledSqlCache(mapperSql);
+        for (int i = 0; i < 10; i++) {
+            Map<String, Object> parameter = new HashMap<>();
+            parameter.put("id", i);
+            parameter.put("name", i % 2 == 0 ? null : "a" + i);
+            assertSameAsBoundSql(cache, "user.static", parameter);
+            assertSameAsBoundSql(cache, "user.unsupported", parameter);
+        }
+        // 静态SQL校验3次之后命中，不支持的SQL每次都使用SqlSource
+        assertEquals(7, cache.getStatus().getHitCount());
+        assertEquals(13, cache.getStatus().getMissCount());
+    }
+
+    @Test
+    public void nullForeachElements() {
+        CompiledSqlCache cache = new CompiledSqlCache(mapperSql);
+        for (int i = 0; i < 5; i++) {
+            Map<String, Object> parameter = new HashMap<>();
+            parameter.put("ids", Arrays.asList(1000L + i, null, 3000L + i));
+            assertSameAsBoundSql(cache, "user.dynamic", parameter);
+        }
+        // 相同位置的元素不为null时必须绑定元素的值
+        for (int i = 0; i < 5; i++) {
+            Map<String, Object> parameter = new HashMap<>();
+            parameter.put("ids", Arrays.asList(1000L + i, 2000L + i, 3000L + i));
+            assertSameAsBoundSql(cache, "user.dynamic", parameter);
+            parameter.put("ids", Arrays.asList(null, 2000L + i, null));
+            assertSameAsBoundSql(cache, "user.dynamic", parameter);
+        }
+        // 多个null元素无法确定参数值的来源，使用SqlSource生成SQL
+        for (int i = 0; i < 5; i++) {
+            Map<String, Object> parameter = new HashMap<>();
+            parameter.put("ids", Arrays.asList(null, null, 3000L + i, 4000L + i));
+            assertSameAsBoundSql(cache, "user.dynamic", parameter);
+            parameter.put("ids", Arrays.asList(1000L + i, 2000L + i, 3000L + i, 4000L + i));
+            assertSameAsBoundSql(cache, "user.dynamic", parameter);
+        }
+    }
+
+    @Test
+    public void shapeKey() {
+        assertNull(mapperSql.getSqlShape("user.unsupported"));
+        assertTrue(mapperSql.getSqlShape("user.static").isStatic());
+        SqlShape shape = mapperSql.getSqlShape("user.dynamic");
+        assertNotNull(shape);
+        assertEquals(Collections.singletonList("ids"), shape.getForeachCollections());
+        Map<String, Object> parameter = new HashMap<>();
+        parameter.put("name", "user_1");
+        String key = shape.getShapeKey(parameter);
+        parameter.put("name", "user_2");
+        assertEquals(key, shape.getShapeKey(parameter));
+        parameter.put("name", "");
+        assertNotEquals(key, shape.getShapeKey(parameter));
+        parameter.put("ids", Arrays.asList(1L, 2L));
+        String twoIds = shape.getShapeKey(parameter);
+        parameter.put("ids", Arrays.asList(3L, 4L));
+        assertEquals(twoIds, shape.getShapeKey(parameter));
+        parameter.put("ids", Arrays.asList(1L, 2L, 3L));
+        assertNotEquals(twoIds, shape.getShapeKey(parameter));
+        parameter.put("sort", "age");
+        String sortByAge = shape.getShapeKey(parameter);
+        parameter.put("sort", "name");
+        assertNotEquals(sortByAge, shape.getShapeKey(parameter));
+        // 无法计算的表达式(类型不同的比较)
+        parameter.put("sort", 1);
+        assertNull(shape.getShapeKey(parameter));
+    }
+
+    @Test
+    public void reloadInvalidates() throws Exception {
+        CompiledSqlCache cache = new CompiledSqlCache(mapperSql);
+        Map<String, Object> parameter = new HashMap<>();
+        parameter.put("id", 1);
+        for (int i = 0; i < 5; i++) {
+            assertSameAsBoundSql(cache, "user.static", parameter);
+        }
+        FileUtils.writeStringToFile(
+                new File(rootPath, "UserMapper.xml"),
+                Mapper_Xml.replace("select * from tb_user where id = #{id}", "select id from tb_user where id = #{id}"),
+                StandardCharsets.UTF_8
+        );
+        mapperSql.reloadFile(new File(rootPath, "UserMapper.xml").getAbsolutePath());
+        assertTrue(cache.getSql("user.static", parameter).getValue1().startsWith("select id from"));
+    }
+
+    /**
+     * 对比 getBoundSql 与编译缓存的耗时(只输出日志，不校验耗时)
+     */
+    @Test
+    public void benchmark() {
+        final int count = 200_000;
+        final CompiledSqlCache cache = new CompiledSqlCache(mapperSql);
+        final Map<String, Object> parameter = new HashMap<>();
+        parameter.put("name", "user_1");
+        parameter.put("minAge", 18);
+        parameter.put("sort", "age");
+        long checksum = 0;
+        for (int round = 0; round < 3; round++) {
+            long startTime = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                checksum += mapperSql.getBoundSql("user.dynamic", parameter).getNamedParameterSql().length();
+            }
+            long boundSqlTime = System.nanoTime() - startTime;
+            startTime = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                checksum += cache.getSql("user.dynamic", parameter).getValue1().length();
+            }
+            long cacheTime = System.nanoTime() - startTime;
+            log.info(
+                    "round={} | getBoundSql: {}ns/op | CompiledSqlCache: {}ns/op | checksum={}",
+                    round, boundSqlTime / count, cacheTime / count, checksum
+            );
+        }
+        CacheStatus status = cache.getStatus();
+        log.info("status -> {}", status);
+        assertTrue(status.getHitRate() > 0.99);
+    }
+}
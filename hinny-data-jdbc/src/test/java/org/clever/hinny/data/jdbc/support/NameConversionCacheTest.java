@@ -0,0 +1,69 @@
+package org.clever.hinny.data.jdbc.support;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 16:50 <br/>
+ */
+public class NameConversionCacheTest {
+
+    @Test
+    public void underlineToCamel() {
+        assertEquals("userName", NameConversionCache.underlineToCamel("user_name"));
+        assertEquals("createAt", NameConversionCache.underlineToCamel("create_at"));
+        assertNull(NameConversionCache.underlineToCamel(null));
+    }
+
+    @Test
+    public void camelToUnderline() {
+        assertEquals("user_name", NameConversionCache.camelToUnderline("userName"));
+        assertNull(NameConversionCache.camelToUnderline(null));
+    }
+
+    @Test
+    public void sameInstance() {
+        // 相同名称的转换结果返回同一个String实例
+        String first = NameConversionCache.underlineToCamel(new String("tb_same_instance"));
+        String second = NameConversionCache.underlineToCamel(new String("tb_same_instance"));
+        assertSame(first, second);
+    }
+
+    @Test
+    public void hitCount() {
+        CacheStatus before = NameConversionCache.getStatus();
+        NameConversionCache.underlineToCamel("tb_hit_count");
+        NameConversionCache.underlineToCamel("tb_hit_count");
+        NameConversionCache.underlineToCamel("tb_hit_count");
+        CacheStatus after = NameConversionCache.getStatus();
+        assertTrue(after.getHitCount() - before.getHitCount() >= 2);
+        assertTrue(after.getSize() > 0);
+    }
+
+    @Test
+    public void clearAndEvict() {
+        NameConversionCache.clear();
+        NameConversionCache.underlineToCamel("tb_clear");
+        NameConversionCache.underlineToCamel("tb_clear");
+        NameConversionCache.clear();
+        // 清空缓存时重置统计信息
+        CacheStatus status = NameConversionCache.getStatus();
+        assertEquals(0, status.getHitCount());
+        assertEquals(0, status.getMissCount());
+        assertEquals(0, status.getEvictionCount());
+        assertEquals(0, status.getSize());
+        // 缓存已满时淘汰旧数据，新的名称依然被缓存
+        for (int i = 0; i < NameConversionCache.Max_Size; i++) {
+            NameConversionCache.underlineToCamel("tb_evict_" + i);
+        }
+        assertEquals(NameConversionCache.Max_Size, NameConversionCache.getStatus().getSize());
+        String first = NameConversionCache.underlineToCamel(new String("tb_after_full"));
+        assertSame(first, NameConversionCache.underlineToCamel(new String("tb_after_full")));
+        status = NameConversionCache.getStatus();
+        assertEquals(NameConversionCache.Max_Size, status.getEvictionCount());
+        assertEquals(1, status.getSize());
+        NameConversionCache.clear();
+    }
+}
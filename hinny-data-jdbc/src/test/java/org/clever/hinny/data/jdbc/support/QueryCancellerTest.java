@@ -0,0 +1,77 @@
+package org.clever.hinny.data.jdbc.support;
+
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 17:30 <br/>
+ */
+public class QueryCancellerTest {
+
+    private static Statement newStatement(AtomicInteger cancelCount) {
+        return (Statement) Proxy.newProxyInstance(
+                QueryCancellerTest.class.getClassLoader(),
+                new Class<?>[]{Statement.class},
+                (proxy, method, args) -> {
+                    if ("cancel".equals(method.getName())) {
+                        cancelCount.incrementAndGet();
+                    }
+                    if ("hashCode".equals(method.getName())) {
+                        return System.identityHashCode(proxy);
+                    }
+                    if ("equals".equals(method.getName())) {
+                        return proxy == args[0];
+                    }
+                    return null;
+                }
+        );
+    }
+
+    @Test
+    public void cancelAllRunning() {
+        QueryCanceller canceller = new QueryCanceller();
+        AtomicInteger cancelCount = new AtomicInteger(0);
+        Statement statement1 = newStatement(cancelCount);
+        Statement statement2 = newStatement(cancelCount);
+        canceller.register(statement1);
+        canceller.register(statement2);
+        assertEquals(2, canceller.getRunningCount());
+        canceller.cancel();
+        assertEquals(2, cancelCount.get());
+        canceller.unregister(statement1);
+        canceller.unregister(statement2);
+        assertEquals(0, canceller.getRunningCount());
+    }
+
+    @Test
+    public void unregisteredNotCancelled() {
+        QueryCanceller canceller = new QueryCanceller();
+        AtomicInteger cancelCount = new AtomicInteger(0);
+        Statement statement = newStatement(cancelCount);
+        canceller.register(statement);
+        canceller.unregister(statement);
+        canceller.cancel();
+        assertEquals(0, cancelCount.get());
+    }
+
+    @Test
+    public void reset() {
+        QueryCanceller canceller = new QueryCanceller();
+        AtomicInteger cancelCount = new AtomicInteger(0);
+        canceller.cancel();
+        assertTrue(canceller.isCancelled());
+        // 取消之后注册的Statement立即取消
+        canceller.register(newStatement(cancelCount));
+        assertEquals(1, cancelCount.get());
+        canceller.reset();
+        assertFalse(canceller.isCancelled());
+        canceller.register(newStatement(cancelCount));
+        assertEquals(1, cancelCount.get());
+    }
+}
@@ -0,0 +1,84 @@
+package org.clever.hinny.data.jdbc.support;
+
+import com.zaxxer.hikari.HikariConfig;
+import org.clever.hinny.data.jdbc.H2DataSourceUtils;
+import org.clever.hinny.data.jdbc.JdbcDataSource;
+import org.junit.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 18:20 <br/>
+ */
+public class ReadWriteRoutingDataSourceTest {
+
+    private static HikariConfig newBrokenReplicaConfig(HikariConfig primaryConfig) {
+        // 密码错误，获取连接总是失败
+        HikariConfig replicaConfig = new HikariConfig();
+        replicaConfig.setDriverClassName(primaryConfig.getDriverClassName());
+        replicaConfig.setJdbcUrl(primaryConfig.getJdbcUrl());
+        replicaConfig.setUsername(primaryConfig.getUsername());
+        replicaConfig.setPassword("wrong_password");
+        replicaConfig.setInitializationFailTimeout(-1);
+        replicaConfig.setConnectionTimeout(250);
+        replicaConfig.setMinimumIdle(0);
+        replicaConfig.setMaximumPoolSize(1);
+        return replicaConfig;
+    }
+
+    private static long replicaRouteCount(ReadWriteRoutingDataSource dataSource) {
+        return dataSource.getNodeStatus().get(1).getRouteCount();
+    }
+
+    private static void read(ReadWriteRoutingDataSource dataSource) {
+        ReadWriteRoutingDataSource.executeRead(() -> {
+            try (Connection ignored = dataSource.getConnection()) {
+                return null;
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    @Test
+    public void retryAfterFailure() throws Exception {
+        HikariConfig primaryConfig = H2DataSourceUtils.newHikariConfig();
+        RoutingConfig routingConfig = new RoutingConfig();
+        routingConfig.setHealthCheckInterval(0);
+        routingConfig.setRetryAfter(1);
+        try (ReadWriteRoutingDataSource dataSource = new ReadWriteRoutingDataSource(primaryConfig, Collections.singletonList(newBrokenReplicaConfig(primaryConfig)), routingConfig)) {
+            read(dataSource);
+            assertEquals(1, replicaRouteCount(dataSource));
+            assertEquals(1, dataSource.getFallbackCount());
+            assertFalse(dataSource.getNodeStatus().get(1).isHealthy());
+            // 等待时间内不再尝试从库
+            read(dataSource);
+            assertEquals(1, replicaRouteCount(dataSource));
+            assertEquals(2, dataSource.getFallbackCount());
+            // 等待时间过后重新尝试从库
+            Thread.sleep(1100);
+            read(dataSource);
+            assertEquals(2, replicaRouteCount(dataSource));
+        }
+    }
+
+    @Test
+    public void readOnlyTransaction() throws Exception {
+        try (JdbcDataSource jdbcDataSource = H2DataSourceUtils.newDataSource(1)) {
+            assertTrue(jdbcDataSource.beginReadOnlyTX(status -> TransactionSynchronizationManager.isCurrentTransactionReadOnly()));
+            assertTrue(jdbcDataSource.beginReadOnlyTX(status -> TransactionSynchronizationManager.isCurrentTransactionReadOnly(), TransactionDefinition.PROPAGATION_REQUIRED));
+            assertTrue(jdbcDataSource.beginReadOnlyTX(status -> TransactionSynchronizationManager.isCurrentTransactionReadOnly(), TransactionDefinition.PROPAGATION_REQUIRED, 10));
+            assertTrue(jdbcDataSource.beginReadOnlyTX(
+                    status -> TransactionSynchronizationManager.isCurrentTransactionReadOnly(),
+                    TransactionDefinition.PROPAGATION_REQUIRED, 10, TransactionDefinition.ISOLATION_READ_COMMITTED
+            ));
+        }
+    }
+}
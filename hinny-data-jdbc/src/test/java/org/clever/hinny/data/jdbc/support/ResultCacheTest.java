@@ -0,0 +1,186 @@
+package org.clever.hinny.data.jdbc.support;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 20:10 <br/>
+ */
+public class ResultCacheTest {
+    private static final String Sql_User = "select * from tb_user where id = :id";
+    private static final String Sql_Order = "select * from tb_order";
+
+    /**
+     * 模拟多个进程共享的二级缓存
+     */
+    private static class MemoryStore implements ResultCacheStore {
+        private final Map<String, Object> values = new ConcurrentHashMap<>();
+        private final Map<String, Long> versions = new ConcurrentHashMap<>();
+
+        @Override
+        public Object get(String key) {
+            return values.get(key);
+        }
+
+        @Override
+        public void put(String key, Object value, int ttlSeconds) {
+            values.put(key, value);
+        }
+
+        @Override
+        public void delete(Collection<String> keys) {
+            keys.forEach(values::remove);
+        }
+
+        @Override
+        public List<Long> getVersions(List<String> keys) {
+            List<Long> list = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                list.add(versions.getOrDefault(key, 0L));
+            }
+            return list;
+        }
+
+        @Override
+        public void incrementVersions(Collection<String> keys) {
+            for (String key : keys) {
+                versions.merge(key, 1L, Long::sum);
+            }
+        }
+    }
+
+    private static Supplier<List<Map<String, Object>>> loader(AtomicInteger loadCount, Object value) {
+        return () -> {
+            loadCount.incrementAndGet();
+            return Collections.singletonList(Collections.singletonMap("value", value));
+        };
+    }
+
+    @Test
+    public void localInvalidate() {
+        ResultCache resultCache = new ResultCache();
+        AtomicInteger loadCount = new AtomicInteger(0);
+        Map<String, Object> paramMap = Collections.singletonMap("id", 1);
+        resultCache.get(Sql_User, paramMap, false, loader(loadCount, 1));
+        resultCache.get(Sql_User, paramMap, false, loader(loadCount, 1));
+        assertEquals(1, loadCount.get());
+        resultCache.invalidateSql("update tb_order set name='a'");
+        resultCache.get(Sql_User, paramMap, false, loader(loadCount, 1));
+        assertEquals(1, loadCount.get());
+        resultCache.invalidateSql("update tb_user set name='a' where id=1");
+        resultCache.get(Sql_User, paramMap, false, loader(loadCount, 1));
+        assertEquals(2, loadCount.get());
+    }
+
+    @Test
+    public void invalidateOtherProcess() {
+        MemoryStore store = new MemoryStore();
+        ResultCache process1 = new ResultCache(new ResultCacheConfig(), store);
+        ResultCache process2 = new ResultCache(new ResultCacheConfig(), store);
+        AtomicInteger loadCount = new AtomicInteger(0);
+        Map<String, Object> paramMap = Collections.singletonMap("id", 1);
+        assertEquals(1, process1.get(Sql_User, paramMap, false, loader(loadCount, 1)).get(0).get("value"));
+        // 二级缓存命中
+        assertEquals(1, process2.get(Sql_User, paramMap, false, loader(loadCount, 2)).get(0).get("value"));
+        assertEquals(1, loadCount.get());
+        // 进程2更新数据，进程1的一级缓存和二级缓存都失效
+        process2.invalidateSql("update tb_user set name='a' where id=1");
+        assertEquals(2, process1.get(Sql_User, paramMap, false, loader(loadCount, 2)).get(0).get("value"));
+        assertEquals(2, loadCount.get());
+        assertEquals(2, process2.get(Sql_User, paramMap, false, loader(loadCount, 3)).get(0).get("value"));
+        assertEquals(2, loadCount.get());
+    }
+
+    @Test
+    public void invalidateAfterLocalEviction() {
+        MemoryStore store = new MemoryStore();
+        ResultCacheConfig config = new ResultCacheConfig();
+        config.setMaxSize(1);
+        ResultCache resultCache = new ResultCache(config, store);
+        AtomicInteger loadCount = new AtomicInteger(0);
+        Map<String, Object> paramMap = Collections.singletonMap("id", 1);
+        resultCache.get(Sql_User, paramMap, false, loader(loadCount, 1));
+        // 一级缓存淘汰 Sql_User 的结果(表索引中也被删除)，二级缓存依然存在
+        resultCache.get(Sql_Order, null, false, loader(loadCount, "order"));
+        assertEquals(2, loadCount.get());
+        resultCache.invalidateSql("delete from tb_user where id=1");
+        assertEquals(2, resultCache.get(Sql_User, paramMap, false, loader(loadCount, 2)).get(0).get("value"));
+        assertEquals(3, loadCount.get());
+    }
+
+    @Test
+    public void clearAll() {
+        MemoryStore store = new MemoryStore();
+        ResultCache process1 = new ResultCache(new ResultCacheConfig(), store);
+        ResultCache process2 = new ResultCache(new ResultCacheConfig(), store);
+        AtomicInteger loadCount = new AtomicInteger(0);
+        process1.get(Sql_Order, null, false, loader(loadCount, 1));
+        process2.clear();
+        process1.get(Sql_Order, null, false, loader(loadCount, 1));
+        assertEquals(2, loadCount.get());
+    }
+
+    @Test
+    public void typedParameterKey() {
+        ResultCache resultCache = new ResultCache();
+        AtomicInteger loadCount = new AtomicInteger(0);
+        // 只有毫秒不同的时间
+        resultCache.get(Sql_User, Collections.singletonMap("id", new Date(1603100000001L)), false, loader(loadCount, 1));
+        resultCache.get(Sql_User, Collections.singletonMap("id", new Date(1603100000002L)), false, loader(loadCount, 2));
+        assertEquals(2, loadCount.get());
+        resultCache.get(Sql_User, Collections.singletonMap("id", new Date(1603100000002L)), false, loader(loadCount, 2));
+        assertEquals(2, loadCount.get());
+        // 数组按元素值生成key
+        resultCache.get(Sql_User, Collections.singletonMap("id", new long[]{1, 2}), false, loader(loadCount, 3));
+        resultCache.get(Sql_User, Collections.singletonMap("id", new long[]{1, 2}), false, loader(loadCount, 3));
+        assertEquals(3, loadCount.get());
+        resultCache.get(Sql_User, Collections.singletonMap("id", new long[]{1, 3}), false, loader(loadCount, 4));
+        assertEquals(4, loadCount.get());
+        resultCache.get(Sql_User, Collections.singletonMap("id", new Object[]{new Date(1603100000001L)}), false, loader(loadCount, 5));
+        resultCache.get(Sql_User, Collections.singletonMap("id", new Object[]{new Date(1603100000002L)}), false, loader(loadCount, 6));
+        assertEquals(6, loadCount.get());
+    }
+
+    @Test
+    public void tableIndexCleanedOnInvalidate() {
+        final String joinSql = "select * from tb_user u join tb_order o on u.id = o.user_id";
+        ResultCache resultCache = new ResultCache();
+        AtomicInteger loadCount = new AtomicInteger(0);
+        resultCache.get(joinSql, null, false, loader(loadCount, 1));
+        assertEquals(1, resultCache.getIndexedKeyCount("tb_user"));
+        assertEquals(1, resultCache.getIndexedKeyCount("tb_order"));
+        // 更新其中一张表，另一张表的索引也要删除
+        resultCache.invalidateSql("update tb_order set name='a'");
+        assertEquals(0, resultCache.getIndexedKeyCount("tb_user"));
+        assertEquals(0, resultCache.getIndexedKeyCount("tb_order"));
+        resultCache.get(joinSql, null, false, loader(loadCount, 2));
+        assertEquals(2, loadCount.get());
+        assertEquals(1, resultCache.getIndexedKeyCount("tb_user"));
+    }
+
+    @Test
+    public void tableIndexCleanedOnVersionMismatch() {
+        MemoryStore store = new MemoryStore();
+        ResultCache process1 = new ResultCache(new ResultCacheConfig(), store);
+        ResultCache process2 = new ResultCache(new ResultCacheConfig(), store);
+        AtomicInteger loadCount = new AtomicInteger(0);
+        process1.get(Sql_User, Collections.singletonMap("id", 1), false, loader(loadCount, 1));
+        assertEquals(1, process1.getIndexedKeyCount("tb_user"));
+        // 其他进程更新了表数据，版本号不一致时删除本地缓存
+        process2.invalidateSql("update tb_user set name='a'");
+        process1.get(Sql_User, Collections.singletonMap("id", 1), false, () -> {
+            // 查询期间本进程的缓存失效，不写入缓存
+            process1.invalidateSql("update tb_order set name='a'");
+            return loader(loadCount, 2).get();
+        });
+        assertEquals(2, loadCount.get());
+        assertEquals(0, process1.getIndexedKeyCount("tb_user"));
+    }
+}
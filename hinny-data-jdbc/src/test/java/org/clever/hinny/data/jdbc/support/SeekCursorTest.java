@@ -0,0 +1,54 @@
+package org.clever.hinny.data.jdbc.support;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 15:10 <br/>
+ */
+public class SeekCursorTest {
+    private static final String Sort_Key = "age,id|true,true";
+
+    @Test
+    public void roundTrip() {
+        Timestamp timestamp = new Timestamp(1603000000123L);
+        timestamp.setNanos(123456789);
+        List<Object> values = Arrays.asList(
+                "lizw", 1L, 2, 3.5D, new BigDecimal("12.340"), new BigInteger("12345678901234567890"), true,
+                timestamp, new java.sql.Date(1603000000000L), new Date(1603000000000L),
+                LocalDateTime.of(2020, 10, 19, 15, 10, 1), LocalDate.of(2020, 10, 19), LocalTime.of(15, 10, 1),
+                null
+        );
+        String cursor = SeekCursor.encode(Sort_Key, values);
+        assertEquals(values, SeekCursor.decode(Sort_Key, cursor));
+    }
+
+    @Test
+    public void nullValue() {
+        List<Object> values = Arrays.asList(null, 10L);
+        assertEquals(values, SeekCursor.decode(Sort_Key, SeekCursor.encode(Sort_Key, values)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void sortKeyMismatch() {
+        String cursor = SeekCursor.encode(Sort_Key, Arrays.asList(1, 10L));
+        SeekCursor.decode("age,id|false,true", cursor);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsupportedType() {
+        SeekCursor.encode(Sort_Key, Arrays.asList(new Object(), 10L));
+    }
+}
@@ -0,0 +1,48 @@
+package org.clever.hinny.data.jdbc.support;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 21:30 <br/>
+ */
+public class SqlLoggerUtilsTest {
+
+    @Test
+    public void normalizedSql() {
+        String sql = "select *\n  from\ttb_user\r\n where   id = :id";
+        String normalizedSql = SqlLoggerUtils.getNormalizedSql(sql);
+        assertEquals("select * from tb_user where id = :id", normalizedSql);
+        // 相同的SQL使用缓存的结果
+        assertSame(normalizedSql, SqlLoggerUtils.getNormalizedSql(sql));
+        assertNull(SqlLoggerUtils.getNormalizedSql(null));
+    }
+
+    @Test
+    public void parametersStr() {
+        Map<String, Object> paramMap = new LinkedHashMap<>();
+        paramMap.put("id", 1L);
+        paramMap.put("name", "lizw");
+        paramMap.put("age", null);
+        assertEquals("id=1(Long), name=lizw(String), age=null", SqlLoggerUtils.getParametersStr(paramMap, 1024));
+    }
+
+    @Test
+    public void parametersStrBounded() {
+        List<Map<String, Object>> paramMapList = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            paramMapList.add(Collections.singletonMap("id", i));
+        }
+        String str = SqlLoggerUtils.getParametersStr(paramMapList, 64);
+        assertTrue(str.startsWith("size=1000 | id=0"));
+        assertEquals(64 + "...".length(), str.length());
+    }
+}
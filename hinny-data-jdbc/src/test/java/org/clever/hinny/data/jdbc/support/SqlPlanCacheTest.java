@@ -0,0 +1,89 @@
+package org.clever.hinny.data.jdbc.support;
+
+import org.clever.common.model.request.QueryBySort;
+import org.clever.hinny.data.jdbc.dialects.*;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 13:20 <br/>
+ */
+public class SqlPlanCacheTest {
+    private static final String Sql = "select * from tb_user where age > :age order by id";
+
+    @Test
+    public void pageSqlSameAsDialect() {
+        IDialect[] dialects = new IDialect[]{
+                new H2Dialect(), new PostgreDialect(), new SQLiteDialect(), new MySqlDialect(), new MariaDBDialect(),
+                new OracleDialect(), new DB2Dialect(), new SQLServerDialect(), new SQLServer2005Dialect(), new HSQLDialect(), new DmDialect(),
+        };
+        long[][] pages = new long[][]{{0, 10}, {10, 10}, {20, 10}, {0, 1}, {35, 7}, {1000, 50}};
+        for (IDialect dialect : dialects) {
+            SqlPlanCache sqlPlanCache = new SqlPlanCache();
+            for (int round = 0; round < 2; round++) {
+                for (long[] page : pages) {
+                    Map<String, Object> expectedParams = new HashMap<>();
+                    expectedParams.put("age", 18);
+                    String expectedSql = dialect.buildPaginationSql(Sql, page[0], page[1], expectedParams);
+                    Map<String, Object> paramMap = new HashMap<>();
+                    paramMap.put("age", 18);
+                    String sql = sqlPlanCache.getPageSql(dialect, Sql, page[0], page[1], paramMap);
+                    String message = dialect.getClass().getSimpleName() + " " + Arrays.toString(page);
+                    assertEquals(message, expectedSql, sql);
+                    assertEquals(message, expectedParams, paramMap);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void pageSqlTemplate() {
+        SqlPlanCache sqlPlanCache = new SqlPlanCache();
+        for (int i = 0; i < 100; i++) {
+            sqlPlanCache.getPageSql(new H2Dialect(), Sql, i * 10, 10, new HashMap<>());
+        }
+        // 每个排序SQL最多两个模版(offset为0、offset大于0)
+        CacheStatus status = sqlPlanCache.getStatus().get("pageSql");
+        assertEquals(2, status.getSize());
+        assertEquals(98, status.getHitCount());
+    }
+
+    @Test
+    public void pageSqlParamConflict() {
+        SqlPlanCache sqlPlanCache = new SqlPlanCache();
+        Map<String, Object> paramMap = new HashMap<>();
+        paramMap.put(IDialect.FIRST_MARK, "a");
+        String sql = sqlPlanCache.getPageSql(new H2Dialect(), Sql, 20, 10, paramMap);
+        assertEquals(Sql + " limit :" + IDialect.SECOND_MARK + " offset :" + IDialect.FIRST_MARK + "_1", sql);
+        assertEquals("a", paramMap.get(IDialect.FIRST_MARK));
+        assertEquals(20L, paramMap.get(IDialect.FIRST_MARK + "_1"));
+        assertEquals(0, sqlPlanCache.getStatus().get("pageSql").getSize());
+    }
+
+    @Test
+    public void parsedSql() {
+        SqlPlanCache sqlPlanCache = new SqlPlanCache();
+        assertSame(sqlPlanCache.getParsedSql(Sql), sqlPlanCache.getParsedSql(Sql));
+        sqlPlanCache.clear();
+        assertEquals(0, sqlPlanCache.getStatus().get("parsedSql").getSize());
+        assertFalse(sqlPlanCache.getStatus().containsKey("countSql"));
+    }
+
+    @Test
+    public void sortSql() {
+        SqlPlanCache sqlPlanCache = new SqlPlanCache();
+        QueryBySort sort = new QueryBySort();
+        assertSame(Sql, sqlPlanCache.getSortSql(Sql, sort));
+        sort.addOrderFieldMapping("userName", "user_name");
+        sort.addOrderField("userName", QueryBySort.DESC);
+        String sortSql = sqlPlanCache.getSortSql("select * from tb_user", sort);
+        assertEquals(sortSql, sqlPlanCache.getSortSql("select * from tb_user", sort));
+        assertTrue(sortSql.contains("user_name"));
+    }
+}
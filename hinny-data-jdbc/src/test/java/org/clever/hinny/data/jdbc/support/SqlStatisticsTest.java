@@ -0,0 +1,138 @@
+package org.clever.hinny.data.jdbc.support;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.clever.hinny.data.jdbc.H2DataSourceUtils;
+import org.clever.hinny.data.jdbc.JdbcDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 21:05 <br/>
+ */
+public class SqlStatisticsTest {
+
+    @Before
+    public void init() {
+        SqlStatistics.setEnabled(true);
+        SqlStatistics.reset();
+    }
+
+    @After
+    public void close() {
+        SqlStatistics.reset();
+    }
+
+    @Test
+    public void bucketing() {
+        int preIndex = -1;
+        for (long micros = 1; micros < 10_000_000L; micros = micros * 3 / 2 + 1) {
+            int index = SqlStatistics.bucketIndex(micros);
+            long upper = SqlStatistics.bucketUpperMicros(index);
+            assertTrue("区间索引单调递增: " + micros, index >= preIndex);
+            assertTrue("区间上限不小于耗时: " + micros, upper >= micros);
+            assertTrue("相对误差不超过25%: " + micros, upper <= micros * 1.25 + 1);
+            preIndex = index;
+        }
+        assertEquals(0, SqlStatistics.bucketIndex(0));
+    }
+
+    @Test
+    public void nestedFrames() {
+        // 游标读取数据时执行其它SQL
+        try (SqlStatistics.Frame ignored = SqlStatistics.begin("select * from tb_outer", null)) {
+            try (SqlStatistics.Frame ignored1 = SqlStatistics.begin("update tb_inner set a=1", null)) {
+                SqlStatistics.end(1);
+            }
+            try (SqlStatistics.Frame ignored2 = SqlStatistics.begin("update tb_inner set a=1", null)) {
+                SqlStatistics.end(1);
+            }
+            SqlStatistics.end(100);
+        }
+        SqlStat outer = SqlStatistics.getStat(SqlLoggerUtils.getNormalizedSql("select * from tb_outer"));
+        SqlStat inner = SqlStatistics.getStat(SqlLoggerUtils.getNormalizedSql("update tb_inner set a=1"));
+        assertNotNull(outer);
+        assertNotNull(inner);
+        assertEquals(1, outer.getCallCount());
+        assertEquals(0, outer.getErrorCount());
+        assertEquals(100, outer.getRowCount());
+        assertEquals(2, inner.getCallCount());
+        assertEquals(0, inner.getErrorCount());
+        assertEquals(2, inner.getRowCount());
+        assertEquals(0, SqlStatistics.getFrameDepth());
+    }
+
+    @Test
+    public void errorFrame() {
+        try {
+            SqlStatistics.execute("select * from tb_error", null, () -> {
+                throw new IllegalStateException("error");
+            });
+            fail();
+        } catch (IllegalStateException ignored) {
+        }
+        // 没有记录执行完成就关闭
+        SqlStatistics.begin("select * from tb_error", null).close();
+        SqlStat stat = SqlStatistics.getStat(SqlLoggerUtils.getNormalizedSql("select * from tb_error"));
+        assertEquals(2, stat.getCallCount());
+        assertEquals(2, stat.getErrorCount());
+        assertEquals(0, SqlStatistics.getFrameDepth());
+    }
+
+    @Test
+    public void consumerThrows() {
+        final JdbcDataSource jdbcDataSource = H2DataSourceUtils.newDataSource(100);
+        SqlStatistics.reset();
+        final String sql = "select * from tb_user order by id";
+        final String innerSql = "select count(1) from tb_user";
+        try {
+            jdbcDataSource.query(sql, Collections.emptyMap(), 10, batchData -> {
+                jdbcDataSource.queryCount(innerSql);
+                throw new IllegalStateException("consumer error");
+            }, false);
+            fail();
+        } catch (IllegalStateException ignored) {
+        }
+        assertEquals(0, SqlStatistics.getFrameDepth());
+        SqlStat stat = SqlStatistics.getStat(SqlLoggerUtils.getNormalizedSql(sql));
+        assertNotNull(stat);
+        assertEquals(1, stat.getCallCount());
+        assertEquals(1, stat.getErrorCount());
+        SqlStat inner = SqlStatistics.getStat(SqlLoggerUtils.getNormalizedSql(SqlUtils.getCountSql(innerSql)));
+        assertNotNull(inner);
+        assertEquals(0, inner.getErrorCount());
+        // 数据转换失败(Long没有无参构造函数)
+        try {
+            jdbcDataSource.queryList("select * from tb_user", Collections.emptyMap(), Long.class);
+            fail();
+        } catch (RuntimeException ignored) {
+        }
+        assertEquals(0, SqlStatistics.getFrameDepth());
+        // 之后执行的SQL正常统计
+        jdbcDataSource.queryCount(innerSql);
+        assertEquals(0, SqlStatistics.getFrameDepth());
+        assertEquals(0, SqlStatistics.getStat(SqlLoggerUtils.getNormalizedSql(SqlUtils.getCountSql(innerSql))).getErrorCount());
+    }
+
+    @Test
+    public void meterOnlyForSqlId() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new SqlStatisticsMeterBinder().bindTo(registry);
+        SqlStatistics.withSqlId("user.findById", () -> SqlStatistics.execute("select * from tb_user where id=?", null, () -> {
+            SqlStatistics.end(1);
+            return null;
+        }));
+        SqlStatistics.execute("select * from tb_user where name=?", null, () -> {
+            SqlStatistics.end(1);
+            return null;
+        });
+        assertTrue(SqlStatistics.isNamed("user.findById"));
+        assertNotNull(registry.find("jdbc.sql.calls").tag("sql_id", "user.findById").functionCounter());
+        assertEquals(1, registry.find("jdbc.sql.calls").functionCounters().size());
+    }
+}
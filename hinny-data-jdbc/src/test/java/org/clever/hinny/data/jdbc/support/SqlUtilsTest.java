@@ -0,0 +1,72 @@
+package org.clever.hinny.data.jdbc.support;
+
+import org.clever.common.utils.tuples.TupleTow;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 13:50 <br/>
+ */
+public class SqlUtilsTest {
+
+    @Test
+    public void normalizeSql() {
+        assertNull(SqlUtils.normalizeSql(null));
+        assertEquals("select * from tb_user where id = :id", SqlUtils.normalizeSql("  select *   from\ttb_user where  id =  :id  "));
+        // 包含换行的空白合并成一个换行(不改变行注释范围)
+        assertEquals("select * -- comment\nfrom tb_user", SqlUtils.normalizeSql("select *  -- comment \n   from tb_user"));
+        // 引号中的空白不变
+        assertEquals("select 'a  b', \"c  d\", `e  f` from t", SqlUtils.normalizeSql("select   'a  b',  \"c  d\",   `e  f` from t"));
+        assertEquals("select 'it''s  x' from t", SqlUtils.normalizeSql("select  'it''s  x'  from t"));
+    }
+
+    @Test
+    public void normalizeSqlBackslashEscape() {
+        // 反斜杠转义的引号不会结束字符串，引号中的空白不变
+        assertEquals("select 'a\\'  b' from t", SqlUtils.normalizeSql("select  'a\\'  b'   from t"));
+        assertEquals("select \"a\\\"  b\" from t", SqlUtils.normalizeSql("select  \"a\\\"  b\"   from t"));
+        assertEquals("select 'a\\\\' from t where x = ' y  z'", SqlUtils.normalizeSql("select  'a\\\\'  from t  where x  = ' y  z'"));
+        // 反斜杠在字符串末尾
+        assertEquals("select 'a\\", SqlUtils.normalizeSql("select  'a\\"));
+        // 反引号中的反斜杠不是转义字符
+        assertEquals("select `a\\` from t", SqlUtils.normalizeSql("select  `a\\`   from t"));
+    }
+
+    @Test
+    public void countSqlCacheKey() {
+        final String countSql = SqlUtils.getCountSql("select * from tb_count_cache where age > :age");
+        final long hitCount = SqlUtils.getCountSqlCacheStatus().getHitCount();
+        // 空白字符不同的SQL使用同一个缓存
+        assertEquals(countSql, SqlUtils.getCountSql("  select *\tfrom   tb_count_cache where age > :age  "));
+        assertEquals(hitCount + 1, SqlUtils.getCountSqlCacheStatus().getHitCount());
+        assertTrue(countSql.toLowerCase().contains("count"));
+    }
+
+    @Test
+    public void insertSql() {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("userName", "a");
+        fields.put("age", 1);
+        TupleTow<String, Map<String, Object>> tupleTow = SqlUtils.insertSql("tb_user", fields, true);
+        assertEquals("insert into tb_user (user_name, age) values (:userName, :age)", tupleTow.getValue1());
+        assertEquals(fields, tupleTow.getValue2());
+    }
+
+    @Test
+    public void multiRowInsertSql() {
+        assertEquals(
+                "insert into tb_user (user_name, age) values (?, ?), (?, ?), (?, ?)",
+                SqlUtils.insertSql("tb_user", Arrays.asList("userName", "age"), 3, true)
+        );
+        assertEquals(
+                "insert into tb_user (userName) values (?)",
+                SqlUtils.insertSql("tb_user", Arrays.asList("userName"), 1, false)
+        );
+    }
+}
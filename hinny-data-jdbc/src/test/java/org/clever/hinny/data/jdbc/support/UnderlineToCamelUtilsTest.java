@@ -0,0 +1,40 @@
+package org.clever.hinny.data.jdbc.support;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 作者：lizw <br/>
+ * 创建时间：2020/10/19 16:40 <br/>
+ */
+public class UnderlineToCamelUtilsTest {
+
+    @Test
+    public void mappingMiss() {
+        Map<String, String> mapping = new HashMap<>();
+        mapping.put("user_name", "userName");
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("user_name", "lizw");
+        row.put("create_at", 1L);
+        Map<String, Object> result = UnderlineToCamelUtils.underlineToCamel(row, mapping);
+        assertEquals(Arrays.asList("userName", "createAt"), new ArrayList<>(result.keySet()));
+        // 未命中的Key写入映射缓存
+        assertEquals("createAt", mapping.get("create_at"));
+        assertEquals(2, mapping.size());
+    }
+
+    @Test
+    public void mapList() {
+        Map<String, Object> row1 = new LinkedHashMap<>();
+        row1.put("user_name", "a");
+        Map<String, Object> row2 = new LinkedHashMap<>();
+        row2.put("user_name", "b");
+        row2.put("user_age", 1);
+        List<Map<String, Object>> result = UnderlineToCamelUtils.underlineToCamel(Arrays.asList(row1, row2));
+        assertEquals(Collections.singletonMap("userName", "a"), result.get(0));
+        assertEquals(Arrays.asList("userName", "userAge"), new ArrayList<>(result.get(1).keySet()));
+    }
+}